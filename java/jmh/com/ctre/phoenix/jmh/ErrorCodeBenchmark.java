@@ -0,0 +1,76 @@
+package com.ctre.phoenix.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ctre.phoenix.ErrorCode;
+
+/**
+ * ErrorCode.valueOf() runs on every backend return. Codes outside the
+ * Integer cache (-128..127) are benchmarked separately since boxing them
+ * would allocate; gc.alloc.rate.norm should read ~0 B/op for all of these.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorCodeBenchmark {
+
+	private int _ok = 0;
+	private int _cached = -3;
+	private int _uncached = -200;
+	private int _unknown = 12345;
+	private int _farOutside = Integer.MIN_VALUE;
+	private final int[] _all = allValues();
+
+	private static int[] allValues() {
+		ErrorCode[] codes = ErrorCode.values();
+		int[] retval = new int[codes.length];
+		for (int i = 0; i < codes.length; ++i)
+			retval[i] = codes[i].value;
+		return retval;
+	}
+
+	@Benchmark
+	public ErrorCode valueOfOk() {
+		return ErrorCode.valueOf(_ok);
+	}
+
+	@Benchmark
+	public ErrorCode valueOfCached() {
+		return ErrorCode.valueOf(_cached);
+	}
+
+	@Benchmark
+	public ErrorCode valueOfUncached() {
+		return ErrorCode.valueOf(_uncached);
+	}
+
+	@Benchmark
+	public ErrorCode valueOfUnknown() {
+		return ErrorCode.valueOf(_unknown);
+	}
+
+	@Benchmark
+	public ErrorCode valueOfFarOutside() {
+		return ErrorCode.valueOf(_farOutside);
+	}
+
+	@Benchmark
+	public void valueOfAllCodes(Blackhole bh) {
+		for (int value : _all)
+			bh.consume(ErrorCode.valueOf(value));
+	}
+}
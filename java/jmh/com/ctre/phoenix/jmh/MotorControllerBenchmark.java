@@ -0,0 +1,108 @@
+package com.ctre.phoenix.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ctre.phoenix.DeviceBackend;
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motion.MotionProfileStatus;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.Faults;
+import com.ctre.phoenix.motorcontrol.MotorStatusSnapshot;
+import com.ctre.phoenix.motorcontrol.StickyFaults;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+/**
+ * Java side cost of the motor controller calls made every control loop.
+ * perGetterReads and statusSnapshot read the same signals, one call each and
+ * in one call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorControllerBenchmark {
+
+	private TalonSRX _talon;
+	private final MotionProfileStatus _status = new MotionProfileStatus();
+	private final Faults _faults = new Faults();
+	private final StickyFaults _stickyFaults = new StickyFaults();
+	private final MotorStatusSnapshot _snapshot = new MotorStatusSnapshot();
+	private double _demand = 0;
+	private int _bits = 0;
+
+	@Setup
+	public void setup() {
+		DeviceBackend.set(new StubMotControllerBackend(), new StubPigeonImuBackend(), new StubCANifierBackend());
+		_talon = new TalonSRX(1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		DeviceBackend.reset();
+	}
+
+	@Benchmark
+	public void setWithArbitraryFeedForward() {
+		_demand = _demand > 1 ? -1 : _demand + 0.001;
+		_talon.set(ControlMode.PercentOutput, _demand, DemandType.ArbitraryFeedForward, 0.1);
+	}
+
+	@Benchmark
+	public ErrorCode getMotionProfileStatus() {
+		return _talon.getMotionProfileStatus(_status);
+	}
+
+	@Benchmark
+	public ErrorCode getFaults() {
+		return _talon.getFaults(_faults);
+	}
+
+	@Benchmark
+	public void perGetterReads(Blackhole bh) {
+		bh.consume(_talon.getBusVoltage());
+		bh.consume(_talon.getMotorOutputPercent());
+		bh.consume(_talon.getOutputCurrent());
+		bh.consume(_talon.getTemperature());
+		bh.consume(_talon.getSelectedSensorPosition(0));
+		bh.consume(_talon.getSelectedSensorVelocity(0));
+		bh.consume(_talon.getClosedLoopError(0));
+		bh.consume(_talon.getClosedLoopTarget(0));
+		bh.consume(_talon.getIntegralAccumulator(0));
+		bh.consume(_talon.getErrorDerivative(0));
+		bh.consume(_talon.getActiveTrajectoryPosition());
+		bh.consume(_talon.getActiveTrajectoryVelocity());
+		bh.consume(_talon.getActiveTrajectoryHeading());
+		bh.consume(_talon.getFaults(_faults));
+		bh.consume(_talon.getStickyFaults(_stickyFaults));
+		bh.consume(_talon.getLastError());
+	}
+
+	@Benchmark
+	public MotorStatusSnapshot statusSnapshot() {
+		_talon.getStatusSnapshot(_snapshot);
+		return _snapshot;
+	}
+
+	@Benchmark
+	public void faultsUpdate(Blackhole bh) {
+		_bits = (_bits + 1) & 0x7FF;
+		_faults.update(_bits);
+		bh.consume(_faults);
+	}
+}
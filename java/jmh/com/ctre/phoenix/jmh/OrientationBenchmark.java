@@ -0,0 +1,97 @@
+package com.ctre.phoenix.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ctre.phoenix.DeviceBackend;
+import com.ctre.phoenix.sensors.Orientation;
+import com.ctre.phoenix.sensors.PigeonIMU;
+
+/**
+ * Tilt (gravity direction) and heading vector of a Pigeon, derived the usual
+ * way from getYawPitchRoll() and trigonometry, and from get6dQuaternion()
+ * with Orientation. The stub backend leaves the arrays as set up, so these
+ * measure the Java side only. gc.alloc.rate.norm should read ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrientationBenchmark {
+
+	private PigeonIMU _pigeon;
+	private final double[] _ypr = { 37.5, -4.25, 2.5 };
+	private final double[] _q = new double[4];
+	private final double[] _q2 = new double[4];
+	private final double[] _out = new double[4];
+	private final double[] _gravity = new double[3];
+	private final double[] _heading = new double[2];
+
+	@Setup
+	public void setup() {
+		DeviceBackend.set(new StubMotControllerBackend(), new StubPigeonImuBackend(), new StubCANifierBackend());
+		_pigeon = new PigeonIMU(0);
+		Orientation.fromYawPitchRoll(_ypr, _q);
+		Orientation.fromYawPitchRoll(new double[] { -120, 3, 1 }, _q2);
+	}
+
+	@TearDown
+	public void tearDown() {
+		DeviceBackend.reset();
+	}
+
+	@Benchmark
+	public double[] yawPitchRollPlusTrig() {
+		_pigeon.getYawPitchRoll(_ypr);
+		double yaw = Math.toRadians(_ypr[0]);
+		double pitch = Math.toRadians(_ypr[1]);
+		double roll = Math.toRadians(_ypr[2]);
+		double cosPitch = Math.cos(pitch);
+		_gravity[0] = -Math.sin(pitch);
+		_gravity[1] = cosPitch * Math.sin(roll);
+		_gravity[2] = cosPitch * Math.cos(roll);
+		_heading[0] = Math.cos(yaw);
+		_heading[1] = Math.sin(yaw);
+		return _gravity;
+	}
+
+	@Benchmark
+	public double[] quaternionOrientation() {
+		_pigeon.get6dQuaternion(_q);
+		Orientation.gravity(_q, _gravity);
+		Orientation.headingVector(_q, _heading);
+		return _gravity;
+	}
+
+	@Benchmark
+	public double[] quaternionToYawPitchRoll() {
+		_pigeon.get6dQuaternion(_q);
+		Orientation.toYawPitchRoll(_q, _ypr);
+		return _ypr;
+	}
+
+	@Benchmark
+	public double[] multiply() {
+		Orientation.multiply(_q, _q2, _out);
+		return _out;
+	}
+
+	@Benchmark
+	public double[] slerp() {
+		Orientation.slerp(_q, _q2, 0.3, _out);
+		return _out;
+	}
+}
@@ -0,0 +1,67 @@
+package com.ctre.phoenix.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.schedulers.ConcurrentScheduler;
+
+/**
+ * Per-tick overhead of ConcurrentScheduler.process() with eight loops that do
+ * nothing, half of them stopped. This is the scheduler's own cost that every
+ * robot loop pays, without and with the timing it can record for each loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+	private static class EmptyLoop implements ILoopable {
+		public void onStart() {
+		}
+		public void onLoop() {
+		}
+		public boolean isDone() {
+			return false;
+		}
+		public void onStop() {
+		}
+	}
+
+	private ConcurrentScheduler _scheduler;
+	private ConcurrentScheduler _timedScheduler;
+
+	@Setup
+	public void setup() {
+		_scheduler = new ConcurrentScheduler();
+		_timedScheduler = new ConcurrentScheduler();
+		_timedScheduler.setTimingEnabled(true);
+		for (int i = 0; i < 8; ++i) {
+			_scheduler.add(new EmptyLoop(), (i & 1) == 0);
+			_timedScheduler.add(new EmptyLoop(), (i & 1) == 0);
+		}
+	}
+
+	@Benchmark
+	public void processSerial() {
+		_scheduler.process();
+	}
+
+	@Benchmark
+	public void processSerialTimed() {
+		_timedScheduler.process();
+	}
+}
@@ -0,0 +1,61 @@
+package com.ctre.phoenix.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ctre.phoenix.CANifier;
+import com.ctre.phoenix.DeviceBackend;
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.sensors.PigeonIMU;
+
+/**
+ * Java side cost of the Pigeon IMU and CANifier reads made every control
+ * loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensorBenchmark {
+
+	private PigeonIMU _pigeon;
+	private CANifier _canifier;
+	private final double[] _ypr = new double[3];
+	private final CANifier.PinValues _pins = new CANifier.PinValues();
+
+	@Setup
+	public void setup() {
+		DeviceBackend.set(new StubMotControllerBackend(), new StubPigeonImuBackend(), new StubCANifierBackend());
+		_pigeon = new PigeonIMU(0);
+		_canifier = new CANifier(0);
+	}
+
+	@TearDown
+	public void tearDown() {
+		DeviceBackend.reset();
+	}
+
+	@Benchmark
+	public ErrorCode pigeonGetYawPitchRoll() {
+		return _pigeon.getYawPitchRoll(_ypr);
+	}
+
+	@Benchmark
+	public CANifier.PinValues canifierGetGeneralInputs() {
+		_canifier.getGeneralInputs(_pins);
+		return _pins;
+	}
+}
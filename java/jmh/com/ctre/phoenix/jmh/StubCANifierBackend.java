@@ -0,0 +1,131 @@
+package com.ctre.phoenix.jmh;
+
+import com.ctre.phoenix.ICANifierBackend;
+
+/**
+ * CANifier backend that returns immediately.
+ */
+public class StubCANifierBackend implements ICANifierBackend {
+
+	public long Create(int deviceNumber) {
+		return 1;
+	}
+
+	public void SetLEDOutput(long handle, int dutyCycle, int ledChannel) {
+	}
+
+	public void SetGeneralOutputs(long handle, int outputBits, int isOutputBits) {
+	}
+
+	public void SetGeneralOutput(long handle, int outputPin, boolean outputValue, boolean outputEnable) {
+	}
+
+	public void SetPWMOutput(long handle, int pwmChannel, int dutyCycle) {
+	}
+
+	public void EnablePWMOutput(long handle, int pwmChannel, boolean bEnable) {
+	}
+
+	public void GetGeneralInputs(long handle, boolean[] allPins) {
+	}
+
+	public boolean GetGeneralInput(long handle, int inputPin) {
+		return false;
+	}
+
+	public void GetPWMInput(long handle, int pwmChannel, double[] pulseWidthAndPeriod) {
+	}
+
+	public int GetLastError(long handle) {
+		return 0;
+	}
+
+	public double GetBatteryVoltage(long handle) {
+		return 0;
+	}
+
+	public int GetQuadraturePosition(long handle) {
+		return 0;
+	}
+
+	public int SetQuadraturePosition(long handle, int newPosition, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetQuadratureVelocity(long handle) {
+		return 0;
+	}
+
+	public int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return 0;
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal,
+			int timeoutMs) {
+		return 0;
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return 0;
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return 0;
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return false;
+	}
+
+	public int GetFaults(long handle) {
+		return 0;
+	}
+
+	public int GetStickyFaults(long handle) {
+		return 0;
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public double GetBusVoltage(long handle) {
+		return 0;
+	}
+}
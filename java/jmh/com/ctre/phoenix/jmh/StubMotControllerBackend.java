@@ -0,0 +1,517 @@
+package com.ctre.phoenix.jmh;
+
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
+import com.ctre.phoenix.motorcontrol.can.IMotControllerBackend;
+
+/**
+ * Motor controller backend that returns immediately, so benchmarks measure
+ * the Java side of each call only.
+ */
+public class StubMotControllerBackend implements IMotControllerBackend {
+
+	public long Create(int baseArbId) {
+		return 1;
+	}
+
+	public int GetDeviceNumber(long handle) {
+		return 0;
+	}
+
+	public void SetDemand(long handle, int mode, int demand0, int demand1) {
+	}
+
+	public void Set_4(long handle, int mode, double demand0, double demand1, int demand1Type) {
+	}
+
+	public void SetNeutralMode(long handle, int neutralMode) {
+	}
+
+	public void SetSensorPhase(long handle, boolean PhaseSensor) {
+	}
+
+	public void SetInverted(long handle, boolean invert) {
+	}
+
+	public int ConfigFactoryDefault(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigOpenLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClosedLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigPeakOutputForward(long handle, double percentOut, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigPeakOutputReverse(long handle, double percentOut, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigNominalOutputForward(long handle, double percentOut, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigNominalOutputReverse(long handle, double percentOut, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigNeutralDeadband(long handle, double percentDeadband, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigVoltageCompSaturation(long handle, double voltage, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigVoltageMeasurementFilter(long handle, int filterWindowSamples, int timeoutMs) {
+		return 0;
+	}
+
+	public void EnableVoltageCompensation(long handle, boolean enable) {
+	}
+
+	public double GetBusVoltage(long handle) {
+		return 0;
+	}
+
+	public double GetMotorOutputPercent(long handle) {
+		return 0;
+	}
+
+	public double GetOutputCurrent(long handle) {
+		return 0;
+	}
+
+	public double GetTemperature(long handle) {
+		return 0;
+	}
+
+	public int ConfigRemoteFeedbackFilter(long handle, int deviceID, int remoteSensorSource,
+			int remoteOrdinal, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigSelectedFeedbackSensor(long handle, int feedbackDevice, int pidIdx, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigSensorTerm(long handle, int sensorTerm, int feedbackDevice, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetSelectedSensorPosition(long handle, int pidIdx) {
+		return 0;
+	}
+
+	public int GetSelectedSensorVelocity(long handle, int pidIdx) {
+		return 0;
+	}
+
+	public int SetSelectedSensorPosition(long handle, int sensorPos, int pidIdx, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return 0;
+	}
+
+	public int SetStatusFramePeriod(long handle, int frame, int periodMs, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigForwardLimitSwitchSource(long handle, int type, int normalOpenOrClose,
+			int deviceID, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigReverseLimitSwitchSource(long handle, int type, int normalOpenOrClose,
+			int deviceID, int timeoutMs) {
+		return 0;
+	}
+
+	public void OverrideLimitSwitchesEnable(long handle, boolean enable) {
+	}
+
+	public int ConfigForwardSoftLimitThreshold(long handle, int forwardSensorLimit, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigReverseSoftLimitThreshold(long handle, int reverseSensorLimit, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigForwardSoftLimitEnable(long handle, boolean enable, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigReverseSoftLimitEnable(long handle, boolean enable, int timeoutMs) {
+		return 0;
+	}
+
+	public void OverrideSoftLimitsEnable(long handle, boolean enable) {
+	}
+
+	public int Config_kP(long handle, int slotIdx, double value, int timeoutMs) {
+		return 0;
+	}
+
+	public int Config_kI(long handle, int slotIdx, double value, int timeoutMs) {
+		return 0;
+	}
+
+	public int Config_kD(long handle, int slotIdx, double value, int timeoutMs) {
+		return 0;
+	}
+
+	public int Config_kF(long handle, int slotIdx, double value, int timeoutMs) {
+		return 0;
+	}
+
+	public int Config_IntegralZone(long handle, int slotIdx, double izone, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigAllowableClosedloopError(long handle, int slotIdx, int allowableClosedLoopError,
+			int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigMaxIntegralAccumulator(long handle, int slotIdx, double iaccum, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetIntegralAccumulator(long handle, double iaccum, int pidIdx, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetClosedLoopError(long handle, int pidIdx) {
+		return 0;
+	}
+
+	public double GetIntegralAccumulator(long handle, int pidIdx) {
+		return 0;
+	}
+
+	public double GetErrorDerivative(long handle, int pidIdx) {
+		return 0;
+	}
+
+	public void SelectProfileSlot(long handle, int slotIdx, int pidIdx) {
+	}
+
+	public int GetActiveTrajectoryPosition(long handle) {
+		return 0;
+	}
+
+	public int GetActiveTrajectoryVelocity(long handle) {
+		return 0;
+	}
+
+	public double GetActiveTrajectoryHeading(long handle) {
+		return 0;
+	}
+
+	public int ConfigMotionCruiseVelocity(long handle, int sensorUnitsPer100ms, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigMotionAcceleration(long handle, int sensorUnitsPer100msPerSec, int timeoutMs) {
+		return 0;
+	}
+
+	public int ClearMotionProfileTrajectories(long handle) {
+		return 0;
+	}
+
+	public int GetMotionProfileTopLevelBufferCount(long handle) {
+		return 0;
+	}
+
+	public int PushMotionProfileTrajectory(long handle, double position, double velocity,
+			double headingDeg, int profileSlotSelect, boolean isLastPoint, boolean zeroPos) {
+		return 0;
+	}
+
+	public int PushMotionProfileTrajectory2(long handle, double position, double velocity,
+			double headingDeg, int profileSlotSelect0, int profileSlotSelect1, boolean isLastPoint, boolean zeroPos, int durationMs) {
+		return 0;
+	}
+
+	public int PushMotionProfileTrajectories(long handle, double[] position, double[] velocity,
+			double[] headingDeg, int[] profileSlotSelect0, int[] profileSlotSelect1, boolean[] isLastPoint,
+			boolean[] zeroPos, int[] durationMs, int offset, int count) {
+		return count;
+	}
+
+	public boolean IsMotionProfileTopLevelBufferFull(long handle) {
+		return false;
+	}
+
+	public int ProcessMotionProfileBuffer(long handle) {
+		return 0;
+	}
+
+	public int GetMotionProfileStatus(long handle, int[] toFill_9) {
+		return 0;
+	}
+
+	public int GetMotionProfileStatus2(long handle, int[] toFill_11) {
+		return 0;
+	}
+
+	public int ClearMotionProfileHasUnderrun(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public int ChangeMotionControlFramePeriod(long handle, int periodMs) {
+		return 0;
+	}
+
+	public int ConfigMotionProfileTrajectoryPeriod(long handle, int periodMs, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigFeedbackNotContinuous(long handle, boolean feedbackNotContinuous, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(long handle,
+			boolean remoteSensorClosedLoopDisableNeutralOnLOS, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigLimitSwitchDisableNeutralOnLOS(long handle,
+			boolean limitSwitchDisableNeutralOnLOS, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigSoftLimitDisableNeutralOnLOS(long handle, boolean softLimitDisableNeutralOnLOS,
+			int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigPulseWidthPeriod_EdgesPerRot(long handle, int pulseWidthPeriod_EdgesPerRot, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigPulseWidthPeriod_FilterWindowSz(long handle, int pulseWidthPeriod_FilterWindowSz,
+			int timeoutMs) {
+		return 0;
+	}
+
+	public int GetLastError(long handle) {
+		return 0;
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return 0;
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return false;
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return 0;
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal,
+			int timeoutMs) {
+		return 0;
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigPeakCurrentLimit(long handle, int amps, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigPeakCurrentDuration(long handle, int milliseconds, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigContinuousCurrentLimit(long handle, int amps, int timeoutMs) {
+		return 0;
+	}
+
+	public int EnableCurrentLimit(long handle, boolean enable) {
+		return 0;
+	}
+
+	public int GetAnalogIn(long handle) {
+		return 0;
+	}
+
+	public int SetAnalogPosition(long handle, int newPosition, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetAnalogInRaw(long handle) {
+		return 0;
+	}
+
+	public int GetAnalogInVel(long handle) {
+		return 0;
+	}
+
+	public int GetQuadraturePosition(long handle) {
+		return 0;
+	}
+
+	public int SetQuadraturePosition(long handle, int newPosition, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetQuadratureVelocity(long handle) {
+		return 0;
+	}
+
+	public int GetPulseWidthPosition(long handle) {
+		return 0;
+	}
+
+	public int SetPulseWidthPosition(long handle, int newPosition, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetPulseWidthVelocity(long handle) {
+		return 0;
+	}
+
+	public int GetPulseWidthRiseToFallUs(long handle) {
+		return 0;
+	}
+
+	public int GetPulseWidthRiseToRiseUs(long handle) {
+		return 0;
+	}
+
+	public int GetPinStateQuadA(long handle) {
+		return 0;
+	}
+
+	public int GetPinStateQuadB(long handle) {
+		return 0;
+	}
+
+	public int GetPinStateQuadIdx(long handle) {
+		return 0;
+	}
+
+	public int IsFwdLimitSwitchClosed(long handle) {
+		return 0;
+	}
+
+	public int IsRevLimitSwitchClosed(long handle) {
+		return 0;
+	}
+
+	public int GetFaults(long handle) {
+		return 0;
+	}
+
+	public int GetStickyFaults(long handle) {
+		return 0;
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public int SelectDemandType(long handle, int enable) {
+		return 0;
+	}
+
+	public int SetMPEOutput(long handle, int mpeOutput) {
+		return 0;
+	}
+
+	public int EnableHeadingHold(long handle, int enable) {
+		return 0;
+	}
+
+	public int GetClosedLoopTarget(long handle, int pidIdx) {
+		return 0;
+	}
+
+	public int ConfigSelectedFeedbackCoefficient(long handle, double coefficient, int pidIdx, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClosedLoopPeakOutput(long handle, int slotIdx, double percentOut, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigClosedLoopPeriod(long handle, int slotIdx, int loopTimeMs, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetStatusSnapshot(long handle, int pidIdx, double[] block, int offset) {
+		/* one call per signal and one GetLastError per frame, as MotControllerJNI does */
+		block[offset + MotorStatusSignal.MotorOutputPercent.value] = GetMotorOutputPercent(handle);
+		block[offset + MotorStatusSignal.Faults.value] = GetFaults(handle);
+		int retval = GetLastError(handle);
+		block[offset + MotorStatusSignal.SelectedSensorPosition.value] = GetSelectedSensorPosition(handle, pidIdx);
+		block[offset + MotorStatusSignal.SelectedSensorVelocity.value] = GetSelectedSensorVelocity(handle, pidIdx);
+		block[offset + MotorStatusSignal.OutputCurrent.value] = GetOutputCurrent(handle);
+		block[offset + MotorStatusSignal.StickyFaults.value] = GetStickyFaults(handle);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		block[offset + MotorStatusSignal.BusVoltage.value] = GetBusVoltage(handle);
+		block[offset + MotorStatusSignal.Temperature.value] = GetTemperature(handle);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		block[offset + MotorStatusSignal.ClosedLoopError.value] = GetClosedLoopError(handle, pidIdx);
+		block[offset + MotorStatusSignal.IntegralAccumulator.value] = GetIntegralAccumulator(handle, pidIdx);
+		block[offset + MotorStatusSignal.ErrorDerivative.value] = GetErrorDerivative(handle, pidIdx);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		block[offset + MotorStatusSignal.ClosedLoopTarget.value] = GetClosedLoopTarget(handle, pidIdx);
+		block[offset + MotorStatusSignal.ActiveTrajectoryPosition.value] = GetActiveTrajectoryPosition(handle);
+		block[offset + MotorStatusSignal.ActiveTrajectoryVelocity.value] = GetActiveTrajectoryVelocity(handle);
+		block[offset + MotorStatusSignal.ActiveTrajectoryHeading.value] = GetActiveTrajectoryHeading(handle);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		block[offset + MotorStatusSignal.LastError.value] = retval;
+		return retval;
+	}
+
+	public long GetReceiveTimeNs(long handle, long sinceNs) {
+		return 0;
+	}
+}
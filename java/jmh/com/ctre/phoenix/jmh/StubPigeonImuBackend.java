@@ -0,0 +1,190 @@
+package com.ctre.phoenix.jmh;
+
+import com.ctre.phoenix.sensors.IPigeonImuBackend;
+
+/**
+ * Pigeon IMU backend that returns immediately.
+ */
+public class StubPigeonImuBackend implements IPigeonImuBackend {
+
+	public long CreateTalon(int talonID) {
+		return 1;
+	}
+
+	public long Create(int deviceNumber) {
+		return 1;
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return 0;
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return 0;
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal,
+			int timeoutMs) {
+		return 0;
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetYaw(long handle, double angleDeg, int timeoutMs) {
+		return 0;
+	}
+
+	public int AddYaw(long handle, double angleDeg, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetYawToCompass(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetFusedHeading(long handle, double angleDeg, int timeoutMs) {
+		return 0;
+	}
+
+	public int AddFusedHeading(long handle, double angleDeg, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetFusedHeadingToCompass(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetAccumZAngle(long handle, double angleDeg, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetTemperatureCompensationDisable(long handle, int bTempCompDisable, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetCompassDeclination(long handle, double angleDegOffset, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetCompassAngle(long handle, double angleDeg, int timeoutMs) {
+		return 0;
+	}
+
+	public int EnterCalibrationMode(long handle, int calMode, int timeoutMs) {
+		return 0;
+	}
+
+	public int GetGeneralStatus(long handle, double[] params) {
+		return 0;
+	}
+
+	public int Get6dQuaternion(long handle, double[] wxyz) {
+		return 0;
+	}
+
+	public int GetYawPitchRoll(long handle, double[] ypr) {
+		return 0;
+	}
+
+	public int GetAccumGyro(long handle, double[] xyz_deg) {
+		return 0;
+	}
+
+	public double GetAbsoluteCompassHeading(long handle) {
+		return 0;
+	}
+
+	public double GetCompassHeading(long handle) {
+		return 0;
+	}
+
+	public double GetCompassFieldStrength(long handle) {
+		return 0;
+	}
+
+	public double GetTemp(long handle) {
+		return 0;
+	}
+
+	public int GetUpTime(long handle) {
+		return 0;
+	}
+
+	public int GetRawMagnetometer(long handle, short[] rm_xyz) {
+		return 0;
+	}
+
+	public int GetBiasedMagnetometer(long handle, short[] bm_xyz) {
+		return 0;
+	}
+
+	public int GetBiasedAccelerometer(long handle, short[] ba_xyz) {
+		return 0;
+	}
+
+	public int GetRawGyro(long handle, double[] xyz_dps) {
+		return 0;
+	}
+
+	public int GetAccelerometerAngles(long handle, double[] tiltAngles) {
+		return 0;
+	}
+
+	public int GetFusedHeading(long handle, double[] params) {
+		return 0;
+	}
+
+	public int GetState(long handle) {
+		return 0;
+	}
+
+	public int GetResetCount(long handle) {
+		return 0;
+	}
+
+	public int GetResetFlags(long handle) {
+		return 0;
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return 0;
+	}
+
+	public int GetLastError(long handle) {
+		return 0;
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return false;
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return 0;
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return 0;
+	}
+
+	public int GetFaults(long handle) {
+		return 0;
+	}
+
+	public int GetStickyFaults(long handle) {
+		return 0;
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return 0;
+	}
+
+	public long GetReceiveTimeNs(long handle, long sinceNs) {
+		return 0;
+	}
+}
@@ -0,0 +1,115 @@
+package com.ctre.phoenix.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ctre.phoenix.UnitConverter;
+import com.ctre.phoenix.Util;
+import com.ctre.phoenix.motion.TrajectoryBuffer;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+
+/**
+ * Converts a 1024 sample buffer of native velocities to RPM, per call through
+ * Util (branch and divide per sample) and in bulk through UnitConverter
+ * (one multiply per sample, vectorizable). The same for RPM to int native
+ * velocities, and a 1024 point profile to native units and back, held as
+ * TrajectoryPoint objects and as a TrajectoryBuffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitConverterBenchmark {
+
+	private static final int kSamples = 1024;
+
+	/* native units per 100ms per RPM, for a 4096 unit sensor */
+	private double _scalar = 4096 / 600.0;
+	private final UnitConverter _converter = UnitConverter.rotations(4096, 1);
+	private final int[] _native = new int[kSamples];
+	private final double[] _nativeDoubles = new double[kSamples];
+	private final double[] _rpm = new double[kSamples];
+	private final double[] _rpmIn = new double[kSamples];
+	private final int[] _nativeOut = new int[kSamples];
+	private final TrajectoryPoint[] _points = new TrajectoryPoint[kSamples];
+	private final TrajectoryBuffer _buffer = new TrajectoryBuffer(kSamples);
+
+	public UnitConverterBenchmark() {
+		for (int i = 0; i < kSamples; ++i) {
+			_native[i] = i * 7 - 3000;
+			_nativeDoubles[i] = _native[i];
+			_rpmIn[i] = i * 1.25 - 600;
+			_points[i] = new TrajectoryPoint();
+			_points[i].position = i * 0.01;
+			_points[i].velocity = 30;
+			_buffer.add(i * 0.01, 30, 0, 0, 0, i == kSamples - 1, i == 0, 10);
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	@Benchmark
+	public double[] utilPerSample() {
+		for (int i = 0; i < kSamples; ++i)
+			_rpm[i] = Util.scaleNativeUnitsToRpm(_scalar, _native[i]);
+		return _rpm;
+	}
+
+	@Benchmark
+	public double[] converterPerSample() {
+		for (int i = 0; i < kSamples; ++i)
+			_rpm[i] = _converter.fromNativeVelocity(_native[i]);
+		return _rpm;
+	}
+
+	@Benchmark
+	public double[] converterBulkInts() {
+		_converter.fromNativeVelocity(_native, 0, _rpm, 0, kSamples);
+		return _rpm;
+	}
+
+	@Benchmark
+	public double[] converterBulkDoubles() {
+		_converter.fromNativeVelocity(_nativeDoubles, 0, _rpm, 0, kSamples);
+		return _rpm;
+	}
+
+	@SuppressWarnings("deprecation")
+	@Benchmark
+	public int[] utilToNativePerSample() {
+		for (int i = 0; i < kSamples; ++i)
+			_nativeOut[i] = Util.scaleVelocityToNativeUnits(_scalar, _rpmIn[i]);
+		return _nativeOut;
+	}
+
+	@Benchmark
+	public int[] converterBulkToNativeInts() {
+		_converter.toNativeVelocityInt(_rpmIn, 0, _nativeOut, 0, kSamples);
+		return _nativeOut;
+	}
+
+	/* to native and back, so the values stay bounded across invocations */
+	@Benchmark
+	public TrajectoryPoint[] trajectoryPointsRoundTrip() {
+		_converter.toNative(_points, 0, kSamples);
+		_converter.fromNative(_points, 0, kSamples);
+		return _points;
+	}
+
+	@Benchmark
+	public TrajectoryBuffer trajectoryBufferRoundTrip() {
+		_converter.toNative(_buffer, 0, kSamples);
+		_converter.fromNative(_buffer, 0, kSamples);
+		return _buffer;
+	}
+}
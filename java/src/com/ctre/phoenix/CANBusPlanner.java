@@ -0,0 +1,208 @@
+package com.ctre.phoenix;
+
+import java.util.ArrayList;
+
+import com.ctre.phoenix.motorcontrol.GroupMotorControllers;
+import com.ctre.phoenix.motorcontrol.IMotorController;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+
+/**
+ * Estimates the CAN bus load of a set of devices from their status and
+ * control frame periods.
+ *
+ * Use it before deploying to size frame periods: add the devices, set the
+ * periods the robot code will set, and print the report. Added to a
+ * scheduler it runs as a live estimator, recomputing the load from the
+ * periods currently set, tracking the peak and logging a warning each time
+ * the load crosses the threshold.
+ *
+ * Every frame is counted at the worst case size of an extended frame with
+ * eight data bytes, bit stuffing included, so the estimate errs high.
+ *
+ * Typical use:
+ *	CANBusPlanner bus = new CANBusPlanner();
+ *	bus.addRegisteredMotorControllers();
+ *	bus.add(pigeon.getStatusFrameUsage());
+ *	System.out.println(bus);
+ *	scheduler.add(bus);
+ */
+public class CANBusPlanner implements ILoopable {
+	/**
+	 * Bits on the wire of an extended frame with eight data bytes: 67 bits of
+	 * framing, 64 data bits and up to 29 stuff bits.
+	 */
+	public static final int kBitsPerFrame = 160;
+	/**
+	 * Frames per second the roboRIO sends to enable the devices.
+	 */
+	public static final double kHeartbeatFramesPerSec = 50;
+
+	private final ArrayList<StatusFrameUsage> _devices = new ArrayList<StatusFrameUsage>();
+	private final ArrayList<String> _trafficNames = new ArrayList<String>();
+	private final ArrayList<Double> _trafficFramesPerSec = new ArrayList<Double>();
+	private final int _bitRate;
+	private double _thresholdPercent = 70;
+	private int _periodMs = 1000;
+
+	private long _lastNs = 0;
+	private boolean _started = false;
+	private double _utilization = 0;
+	private double _peakUtilization = 0;
+	private boolean _over = false;
+
+	/**
+	 * Planner for the 1Mbps roboRIO bus.
+	 */
+	public CANBusPlanner() {
+		this(1000000);
+	}
+	/**
+	 * @param bitRate
+	 *            Bus bit rate in bits per second.
+	 */
+	public CANBusPlanner(int bitRate) {
+		_bitRate = bitRate;
+		addTraffic("roboRIO heartbeat", kHeartbeatFramesPerSec);
+	}
+
+	public synchronized void add(StatusFrameUsage usage) {
+		_devices.add(usage);
+	}
+	/**
+	 * Adds every motor controller registered with GroupMotorControllers.
+	 */
+	public synchronized void addRegisteredMotorControllers() {
+		for (int i = 0; i < GroupMotorControllers.getCount(); ++i) {
+			IMotorController mc = GroupMotorControllers.get(i);
+			if (mc instanceof BaseMotorController)
+				_devices.add(((BaseMotorController) mc).getStatusFrameUsage());
+		}
+	}
+	/**
+	 * Adds traffic not sent by a device of this API, a PDP or PCM for
+	 * instance.
+	 *
+	 * @param name
+	 *            Name in the report.
+	 * @param framesPerSec
+	 *            Frames per second the traffic adds.
+	 */
+	public synchronized void addTraffic(String name, double framesPerSec) {
+		_trafficNames.add(name);
+		_trafficFramesPerSec.add(framesPerSec);
+	}
+	/**
+	 * @param thresholdPercent
+	 *            Utilization above which the load is flagged. Arbitration
+	 *            delays grow quickly past 70 to 80 percent.
+	 */
+	public synchronized void setThresholdPercent(double thresholdPercent) {
+		_thresholdPercent = thresholdPercent;
+	}
+	/**
+	 * @param periodMs
+	 *            Time between estimates when run as a loopable.
+	 */
+	public synchronized void setPeriodMs(int periodMs) {
+		_periodMs = Math.max(1, periodMs);
+	}
+
+	// ------ estimate ----------//
+	/**
+	 * @return Frames per second the added devices and traffic send at the
+	 *         periods currently set.
+	 */
+	public synchronized double getFramesPerSec() {
+		double total = 0;
+		for (StatusFrameUsage usage : _devices)
+			total += getFramesPerSec(usage);
+		for (Double fps : _trafficFramesPerSec)
+			total += fps;
+		return total;
+	}
+	/**
+	 * @return Frames per second sent to and by one device.
+	 */
+	public static double getFramesPerSec(StatusFrameUsage usage) {
+		double total = 0;
+		for (int i = 0; i < usage.getFrameCount(); ++i) {
+			if (usage.isSent(i))
+				total += 1000.0 / usage.getPeriodMs(i);
+		}
+		for (int i = 0; i < usage.getControlFrameCount(); ++i) {
+			int periodMs = usage.getControlPeriodMs(i);
+			if (periodMs > 0)
+				total += 1000.0 / periodMs;
+		}
+		return total;
+	}
+	public synchronized double getBitsPerSec() {
+		return getFramesPerSec() * kBitsPerFrame;
+	}
+	/**
+	 * @return Estimated bus utilization in percent, may exceed 100.
+	 */
+	public synchronized double getUtilizationPercent() {
+		return getBitsPerSec() * 100.0 / _bitRate;
+	}
+	/**
+	 * @return True if the estimated utilization exceeds the threshold.
+	 */
+	public synchronized boolean isOverThreshold() {
+		return getUtilizationPercent() > _thresholdPercent;
+	}
+	/**
+	 * @return Highest utilization seen by onLoop() since onStart().
+	 */
+	public synchronized double getPeakUtilizationPercent() {
+		return _peakUtilization;
+	}
+
+	// ------ ILoopable ----------//
+	public synchronized void onStart() {
+		_started = false;
+		_peakUtilization = 0;
+		_over = false;
+	}
+
+	public synchronized void onLoop() {
+		long now = System.nanoTime();
+		if (_started && now - _lastNs < _periodMs * 1000000L)
+			return;
+		_started = true;
+		_lastNs = now;
+		_utilization = getUtilizationPercent();
+		if (_utilization > _peakUtilization)
+			_peakUtilization = _utilization;
+		/* log on the crossing only, not every period */
+		boolean over = _utilization > _thresholdPercent;
+		if (over && !_over)
+			Logger.log(ErrorCode.GeneralWarning, String.format("CAN bus at %.0f%%, above %.0f%%", _utilization,
+					_thresholdPercent));
+		_over = over;
+	}
+
+	public boolean isDone() {
+		return false;
+	}
+
+	public void onStop() {
+	}
+
+	/**
+	 * @return Totals, then frames per second of each device with its frame
+	 *         periods.
+	 */
+	public synchronized String toString() {
+		double fps = getFramesPerSec();
+		double utilization = getUtilizationPercent();
+		StringBuilder sb = new StringBuilder(String.format("%.0f frames/s, %.0f bits/s, %.1f%% of %d bps%s", fps,
+				getBitsPerSec(), utilization, _bitRate, utilization > _thresholdPercent
+						? String.format(", OVER %.0f%%", _thresholdPercent) : ""));
+		for (StatusFrameUsage usage : _devices)
+			sb.append(String.format("\n  %6.0f/s %s", getFramesPerSec(usage), usage));
+		for (int i = 0; i < _trafficNames.size(); ++i)
+			sb.append(String.format("\n  %6.0f/s %s", _trafficFramesPerSec.get(i), _trafficNames.get(i)));
+		return sb.toString();
+	}
+}
@@ -36,6 +36,7 @@ import com.ctre.phoenix.ParamEnum;
  */
 public class CANifier {
 	private long m_handle;
+	private ICANifierBackend m_backend;
 
 
 	
@@ -131,17 +132,52 @@ public class CANifier {
 		public boolean SPI_CLK_PWM0;
 	}
 
+	/* scratch of getGeneralInputs(PinValues), for the robot thread */
 	private boolean[] _tempPins = new boolean[11];
+	/* scratch of getGeneralInputBits(), monitors call it from their own thread */
+	private final boolean[] _bitsPins = new boolean[11];
+	/* guards _bitsPins, see also getFaultBits(int[]) */
+	private final Object _readErrorLock = new Object();
 
 	private int m_deviceNumber;
+
+	// ------ status frame usage, indexes into kStatusFrames ----------//
+	private static final int kGeneral1 = 0;
+	private static final int kGeneral2 = 1;
+	private static final int kPwmInputs0 = 2;
+	private static final int kMisc = 6;
+	private static final int[] kStatusFrames = {
+		CANifierStatusFrame.Status_1_General.value,
+		CANifierStatusFrame.Status_2_General.value,
+		CANifierStatusFrame.Status_3_PwmInputs0.value,
+		CANifierStatusFrame.Status_4_PwmInputs1.value,
+		CANifierStatusFrame.Status_5_PwmInputs2.value,
+		CANifierStatusFrame.Status_6_PwmInputs3.value,
+		CANifierStatusFrame.Status_8_Misc.value,
+	};
+	private static final int[] kStatusPeriodsMs = { 100, 20, 100, 100, 100, 100, 100 };
+	private static final int[] kControlFrames = {
+		CANifierControlFrame.Control_1_General.value,
+		CANifierControlFrame.Control_2_PwmOutput.value,
+	};
+	private static final int[] kControlPeriodsMs = { 10, 10 };
+	private final StatusFrameUsage _frameUsage;
 	/**
 	 * Constructor.
 	 * @param deviceId	The CAN Device ID of the CANifier.
 	 */
 	public CANifier(int deviceId) {
-		m_handle = CANifierJNI.JNI_new_CANifier(deviceId);
+		m_backend = DeviceBackend.getCANifier();
+		m_handle = m_backend.Create(deviceId);
 		m_deviceNumber = deviceId;
-		HAL.report(63, deviceId + 1);
+		_frameUsage = new StatusFrameUsage("CANifier " + deviceId, kStatusFrames, kStatusPeriodsMs) {
+			protected ErrorCode setPeriod(int frameValue, int periodMs) {
+				return setStatusFramePeriod(frameValue, periodMs, 0);
+			}
+		};
+		_frameUsage.setControlFrames(kControlFrames, kControlPeriodsMs);
+		if (DeviceBackend.isNative())
+			HAL.report(63, deviceId + 1);
 	}
 
 	/**
@@ -159,7 +195,7 @@ public class CANifier {
 		}
 		int dutyCycle = (int) (percentOutput * 1023); // [0,1023]
 
-		CANifierJNI.JNI_SetLEDOutput(m_handle, dutyCycle, ledChannel.value);
+		m_backend.SetLEDOutput(m_handle, dutyCycle, ledChannel.value);
 	}
 
 	/**
@@ -169,7 +205,7 @@ public class CANifier {
 	 * @param outputEnable	Whether this pin is an output. "True" enables output.
 	 */
 	public void setGeneralOutput(GeneralPin outputPin, boolean outputValue, boolean outputEnable) {
-		CANifierJNI.JNI_SetGeneralOutput(m_handle, outputPin.value, outputValue, outputEnable);
+		m_backend.SetGeneralOutput(m_handle, outputPin.value, outputValue, outputEnable);
 	}
 
 	/**
@@ -178,15 +214,17 @@ public class CANifier {
 	 * @param isOutputBits A boolean bit mask that sets the pins to be outputs or inputs.  A bit of 1 enables output.
 	 */
 	public void setGeneralOutputs(int outputBits, int isOutputBits) {
-		CANifierJNI.JNI_SetGeneralOutputs(m_handle, outputBits, isOutputBits);
+		m_backend.SetGeneralOutputs(m_handle, outputBits, isOutputBits);
 	}
 
 	/**
-	 * Gets the state of all General Pins
+	 * Gets the state of all General Pins. Shares a buffer between calls, so
+	 * call it from one thread only, see getGeneralInputBits() for other threads.
 	 * @param allPins A structure to fill with the current state of all pins.
 	 */
 	public void getGeneralInputs(PinValues allPins) {
-		CANifierJNI.JNI_GetGeneralInputs(m_handle, _tempPins);
+		_frameUsage.read(kGeneral2);
+		m_backend.GetGeneralInputs(m_handle, _tempPins);
 		allPins.LIMF = _tempPins[GeneralPin.LIMF.value];
 		allPins.LIMR = _tempPins[GeneralPin.LIMR.value];
 		allPins.QUAD_A = _tempPins[GeneralPin.QUAD_A.value];
@@ -200,13 +238,49 @@ public class CANifier {
 		allPins.SPI_CS_PWM3 = _tempPins[GeneralPin.SPI_CS.value];
 	}
 
+	/**
+	 * Gets the state of all General Pins with a single call, packed into
+	 * a bit mask. Safe to call from any thread, unlike getGeneralInputs().
+	 * @return Bit mask of the pin states.  LSB->MSB is in the order of the #GeneralPin enum,
+	 *         test a pin with (bits & (1 << pin.value)).
+	 */
+	public int getGeneralInputBits() {
+		_frameUsage.read(kGeneral2);
+		synchronized (_readErrorLock) {
+			return readGeneralInputBits();
+		}
+	}
+	/**
+	 * Gets the state of all General Pins as a bit mask together with the
+	 * error of that read, see getFaultBits(int[]).
+	 * @param bits bits[0] is filled with the bit mask of the pin states, as returned by getGeneralInputBits().
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getGeneralInputBits(int[] bits) {
+		_frameUsage.read(kGeneral2);
+		synchronized (_readErrorLock) {
+			bits[0] = readGeneralInputBits();
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
+	private int readGeneralInputBits() {
+		m_backend.GetGeneralInputs(m_handle, _bitsPins);
+		int bits = 0;
+		for (int i = 0; i < _bitsPins.length; ++i) {
+			if (_bitsPins[i])
+				bits |= 1 << i;
+		}
+		return bits;
+	}
+
 	/**
 	 * Gets the state of the specified pin
 	 * @param inputPin  The index of the pin.
 	 * @return The state of the pin.
 	 */
 	public boolean getGeneralInput(GeneralPin inputPin) {
-		return CANifierJNI.JNI_GetGeneralInput(m_handle, inputPin.value);
+		_frameUsage.read(kGeneral2);
+		return m_backend.GetGeneralInput(m_handle, inputPin.value);
 	}
 
 	/**
@@ -219,7 +293,7 @@ public class CANifier {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getLastError() {
-		int retval = CANifierJNI.JNI_GetLastError(m_handle);
+		int retval = m_backend.GetLastError(m_handle);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -241,7 +315,7 @@ public class CANifier {
 
 		int dutyCyc10bit = (int) (1023 * dutyCycle);
 
-		CANifierJNI.JNI_SetPWMOutput(m_handle, (int) pwmChannel, dutyCyc10bit);
+		m_backend.SetPWMOutput(m_handle, (int) pwmChannel, dutyCyc10bit);
 	}
 
 	/**
@@ -255,7 +329,7 @@ public class CANifier {
 			pwmChannel = 0;
 		}
 
-		CANifierJNI.JNI_EnablePWMOutput(m_handle, (int) pwmChannel, bEnable);
+		m_backend.EnablePWMOutput(m_handle, (int) pwmChannel, bEnable);
 	}
 
 	/**
@@ -264,7 +338,8 @@ public class CANifier {
 	 * @param pulseWidthAndPeriod	Double array to hold Duty Cycle [0] and Period [1].
 	 */
 	public void getPWMInput(PWMChannel pwmChannel, double[] pulseWidthAndPeriod) {
-		CANifierJNI.JNI_GetPWMInput(m_handle, pwmChannel.value, pulseWidthAndPeriod);
+		_frameUsage.read(kPwmInputs0 + pwmChannel.value);
+		m_backend.GetPWMInput(m_handle, pwmChannel.value, pulseWidthAndPeriod);
 	}
 	
 	/**
@@ -272,7 +347,8 @@ public class CANifier {
 	 * @return Position of encoder 
 	 */
 	public int getQuadraturePosition() {
-		return CANifierJNI.JNI_GetQuadraturePosition(m_handle);
+		_frameUsage.read(kMisc);
+		return m_backend.GetQuadraturePosition(m_handle);
 	}
 	
 	/**
@@ -285,7 +361,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setQuadraturePosition(int newPosition, int timeoutMs) {
-		return ErrorCode.valueOf(CANifierJNI.JNI_SetQuadraturePosition(m_handle, newPosition, timeoutMs));
+		return ErrorCode.valueOf(m_backend.SetQuadraturePosition(m_handle, newPosition, timeoutMs));
 	}
 	
 	/**
@@ -293,7 +369,8 @@ public class CANifier {
 	 * @return Velocity of encoder
 	 */
 	public int getQuadratureVelocity() {
-		return CANifierJNI.JNI_GetQuadratureVelocity(m_handle);
+		_frameUsage.read(kMisc);
+		return m_backend.GetQuadratureVelocity(m_handle);
 	}
 	
 	/**
@@ -312,7 +389,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configVelocityMeasurementPeriod(VelocityPeriod period, int timeoutMs) {
-		int retval = CANifierJNI.JNI_ConfigVelocityMeasurementPeriod(m_handle, period.value, timeoutMs);
+		int retval = m_backend.ConfigVelocityMeasurementPeriod(m_handle, period.value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configVelocityMeasurementPeriod(VelocityPeriod period) {
@@ -335,7 +412,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configVelocityMeasurementWindow(int windowSize, int timeoutMs) {
-		int retval = CANifierJNI.JNI_ConfigVelocityMeasurementWindow(m_handle, windowSize, timeoutMs);
+		int retval = m_backend.ConfigVelocityMeasurementWindow(m_handle, windowSize, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configVelocityMeasurementWindow(int windowSize) {
@@ -355,7 +432,7 @@ public class CANifier {
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configClearPositionOnLimitF(boolean clearPositionOnLimitF, int timeoutMs) {
-        int retval = CANifierJNI.JNI_ConfigClearPositionOnLimitF(m_handle, clearPositionOnLimitF, timeoutMs);
+        int retval = m_backend.ConfigClearPositionOnLimitF(m_handle, clearPositionOnLimitF, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     /**
@@ -370,7 +447,7 @@ public class CANifier {
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configClearPositionOnLimitR(boolean clearPositionOnLimitR, int timeoutMs) {
-        int retval = CANifierJNI.JNI_ConfigClearPositionOnLimitR(m_handle, clearPositionOnLimitR, timeoutMs);
+        int retval = m_backend.ConfigClearPositionOnLimitR(m_handle, clearPositionOnLimitR, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     /**
@@ -385,7 +462,7 @@ public class CANifier {
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configClearPositionOnQuadIdx(boolean clearPositionOnQuadIdx, int timeoutMs) {
-        int retval = CANifierJNI.JNI_ConfigClearPositionOnQuadIdx(m_handle, clearPositionOnQuadIdx, timeoutMs);
+        int retval = m_backend.ConfigClearPositionOnQuadIdx(m_handle, clearPositionOnQuadIdx, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
 	/**
@@ -406,7 +483,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSetCustomParam(int newValue, int paramIndex, int timeoutMs) {
-		int retval = CANifierJNI.JNI_ConfigSetCustomParam(m_handle, newValue, paramIndex, timeoutMs);
+		int retval = m_backend.ConfigSetCustomParam(m_handle, newValue, paramIndex, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSetCustomParam(int newValue, int paramIndex) {
@@ -431,7 +508,7 @@ public class CANifier {
 	 * @return Value of the custom param.
 	 */
 	public int configGetCustomParam(int paramIndex, int timeoutMs) {
-		int retval = CANifierJNI.JNI_ConfigGetCustomParam(m_handle, paramIndex, timeoutMs);
+		int retval = m_backend.ConfigGetCustomParam(m_handle, paramIndex, timeoutMs);
 		return retval;
 	}
 	public int configGetCustomParam(int paramIndex) {
@@ -490,7 +567,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSetParameter(int param, double value, int subValue, int ordinal, int timeoutMs) {
-		int retval = CANifierJNI.JNI_ConfigSetParameter(m_handle, param, value, subValue, ordinal,
+		int retval = m_backend.ConfigSetParameter(m_handle, param, value, subValue, ordinal,
 				timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -516,7 +593,7 @@ public class CANifier {
 	 * @return Value of parameter.
 	 */
 	public double configGetParameter(ParamEnum param, int ordinal, int timeoutMs) {
-		return CANifierJNI.JNI_ConfigGetParameter(m_handle, param.value, ordinal, timeoutMs);
+		return m_backend.ConfigGetParameter(m_handle, param.value, ordinal, timeoutMs);
 	}
 	public double configGetParameter(ParamEnum param, int ordinal) {
 		int timeoutMs = 0;
@@ -536,8 +613,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setStatusFramePeriod(CANifierStatusFrame statusFrame, int periodMs, int timeoutMs) {
-		int retval = CANifierJNI.JNI_SetStatusFramePeriod(m_handle, statusFrame.value, periodMs, timeoutMs);
-		return ErrorCode.valueOf(retval);
+		return setStatusFramePeriod(statusFrame.value, periodMs, timeoutMs);
 	}
 	public ErrorCode setStatusFramePeriod(CANifierStatusFrame statusFrame, int periodMs) {
 		int timeoutMs = 0;
@@ -557,7 +633,9 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setStatusFramePeriod(int statusFrame, int periodMs, int timeoutMs) {
-		int retval = CANifierJNI.JNI_SetStatusFramePeriod(m_handle, statusFrame, periodMs, timeoutMs);
+		int retval = m_backend.SetStatusFramePeriod(m_handle, statusFrame, periodMs, timeoutMs);
+		if (retval == 0)
+			_frameUsage.onPeriodSet(statusFrame, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -578,7 +656,7 @@ public class CANifier {
 	 * @return Period of the given status frame.
 	 */
 	public int getStatusFramePeriod(CANifierStatusFrame frame, int timeoutMs) {
-		return CANifierJNI.JNI_GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
+		return m_backend.GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
 	}
 	public int getStatusFramePeriod(CANifierStatusFrame frame) {
 		int timeoutMs = 0;
@@ -595,8 +673,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setControlFramePeriod(CANifierControlFrame frame, int periodMs) {
-		int retval = CANifierJNI.JNI_SetControlFramePeriod(m_handle, frame.value, periodMs);
-		return ErrorCode.valueOf(retval);
+		return setControlFramePeriod(frame.value, periodMs);
 	}
 	/**
 	 * Sets the period of the given control frame.
@@ -608,7 +685,9 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setControlFramePeriod(int frame, int periodMs) {
-		int retval = CANifierJNI.JNI_SetControlFramePeriod(m_handle, frame, periodMs);
+		int retval = m_backend.SetControlFramePeriod(m_handle, frame, periodMs);
+		if (retval == 0)
+			_frameUsage.onControlPeriodSet(frame, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -618,7 +697,7 @@ public class CANifier {
 	 * @return Firmware version of device.
 	 */
 	public int getFirmwareVersion() {
-		return CANifierJNI.JNI_GetFirmwareVersion(m_handle);
+		return m_backend.GetFirmwareVersion(m_handle);
 	}
 
 	/**
@@ -627,7 +706,7 @@ public class CANifier {
 	 * @return Has a Device Reset Occurred?
 	 */
 	public boolean hasResetOccurred() {
-		return CANifierJNI.JNI_HasResetOccurred(m_handle);
+		return m_backend.HasResetOccurred(m_handle);
 	}
 
 	// ------ Faults ----------//
@@ -639,8 +718,7 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode getFaults(CANifierFaults toFill) {
-		int bits = CANifierJNI.JNI_GetFaults(m_handle);
-		toFill.update(bits);
+		toFill.update(getFaultBits());
 		return getLastError();
 	}
 	/**
@@ -651,17 +729,71 @@ public class CANifier {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode getStickyFaults(CANifierStickyFaults toFill) {
-		int bits = CANifierJNI.JNI_GetStickyFaults(m_handle);
-		toFill.update(bits);
+		toFill.update(getStickyFaultBits());
 		return getLastError();
 	}
+	/**
+	 * Gets the fault flags as a bitfield, in the bit order of CANifierFaults.
+	 * Check getLastError() for the error of the read.
+	 *
+	 * @return Fault bitfield.
+	 */
+	public int getFaultBits() {
+		_frameUsage.read(kGeneral1);
+		return m_backend.GetFaults(m_handle);
+	}
+	/**
+	 * Gets the sticky fault flags as a bitfield, in the bit order of
+	 * CANifierStickyFaults. Check getLastError() for the error of the read.
+	 *
+	 * @return Sticky fault bitfield.
+	 */
+	public int getStickyFaultBits() {
+		_frameUsage.read(kGeneral1);
+		return m_backend.GetStickyFaults(m_handle);
+	}
+	/**
+	 * Gets the fault flags as a bitfield together with the error of that
+	 * read, for a thread other than the robot thread. The error is fetched
+	 * right after the read under a lock shared by the reads that return their
+	 * own error, so concurrent monitors never see each other's errors and
+	 * need not call getLastError().
+	 *
+	 * @param bits
+	 *            bits[0] is filled with the fault bitfield, in the bit order
+	 *            of CANifierFaults.
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getFaultBits(int[] bits) {
+		_frameUsage.read(kGeneral1);
+		synchronized (_readErrorLock) {
+			bits[0] = m_backend.GetFaults(m_handle);
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
+	/**
+	 * Gets the sticky fault flags as a bitfield together with the error of
+	 * that read, see getFaultBits(int[]).
+	 *
+	 * @param bits
+	 *            bits[0] is filled with the sticky fault bitfield, in the bit
+	 *            order of CANifierStickyFaults.
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getStickyFaultBits(int[] bits) {
+		_frameUsage.read(kGeneral1);
+		synchronized (_readErrorLock) {
+			bits[0] = m_backend.GetStickyFaults(m_handle);
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
 	/**
 	 * Clears the Sticky Faults
 	 *
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode clearStickyFaults(int timeoutMs) {
-		int retval = CANifierJNI.JNI_ClearStickyFaults(m_handle, timeoutMs);
+		int retval = m_backend.ClearStickyFaults(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -671,7 +803,16 @@ public class CANifier {
 	 * @return The bus voltage value (in volts).
 	 */
 	public double getBusVoltage() {
-		return CANifierJNI.JNI_GetBusVoltage(m_handle);
+		_frameUsage.read(kGeneral1);
+		return m_backend.GetBusVoltage(m_handle);
+	}
+
+	/**
+	 * @return Status frames of this device and which of them were read, for
+	 *         a StatusFrameManager.
+	 */
+	public StatusFrameUsage getStatusFrameUsage() {
+		return _frameUsage;
 	}
 
 	/**
@@ -0,0 +1,239 @@
+package com.ctre.phoenix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.ctre.phoenix.schedulers.PeriodicExecutor;
+
+/**
+ * Polls the general inputs of a set of CANifiers and calls handlers on the
+ * edges of the pins they watch.
+ *
+ * Each poll reads all the pins of a CANifier with one call, as a bit mask
+ * (see CANifier.getGeneralInputBits()), and XORs it with the previous mask.
+ * Only the pins that changed are dispatched, so a poll of quiet inputs costs
+ * one read and one compare per CANifier, and allocates nothing.
+ *
+ * A CANifier whose read reports an error is skipped for that poll. Pins
+ * already high at the first poll are reported as rising.
+ *
+ * Run it on its own thread with start(), or add it to a scheduler. Handlers
+ * are called from the thread that polls and should return quickly. A handler
+ * may add or remove handlers, which takes effect from the next edge
+ * dispatched.
+ *
+ * Typical use:
+ *	CANifierInputMonitor inputs = new CANifierInputMonitor();
+ *	inputs.addHandler(canifier, CANifier.GeneralPin.LIMF, new CANifierInputMonitor.IInputEdgeHandler() {
+ *		public void onEdge(CANifier canifier, CANifier.GeneralPin pin, boolean rising) {
+ *			...
+ *		}
+ *	});
+ *	inputs.start(10);
+ */
+public class CANifierInputMonitor implements ILoopable {
+
+	public interface IInputEdgeHandler {
+		/**
+		 * @param canifier
+		 *            CANifier the pin belongs to.
+		 * @param pin
+		 *            Pin that changed.
+		 * @param rising
+		 *            True if the pin went high, false if it went low.
+		 */
+		void onEdge(CANifier canifier, CANifier.GeneralPin pin, boolean rising);
+	}
+
+	private static final int kPinCount = 11;
+	/** GeneralPin by value. */
+	private static final CANifier.GeneralPin[] kPins = new CANifier.GeneralPin[kPinCount];
+	static {
+		for (CANifier.GeneralPin pin : CANifier.GeneralPin.values())
+			kPins[pin.value] = pin;
+	}
+
+	/** One polled CANifier, its last mask and its handlers by pin. */
+	private static class Source {
+		final CANifier canifier;
+		int bits = 0;
+		/** Pins with at least one handler. */
+		int watched = 0;
+		/**
+		 * Handlers by pin value, null for pins never watched. Each array is
+		 * replaced as a whole, so a handler changing them does not disturb
+		 * poll().
+		 */
+		final IInputEdgeHandler[][] handlers = new IInputEdgeHandler[kPinCount][];
+
+		Source(CANifier canifier) {
+			this.canifier = canifier;
+		}
+	}
+
+	private final ArrayList<Source> _sources = new ArrayList<Source>();
+	private PeriodicExecutor _executor = null;
+
+	// ------ statistics ----------//
+	private long _polls = 0;
+	private long _edges = 0;
+	private long _readErrors = 0;
+	private final int[] _bits = new int[1];
+
+	/**
+	 * Polls a CANifier, without handlers its mask is still available through
+	 * getInputBits().
+	 */
+	public synchronized void add(CANifier canifier) {
+		source(canifier);
+	}
+	/**
+	 * Calls handler on both edges of a pin.
+	 */
+	public synchronized void addHandler(CANifier canifier, CANifier.GeneralPin pin, IInputEdgeHandler handler) {
+		Source src = source(canifier);
+		IInputEdgeHandler[] old = src.handlers[pin.value];
+		IInputEdgeHandler[] handlers = old == null ? new IInputEdgeHandler[1] : Arrays.copyOf(old, old.length + 1);
+		handlers[handlers.length - 1] = handler;
+		src.handlers[pin.value] = handlers;
+		src.watched |= 1 << pin.value;
+	}
+	/**
+	 * Calls handler on both edges of every pin.
+	 */
+	public synchronized void addHandler(CANifier canifier, IInputEdgeHandler handler) {
+		for (CANifier.GeneralPin pin : kPins)
+			addHandler(canifier, pin, handler);
+	}
+	public synchronized void removeHandler(CANifier canifier, CANifier.GeneralPin pin, IInputEdgeHandler handler) {
+		Source src = find(canifier);
+		IInputEdgeHandler[] old = src == null ? null : src.handlers[pin.value];
+		if (old == null)
+			return;
+		for (int i = 0; i < old.length; ++i) {
+			if (old[i] == handler) {
+				IInputEdgeHandler[] handlers = new IInputEdgeHandler[old.length - 1];
+				System.arraycopy(old, 0, handlers, 0, i);
+				System.arraycopy(old, i + 1, handlers, i, old.length - i - 1);
+				src.handlers[pin.value] = handlers;
+				if (handlers.length == 0)
+					src.watched &= ~(1 << pin.value);
+				return;
+			}
+		}
+	}
+
+	private Source source(CANifier canifier) {
+		Source src = find(canifier);
+		if (src == null) {
+			src = new Source(canifier);
+			_sources.add(src);
+		}
+		return src;
+	}
+	private Source find(CANifier canifier) {
+		for (int i = 0; i < _sources.size(); ++i) {
+			if (_sources.get(i).canifier == canifier)
+				return _sources.get(i);
+		}
+		return null;
+	}
+
+	/**
+	 * Starts polling on a thread of its own. Does nothing if already
+	 * started.
+	 *
+	 * @param periodMs
+	 *            Time between polls.
+	 */
+	public synchronized void start(int periodMs) {
+		if (_executor != null)
+			return;
+		_executor = new PeriodicExecutor(this, periodMs * 1000000L, "CTRE CANifier input monitor");
+		_executor.start();
+	}
+	/**
+	 * Stops the thread started by start().
+	 */
+	public void stop() {
+		PeriodicExecutor executor;
+		synchronized (this) {
+			executor = _executor;
+			_executor = null;
+		}
+		if (executor != null)
+			executor.stop();
+	}
+
+	/**
+	 * Reads every CANifier once and calls the handlers of the pins that
+	 * changed.
+	 *
+	 * @return Number of edges dispatched.
+	 */
+	public synchronized int poll() {
+		int edges = 0;
+		for (int i = 0; i < _sources.size(); ++i) {
+			Source src = _sources.get(i);
+			if (src.canifier.getGeneralInputBits(_bits).value < 0) {
+				++_readErrors;
+				continue;
+			}
+			int bits = _bits[0];
+			int diff = (bits ^ src.bits) & src.watched;
+			src.bits = bits;
+			while (diff != 0) {
+				int pin = Integer.numberOfTrailingZeros(diff);
+				diff &= diff - 1;
+				boolean rising = (bits & (1 << pin)) != 0;
+				for (IInputEdgeHandler handler : src.handlers[pin])
+					handler.onEdge(src.canifier, kPins[pin], rising);
+				++edges;
+			}
+		}
+		++_polls;
+		_edges += edges;
+		return edges;
+	}
+
+	/**
+	 * @return Pin mask of the last successful poll of a CANifier, in the
+	 *         order of CANifier.GeneralPin, 0 if it is not polled.
+	 */
+	public synchronized int getInputBits(CANifier canifier) {
+		Source src = find(canifier);
+		return src == null ? 0 : src.bits;
+	}
+
+	// ------ statistics ----------//
+	public synchronized long getPollCount() {
+		return _polls;
+	}
+	/**
+	 * @return Number of edges dispatched to the handlers.
+	 */
+	public synchronized long getEdgeCount() {
+		return _edges;
+	}
+	/**
+	 * @return Number of CANifier reads skipped because of an error.
+	 */
+	public synchronized long getReadErrorCount() {
+		return _readErrors;
+	}
+
+	// ------ ILoopable ----------//
+	public void onStart() {
+	}
+
+	public void onLoop() {
+		poll();
+	}
+
+	public boolean isDone() {
+		return false;
+	}
+
+	public void onStop() {
+	}
+}
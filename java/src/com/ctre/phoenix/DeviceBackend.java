@@ -0,0 +1,78 @@
+package com.ctre.phoenix;
+
+import com.ctre.phoenix.motorcontrol.can.IMotControllerBackend;
+import com.ctre.phoenix.motorcontrol.can.NativeMotControllerBackend;
+import com.ctre.phoenix.sensors.IPigeonImuBackend;
+import com.ctre.phoenix.sensors.NativePigeonImuBackend;
+
+/**
+ * Selects the low level backend used by newly constructed devices.
+ *
+ * By default devices talk to the CTRE_PhoenixCCI natives, which are only
+ * loaded the first time a native backend is requested. A simulated backend
+ * (see com.ctre.phoenix.sim.SimCANBus) can be installed before constructing
+ * devices to run robot code without the native library or a CAN bus.
+ *
+ * Devices keep the backend they were constructed with.
+ */
+public class DeviceBackend {
+
+	private static IMotControllerBackend _motController = null;
+	private static IPigeonImuBackend _pigeonImu = null;
+	private static ICANifierBackend _canifier = null;
+	private static boolean _isNative = true;
+
+	/**
+	 * Installs the backends used by devices constructed after this call.
+	 *
+	 * @param motController
+	 *            Backend for Talon SRX / Victor SPX.
+	 * @param pigeonImu
+	 *            Backend for Pigeon IMU.
+	 * @param canifier
+	 *            Backend for CANifier.
+	 */
+	public static synchronized void set(IMotControllerBackend motController, IPigeonImuBackend pigeonImu,
+			ICANifierBackend canifier) {
+		_motController = motController;
+		_pigeonImu = pigeonImu;
+		_canifier = canifier;
+		_isNative = false;
+	}
+
+	/**
+	 * Restores the CTRE_PhoenixCCI backends.
+	 */
+	public static synchronized void reset() {
+		_motController = null;
+		_pigeonImu = null;
+		_canifier = null;
+		_isNative = true;
+	}
+
+	/**
+	 * @return true if devices talk to the CTRE_PhoenixCCI natives
+	 *         (and therefore should report usage to the HAL).
+	 */
+	public static synchronized boolean isNative() {
+		return _isNative;
+	}
+
+	public static synchronized IMotControllerBackend getMotController() {
+		if (_motController == null)
+			_motController = new NativeMotControllerBackend();
+		return _motController;
+	}
+
+	public static synchronized IPigeonImuBackend getPigeonImu() {
+		if (_pigeonImu == null)
+			_pigeonImu = new NativePigeonImuBackend();
+		return _pigeonImu;
+	}
+
+	public static synchronized ICANifierBackend getCANifier() {
+		if (_canifier == null)
+			_canifier = new NativeCANifierBackend();
+		return _canifier;
+	}
+}
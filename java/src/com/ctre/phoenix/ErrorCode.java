@@ -1,6 +1,8 @@
 package com.ctre.phoenix;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
 
 public enum ErrorCode {
 	OK(0), 						//!< No Error - Function executed as expected
@@ -76,18 +78,44 @@ public enum ErrorCode {
     public final int value; //!< Hold the integral value of an enum instance.
     /** private c'tor for above declarations */
 	private ErrorCode(int initValue) {this.value = initValue;	}
-    /** Keep singleton map to quickly lookup enum via int */
-    private static HashMap<Integer, ErrorCode> _map = null;
-	/** static c'tor, prepare the map */
+    /**
+     * Codes within [kDenseMin, kDenseMax] resolve with a single array index,
+     * any others through a binary search of _sparseValues. Neither allocates.
+     * When several entries share a value, the last declared one is returned.
+     */
+    private static final int kDenseMin = -1024;
+    private static final int kDenseMax = 1023;
+    private static final ErrorCode[] _dense = new ErrorCode[kDenseMax - kDenseMin + 1];
+    private static final int[] _sparseValues;
+    private static final ErrorCode[] _sparseCodes;
+	/** static c'tor, prepare the tables */
     static {
-    	_map = new HashMap<Integer, ErrorCode>();
+		TreeMap<Integer, ErrorCode> sparse = new TreeMap<Integer, ErrorCode>();
 		for (ErrorCode type : ErrorCode.values()) {
-			_map.put(type.value, type);
+			if (type.value >= kDenseMin && type.value <= kDenseMax)
+				_dense[type.value - kDenseMin] = type;
+			else
+				sparse.put(type.value, type);
+		}
+		_sparseValues = new int[sparse.size()];
+		_sparseCodes = new ErrorCode[sparse.size()];
+		int i = 0;
+		for (Map.Entry<Integer, ErrorCode> entry : sparse.entrySet()) {
+			_sparseValues[i] = entry.getKey();
+			_sparseCodes[i] = entry.getValue();
+			++i;
 		}
     }
     /** public lookup to convert int to enum */
 	public static ErrorCode valueOf(int value) {
-		ErrorCode retval = _map.get(value);
+		ErrorCode retval = null;
+		if (value >= kDenseMin && value <= kDenseMax) {
+			retval = _dense[value - kDenseMin];
+		} else {
+			int idx = Arrays.binarySearch(_sparseValues, value);
+			if (idx >= 0)
+				retval = _sparseCodes[idx];
+		}
 		if (retval != null)
 			return retval;
 		return GeneralError;
@@ -1,15 +1,72 @@
 package com.ctre.phoenix;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class ErrorCollection {
+    /**
+     * A call that returned a nonzero error code, named after the setting
+     * it applies (for example "slot_0.kP").
+     */
+    public static class Failure {
+        public final String name;
+        public final ErrorCode error;
+        public Failure(String name, ErrorCode error) {
+            this.name = name;
+            this.error = error;
+        }
+        public String toString() {
+            return name + ": " + error.toString();
+        }
+    }
+
     public void NewError(ErrorCode err) {
         _worstError = ErrorCode.worstOne(_worstError, err);
     }
     public void NewError(int err) {
         _worstError = ErrorCode.worstOne(_worstError, ErrorCode.valueOf(err));
     }
+    /**
+     * Records an error and, if nonzero, which setting produced it.
+     */
+    public void NewError(ErrorCode err, String name) {
+        NewError(err);
+        if (err.value != 0)
+            _failures.add(new Failure(name, err));
+    }
+    public void NewError(int err, String name) {
+        NewError(ErrorCode.valueOf(err), name);
+    }
+    /**
+     * Merges another collection into this one.
+     *
+     * @param other     Collection to merge.
+     * @param prefix    Prepended to the name of each of its failures.
+     */
+    public void NewErrors(ErrorCollection other, String prefix) {
+        NewError(other._worstError);
+        for (Failure failure : other._failures)
+            _failures.add(new Failure(prefix + failure.name, failure.error));
+    }
+    /**
+     * @return Every named call that failed, in the order they were made.
+     */
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(_failures);
+    }
     public ErrorCode _worstError;
+    private final ArrayList<Failure> _failures = new ArrayList<Failure>();
     public ErrorCollection() {
         _worstError = ErrorCode.OK;
     }
+    public String toString() {
+        StringBuilder work = new StringBuilder();
+        work.append(_worstError.toString());
+        for (Failure failure : _failures) {
+            work.append("\n  ");
+            work.append(failure.toString());
+        }
+        return work.toString();
+    }
 };
-
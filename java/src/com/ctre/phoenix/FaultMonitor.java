@@ -0,0 +1,244 @@
+package com.ctre.phoenix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.ctre.phoenix.motorcontrol.GroupMotorControllers;
+import com.ctre.phoenix.motorcontrol.IMotorController;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix.schedulers.PeriodicExecutor;
+import com.ctre.phoenix.sensors.PigeonIMU;
+
+/**
+ * Polls the fault and sticky fault bitfields of a set of devices and reports
+ * only the flags that changed.
+ *
+ * Each poll compares every bitfield with the previous one. Listeners are
+ * called only for the devices whose flags changed, with the flags that were
+ * set and cleared, so the robot loop no longer decodes and compares every
+ * flag of every device. The bits decode with update() of the device's fault
+ * class, for instance Faults.update(rising).
+ *
+ * A device whose read reports an error is skipped for that poll, so losing
+ * a device does not report its faults as cleared. Flags already set at the
+ * first poll are reported as set.
+ *
+ * Run it on its own thread with start(), or add it to a scheduler. Listeners
+ * are called from the thread that polls and should return quickly. A listener
+ * may add or remove listeners, which takes effect from the next change
+ * reported.
+ *
+ * Typical use:
+ *	FaultMonitor faults = new FaultMonitor();
+ *	faults.addRegisteredMotorControllers();
+ *	faults.add(pigeon);
+ *	faults.addListener(new FaultMonitor.IFaultListener() {
+ *		public void onFaultChange(Object device, boolean sticky, int rising, int falling, int bits) {
+ *			...
+ *		}
+ *	});
+ *	faults.start(50);
+ */
+public class FaultMonitor implements ILoopable {
+
+	public interface IFaultListener {
+		/**
+		 * @param device
+		 *            Device as passed to add().
+		 * @param sticky
+		 *            True for the sticky fault bitfield.
+		 * @param rising
+		 *            Flags set since the previous poll.
+		 * @param falling
+		 *            Flags cleared since the previous poll.
+		 * @param bits
+		 *            Current bitfield.
+		 */
+		void onFaultChange(Object device, boolean sticky, int rising, int falling, int bits);
+	}
+
+	/** One polled device and its last bitfields. */
+	private static abstract class Source {
+		final Object device;
+		int faults = 0;
+		int stickyFaults = 0;
+
+		Source(Object device) {
+			this.device = device;
+		}
+		/** Reads a bitfield into bits[0], returns the error of the read. */
+		abstract ErrorCode readFaultBits(int[] bits);
+		abstract ErrorCode readStickyFaultBits(int[] bits);
+	}
+
+	private final ArrayList<Source> _sources = new ArrayList<Source>();
+	/* replaced as a whole, so a listener changing them does not disturb fire() */
+	private volatile IFaultListener[] _listeners = new IFaultListener[0];
+	private PeriodicExecutor _executor = null;
+
+	// ------ statistics ----------//
+	private long _polls = 0;
+	private long _changes = 0;
+	private long _readErrors = 0;
+	private final int[] _bits = new int[1];
+
+	public synchronized void add(final BaseMotorController mc) {
+		_sources.add(new Source(mc) {
+			ErrorCode readFaultBits(int[] bits) {
+				return mc.getFaultBits(bits);
+			}
+			ErrorCode readStickyFaultBits(int[] bits) {
+				return mc.getStickyFaultBits(bits);
+			}
+		});
+	}
+	public synchronized void add(final PigeonIMU pigeon) {
+		_sources.add(new Source(pigeon) {
+			ErrorCode readFaultBits(int[] bits) {
+				return pigeon.getFaultBits(bits);
+			}
+			ErrorCode readStickyFaultBits(int[] bits) {
+				return pigeon.getStickyFaultBits(bits);
+			}
+		});
+	}
+	public synchronized void add(final CANifier canifier) {
+		_sources.add(new Source(canifier) {
+			ErrorCode readFaultBits(int[] bits) {
+				return canifier.getFaultBits(bits);
+			}
+			ErrorCode readStickyFaultBits(int[] bits) {
+				return canifier.getStickyFaultBits(bits);
+			}
+		});
+	}
+	/**
+	 * Adds every motor controller registered with GroupMotorControllers.
+	 */
+	public synchronized void addRegisteredMotorControllers() {
+		for (int i = 0; i < GroupMotorControllers.getCount(); ++i) {
+			IMotorController mc = GroupMotorControllers.get(i);
+			if (mc instanceof BaseMotorController)
+				add((BaseMotorController) mc);
+		}
+	}
+	public synchronized void addListener(IFaultListener listener) {
+		IFaultListener[] listeners = Arrays.copyOf(_listeners, _listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		_listeners = listeners;
+	}
+	public synchronized void removeListener(IFaultListener listener) {
+		IFaultListener[] old = _listeners;
+		for (int i = 0; i < old.length; ++i) {
+			if (old[i] == listener) {
+				IFaultListener[] listeners = new IFaultListener[old.length - 1];
+				System.arraycopy(old, 0, listeners, 0, i);
+				System.arraycopy(old, i + 1, listeners, i, old.length - i - 1);
+				_listeners = listeners;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Starts polling on a thread of its own. Does nothing if already
+	 * started.
+	 *
+	 * @param periodMs
+	 *            Time between polls.
+	 */
+	public synchronized void start(int periodMs) {
+		if (_executor != null)
+			return;
+		_executor = new PeriodicExecutor(this, periodMs * 1000000L, "CTRE fault monitor");
+		_executor.start();
+	}
+	/**
+	 * Stops the thread started by start().
+	 */
+	public void stop() {
+		PeriodicExecutor executor;
+		synchronized (this) {
+			executor = _executor;
+			_executor = null;
+		}
+		if (executor != null)
+			executor.stop();
+	}
+
+	/**
+	 * Reads every device once and calls the listeners for the bitfields that
+	 * changed.
+	 *
+	 * @return Number of bitfields that changed.
+	 */
+	public synchronized int poll() {
+		int changes = 0;
+		for (int i = 0; i < _sources.size(); ++i) {
+			Source src = _sources.get(i);
+			if (src.readFaultBits(_bits).value < 0) {
+				++_readErrors;
+				continue;
+			}
+			int faults = _bits[0];
+			if (src.readStickyFaultBits(_bits).value < 0) {
+				++_readErrors;
+				continue;
+			}
+			int stickyFaults = _bits[0];
+
+			int diff = faults ^ src.faults;
+			if (diff != 0) {
+				src.faults = faults;
+				fire(src.device, false, diff & faults, diff & ~faults, faults);
+				++changes;
+			}
+			diff = stickyFaults ^ src.stickyFaults;
+			if (diff != 0) {
+				src.stickyFaults = stickyFaults;
+				fire(src.device, true, diff & stickyFaults, diff & ~stickyFaults, stickyFaults);
+				++changes;
+			}
+		}
+		++_polls;
+		_changes += changes;
+		return changes;
+	}
+
+	private void fire(Object device, boolean sticky, int rising, int falling, int bits) {
+		for (IFaultListener listener : _listeners)
+			listener.onFaultChange(device, sticky, rising, falling, bits);
+	}
+
+	// ------ statistics ----------//
+	public synchronized long getPollCount() {
+		return _polls;
+	}
+	/**
+	 * @return Number of bitfield changes reported to the listeners.
+	 */
+	public synchronized long getChangeCount() {
+		return _changes;
+	}
+	/**
+	 * @return Number of device reads skipped because of an error.
+	 */
+	public synchronized long getReadErrorCount() {
+		return _readErrors;
+	}
+
+	// ------ ILoopable ----------//
+	public void onStart() {
+	}
+
+	public void onLoop() {
+		poll();
+	}
+
+	public boolean isDone() {
+		return false;
+	}
+
+	public void onStop() {
+	}
+}
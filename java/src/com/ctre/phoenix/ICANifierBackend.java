@@ -0,0 +1,74 @@
+package com.ctre.phoenix;
+
+/**
+ * Low level interface used by CANifier.
+ * Each routine mirrors the JNI_ routine of the same name in CANifierJNI,
+ * so a backend other than the CCI (such as a simulation) can be selected
+ * with DeviceBackend.
+ */
+public interface ICANifierBackend {
+
+	long Create(int deviceNumber);
+
+	void SetLEDOutput(long handle, int dutyCycle, int ledChannel);
+
+	void SetGeneralOutputs(long handle, int outputBits, int isOutputBits);
+
+	void SetGeneralOutput(long handle, int outputPin, boolean outputValue, boolean outputEnable);
+
+	void SetPWMOutput(long handle, int pwmChannel, int dutyCycle);
+
+	void EnablePWMOutput(long handle, int pwmChannel, boolean bEnable);
+
+	void GetGeneralInputs(long handle, boolean[] allPins);
+
+	boolean GetGeneralInput(long handle, int inputPin);
+
+	void GetPWMInput(long handle, int pwmChannel, double[] pulseWidthAndPeriod);
+
+	int GetLastError(long handle);
+
+	double GetBatteryVoltage(long handle);
+
+	int GetQuadraturePosition(long handle);
+
+	int SetQuadraturePosition(long handle, int newPosition, int timeoutMs);
+
+	int GetQuadratureVelocity(long handle);
+
+	int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs);
+
+	int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs);
+
+	int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs);
+
+	int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs);
+
+	int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs);
+
+	int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs);
+
+	int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs);
+
+	int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal, int timeoutMs);
+
+	double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs);
+
+	int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs);
+
+	int GetStatusFramePeriod(long handle, int frame, int timeoutMs);
+
+	int SetControlFramePeriod(long handle, int frame, int periodMs);
+
+	int GetFirmwareVersion(long handle);
+
+	boolean HasResetOccurred(long handle);
+
+	int GetFaults(long handle);
+
+	int GetStickyFaults(long handle);
+
+	int ClearStickyFaults(long handle, int timeoutMs);
+
+	double GetBusVoltage(long handle);
+}
@@ -0,0 +1,271 @@
+package com.ctre.phoenix;
+
+import java.util.Arrays;
+
+/**
+ * Lookup table interpolating between (x, y) points, distance to shooter
+ * RPM or arm angle to feedforward for instance.
+ *
+ * Points are held in sorted primitive arrays with the slope of every segment
+ * precomputed, so a lookup is a segment search plus a multiply-add. If the
+ * x values are evenly spaced (see uniform()), the segment is found by a
+ * division, constant time whatever the size of the table; otherwise by
+ * binary search. Outside the table the end values are held, unless the
+ * table is built without clamping, then the end segments are extended.
+ *
+ * MonotoneCubic interpolation fits a smooth curve through the points that
+ * does not overshoot them (Fritsch-Carlson), for feedforward curves where
+ * the kinks of straight segments show up as jerks.
+ *
+ * The table does not change once built, clamping included, so it can be
+ * shared between threads.
+ *
+ * Typical use:
+ *	InterpolatingTable ff = InterpolatingTable.uniform(0, 15, new double[] { 0.02, 0.09, 0.13, 0.14, 0.13, 0.09, 0.02 });
+ *	talon.set(ControlMode.MotionMagic, target, DemandType.ArbitraryFeedForward, ff.get(armDegrees));
+ */
+public class InterpolatingTable {
+
+	public enum Interpolation {
+		Linear(0), MonotoneCubic(1);
+
+		public final int value;
+
+		Interpolation(int value) {
+			this.value = value;
+		}
+	}
+
+	private final double[] _x;
+	private final double[] _y;
+	private final int _segments;
+	private final Interpolation _interpolation;
+	private final boolean _clamp;
+
+	// ------ precomputed ----------//
+	/** Slope of each segment. */
+	private final double[] _slope;
+	/** Tangent at each point, for cubic interpolation. */
+	private final double[] _tangent;
+	/** Uniform grid: x of the first point and points per unit of x, 0 if not uniform. */
+	private final double _x0;
+	private final double _invStep;
+
+	/**
+	 * Builds a table from points in any order.
+	 *
+	 * @param x
+	 *            x of each point, all different.
+	 * @param y
+	 *            y of each point.
+	 * @param interpolation
+	 *            How to interpolate between points.
+	 * @param clamp
+	 *            True to hold the end values outside the table, false to
+	 *            extend the end segments.
+	 */
+	public InterpolatingTable(double[] x, double[] y, Interpolation interpolation, boolean clamp) {
+		if (x.length != y.length || x.length < 2)
+			throw new IllegalArgumentException("InterpolatingTable needs at least two points, as many x as y");
+		int n = x.length;
+		_x = new double[n];
+		_y = new double[n];
+		/* sort points by x */
+		double[] sorted = x.clone();
+		Arrays.sort(sorted);
+		for (int i = 1; i < n; ++i) {
+			if (!(sorted[i] > sorted[i - 1]))
+				throw new IllegalArgumentException("InterpolatingTable x values must all be different numbers");
+		}
+		for (int i = 0; i < n; ++i)
+			_y[Arrays.binarySearch(sorted, x[i])] = y[i];
+		System.arraycopy(sorted, 0, _x, 0, n);
+
+		_segments = n - 1;
+		_interpolation = interpolation;
+		_clamp = clamp;
+		_slope = new double[_segments];
+		for (int i = 0; i < _segments; ++i)
+			_slope[i] = (_y[i + 1] - _y[i]) / (_x[i + 1] - _x[i]);
+		_tangent = interpolation == Interpolation.MonotoneCubic ? tangents(_x, _slope) : null;
+
+		/* evenly spaced x, within rounding, allows constant time lookup */
+		double step = (_x[n - 1] - _x[0]) / _segments;
+		boolean uniform = true;
+		for (int i = 1; i < n && uniform; ++i)
+			uniform = Math.abs(_x[i] - (_x[0] + i * step)) <= 1e-9 * step;
+		_x0 = _x[0];
+		_invStep = uniform ? 1 / step : 0;
+	}
+	public InterpolatingTable(double[] x, double[] y, Interpolation interpolation) {
+		this(x, y, interpolation, true);
+	}
+	public InterpolatingTable(double[] x, double[] y) {
+		this(x, y, Interpolation.Linear);
+	}
+	/**
+	 * Builds a table of evenly spaced points, looked up in constant time.
+	 *
+	 * @param x0
+	 *            x of the first point.
+	 * @param step
+	 *            Spacing of the points, positive.
+	 * @param y
+	 *            y of each point.
+	 * @param clamp
+	 *            True to hold the end values outside the table, false to
+	 *            extend the end segments.
+	 */
+	public static InterpolatingTable uniform(double x0, double step, double[] y, Interpolation interpolation,
+			boolean clamp) {
+		double[] x = new double[y.length];
+		for (int i = 0; i < y.length; ++i)
+			x[i] = x0 + i * step;
+		return new InterpolatingTable(x, y, interpolation, clamp);
+	}
+	public static InterpolatingTable uniform(double x0, double step, double[] y, Interpolation interpolation) {
+		return uniform(x0, step, y, interpolation, true);
+	}
+	public static InterpolatingTable uniform(double x0, double step, double[] y) {
+		return uniform(x0, step, y, Interpolation.Linear);
+	}
+
+	/**
+	 * Fritsch-Carlson tangents: the mean of the neighbouring slopes, zero at
+	 * extrema, and scaled down where they would make the curve overshoot.
+	 */
+	private static double[] tangents(double[] x, double[] slope) {
+		int n = x.length;
+		double[] m = new double[n];
+		m[0] = slope[0];
+		m[n - 1] = slope[n - 2];
+		for (int i = 1; i < n - 1; ++i)
+			m[i] = (slope[i - 1] * slope[i] <= 0) ? 0 : (slope[i - 1] + slope[i]) * 0.5;
+		for (int i = 0; i < n - 1; ++i) {
+			if (slope[i] == 0) {
+				m[i] = 0;
+				m[i + 1] = 0;
+				continue;
+			}
+			double a = m[i] / slope[i];
+			double b = m[i + 1] / slope[i];
+			double h = a * a + b * b;
+			if (h > 9) {
+				double t = 3 / Math.sqrt(h);
+				m[i] = t * a * slope[i];
+				m[i + 1] = t * b * slope[i];
+			}
+		}
+		return m;
+	}
+
+	// ------ lookup ----------//
+	/**
+	 * @return y interpolated at x.
+	 */
+	public double get(double x) {
+		if (_clamp) {
+			if (x <= _x[0])
+				return _y[0];
+			if (x >= _x[_segments])
+				return _y[_segments];
+		}
+		int i = segment(x);
+		double dx = x - _x[i];
+		if (_tangent == null || dx < 0 || dx > _x[i + 1] - _x[i])
+			return _y[i] + _slope[i] * dx;
+		return hermite(i, dx);
+	}
+
+	/**
+	 * Looks up count x values from xs[inOffset] into out[outOffset]. xs and
+	 * out may be the same array.
+	 */
+	public void get(double[] xs, int inOffset, double[] out, int outOffset, int count) {
+		if (_invStep != 0 && _tangent == null && _clamp) {
+			/* the common case, uniform linear table, without the dispatch */
+			double lo = _x[0];
+			double hi = _x[_segments];
+			double y0 = _y[0];
+			double yN = _y[_segments];
+			for (int k = 0; k < count; ++k) {
+				double x = xs[inOffset + k];
+				double v;
+				if (x <= lo) {
+					v = y0;
+				} else if (x >= hi) {
+					v = yN;
+				} else {
+					int i = Math.min((int) ((x - _x0) * _invStep), _segments - 1);
+					v = _y[i] + _slope[i] * (x - _x[i]);
+				}
+				out[outOffset + k] = v;
+			}
+			return;
+		}
+		for (int k = 0; k < count; ++k)
+			out[outOffset + k] = get(xs[inOffset + k]);
+	}
+	public void get(double[] xs, double[] out) {
+		get(xs, 0, out, 0, xs.length);
+	}
+
+	/**
+	 * @return Index of the segment holding x, the end segments for x outside
+	 *         the table.
+	 */
+	private int segment(double x) {
+		if (_invStep == 0) {
+			int i = Arrays.binarySearch(_x, x);
+			if (i < 0)
+				i = -i - 2;
+			return Math.max(0, Math.min(_segments - 1, i));
+		}
+		int i = (int) Math.floor((x - _x0) * _invStep);
+		i = Math.max(0, Math.min(_segments - 1, i));
+		/* rounding of the grid can land one off right at a point */
+		if (i > 0 && x < _x[i])
+			--i;
+		else if (i + 1 < _segments && x >= _x[i + 1])
+			++i;
+		return i;
+	}
+
+	private double hermite(int i, double dx) {
+		double h = _x[i + 1] - _x[i];
+		double t = dx / h;
+		double t2 = t * t;
+		double t3 = t2 * t;
+		double h00 = 2 * t3 - 3 * t2 + 1;
+		double h10 = t3 - 2 * t2 + t;
+		double h01 = -2 * t3 + 3 * t2;
+		double h11 = t3 - t2;
+		return h00 * _y[i] + h10 * h * _tangent[i] + h01 * _y[i + 1] + h11 * h * _tangent[i + 1];
+	}
+
+	// ------ properties ----------//
+	public int getPointCount() {
+		return _x.length;
+	}
+	public double getX(int idx) {
+		return _x[idx];
+	}
+	public double getY(int idx) {
+		return _y[idx];
+	}
+	public Interpolation getInterpolation() {
+		return _interpolation;
+	}
+	/**
+	 * @return True if the end values are held outside the table.
+	 */
+	public boolean isClamped() {
+		return _clamp;
+	}
+	/**
+	 * @return True if lookups take constant time, x being evenly spaced.
+	 */
+	public boolean isUniform() {
+		return _invStep != 0;
+	}
+}
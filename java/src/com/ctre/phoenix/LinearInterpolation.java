@@ -0,0 +1,13 @@
+package com.ctre.phoenix;
+
+public class LinearInterpolation {
+	/**
+	 * @return y at x on the line through (x1, y1) and (x2, y2).
+	 */
+	public static double calculate(double x, double x1, double y1, double x2, double y2) {
+		double m = (y2 - y1) / (x2 - x1);
+
+		double retval = m * (x - x1) + y1;
+		return retval;
+	}
+}
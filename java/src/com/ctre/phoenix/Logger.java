@@ -14,6 +14,11 @@ public class Logger
 			String stack = java.util.Arrays.toString(Thread.currentThread().getStackTrace());
 			stack = stack.replaceAll(",", "\n");
 			int errCode = code.value;
+			if (!DeviceBackend.isNative()) {
+				/* no DS stream without the CCI, print it instead */
+				System.err.println("CTRE: " + code + " " + origin);
+				return ErrorCode.OK;
+			}
 			return ErrorCode.valueOf(CTRLoggerJNI.JNI_Logger_Log(errCode, origin, stack));
 		}
 		/* otherwise return OK */
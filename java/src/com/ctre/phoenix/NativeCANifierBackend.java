@@ -0,0 +1,136 @@
+package com.ctre.phoenix;
+
+/**
+ * CANifier backend that forwards to the CTRE_PhoenixCCI natives.
+ */
+public class NativeCANifierBackend implements ICANifierBackend {
+
+	public long Create(int deviceNumber) {
+		return CANifierJNI.JNI_new_CANifier(deviceNumber);
+	}
+
+	public void SetLEDOutput(long handle, int dutyCycle, int ledChannel) {
+		CANifierJNI.JNI_SetLEDOutput(handle, dutyCycle, ledChannel);
+	}
+
+	public void SetGeneralOutputs(long handle, int outputBits, int isOutputBits) {
+		CANifierJNI.JNI_SetGeneralOutputs(handle, outputBits, isOutputBits);
+	}
+
+	public void SetGeneralOutput(long handle, int outputPin, boolean outputValue, boolean outputEnable) {
+		CANifierJNI.JNI_SetGeneralOutput(handle, outputPin, outputValue, outputEnable);
+	}
+
+	public void SetPWMOutput(long handle, int pwmChannel, int dutyCycle) {
+		CANifierJNI.JNI_SetPWMOutput(handle, pwmChannel, dutyCycle);
+	}
+
+	public void EnablePWMOutput(long handle, int pwmChannel, boolean bEnable) {
+		CANifierJNI.JNI_EnablePWMOutput(handle, pwmChannel, bEnable);
+	}
+
+	public void GetGeneralInputs(long handle, boolean[] allPins) {
+		CANifierJNI.JNI_GetGeneralInputs(handle, allPins);
+	}
+
+	public boolean GetGeneralInput(long handle, int inputPin) {
+		return CANifierJNI.JNI_GetGeneralInput(handle, inputPin);
+	}
+
+	public void GetPWMInput(long handle, int pwmChannel, double[] pulseWidthAndPeriod) {
+		CANifierJNI.JNI_GetPWMInput(handle, pwmChannel, pulseWidthAndPeriod);
+	}
+
+	public int GetLastError(long handle) {
+		return CANifierJNI.JNI_GetLastError(handle);
+	}
+
+	public double GetBatteryVoltage(long handle) {
+		return CANifierJNI.JNI_GetBatteryVoltage(handle);
+	}
+
+	public int GetQuadraturePosition(long handle) {
+		return CANifierJNI.JNI_GetQuadraturePosition(handle);
+	}
+
+	public int SetQuadraturePosition(long handle, int newPosition, int timeoutMs) {
+		return CANifierJNI.JNI_SetQuadraturePosition(handle, newPosition, timeoutMs);
+	}
+
+	public int GetQuadratureVelocity(long handle) {
+		return CANifierJNI.JNI_GetQuadratureVelocity(handle);
+	}
+
+	public int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigVelocityMeasurementPeriod(handle, period, timeoutMs);
+	}
+
+	public int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigVelocityMeasurementWindow(handle, windowSize, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigClearPositionOnLimitF(handle, clearPositionOnLimitF, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigClearPositionOnLimitR(handle, clearPositionOnLimitR, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigClearPositionOnQuadIdx(handle, clearPositionOnQuadIdx, timeoutMs);
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigSetCustomParam(handle, newValue, paramIndex, timeoutMs);
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return CANifierJNI.JNI_ConfigGetCustomParam(handle, paramIndex, timoutMs);
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal,
+			int timeoutMs) {
+		return CANifierJNI.JNI_ConfigSetParameter(handle, param, value, subValue, ordinal, timeoutMs);
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return CANifierJNI.JNI_ConfigGetParameter(handle, param, ordinal, timeoutMs);
+	}
+
+	public int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs) {
+		return CANifierJNI.JNI_SetStatusFramePeriod(handle, statusFrame, periodMs, timeoutMs);
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return CANifierJNI.JNI_GetStatusFramePeriod(handle, frame, timeoutMs);
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return CANifierJNI.JNI_SetControlFramePeriod(handle, frame, periodMs);
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return CANifierJNI.JNI_GetFirmwareVersion(handle);
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return CANifierJNI.JNI_HasResetOccurred(handle);
+	}
+
+	public int GetFaults(long handle) {
+		return CANifierJNI.JNI_GetFaults(handle);
+	}
+
+	public int GetStickyFaults(long handle) {
+		return CANifierJNI.JNI_GetStickyFaults(handle);
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return CANifierJNI.JNI_ClearStickyFaults(handle, timeoutMs);
+	}
+
+	public double GetBusVoltage(long handle) {
+		return CANifierJNI.JNI_GetBusVoltage(handle);
+	}
+}
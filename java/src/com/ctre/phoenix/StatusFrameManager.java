@@ -0,0 +1,245 @@
+package com.ctre.phoenix;
+
+import java.util.ArrayList;
+
+/**
+ * Adapts status frame periods to how often the frames are read.
+ *
+ * Add the manager to the scheduler running the control loops so onLoop() is
+ * called once per loop. Each loop it samples which frames the getters have
+ * read. Once per window it picks a period for every managed frame: frames
+ * that were read are sent twice per read interval, frames that were not read
+ * go back to their default period. When the resulting frame rate exceeds the
+ * bus budget all read frames are slowed by the same factor. Changes are
+ * written a few per loop, without waiting for the device, and only when the
+ * period moves by more than a quarter, so the bus never sees a burst of
+ * config frames.
+ *
+ * A frame is only slowed past its default period if it was made slowable
+ * with StatusFrameUsage.setSlowable(). This is where most of the bus time is
+ * saved, but it is only safe for frames no other device uses: frames read
+ * over the bus (a remote sensor, an auxiliary PID source, a Pigeon's
+ * CondStatus frames read by a Talon) are not seen by the getters and look
+ * unread here. Frames that must keep their period whatever happens can be
+ * excluded with StatusFrameUsage.setManaged().
+ *
+ * Typical use:
+ *	StatusFrameManager frames = new StatusFrameManager(3000);
+ *	frames.add(talon.getStatusFrameUsage());
+ *	frames.add(pigeon.getStatusFrameUsage());
+ *	scheduler.add(frames);
+ */
+public class StatusFrameManager implements ILoopable {
+
+	private final ArrayList<StatusFrameUsage> _devices = new ArrayList<StatusFrameUsage>();
+	private int _budgetFramesPerSec;
+	private int _minPeriodMs = 5;
+	private int _maxPeriodMs = 255;
+	private int _windowMs = 1000;
+	private int _maxWritesPerLoop = 2;
+
+	private long _windowStartNs = 0;
+	private int _applyDevice = 0;
+	private long _writes = 0;
+	private long _writeErrors = 0;
+
+	/**
+	 * @param budgetFramesPerSec
+	 *            Status frames per second all managed devices may send
+	 *            together. A 1Mbps bus carries roughly 8000 frames per
+	 *            second.
+	 */
+	public StatusFrameManager(int budgetFramesPerSec) {
+		_budgetFramesPerSec = budgetFramesPerSec;
+	}
+
+	public synchronized void add(StatusFrameUsage usage) {
+		_devices.add(usage);
+	}
+	public synchronized void setBudget(int budgetFramesPerSec) {
+		_budgetFramesPerSec = budgetFramesPerSec;
+	}
+	/**
+	 * @param minPeriodMs
+	 *            Fastest period given to a frame that is read.
+	 * @param maxPeriodMs
+	 *            Period given to slowable frames that are not read, at most
+	 *            255.
+	 */
+	public synchronized void setPeriodRangeMs(int minPeriodMs, int maxPeriodMs) {
+		_minPeriodMs = Math.max(1, minPeriodMs);
+		_maxPeriodMs = Math.max(_minPeriodMs, Math.min(255, maxPeriodMs));
+	}
+	/**
+	 * @param windowMs
+	 *            Time over which reads are counted before periods are
+	 *            chosen.
+	 */
+	public synchronized void setWindowMs(int windowMs) {
+		_windowMs = Math.max(1, windowMs);
+	}
+	/**
+	 * @param maxWritesPerLoop
+	 *            Number of period changes sent per onLoop().
+	 */
+	public synchronized void setMaxWritesPerLoop(int maxWritesPerLoop) {
+		_maxWritesPerLoop = Math.max(1, maxWritesPerLoop);
+	}
+
+	// ------ statistics ----------//
+	/**
+	 * @return Status frames per second sent by the added devices at their
+	 *         current periods.
+	 */
+	public synchronized double getFramesPerSec() {
+		double total = 0;
+		for (StatusFrameUsage usage : _devices) {
+			for (int i = 0; i < usage.getFrameCount(); ++i) {
+				if (usage.isSent(i))
+					total += 1000.0 / usage.getPeriodMs(i);
+			}
+		}
+		return total;
+	}
+	/**
+	 * @return Number of period changes sent.
+	 */
+	public synchronized long getWriteCount() {
+		return _writes;
+	}
+	/**
+	 * @return Number of period changes the device rejected.
+	 */
+	public synchronized long getWriteErrorCount() {
+		return _writeErrors;
+	}
+
+	// ------ ILoopable ----------//
+	public synchronized void onStart() {
+		_windowStartNs = System.nanoTime();
+		for (StatusFrameUsage usage : _devices) {
+			for (int i = 0; i < usage.getFrameCount(); ++i) {
+				usage.takeRead(i);
+				usage.readTicks[i] = 0;
+			}
+		}
+	}
+
+	public synchronized void onLoop() {
+		for (StatusFrameUsage usage : _devices) {
+			for (int i = 0; i < usage.getFrameCount(); ++i) {
+				if (usage.takeRead(i))
+					++usage.readTicks[i];
+			}
+		}
+		long now = System.nanoTime();
+		long elapsedNs = now - _windowStartNs;
+		if (elapsedNs >= _windowMs * 1000000L) {
+			plan(elapsedNs / 1e6);
+			_windowStartNs = now;
+		}
+		apply();
+	}
+
+	public boolean isDone() {
+		return false;
+	}
+
+	public void onStop() {
+	}
+
+	/** Picks target periods from the reads counted over the window. */
+	private void plan(double windowMs) {
+		/* frame rate of frames not managed, or not read, is fixed */
+		double fixed = 0;
+		double variable = 0;
+		for (StatusFrameUsage usage : _devices) {
+			for (int i = 0; i < usage.getFrameCount(); ++i) {
+				int target;
+				if (!usage.isManaged(i)) {
+					target = 0;
+					if (usage.isSent(i))
+						fixed += 1000.0 / usage.getPeriodMs(i);
+				} else if (usage.readTicks[i] == 0) {
+					target = slowest(usage, i);
+					fixed += 1000.0 / target;
+				} else {
+					/* twice per read, so a read never sees data older than half its interval */
+					target = Math.min(clamp((int) (windowMs / usage.readTicks[i] / 2)), slowest(usage, i));
+					variable += 1000.0 / target;
+				}
+				usage.targetPeriodsMs[i] = target;
+			}
+		}
+
+		/* slow the read frames evenly until they fit, clamping can take a few passes */
+		for (int pass = 0; pass < 4 && fixed + variable > _budgetFramesPerSec; ++pass) {
+			double available = _budgetFramesPerSec - fixed;
+			double scale = available > 0 ? variable / available : Double.MAX_VALUE;
+			variable = 0;
+			for (StatusFrameUsage usage : _devices) {
+				for (int i = 0; i < usage.getFrameCount(); ++i) {
+					int target = usage.targetPeriodsMs[i];
+					if (target == 0 || usage.readTicks[i] == 0)
+						continue;
+					target = clamp((int) Math.ceil(Math.min(target * scale, slowest(usage, i))));
+					usage.targetPeriodsMs[i] = target;
+					variable += 1000.0 / target;
+				}
+			}
+		}
+
+		/* drop targets within a quarter of the current period */
+		for (StatusFrameUsage usage : _devices) {
+			for (int i = 0; i < usage.getFrameCount(); ++i) {
+				int target = usage.targetPeriodsMs[i];
+				int current = usage.getPeriodMs(i);
+				if (target * 4 >= current * 3 && target * 4 <= current * 5)
+					usage.targetPeriodsMs[i] = 0;
+				usage.readTicks[i] = 0;
+			}
+		}
+	}
+
+	/** Sends up to _maxWritesPerLoop pending period changes. */
+	private void apply() {
+		int writes = 0;
+		int count = _devices.size();
+		for (int d = 0; d < count && writes < _maxWritesPerLoop; ++d) {
+			if (_applyDevice >= count)
+				_applyDevice = 0;
+			StatusFrameUsage usage = _devices.get(_applyDevice);
+			for (int i = 0; i < usage.getFrameCount() && writes < _maxWritesPerLoop; ++i) {
+				int target = usage.targetPeriodsMs[i];
+				if (target == 0)
+					continue;
+				usage.targetPeriodsMs[i] = 0;
+				ErrorCode err = usage.setPeriod(usage.getFrameValue(i), target);
+				if (err != ErrorCode.OK)
+					++_writeErrors;
+				++_writes;
+				++writes;
+			}
+			if (writes < _maxWritesPerLoop)
+				++_applyDevice;
+		}
+	}
+
+	private int clamp(int periodMs) {
+		return Math.max(_minPeriodMs, Math.min(_maxPeriodMs, periodMs));
+	}
+	/** @return Slowest period the frame may be given. */
+	private int slowest(StatusFrameUsage usage, int idx) {
+		if (usage.isSlowable(idx))
+			return _maxPeriodMs;
+		return clamp(usage.getDefaultPeriodMs(idx));
+	}
+
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder(String.format("%.0f frames/s, budget %d, %d writes (%d errors)",
+				getFramesPerSec(), _budgetFramesPerSec, _writes, _writeErrors));
+		for (StatusFrameUsage usage : _devices)
+			sb.append("\n  ").append(usage);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,237 @@
+package com.ctre.phoenix;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Status frames of one device, with a flag per frame set by the getters that
+ * return its signals and the period last set for each frame. Also holds the
+ * period of each control frame the device receives.
+ *
+ * Every device creates one, StatusFrameManager uses them to adapt the frame
+ * periods to how often the frames are actually read, CANBusPlanner to
+ * estimate the bus load.
+ *
+ * Only reads through the Java getters are seen. A frame may also be used
+ * over the bus without any getter reading it: by a Talon following a remote
+ * sensor or using it as auxiliary PID source, by a Pigeon ribbon-cabled to a
+ * Talon (CondStatus_9/11), or by a logger or dashboard listening to the bus.
+ * Slowing such a frame below its default period degrades the device that
+ * uses it, so a frame is never slowed past its default period unless it is
+ * made slowable with setSlowable(). Exclude a frame altogether with
+ * setManaged(false).
+ */
+public abstract class StatusFrameUsage {
+
+	private final String _name;
+	private final int[] _frameValues;
+	private final int[] _defaultPeriodsMs;
+	private final int[] _periodsMs;
+	private final boolean[] _managed;
+	private final boolean[] _slowable;
+	private int[] _controlFrameValues = new int[0];
+	private int[] _controlPeriodsMs = new int[0];
+
+	/* set by getters on any thread, cleared by each StatusFrameManager sample */
+	private final AtomicIntegerArray _read;
+
+	// ------ StatusFrameManager bookkeeping ----------//
+	final int[] readTicks;
+	final int[] targetPeriodsMs;
+
+	/**
+	 * @param name
+	 *            Device name, for toString().
+	 * @param frameValues
+	 *            Arbitration ID of each status frame, as passed to
+	 *            setStatusFramePeriod().
+	 * @param defaultPeriodsMs
+	 *            Period of each frame after a device reset.
+	 */
+	protected StatusFrameUsage(String name, int[] frameValues, int[] defaultPeriodsMs) {
+		_name = name;
+		_frameValues = frameValues.clone();
+		_defaultPeriodsMs = defaultPeriodsMs.clone();
+		_periodsMs = defaultPeriodsMs.clone();
+		_managed = new boolean[frameValues.length];
+		_slowable = new boolean[frameValues.length];
+		_read = new AtomicIntegerArray(frameValues.length);
+		readTicks = new int[frameValues.length];
+		targetPeriodsMs = new int[frameValues.length];
+		for (int i = 0; i < _managed.length; ++i)
+			_managed[i] = true;
+	}
+
+	/**
+	 * Sets the period of a frame on the device, without waiting for a
+	 * response.
+	 */
+	protected abstract ErrorCode setPeriod(int frameValue, int periodMs);
+
+	/**
+	 * Marks a frame as read. Called by the device's getters.
+	 *
+	 * @param idx
+	 *            Index of the frame in the frameValues passed at construction.
+	 */
+	public final void read(int idx) {
+		/* an ordered store is enough, takeRead() clears it atomically so no read is lost */
+		if (_read.get(idx) == 0)
+			_read.lazySet(idx, 1);
+	}
+	/**
+	 * Records a period set on the device. Called by the device's
+	 * setStatusFramePeriod().
+	 */
+	public void onPeriodSet(int frameValue, int periodMs) {
+		int idx = indexOf(frameValue);
+		if (idx >= 0 && _periodsMs[idx] != 0)
+			_periodsMs[idx] = Math.max(1, Math.min(255, periodMs));
+	}
+	/**
+	 * Marks a frame this kind of device never sends, a sensor frame of a
+	 * Talon on a Victor for instance. Its period reads 0 from then on, it is
+	 * not managed and not counted in the bus load. Called once by the device.
+	 */
+	public void setNotSent(int frameValue) {
+		int idx = indexOf(frameValue);
+		if (idx >= 0) {
+			_periodsMs[idx] = 0;
+			_managed[idx] = false;
+		}
+	}
+	/**
+	 * Sets the control frames the device receives. Called once by the device.
+	 *
+	 * @param frameValues
+	 *            Arbitration ID of each control frame, as passed to
+	 *            setControlFramePeriod().
+	 * @param defaultPeriodsMs
+	 *            Period each frame is sent at by default, 0 if it is only sent
+	 *            on demand.
+	 */
+	public void setControlFrames(int[] frameValues, int[] defaultPeriodsMs) {
+		_controlFrameValues = frameValues.clone();
+		_controlPeriodsMs = defaultPeriodsMs.clone();
+	}
+	/**
+	 * Records a control frame period set on the device. Called by the
+	 * device's setControlFramePeriod().
+	 */
+	public void onControlPeriodSet(int frameValue, int periodMs) {
+		for (int i = 0; i < _controlFrameValues.length; ++i) {
+			if (_controlFrameValues[i] == frameValue)
+				_controlPeriodsMs[i] = Math.max(0, periodMs);
+		}
+	}
+	/**
+	 * Includes or excludes a frame from automatic period changes. All frames
+	 * are managed by default. A managed frame is sped up when read, and
+	 * brought back to its default period when not, see setSlowable() to let
+	 * it go slower than that.
+	 */
+	public void setManaged(int frameValue, boolean managed) {
+		int idx = indexOf(frameValue);
+		if (idx >= 0)
+			_managed[idx] = managed;
+	}
+	/**
+	 * Lets StatusFrameManager slow a managed frame past its default period,
+	 * down to its slowest period when no getter reads it. Off by default.
+	 *
+	 * Only make a frame slowable if nothing but the Java getters uses it:
+	 * a frame used by another device over the bus (remote sensor, auxiliary
+	 * PID source, a Pigeon's CondStatus frames read by a Talon) looks unread
+	 * here, and that device would see stale data.
+	 */
+	public void setSlowable(int frameValue, boolean slowable) {
+		int idx = indexOf(frameValue);
+		if (idx >= 0)
+			_slowable[idx] = slowable;
+	}
+	/**
+	 * Makes every frame slowable or not, see setSlowable(int, boolean).
+	 */
+	public void setSlowable(boolean slowable) {
+		for (int i = 0; i < _slowable.length; ++i)
+			_slowable[i] = slowable;
+	}
+
+	public int getFrameCount() {
+		return _frameValues.length;
+	}
+	public int getFrameValue(int idx) {
+		return _frameValues[idx];
+	}
+	/**
+	 * @return Period of the frame, 0 if the device does not send it.
+	 */
+	public int getPeriodMs(int idx) {
+		return _periodsMs[idx];
+	}
+	public boolean isSent(int idx) {
+		return _periodsMs[idx] != 0;
+	}
+	/**
+	 * @return Period of the frame after a device reset.
+	 */
+	public int getDefaultPeriodMs(int idx) {
+		return _defaultPeriodsMs[idx];
+	}
+	public boolean isManaged(int idx) {
+		return _managed[idx];
+	}
+	public boolean isSlowable(int idx) {
+		return _slowable[idx];
+	}
+	public int getControlFrameCount() {
+		return _controlFrameValues.length;
+	}
+	public int getControlFrameValue(int idx) {
+		return _controlFrameValues[idx];
+	}
+	/**
+	 * @return Period of the control frame, 0 if it is not sent periodically.
+	 */
+	public int getControlPeriodMs(int idx) {
+		return _controlPeriodsMs[idx];
+	}
+	/**
+	 * @return Index of the frame, -1 if the device has no such frame.
+	 */
+	public int indexOf(int frameValue) {
+		for (int i = 0; i < _frameValues.length; ++i) {
+			if (_frameValues[i] == frameValue)
+				return i;
+		}
+		return -1;
+	}
+
+	/** @return True if the frame was read since the previous call. */
+	boolean takeRead(int idx) {
+		/* skip the atomic swap for frames not read, the common case */
+		return _read.get(idx) != 0 && _read.getAndSet(idx, 0) != 0;
+	}
+
+	public String getName() {
+		return _name;
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder(_name);
+		boolean first = true;
+		for (int i = 0; i < _frameValues.length; ++i) {
+			if (_periodsMs[i] == 0)
+				continue;
+			sb.append(first ? " " : ", ");
+			first = false;
+			sb.append(String.format("0x%X=%dms", _frameValues[i], _periodsMs[i]));
+			if (!_managed[i])
+				sb.append('*');
+		}
+		for (int i = 0; i < _controlFrameValues.length; ++i) {
+			if (_controlPeriodsMs[i] > 0)
+				sb.append(String.format(", ctrl 0x%X=%dms", _controlFrameValues[i], _controlPeriodsMs[i]));
+		}
+		return sb.toString();
+	}
+}
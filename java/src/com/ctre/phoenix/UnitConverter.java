@@ -0,0 +1,222 @@
+package com.ctre.phoenix;
+
+import com.ctre.phoenix.motion.TrajectoryBuffer;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+
+/**
+ * Converts between the native units of a sensor and the units of the
+ * mechanism it measures.
+ *
+ * Motor controllers exchange positions in native units and velocities in
+ * native units per 100ms. A converter is built once per mechanism, with the
+ * sensor resolution, the gearing between sensor and mechanism and the
+ * distance the mechanism covers per rotation. Every factor, including the
+ * 100ms time base, is folded into a multiplication up front, so a conversion
+ * is a single multiply. The array methods are plain counted loops over
+ * primitive arrays, which the JIT can vectorize. The int[] outputs round
+ * like toNativePositionInt(), and a TrajectoryBuffer is converted column by
+ * column in place.
+ *
+ * Typical use:
+ *	// 4096 units per rotation, sensor turns 3 times per wheel turn, 6in wheel
+ *	UnitConverter drive = UnitConverter.distance(4096, 3, 6 * Math.PI);
+ *	talon.configMotionCruiseVelocity(drive.toNativeVelocityInt(60), 10);
+ *	double inchesPerSec = drive.fromNativeVelocity(talon.getSelectedSensorVelocity(0));
+ */
+public class UnitConverter {
+
+	private final double _nativePerUnit;
+	private final double _unitsPerNative;
+	private final double _nativeVelPerUnitVel;
+	private final double _unitVelPerNativeVel;
+
+	/**
+	 * @param nativeUnitsPerRotation
+	 *            Native units per rotation of the sensor, 4096 for a CTRE
+	 *            Magnetic Encoder for instance.
+	 * @param gearRatio
+	 *            Sensor rotations per mechanism rotation.
+	 * @param unitsPerRotation
+	 *            Mechanism units per mechanism rotation, 1 for rotations,
+	 *            the circumference of a wheel for distance.
+	 * @param velocityPeriodSec
+	 *            Time base of mechanism velocities in seconds, 60 for per
+	 *            minute, 1 for per second.
+	 */
+	public UnitConverter(double nativeUnitsPerRotation, double gearRatio, double unitsPerRotation,
+			double velocityPeriodSec) {
+		_nativePerUnit = nativeUnitsPerRotation * gearRatio / unitsPerRotation;
+		_unitsPerNative = 1.0 / _nativePerUnit;
+		/* native velocities are per 100ms */
+		_nativeVelPerUnitVel = _nativePerUnit * 0.1 / velocityPeriodSec;
+		_unitVelPerNativeVel = 1.0 / _nativeVelPerUnitVel;
+	}
+
+	/**
+	 * @return Converter for positions in rotations and velocities in RPM,
+	 *         the units of the Util scale helpers.
+	 */
+	public static UnitConverter rotations(double nativeUnitsPerRotation, double gearRatio) {
+		return new UnitConverter(nativeUnitsPerRotation, gearRatio, 1, 60);
+	}
+	/**
+	 * @return Converter for positions in distance and velocities in distance
+	 *         per second.
+	 */
+	public static UnitConverter distance(double nativeUnitsPerRotation, double gearRatio,
+			double distancePerRotation) {
+		return new UnitConverter(nativeUnitsPerRotation, gearRatio, distancePerRotation, 1);
+	}
+
+	// ------ factors ----------//
+	public double getNativeUnitsPerUnit() {
+		return _nativePerUnit;
+	}
+	/**
+	 * @return Native units per 100ms per mechanism velocity unit.
+	 */
+	public double getNativeVelocityPerUnitVelocity() {
+		return _nativeVelPerUnitVel;
+	}
+
+	// ------ single values ----------//
+	public double toNativePosition(double position) {
+		return position * _nativePerUnit;
+	}
+	public double fromNativePosition(double nativePosition) {
+		return nativePosition * _unitsPerNative;
+	}
+	public double toNativeVelocity(double velocity) {
+		return velocity * _nativeVelPerUnitVel;
+	}
+	public double fromNativeVelocity(double nativeVelocity) {
+		return nativeVelocity * _unitVelPerNativeVel;
+	}
+	/**
+	 * @return Position in native units, rounded to the nearest unit, halves
+	 *         up. Out of range values saturate.
+	 */
+	public int toNativePositionInt(double position) {
+		return (int) Math.floor(position * _nativePerUnit + 0.5);
+	}
+	/**
+	 * @return Velocity in native units per 100ms, rounded to the nearest
+	 *         unit, halves up, as taken by configMotionCruiseVelocity().
+	 */
+	public int toNativeVelocityInt(double velocity) {
+		return (int) Math.floor(velocity * _nativeVelPerUnitVel + 0.5);
+	}
+
+	// ------ arrays ----------//
+	/**
+	 * Converts count positions from in[inOffset] into out[outOffset]. in and
+	 * out may be the same array.
+	 */
+	public void toNativePosition(double[] in, int inOffset, double[] out, int outOffset, int count) {
+		scale(in, inOffset, out, outOffset, count, _nativePerUnit);
+	}
+	public void fromNativePosition(double[] in, int inOffset, double[] out, int outOffset, int count) {
+		scale(in, inOffset, out, outOffset, count, _unitsPerNative);
+	}
+	public void fromNativePosition(int[] in, int inOffset, double[] out, int outOffset, int count) {
+		scale(in, inOffset, out, outOffset, count, _unitsPerNative);
+	}
+	public void toNativeVelocity(double[] in, int inOffset, double[] out, int outOffset, int count) {
+		scale(in, inOffset, out, outOffset, count, _nativeVelPerUnitVel);
+	}
+	public void fromNativeVelocity(double[] in, int inOffset, double[] out, int outOffset, int count) {
+		scale(in, inOffset, out, outOffset, count, _unitVelPerNativeVel);
+	}
+	public void fromNativeVelocity(int[] in, int inOffset, double[] out, int outOffset, int count) {
+		scale(in, inOffset, out, outOffset, count, _unitVelPerNativeVel);
+	}
+	/**
+	 * Converts count positions into native units, each rounded to the
+	 * nearest unit.
+	 */
+	public void toNativePositionInt(double[] in, int inOffset, int[] out, int outOffset, int count) {
+		scaleRound(in, inOffset, out, outOffset, count, _nativePerUnit);
+	}
+	/**
+	 * Converts count velocities into native units per 100ms, each rounded to
+	 * the nearest unit.
+	 */
+	public void toNativeVelocityInt(double[] in, int inOffset, int[] out, int outOffset, int count) {
+		scaleRound(in, inOffset, out, outOffset, count, _nativeVelPerUnitVel);
+	}
+
+	private static void scale(double[] in, int inOffset, double[] out, int outOffset, int count, double factor) {
+		for (int i = 0; i < count; ++i)
+			out[outOffset + i] = in[inOffset + i] * factor;
+	}
+	private static void scale(int[] in, int inOffset, double[] out, int outOffset, int count, double factor) {
+		for (int i = 0; i < count; ++i)
+			out[outOffset + i] = in[inOffset + i] * factor;
+	}
+	/* floor(x + 0.5) rather than Math.round(), which the JIT does not vectorize */
+	private static void scaleRound(double[] in, int inOffset, int[] out, int outOffset, int count, double factor) {
+		for (int i = 0; i < count; ++i)
+			out[outOffset + i] = (int) Math.floor(in[inOffset + i] * factor + 0.5);
+	}
+
+	// ------ trajectory points ----------//
+	/**
+	 * Converts the position and velocity of trajectory points from mechanism
+	 * units to native units, in place, before pushing them with
+	 * pushMotionProfileTrajectory(). auxiliaryPos and headingDeg are left
+	 * alone, they are in the units of the auxiliary sensor.
+	 */
+	public void toNative(TrajectoryPoint[] points, int offset, int count) {
+		double pos = _nativePerUnit;
+		double vel = _nativeVelPerUnitVel;
+		for (int i = offset; i < offset + count; ++i) {
+			TrajectoryPoint pt = points[i];
+			pt.position *= pos;
+			pt.velocity *= vel;
+		}
+	}
+	/**
+	 * Converts the position and velocity of trajectory points from native
+	 * units back to mechanism units, in place.
+	 */
+	public void fromNative(TrajectoryPoint[] points, int offset, int count) {
+		double pos = _unitsPerNative;
+		double vel = _unitVelPerNativeVel;
+		for (int i = offset; i < offset + count; ++i) {
+			TrajectoryPoint pt = points[i];
+			pt.position *= pos;
+			pt.velocity *= vel;
+		}
+	}
+	/**
+	 * Converts the positions and velocities of count points of a
+	 * TrajectoryBuffer, from index offset, from mechanism units to native
+	 * units in place. auxiliaryPos is left alone.
+	 */
+	public void toNative(TrajectoryBuffer buffer, int offset, int count) {
+		scale(buffer.getPositions(), offset, buffer.getPositions(), offset, count, _nativePerUnit);
+		scale(buffer.getVelocities(), offset, buffer.getVelocities(), offset, count, _nativeVelPerUnitVel);
+	}
+	/**
+	 * Converts the positions and velocities of count points of a
+	 * TrajectoryBuffer from native units back to mechanism units, in place.
+	 */
+	public void fromNative(TrajectoryBuffer buffer, int offset, int count) {
+		scale(buffer.getPositions(), offset, buffer.getPositions(), offset, count, _unitsPerNative);
+		scale(buffer.getVelocities(), offset, buffer.getVelocities(), offset, count, _unitVelPerNativeVel);
+	}
+	/**
+	 * Converts a profile held as arrays, positions and velocities in
+	 * mechanism units, to native units into out, which must hold count
+	 * points. Only position and velocity of the points are written.
+	 */
+	public void toNative(double[] positions, double[] velocities, int offset, TrajectoryPoint[] out, int count) {
+		double pos = _nativePerUnit;
+		double vel = _nativeVelPerUnitVel;
+		for (int i = 0; i < count; ++i) {
+			TrajectoryPoint pt = out[i];
+			pt.position = positions[offset + i] * pos;
+			pt.velocity = velocities[offset + i] * vel;
+		}
+	}
+}
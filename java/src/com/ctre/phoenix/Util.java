@@ -9,6 +9,12 @@ public class Util
 		return value;
 	}
 	
+	/**
+	 *@deprecated use UnitConverter.toNativePositionInt instead. It rounds to
+	 *            the nearest unit where this truncates toward zero, and has no
+	 *            pass-through for a scalar of 0 or less.
+	 */
+	@Deprecated
 	public static int scaleRotationsToNativeUnits(double scalar, double fullRotations) {
 		/* first assume we don't have config info, prep the default return */
 		int retval = (int) fullRotations;
@@ -18,6 +24,12 @@ public class Util
 		}
 		return retval;
 	}
+	/**
+	 *@deprecated use UnitConverter.toNativeVelocityInt instead. It rounds to
+	 *            the nearest unit where this truncates toward zero, and has no
+	 *            pass-through for a scalar of 0 or less.
+	 */
+	@Deprecated
 	public static int scaleVelocityToNativeUnits(double scalar, double rpm) {
 		/* first assume we don't have config info, prep the default return */
 		int retval = (int) rpm;
@@ -27,6 +39,11 @@ public class Util
 		}
 		return retval;
 	}
+	/**
+	 *@deprecated use UnitConverter.fromNativePosition instead. It has no
+	 *            pass-through for a scalar of 0 or less.
+	 */
+	@Deprecated
 	public static double scaleNativeUnitsToRotations(double scalar, long nativePos) {
 		/* first assume we don't have config info, prep the default return */
 		double retval = (double) nativePos;
@@ -36,6 +53,11 @@ public class Util
 		}
 		return retval;
 	}
+	/**
+	 *@deprecated use UnitConverter.fromNativeVelocity instead. It has no
+	 *            pass-through for a scalar of 0 or less.
+	 */
+	@Deprecated
 	public static double scaleNativeUnitsToRpm(double scalar, long nativeVel) {
 		/* first assume we don't have config info, prep the default return */
 		double retval = (double) nativeVel;
@@ -0,0 +1,266 @@
+package com.ctre.phoenix.motion;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.ParamEnum;
+import com.ctre.phoenix.motorcontrol.IMotorController;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix.schedulers.PeriodicExecutor;
+
+/**
+ * Streams a whole motion profile into a motor controller from a dedicated
+ * thread.
+ *
+ * The trajectory is pulled from an iterator as the API's top buffer has room,
+ * so it can be generated lazily, or pushed in bulk from a TrajectoryBuffer.
+ * The motion control frame period is half the duration of the shortest point
+ * streamed so far, base trajectory period included: for a TrajectoryBuffer
+ * the shortest point of the whole buffer, for an iterator the shortest point
+ * pushed by start(). processMotionProfileBuffer() is called at that same
+ * period, and both are shortened as soon as a shorter point is pushed.
+ *
+ * The caller still selects ControlMode.MotionProfile and sets the output to
+ * SetValueMotionProfile.Enable once enough points are buffered, see
+ * getMotionProfileStatus().btmBufferCnt.
+ */
+public class MotionProfileStreamer implements ILoopable {
+
+	/**
+	 * Called from the streamer thread when the controller reports an
+	 * underrun. The flag on the controller is cleared afterwards.
+	 */
+	public interface UnderrunListener {
+		public void onUnderrun(MotionProfileStreamer streamer, MotionProfileStatus status);
+	}
+
+	private final IMotorController _motor;
+	private final MotionProfileStatus _status = new MotionProfileStatus();
+	private UnderrunListener _listener = null;
+
+	private PeriodicExecutor _executor = null;
+	private Iterator<TrajectoryPoint> _points = null;
+	private TrajectoryPoint _pending = null;
+	private TrajectoryBuffer _buffer = null;
+	private int _bufferIdx = 0;
+	private int _baseDurationMs = 0;
+	private int _framePeriodMs = Integer.MAX_VALUE;
+
+	private final AtomicLong _pushed = new AtomicLong();
+	private final AtomicLong _underruns = new AtomicLong();
+	private volatile boolean _hasUnderrun = false;
+	private volatile boolean _done = true;
+
+	public MotionProfileStreamer(IMotorController motor) {
+		_motor = motor;
+	}
+
+	public synchronized void setUnderrunListener(UnderrunListener listener) {
+		_listener = listener;
+	}
+
+	/**
+	 * Clears the controller's buffers and starts streaming a trajectory.
+	 * Streaming in progress is stopped first.
+	 *
+	 * @param points
+	 *            Trajectory to stream, consumed from the streamer thread.
+	 * @param timeoutMs
+	 *            Timeout for reading the base trajectory period
+	 *            (configMotionProfileTrajectoryPeriod) from the controller.
+	 * @return Error Code generated by reading the base trajectory period.
+	 */
+	public ErrorCode start(Iterator<TrajectoryPoint> points, int timeoutMs) {
+		return start(points, null, timeoutMs);
+	}
+	public ErrorCode start(Iterable<TrajectoryPoint> points, int timeoutMs) {
+		return start(points.iterator(), timeoutMs);
+	}
+	public ErrorCode start(TrajectoryPoint[] points, int timeoutMs) {
+		return start(Arrays.asList(points).iterator(), timeoutMs);
+	}
+	public ErrorCode start(java.util.stream.Stream<TrajectoryPoint> points, int timeoutMs) {
+		return start(points.iterator(), timeoutMs);
+	}
+	/**
+	 * Streams a TrajectoryBuffer, which must not be modified until streaming
+	 * has finished.
+	 */
+	public ErrorCode start(TrajectoryBuffer points, int timeoutMs) {
+		return start(null, points, timeoutMs);
+	}
+
+	private ErrorCode start(Iterator<TrajectoryPoint> points, TrajectoryBuffer buffer, int timeoutMs) {
+		stop();
+		synchronized (this) {
+			_motor.clearMotionProfileTrajectories();
+			_motor.clearMotionProfileHasUnderrun(0);
+			_baseDurationMs = (int) _motor.configGetParameter(ParamEnum.eMotionProfileTrajectoryPointDurationMs, 0,
+					timeoutMs);
+			ErrorCode err = _motor.getLastError();
+
+			_points = points;
+			_pending = null;
+			_buffer = buffer;
+			_bufferIdx = 0;
+			_framePeriodMs = Integer.MAX_VALUE;
+			if (buffer != null && buffer.size() > 0)
+				adaptFramePeriod(buffer.getMinDurationMs());
+			_pushed.set(0);
+			_underruns.set(0);
+			_hasUnderrun = false;
+			_done = false;
+
+			/* fill the top buffer now so the profile can be enabled right away */
+			fill();
+			int periodMs = _framePeriodMs == Integer.MAX_VALUE ? 10 : _framePeriodMs;
+			_executor = new PeriodicExecutor(this, periodMs * 1000000L,
+					"CTRE MP stream " + _motor.getDeviceID());
+			_executor.start();
+			return err;
+		}
+	}
+
+	/**
+	 * Stops streaming. Points already sent to the controller keep executing.
+	 */
+	public void stop() {
+		PeriodicExecutor executor;
+		synchronized (this) {
+			executor = _executor;
+			_executor = null;
+		}
+		if (executor != null)
+			executor.stop();
+		_done = true;
+	}
+
+	// ------ status ----------//
+	/**
+	 * @return True until every point has been moved out of the API's top
+	 *         buffer, or stop() is called.
+	 */
+	public boolean isStreaming() {
+		return !_done;
+	}
+	/**
+	 * @return True if an underrun occurred since start() or
+	 *         clearHasUnderrun().
+	 */
+	public boolean hasUnderrun() {
+		return _hasUnderrun;
+	}
+	public void clearHasUnderrun() {
+		_hasUnderrun = false;
+	}
+	/**
+	 * @return Number of underruns reported by the controller since start().
+	 */
+	public long getUnderrunCount() {
+		return _underruns.get();
+	}
+	/**
+	 * @return Number of points pushed into the top buffer since start().
+	 */
+	public long getPointsPushed() {
+		return _pushed.get();
+	}
+	/**
+	 * @return Executor running the streamer, for its timing statistics.
+	 *         Null before start() and after stop().
+	 */
+	public synchronized PeriodicExecutor getExecutor() {
+		return _executor;
+	}
+
+	/** Pushes points until the top buffer is full or the trajectory ends. */
+	private void fill() {
+		if (_buffer != null) {
+			fillFromBuffer();
+			return;
+		}
+		while (!_motor.isMotionProfileTopLevelBufferFull()) {
+			if (_pending == null) {
+				if (!_points.hasNext())
+					return;
+				_pending = _points.next();
+			}
+			if (_motor.pushMotionProfileTrajectory(_pending) != ErrorCode.OK)
+				return; /* retry on the next loop */
+			_pushed.incrementAndGet();
+			adaptFramePeriod(_pending.timeDur.value);
+			_pending = null;
+		}
+	}
+	private void fillFromBuffer() {
+		int remaining = _buffer.size() - _bufferIdx;
+		if (remaining == 0)
+			return;
+		int pushed;
+		if (_motor instanceof BaseMotorController) {
+			pushed = ((BaseMotorController) _motor).pushMotionProfileTrajectories(_buffer, _bufferIdx, remaining);
+		} else {
+			if (_pending == null)
+				_pending = new TrajectoryPoint();
+			for (pushed = 0; pushed < remaining; ++pushed) {
+				_buffer.get(_bufferIdx + pushed, _pending);
+				if (_motor.pushMotionProfileTrajectory(_pending) != ErrorCode.OK)
+					break;
+			}
+		}
+		_bufferIdx += pushed;
+		_pushed.addAndGet(pushed);
+	}
+	private boolean allPushed() {
+		if (_buffer != null)
+			return _bufferIdx == _buffer.size();
+		return _pending == null && !_points.hasNext();
+	}
+
+	/**
+	 * Sends control frames, and processes the buffer, at least twice per
+	 * trajectory point.
+	 */
+	private void adaptFramePeriod(int pointDurationMs) {
+		int durationMs = _baseDurationMs + pointDurationMs;
+		int periodMs = Math.max(1, durationMs / 2);
+		if (periodMs < _framePeriodMs) {
+			_framePeriodMs = periodMs;
+			_motor.changeMotionControlFramePeriod(periodMs);
+			/* null while start() fills the top buffer, which then uses the new period */
+			if (_executor != null)
+				_executor.setPeriodNs(periodMs * 1000000L);
+		}
+	}
+
+	// ------ ILoopable ----------//
+	public void onStart() {
+	}
+
+	public synchronized void onLoop() {
+		fill();
+		_motor.processMotionProfileBuffer();
+
+		_motor.getMotionProfileStatus(_status);
+		if (_status.hasUnderrun) {
+			_underruns.incrementAndGet();
+			_hasUnderrun = true;
+			if (_listener != null)
+				_listener.onUnderrun(this, _status);
+			_motor.clearMotionProfileHasUnderrun(0);
+		}
+
+		if (allPushed() && _motor.getMotionProfileTopLevelBufferCount() == 0)
+			_done = true;
+	}
+
+	public boolean isDone() {
+		return _done;
+	}
+
+	public void onStop() {
+	}
+}
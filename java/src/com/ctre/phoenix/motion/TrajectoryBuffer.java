@@ -0,0 +1,146 @@
+package com.ctre.phoenix.motion;
+
+import java.util.Arrays;
+
+/**
+ * Motion profile stored as parallel primitive arrays, one per
+ * TrajectoryPoint member, instead of one object per point.
+ *
+ * A long profile is a handful of arrays rather than thousands of objects, and
+ * can be pushed in bulk with
+ * BaseMotorController.pushMotionProfileTrajectories(). The arrays grow as
+ * points are added; use the capacity constructor to allocate them once.
+ */
+public class TrajectoryBuffer {
+
+	private double[] _position;
+	private double[] _velocity;
+	private double[] _auxiliaryPos;
+	private int[] _profileSlotSelect0;
+	private int[] _profileSlotSelect1;
+	private boolean[] _isLastPoint;
+	private boolean[] _zeroPos;
+	private int[] _durationMs;
+	private int _size = 0;
+
+	public TrajectoryBuffer() {
+		this(64);
+	}
+	/**
+	 * @param capacity
+	 *            Number of points to allocate room for.
+	 */
+	public TrajectoryBuffer(int capacity) {
+		_position = new double[capacity];
+		_velocity = new double[capacity];
+		_auxiliaryPos = new double[capacity];
+		_profileSlotSelect0 = new int[capacity];
+		_profileSlotSelect1 = new int[capacity];
+		_isLastPoint = new boolean[capacity];
+		_zeroPos = new boolean[capacity];
+		_durationMs = new int[capacity];
+	}
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(minCapacity, _position.length * 2);
+		_position = Arrays.copyOf(_position, capacity);
+		_velocity = Arrays.copyOf(_velocity, capacity);
+		_auxiliaryPos = Arrays.copyOf(_auxiliaryPos, capacity);
+		_profileSlotSelect0 = Arrays.copyOf(_profileSlotSelect0, capacity);
+		_profileSlotSelect1 = Arrays.copyOf(_profileSlotSelect1, capacity);
+		_isLastPoint = Arrays.copyOf(_isLastPoint, capacity);
+		_zeroPos = Arrays.copyOf(_zeroPos, capacity);
+		_durationMs = Arrays.copyOf(_durationMs, capacity);
+	}
+
+	/**
+	 * Appends a point. See TrajectoryPoint for the meaning of each member.
+	 *
+	 * @param durationMs
+	 *            Value of a TrajectoryPoint.TrajectoryDuration, added to the
+	 *            base trajectory period.
+	 * @return Index of the point.
+	 */
+	public int add(double position, double velocity, double auxiliaryPos, int profileSlotSelect0,
+			int profileSlotSelect1, boolean isLastPoint, boolean zeroPos, int durationMs) {
+		if (_size == _position.length)
+			grow(_size + 1);
+		int idx = _size++;
+		_position[idx] = position;
+		_velocity[idx] = velocity;
+		_auxiliaryPos[idx] = auxiliaryPos;
+		_profileSlotSelect0[idx] = profileSlotSelect0;
+		_profileSlotSelect1[idx] = profileSlotSelect1;
+		_isLastPoint[idx] = isLastPoint;
+		_zeroPos[idx] = zeroPos;
+		_durationMs[idx] = durationMs;
+		return idx;
+	}
+	public int add(TrajectoryPoint point) {
+		return add(point.position, point.velocity, point.auxiliaryPos, point.profileSlotSelect0,
+				point.profileSlotSelect1, point.isLastPoint, point.zeroPos, point.timeDur.value);
+	}
+	/**
+	 * Copies a point into a caller supplied object, for APIs that take a
+	 * TrajectoryPoint.
+	 */
+	public void get(int idx, TrajectoryPoint pointToFill) {
+		pointToFill.position = _position[idx];
+		pointToFill.velocity = _velocity[idx];
+		pointToFill.auxiliaryPos = _auxiliaryPos[idx];
+		pointToFill.headingDeg = 0;
+		pointToFill.profileSlotSelect0 = _profileSlotSelect0[idx];
+		pointToFill.profileSlotSelect1 = _profileSlotSelect1[idx];
+		pointToFill.isLastPoint = _isLastPoint[idx];
+		pointToFill.zeroPos = _zeroPos[idx];
+		pointToFill.timeDur = TrajectoryPoint.TrajectoryDuration.valueOf(_durationMs[idx]);
+	}
+
+	/**
+	 * Removes all points, keeping the allocated arrays.
+	 */
+	public void clear() {
+		_size = 0;
+	}
+	public int size() {
+		return _size;
+	}
+	/**
+	 * @return Shortest point duration, not counting the base trajectory
+	 *         period. -1 if empty.
+	 */
+	public int getMinDurationMs() {
+		if (_size == 0)
+			return -1;
+		int min = _durationMs[0];
+		for (int i = 1; i < _size; ++i)
+			min = Math.min(min, _durationMs[i]);
+		return min;
+	}
+
+	// ------ backing arrays, valid up to size() ----------//
+	public double[] getPositions() {
+		return _position;
+	}
+	public double[] getVelocities() {
+		return _velocity;
+	}
+	public double[] getAuxiliaryPositions() {
+		return _auxiliaryPos;
+	}
+	public int[] getProfileSlotSelect0() {
+		return _profileSlotSelect0;
+	}
+	public int[] getProfileSlotSelect1() {
+		return _profileSlotSelect1;
+	}
+	public boolean[] getIsLastPoint() {
+		return _isLastPoint;
+	}
+	public boolean[] getZeroPos() {
+		return _zeroPos;
+	}
+	public int[] getDurationsMs() {
+		return _durationMs;
+	}
+}
@@ -0,0 +1,37 @@
+package com.ctre.phoenix.motorcontrol;
+
+/**
+ * Layout of a motor controller status block.
+ * Each signal's value is its offset within one device's stride
+ * of a double[] block filled by BaseMotorController.getStatusSnapshot().
+ * Integral signals (sensor units, fault bits, error codes) are stored exactly.
+ */
+public enum MotorStatusSignal {
+	BusVoltage(0),
+	MotorOutputPercent(1),
+	OutputCurrent(2),
+	Temperature(3),
+	SelectedSensorPosition(4),
+	SelectedSensorVelocity(5),
+	ClosedLoopError(6),
+	ClosedLoopTarget(7),
+	IntegralAccumulator(8),
+	ErrorDerivative(9),
+	ActiveTrajectoryPosition(10),
+	ActiveTrajectoryVelocity(11),
+	ActiveTrajectoryHeading(12),
+	Faults(13),
+	StickyFaults(14),
+	LastError(15);
+
+	/**
+	 * Number of doubles used per device in a status block.
+	 */
+	public static final int kStride = 16;
+
+	public final int value;
+	MotorStatusSignal(int value)
+	{
+		this.value = value;
+	}
+};
@@ -0,0 +1,132 @@
+package com.ctre.phoenix.motorcontrol;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.time.SampleTime;
+
+/**
+ * Snapshot of the commonly read status signals of a motor controller.
+ * This is simply a data transfer object, meant to be allocated once and
+ * refilled every loop by BaseMotorController.getStatusSnapshot().
+ *
+ * @see MotorStatusSignal
+ */
+public class MotorStatusSnapshot {
+	/**
+	 * Bus voltage seen by the device (in volts).
+	 */
+	public double busVoltage;
+	/**
+	 * Output of the motor controller (in percent, -1 to 1).
+	 */
+	public double motorOutputPercent;
+	/**
+	 * Output current (in amps).
+	 */
+	public double outputCurrent;
+	/**
+	 * Temperature of the motor controller (in 'C).
+	 */
+	public double temperature;
+	/**
+	 * Selected sensor position of the requested PID loop (in raw sensor units).
+	 */
+	public int selectedSensorPosition;
+	/**
+	 * Selected sensor velocity of the requested PID loop (in raw sensor units per 100ms).
+	 */
+	public int selectedSensorVelocity;
+	/**
+	 * Closed-loop error of the requested PID loop.
+	 */
+	public int closedLoopError;
+	/**
+	 * Closed-loop target of the requested PID loop.
+	 */
+	public int closedLoopTarget;
+	/**
+	 * Integral accumulator of the requested PID loop.
+	 */
+	public double integralAccumulator;
+	/**
+	 * Derivative of the closed-loop error of the requested PID loop.
+	 */
+	public double errorDerivative;
+	/**
+	 * Active trajectory position (Motion Magic / Motion Profile).
+	 */
+	public int activeTrajectoryPosition;
+	/**
+	 * Active trajectory velocity (Motion Magic / Motion Profile).
+	 */
+	public int activeTrajectoryVelocity;
+	/**
+	 * Active trajectory heading (Motion Profile Arc), in degrees.
+	 */
+	public double activeTrajectoryHeading;
+	/**
+	 * Fault bits, decode with Faults.update().
+	 */
+	public int faults;
+	/**
+	 * Sticky fault bits, decode with StickyFaults.update().
+	 */
+	public int stickyFaults;
+	/**
+	 * First nonzero error code reported while the signals were read, OK if
+	 * every status frame was read successfully.
+	 */
+	public ErrorCode lastError = ErrorCode.OK;
+	/**
+	 * When the oldest of the signals was received. Only filled by
+	 * BaseMotorController.getStatusSnapshot(MotorStatusSnapshot, int).
+	 */
+	public final SampleTime sampleTime = new SampleTime();
+
+	/**
+	 * Decodes one device's stride out of a status block.
+	 *
+	 * @param block
+	 *            Status block, laid out per MotorStatusSignal.
+	 * @param offset
+	 *            Index of the device's first signal within block.
+	 */
+	public void update(double[] block, int offset) {
+		busVoltage = block[offset + MotorStatusSignal.BusVoltage.value];
+		motorOutputPercent = block[offset + MotorStatusSignal.MotorOutputPercent.value];
+		outputCurrent = block[offset + MotorStatusSignal.OutputCurrent.value];
+		temperature = block[offset + MotorStatusSignal.Temperature.value];
+		selectedSensorPosition = (int) block[offset + MotorStatusSignal.SelectedSensorPosition.value];
+		selectedSensorVelocity = (int) block[offset + MotorStatusSignal.SelectedSensorVelocity.value];
+		closedLoopError = (int) block[offset + MotorStatusSignal.ClosedLoopError.value];
+		closedLoopTarget = (int) block[offset + MotorStatusSignal.ClosedLoopTarget.value];
+		integralAccumulator = block[offset + MotorStatusSignal.IntegralAccumulator.value];
+		errorDerivative = block[offset + MotorStatusSignal.ErrorDerivative.value];
+		activeTrajectoryPosition = (int) block[offset + MotorStatusSignal.ActiveTrajectoryPosition.value];
+		activeTrajectoryVelocity = (int) block[offset + MotorStatusSignal.ActiveTrajectoryVelocity.value];
+		activeTrajectoryHeading = block[offset + MotorStatusSignal.ActiveTrajectoryHeading.value];
+		faults = (int) block[offset + MotorStatusSignal.Faults.value];
+		stickyFaults = (int) block[offset + MotorStatusSignal.StickyFaults.value];
+		lastError = ErrorCode.valueOf((int) block[offset + MotorStatusSignal.LastError.value]);
+	}
+
+	public String toString() {
+		StringBuilder work = new StringBuilder();
+		work.append(" busVoltage:"); work.append(busVoltage);
+		work.append(" motorOutputPercent:"); work.append(motorOutputPercent);
+		work.append(" outputCurrent:"); work.append(outputCurrent);
+		work.append(" temperature:"); work.append(temperature);
+		work.append(" selectedSensorPosition:"); work.append(selectedSensorPosition);
+		work.append(" selectedSensorVelocity:"); work.append(selectedSensorVelocity);
+		work.append(" closedLoopError:"); work.append(closedLoopError);
+		work.append(" closedLoopTarget:"); work.append(closedLoopTarget);
+		work.append(" integralAccumulator:"); work.append(integralAccumulator);
+		work.append(" errorDerivative:"); work.append(errorDerivative);
+		work.append(" activeTrajectoryPosition:"); work.append(activeTrajectoryPosition);
+		work.append(" activeTrajectoryVelocity:"); work.append(activeTrajectoryVelocity);
+		work.append(" activeTrajectoryHeading:"); work.append(activeTrajectoryHeading);
+		work.append(" faults:"); work.append(Integer.toHexString(faults));
+		work.append(" stickyFaults:"); work.append(Integer.toHexString(stickyFaults));
+		work.append(" lastError:"); work.append(lastError);
+		return work.toString();
+	}
+}
@@ -1,16 +1,25 @@
 package com.ctre.phoenix.motorcontrol;
 
 import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.StatusFrameUsage;
 import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
-import com.ctre.phoenix.motorcontrol.can.MotControllerJNI;
+import com.ctre.phoenix.motorcontrol.can.IMotControllerBackend;
 
 public class SensorCollection {
 
 	private long _handle;
+	private IMotControllerBackend _backend;
+	private StatusFrameUsage _frameUsage;
+	private int _general, _ainTempVbat, _quadrature, _pulseWidth;
 
 	public SensorCollection(BaseMotorController motorController) {
 		_handle = motorController.getHandle();
-
+		_backend = motorController.getBackend();
+		_frameUsage = motorController.getStatusFrameUsage();
+		_general = _frameUsage.indexOf(StatusFrameEnhanced.Status_1_General.value);
+		_ainTempVbat = _frameUsage.indexOf(StatusFrameEnhanced.Status_4_AinTempVbat.value);
+		_quadrature = _frameUsage.indexOf(StatusFrameEnhanced.Status_3_Quadrature.value);
+		_pulseWidth = _frameUsage.indexOf(StatusFrameEnhanced.Status_8_PulseWidth.value);
 	}
 
 	/**
@@ -23,7 +32,8 @@ public class SensorCollection {
 	 */
 
 	public int getAnalogIn() {
-		return MotControllerJNI.GetAnalogIn(_handle);
+		_frameUsage.read(_ainTempVbat);
+		return _backend.GetAnalogIn(_handle);
 	}
 
 	/**
@@ -39,7 +49,7 @@ public class SensorCollection {
 	 */
 
 	public ErrorCode setAnalogPosition(int newPosition, int timeoutMs) {
-		int retval = MotControllerJNI.SetAnalogPosition(_handle, newPosition, timeoutMs);
+		int retval = _backend.SetAnalogPosition(_handle, newPosition, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -51,7 +61,8 @@ public class SensorCollection {
 	 */
 
 	public int getAnalogInRaw() {
-		return MotControllerJNI.GetAnalogInRaw(_handle);
+		_frameUsage.read(_ainTempVbat);
+		return _backend.GetAnalogInRaw(_handle);
 	}
 
 	/**
@@ -62,7 +73,8 @@ public class SensorCollection {
 	 */
 
 	public int getAnalogInVel() {
-		return MotControllerJNI.GetAnalogInVel(_handle);
+		_frameUsage.read(_ainTempVbat);
+		return _backend.GetAnalogInVel(_handle);
 	}
 
 	/**
@@ -73,7 +85,8 @@ public class SensorCollection {
 	 */
 
 	public int getQuadraturePosition() {
-		return MotControllerJNI.GetQuadraturePosition(_handle);
+		_frameUsage.read(_quadrature);
+		return _backend.GetQuadraturePosition(_handle);
 	}
 
 	/**
@@ -91,7 +104,7 @@ public class SensorCollection {
 	 */
 
 	public ErrorCode setQuadraturePosition(int newPosition, int timeoutMs) {
-		int retval = MotControllerJNI.SetQuadraturePosition(_handle, newPosition, timeoutMs);
+		int retval = _backend.SetQuadraturePosition(_handle, newPosition, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -235,7 +248,8 @@ public class SensorCollection {
 	 */
 
 	public int getQuadratureVelocity() {
-		return MotControllerJNI.GetQuadratureVelocity(_handle);
+		_frameUsage.read(_quadrature);
+		return _backend.GetQuadratureVelocity(_handle);
 	}
 
 	/**
@@ -246,7 +260,8 @@ public class SensorCollection {
 	 */
 
 	public int getPulseWidthPosition() {
-		return MotControllerJNI.GetPulseWidthPosition(_handle);
+		_frameUsage.read(_pulseWidth);
+		return _backend.GetPulseWidthPosition(_handle);
 	}
 
 	/**
@@ -261,7 +276,7 @@ public class SensorCollection {
 	 * @return  an ErrErrorCode
 	 */
 	public ErrorCode setPulseWidthPosition(int newPosition, int timeoutMs) {
-		int retval = MotControllerJNI.SetPulseWidthPosition(_handle, newPosition, timeoutMs);
+		int retval = _backend.SetPulseWidthPosition(_handle, newPosition, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -273,7 +288,8 @@ public class SensorCollection {
 	 */
 
 	public int getPulseWidthVelocity() {
-		return MotControllerJNI.GetPulseWidthVelocity(_handle);
+		_frameUsage.read(_pulseWidth);
+		return _backend.GetPulseWidthVelocity(_handle);
 	}
 
 	/**
@@ -283,7 +299,8 @@ public class SensorCollection {
 	 */
 
 	public int getPulseWidthRiseToFallUs() {
-		return MotControllerJNI.GetPulseWidthRiseToFallUs(_handle);
+		_frameUsage.read(_pulseWidth);
+		return _backend.GetPulseWidthRiseToFallUs(_handle);
 	}
 
 	/**
@@ -293,7 +310,8 @@ public class SensorCollection {
 	 */
 
 	public int getPulseWidthRiseToRiseUs() {
-		return MotControllerJNI.GetPulseWidthRiseToRiseUs(_handle);
+		_frameUsage.read(_pulseWidth);
+		return _backend.GetPulseWidthRiseToRiseUs(_handle);
 	}
 
 	/**
@@ -303,7 +321,8 @@ public class SensorCollection {
 	 */
 
 	public boolean getPinStateQuadA() {
-		return MotControllerJNI.GetPinStateQuadA(_handle) != 0;
+		_frameUsage.read(_quadrature);
+		return _backend.GetPinStateQuadA(_handle) != 0;
 	}
 
 	/**
@@ -313,7 +332,8 @@ public class SensorCollection {
 	 */
 
 	public boolean getPinStateQuadB() {
-		return MotControllerJNI.GetPinStateQuadB(_handle) != 0;
+		_frameUsage.read(_quadrature);
+		return _backend.GetPinStateQuadB(_handle) != 0;
 	}
 
 	/**
@@ -323,7 +343,8 @@ public class SensorCollection {
 	 */
 
 	public boolean getPinStateQuadIdx() {
-		return MotControllerJNI.GetPinStateQuadIdx(_handle) != 0;
+		_frameUsage.read(_quadrature);
+		return _backend.GetPinStateQuadIdx(_handle) != 0;
 	}
 
 	/**
@@ -334,7 +355,8 @@ public class SensorCollection {
 	 */
 
 	public boolean isFwdLimitSwitchClosed() {
-		return MotControllerJNI.IsFwdLimitSwitchClosed(_handle) != 0;
+		_frameUsage.read(_general);
+		return _backend.IsFwdLimitSwitchClosed(_handle) != 0;
 	}
 
 	/**
@@ -345,6 +367,7 @@ public class SensorCollection {
 	 */
 
 	public boolean isRevLimitSwitchClosed() {
-		return MotControllerJNI.IsRevLimitSwitchClosed(_handle) != 0;
+		_frameUsage.read(_general);
+		return _backend.IsRevLimitSwitchClosed(_handle) != 0;
 	}
 }
@@ -1,5 +1,11 @@
 package com.ctre.phoenix.motorcontrol.can;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import com.ctre.phoenix.motorcontrol.ControlFrame;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.DemandType;
@@ -9,6 +15,9 @@ import com.ctre.phoenix.motorcontrol.FollowerType;
 import com.ctre.phoenix.motorcontrol.IMotorController;
 import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
 import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
+import com.ctre.phoenix.time.SampleTime;
+import com.ctre.phoenix.motorcontrol.MotorStatusSnapshot;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.RemoteFeedbackDevice;
 import com.ctre.phoenix.motorcontrol.RemoteLimitSwitchSource;
@@ -19,9 +28,12 @@ import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
 import com.ctre.phoenix.motorcontrol.StickyFaults;
 import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
 import com.ctre.phoenix.motorcontrol.can.MotControllerJNI;
+import com.ctre.phoenix.DeviceBackend;
 import com.ctre.phoenix.ParamEnum;
+import com.ctre.phoenix.StatusFrameUsage;
 import com.ctre.phoenix.motion.MotionProfileStatus;
 import com.ctre.phoenix.motion.SetValueMotionProfile;
+import com.ctre.phoenix.motion.TrajectoryBuffer;
 import com.ctre.phoenix.motion.TrajectoryPoint;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.ErrorCollection;
@@ -39,9 +51,69 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	private boolean _invert = false;
 
 	protected long m_handle;
+	protected IMotControllerBackend m_backend;
 
 	private int [] _motionProfStats = new int[11];
 
+	private double [] _statusBlock = new double[MotorStatusSignal.kStride];
+
+	/* cleared by the pool thread of an asynchronous configFactoryDefault() */
+	private volatile BaseMotorControllerConfiguration _knownConfigs = null;
+
+	/* see getFaultBits(int[]) */
+	private final Object _readErrorLock = new Object();
+
+	// ------ config read-back, see readBack() ----------//
+	private final Object _readBackLock = new Object();
+	private volatile Thread _readBackThread = null;
+	private ErrorCollection _readBackErrors = null;
+
+	// ------ setpoint cache ----------//
+	private boolean _setpointCacheEnabled = false;
+	private long _keepAliveNs = 0;
+	private long _lastSendNs = 0;
+	private ControlMode _sentMode = null;
+	private double _sentDemand0 = 0;
+	private double _sentDemand1 = 0;
+	private DemandType _sentDemand1Type = null;
+	private long _setpointsSent = 0;
+	private long _setpointsSuppressed = 0;
+
+	// ------ status frame usage, indexes into kStatusFrames ----------//
+	private static final int kGeneral = 0;
+	private static final int kFeedback0 = 1;
+	private static final int kAinTempVbat = 2;
+	private static final int kMotProfBuffer = 5;
+	private static final int kMotionMagic = 6;
+	private static final int kFeedback1 = 7;
+	private static final int kPIDF0 = 8;
+	private static final int kPIDF1 = 9;
+	private static final int[] kStatusFrames = {
+		StatusFrameEnhanced.Status_1_General.value,
+		StatusFrameEnhanced.Status_2_Feedback0.value,
+		StatusFrameEnhanced.Status_4_AinTempVbat.value,
+		StatusFrameEnhanced.Status_6_Misc.value,
+		StatusFrameEnhanced.Status_7_CommStatus.value,
+		StatusFrameEnhanced.Status_9_MotProfBuffer.value,
+		StatusFrameEnhanced.Status_10_MotionMagic.value,
+		StatusFrameEnhanced.Status_12_Feedback1.value,
+		StatusFrameEnhanced.Status_13_Base_PIDF0.value,
+		StatusFrameEnhanced.Status_14_Turn_PIDF1.value,
+		StatusFrameEnhanced.Status_15_FirmareApiStatus.value,
+		StatusFrameEnhanced.Status_3_Quadrature.value,
+		StatusFrameEnhanced.Status_8_PulseWidth.value,
+		StatusFrameEnhanced.Status_11_UartGadgeteer.value,
+	};
+	private static final int[] kStatusPeriodsMs = { 10, 20, 160, 160, 160, 160, 160, 160, 160, 160, 160, 160, 160, 160 };
+	/* only the general frame is sent periodically by default */
+	private static final int[] kControlFrames = {
+		ControlFrame.Control_3_General.value,
+		ControlFrame.Control_4_Advanced.value,
+		ControlFrame.Control_6_MotProfAddTrajPoint.value,
+	};
+	private static final int[] kControlPeriodsMs = { 10, 0, 0 };
+	private final StatusFrameUsage _frameUsage;
+
 	// --------------------- Constructors -----------------------------//
 	/**
 	 * Constructor for motor controllers.
@@ -49,8 +121,16 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @param arbId
 	 */
 	public BaseMotorController(int arbId) {
-		m_handle = MotControllerJNI.Create(arbId);
+		m_backend = DeviceBackend.getMotController();
+		m_handle = m_backend.Create(arbId);
 		_arbId = arbId;
+		_frameUsage = new StatusFrameUsage(getClass().getSimpleName() + " " + (arbId & 0x3F), kStatusFrames,
+				kStatusPeriodsMs) {
+			protected ErrorCode setPeriod(int frameValue, int periodMs) {
+				return setStatusFramePeriod(frameValue, periodMs, 0);
+			}
+		};
+		_frameUsage.setControlFrames(kControlFrames, kControlPeriodsMs);
 	}
 	/**
 	 * @return CCI handle for child classes.
@@ -58,6 +138,20 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	public long getHandle() {
 		return m_handle;
 	}
+	/**
+	 * @return Backend this device was constructed with.
+	 */
+	public IMotControllerBackend getBackend() {
+		return m_backend;
+	}
+
+	/**
+	 * @return Status frames of this device and which of them were read, for
+	 *         a StatusFrameManager.
+	 */
+	public StatusFrameUsage getStatusFrameUsage() {
+		return _frameUsage;
+	}
 
 	/**
 	 * Returns the Device ID
@@ -65,7 +159,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Device number.
 	 */
 	public int getDeviceID() {
-		return MotControllerJNI.GetDeviceNumber(m_handle);
+		return m_backend.GetDeviceNumber(m_handle);
 	}
 
 	// ------ Set output routines. ----------//
@@ -143,6 +237,21 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *		_talonRght.set(ControlMode.MotionMagic, targetDistance, DemandType.AuxPID, desiredRobotHeading);
 	 */
 	public void set(ControlMode mode, double demand0, DemandType demand1Type, double demand1){
+		if (_setpointCacheEnabled) {
+			long now = System.nanoTime();
+			if (mode == _sentMode && demand0 == _sentDemand0 && demand1 == _sentDemand1
+					&& demand1Type == _sentDemand1Type && (_keepAliveNs <= 0 || now - _lastSendNs < _keepAliveNs)) {
+				++_setpointsSuppressed;
+				return;
+			}
+			_sentMode = mode;
+			_sentDemand0 = demand0;
+			_sentDemand1 = demand1;
+			_sentDemand1Type = demand1Type;
+			_lastSendNs = now;
+		}
+		++_setpointsSent;
+
 		m_controlMode = mode;
 		m_sendMode = mode;
 		int work;
@@ -150,7 +259,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 		switch (m_controlMode) {
 		case PercentOutput:
 			// case TimedPercentOutput:
-			MotControllerJNI.Set_4(m_handle, m_sendMode.value, demand0, demand1, demand1Type.value);
+			sendSet(m_sendMode.value, demand0, demand1, demand1Type.value);
 			break;
 		case Follower:
 			/* did caller specify device ID */
@@ -164,26 +273,78 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 			}
 			/* single precision guarantees 16bits of integral precision,
 		   * so float/double cast on work is safe */
-			MotControllerJNI.Set_4(m_handle, m_sendMode.value, (double)work, demand1, demand1Type.value);
+			sendSet(m_sendMode.value, (double)work, demand1, demand1Type.value);
 			break;
 		case Velocity:
 		case Position:
 		case MotionMagic:
 		case MotionProfile:
 		case MotionProfileArc:
-			MotControllerJNI.Set_4(m_handle, m_sendMode.value, demand0, demand1, demand1Type.value);
+			sendSet(m_sendMode.value, demand0, demand1, demand1Type.value);
 			break;
 		case Current:
-			MotControllerJNI.SetDemand(m_handle, m_sendMode.value, (int) (1000. * demand0), 0); /* milliamps */
+			sendDemand(m_sendMode.value, (int) (1000. * demand0), 0); /* milliamps */
 			break;
 		case Disabled:
 			/* fall thru... */
 		default:
-			MotControllerJNI.SetDemand(m_handle, m_sendMode.value, 0, 0);
+			sendDemand(m_sendMode.value, 0, 0);
 			break;
 		}
 
 	}
+	private void sendSet(int mode, double demand0, double demand1, int demand1Type) {
+		if (!WriteCombiner.stageSet(this, false, mode, demand0, demand1, demand1Type))
+			m_backend.Set_4(m_handle, mode, demand0, demand1, demand1Type);
+	}
+	private void sendDemand(int mode, int demand0, int demand1) {
+		if (!WriteCombiner.stageSet(this, true, mode, demand0, demand1, 0))
+			m_backend.SetDemand(m_handle, mode, demand0, demand1);
+	}
+
+	/**
+	 * Enables or disables skipping set() calls that repeat the last setpoint.
+	 * While enabled, set() only calls into the native layer when the mode,
+	 * demands or demand type change, or when keepAliveMs has elapsed since
+	 * the last call that was sent. Disabled by default.
+	 *
+	 * @param enable
+	 *            True to skip repeated setpoints.
+	 * @param keepAliveMs
+	 *            Time after which a repeated setpoint is sent anyway, so the
+	 *            control frame never goes stale. 0 to never resend.
+	 */
+	public void enableSetpointCache(boolean enable, int keepAliveMs) {
+		_setpointCacheEnabled = enable;
+		_keepAliveNs = keepAliveMs * 1000000L;
+		invalidateSetpointCache();
+	}
+	/**
+	 * Forces the next set() to be sent even if it repeats the last setpoint.
+	 */
+	public void invalidateSetpointCache() {
+		_sentMode = null;
+		_sentDemand1Type = null;
+	}
+	/**
+	 * @return Number of set() calls sent to the native layer.
+	 */
+	public long getSetpointsSent() {
+		return _setpointsSent;
+	}
+	/**
+	 * @return Number of set() calls skipped by the setpoint cache.
+	 */
+	public long getSetpointsSuppressed() {
+		return _setpointsSuppressed;
+	}
+	/**
+	 * Clears the sent and suppressed setpoint counts.
+	 */
+	public void resetSetpointCounts() {
+		_setpointsSent = 0;
+		_setpointsSuppressed = 0;
+	}
 
 	/**
 	 * Neutral the motor output by setting control mode to disabled.
@@ -200,7 +361,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *            throttle is neutral (ie brake/coast)
 	 **/
 	public void setNeutralMode(NeutralMode neutralMode) {
-		MotControllerJNI.SetNeutralMode(m_handle, neutralMode.value);
+		if (!WriteCombiner.stageNeutralMode(this, neutralMode.value))
+			m_backend.SetNeutralMode(m_handle, neutralMode.value);
 	}
 	/**
 	 * Enables a future feature called "Heading Hold".
@@ -211,7 +373,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 */
 	public void enableHeadingHold(boolean enable) {
 		/* this routine is moot as the Set() call updates the signal on each call */
-		//MotControllerJNI.EnableHeadingHold(m_handle, enable ? 1 : 0);
+		//m_backend.EnableHeadingHold(m_handle, enable ? 1 : 0);
 	}
 	/**
 	 * For now this simply updates the CAN signal to the motor controller.
@@ -221,7 +383,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 */
 	public void selectDemandType(boolean value) {
 		/* this routine is moot as the Set() call updates the signal on each call */
-		//MotControllerJNI.SelectDemandType(m_handle, value ? 1 : 0);
+		//m_backend.SelectDemandType(m_handle, value ? 1 : 0);
 	}
 
 	// ------ Invert behavior ----------//
@@ -235,7 +397,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *            Indicates whether to invert the phase of the sensor.
 	 */
 	public void setSensorPhase(boolean PhaseSensor) {
-		MotControllerJNI.SetSensorPhase(m_handle, PhaseSensor);
+		m_backend.SetSensorPhase(m_handle, PhaseSensor);
 	}
 
 	/**
@@ -254,7 +416,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 */
 	public void setInverted(boolean invert) {
 		_invert = invert; /* cache for getter */
-		MotControllerJNI.SetInverted(m_handle, invert);
+		m_backend.SetInverted(m_handle, invert);
 	}
 	/**
 	 * @return invert setting of motor output.
@@ -273,12 +435,14 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configFactoryDefault(int timeoutMs){
-		int retval = MotControllerJNI.ConfigFactoryDefault(m_handle, timeoutMs);
+		forgetKnownConfigs();
+		int retval = m_backend.ConfigFactoryDefault(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configFactoryDefault() {
         int timeoutMs = 50;
-		int retval = MotControllerJNI.ConfigFactoryDefault(m_handle, timeoutMs);
+		forgetKnownConfigs();
+		int retval = m_backend.ConfigFactoryDefault(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -296,7 +460,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configOpenloopRamp(double secondsFromNeutralToFull, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigOpenLoopRamp(m_handle, secondsFromNeutralToFull, timeoutMs);
+		int retval = m_backend.ConfigOpenLoopRamp(m_handle, secondsFromNeutralToFull, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configOpenloopRamp(double secondsFromNeutralToFull) {
@@ -317,7 +481,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configClosedloopRamp(double secondsFromNeutralToFull, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigClosedLoopRamp(m_handle, secondsFromNeutralToFull, timeoutMs);
+		int retval = m_backend.ConfigClosedLoopRamp(m_handle, secondsFromNeutralToFull, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configClosedloopRamp(double secondsFromNeutralToFull) {
@@ -337,7 +501,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configPeakOutputForward(double percentOut, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigPeakOutputForward(m_handle, percentOut, timeoutMs);
+		int retval = m_backend.ConfigPeakOutputForward(m_handle, percentOut, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configPeakOutputForward(double percentOut) {
@@ -357,7 +521,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configPeakOutputReverse(double percentOut, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigPeakOutputReverse(m_handle, percentOut, timeoutMs);
+		int retval = m_backend.ConfigPeakOutputReverse(m_handle, percentOut, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configPeakOutputReverse(double percentOut) {
@@ -376,7 +540,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configNominalOutputForward(double percentOut, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigNominalOutputForward(m_handle, percentOut, timeoutMs);
+		int retval = m_backend.ConfigNominalOutputForward(m_handle, percentOut, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configNominalOutputForward(double percentOut) {
@@ -396,7 +560,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configNominalOutputReverse(double percentOut, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigNominalOutputReverse(m_handle, percentOut, timeoutMs);
+		int retval = m_backend.ConfigNominalOutputReverse(m_handle, percentOut, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configNominalOutputReverse(double percentOut) {
@@ -417,7 +581,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configNeutralDeadband(double percentDeadband, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigNeutralDeadband(m_handle, percentDeadband, timeoutMs);
+		int retval = m_backend.ConfigNeutralDeadband(m_handle, percentDeadband, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configNeutralDeadband(double percentDeadband) {
@@ -441,7 +605,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configVoltageCompSaturation(double voltage, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigVoltageCompSaturation(m_handle, voltage, timeoutMs);
+		int retval = m_backend.ConfigVoltageCompSaturation(m_handle, voltage, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configVoltageCompSaturation(double voltage) {
@@ -462,7 +626,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configVoltageMeasurementFilter(int filterWindowSamples, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigVoltageMeasurementFilter(m_handle, filterWindowSamples, timeoutMs);
+		int retval = m_backend.ConfigVoltageMeasurementFilter(m_handle, filterWindowSamples, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configVoltageMeasurementFilter(int filterWindowSamples) {
@@ -478,7 +642,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *            Enable state of voltage compensation.
 	 **/
 	public void enableVoltageCompensation(boolean enable) {
-		MotControllerJNI.EnableVoltageCompensation(m_handle, enable);
+		m_backend.EnableVoltageCompensation(m_handle, enable);
 	}
 
 	// ------ General Status ----------//
@@ -488,7 +652,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The bus voltage value (in volts).
 	 */
 	public double getBusVoltage() {
-		return MotControllerJNI.GetBusVoltage(m_handle);
+		_frameUsage.read(kAinTempVbat);
+		return m_backend.GetBusVoltage(m_handle);
 	}
 
 	/**
@@ -497,7 +662,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Output of the motor controller (in percent).
 	 */
 	public double getMotorOutputPercent() {
-		return MotControllerJNI.GetMotorOutputPercent(m_handle);
+		_frameUsage.read(kGeneral);
+		return m_backend.GetMotorOutputPercent(m_handle);
 	}
 
 	/**
@@ -513,7 +679,22 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The output current (in amps).
 	 */
 	public double getOutputCurrent() {
-		return MotControllerJNI.GetOutputCurrent(m_handle);
+		_frameUsage.read(kFeedback0);
+		return m_backend.GetOutputCurrent(m_handle);
+	}
+	/**
+	 * Gets the output current along with when it was received.
+	 *
+	 * @param sampleTime
+	 *            Object to fill with the receive time and error of the read.
+	 * @return The output current (in amps).
+	 */
+	public double getOutputCurrent(SampleTime sampleTime) {
+		long sinceNs = System.nanoTime();
+		_frameUsage.read(kFeedback0);
+		double retval = m_backend.GetOutputCurrent(m_handle);
+		fillSampleTime(sampleTime, sinceNs);
+		return retval;
 	}
 
 	/**
@@ -522,7 +703,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Temperature of the motor controller (in 'C)
 	 */
 	public double getTemperature() {
-		return MotControllerJNI.GetTemperature(m_handle);
+		_frameUsage.read(kAinTempVbat);
+		return m_backend.GetTemperature(m_handle);
 	}
 
 	// ------ sensor selection ----------//
@@ -541,7 +723,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSelectedFeedbackSensor(RemoteFeedbackDevice feedbackDevice, int pidIdx, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigSelectedFeedbackSensor(m_handle, feedbackDevice.value, pidIdx, timeoutMs);
+		int retval = m_backend.ConfigSelectedFeedbackSensor(m_handle, feedbackDevice.value, pidIdx, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSelectedFeedbackSensor(RemoteFeedbackDevice feedbackDevice) {
@@ -564,7 +746,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSelectedFeedbackSensor(FeedbackDevice feedbackDevice, int pidIdx, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigSelectedFeedbackSensor(m_handle, feedbackDevice.value, pidIdx, timeoutMs);
+		int retval = m_backend.ConfigSelectedFeedbackSensor(m_handle, feedbackDevice.value, pidIdx, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSelectedFeedbackSensor(FeedbackDevice feedbackDevice) {
@@ -593,7 +775,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSelectedFeedbackCoefficient(double coefficient, int pidIdx, int timeoutMs) {
-	  int retval = MotControllerJNI.ConfigSelectedFeedbackCoefficient(m_handle, coefficient, pidIdx, timeoutMs);
+	  int retval = m_backend.ConfigSelectedFeedbackCoefficient(m_handle, coefficient, pidIdx, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSelectedFeedbackCoefficient(double coefficient) {
@@ -621,7 +803,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 */
 	public ErrorCode configRemoteFeedbackFilter(int deviceID, RemoteSensorSource remoteSensorSource, int remoteOrdinal,
 			int timeoutMs) {
-		int retval = MotControllerJNI.ConfigRemoteFeedbackFilter(m_handle, deviceID, remoteSensorSource.value, remoteOrdinal,
+		int retval = m_backend.ConfigRemoteFeedbackFilter(m_handle, deviceID, remoteSensorSource.value, remoteOrdinal,
 				timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -645,7 +827,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSensorTerm(SensorTerm sensorTerm, FeedbackDevice feedbackDevice, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigSensorTerm(m_handle, sensorTerm.value, feedbackDevice.value, timeoutMs);
+		int retval = m_backend.ConfigSensorTerm(m_handle, sensorTerm.value, feedbackDevice.value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSensorTerm(SensorTerm sensorTerm, FeedbackDevice feedbackDevice) {
@@ -671,12 +853,29 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Position of selected sensor (in raw sensor units).
 	 */
 	public int getSelectedSensorPosition(int pidIdx) {
-		return MotControllerJNI.GetSelectedSensorPosition(m_handle, pidIdx);
+		_frameUsage.read(pidIdx == 0 ? kFeedback0 : kFeedback1);
+		return m_backend.GetSelectedSensorPosition(m_handle, pidIdx);
 	}
 	public int getSelectedSensorPosition() {
 		int pidIdx = 0;
 		return getSelectedSensorPosition(pidIdx);
 	}
+	/**
+	 * Get the selected sensor position along with when it was received.
+	 *
+	 * @param pidIdx
+	 *            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+	 * @param sampleTime
+	 *            Object to fill with the receive time and error of the read.
+	 * @return Position of selected sensor (in raw sensor units).
+	 */
+	public int getSelectedSensorPosition(int pidIdx, SampleTime sampleTime) {
+		long sinceNs = System.nanoTime();
+		_frameUsage.read(pidIdx == 0 ? kFeedback0 : kFeedback1);
+		int retval = m_backend.GetSelectedSensorPosition(m_handle, pidIdx);
+		fillSampleTime(sampleTime, sinceNs);
+		return retval;
+	}
 
 	/**
 	 * Get the selected sensor velocity.
@@ -687,12 +886,29 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * See Phoenix-Documentation for how to interpret.
 	 */
 	public int getSelectedSensorVelocity(int pidIdx) {
-		return MotControllerJNI.GetSelectedSensorVelocity(m_handle, pidIdx);
+		_frameUsage.read(pidIdx == 0 ? kFeedback0 : kFeedback1);
+		return m_backend.GetSelectedSensorVelocity(m_handle, pidIdx);
 	}
 	public int getSelectedSensorVelocity() {
 		int pidIdx = 0;
 		return getSelectedSensorVelocity(pidIdx);
 	}
+	/**
+	 * Get the selected sensor velocity along with when it was received.
+	 *
+	 * @param pidIdx
+	 *            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+	 * @param sampleTime
+	 *            Object to fill with the receive time and error of the read.
+	 * @return selected sensor (in raw sensor units) per 100ms.
+	 */
+	public int getSelectedSensorVelocity(int pidIdx, SampleTime sampleTime) {
+		long sinceNs = System.nanoTime();
+		_frameUsage.read(pidIdx == 0 ? kFeedback0 : kFeedback1);
+		int retval = m_backend.GetSelectedSensorVelocity(m_handle, pidIdx);
+		fillSampleTime(sampleTime, sinceNs);
+		return retval;
+	}
 
 	/**
 	 * Sets the sensor position to the given value.
@@ -708,7 +924,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setSelectedSensorPosition(int sensorPos, int pidIdx, int timeoutMs) {
-		int retval = MotControllerJNI.SetSelectedSensorPosition(m_handle, sensorPos, pidIdx, timeoutMs);
+		int retval = m_backend.SetSelectedSensorPosition(m_handle, sensorPos, pidIdx, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setSelectedSensorPosition(int sensorPos) {
@@ -728,8 +944,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setControlFramePeriod(ControlFrame frame, int periodMs) {
-		int retval = MotControllerJNI.SetControlFramePeriod(m_handle, frame.value, periodMs);
-		return ErrorCode.valueOf(retval);
+		return setControlFramePeriod(frame.value, periodMs);
 	}
 
 	/**
@@ -748,7 +963,9 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setControlFramePeriod(int frame, int periodMs) {
-		int retval = MotControllerJNI.SetControlFramePeriod(m_handle, frame, periodMs);
+		int retval = m_backend.SetControlFramePeriod(m_handle, frame, periodMs);
+		if (retval == 0)
+			_frameUsage.onControlPeriodSet(frame, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -772,7 +989,9 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setStatusFramePeriod(int frameValue, int periodMs, int timeoutMs) {
-		int retval = MotControllerJNI.SetStatusFramePeriod(m_handle, frameValue, periodMs, timeoutMs);
+		int retval = m_backend.SetStatusFramePeriod(m_handle, frameValue, periodMs, timeoutMs);
+		if (retval == 0)
+			_frameUsage.onPeriodSet(frameValue, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setStatusFramePeriod(int frameValue, int periodMs) {
@@ -813,7 +1032,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Period of the given status frame.
 	 */
 	public int getStatusFramePeriod(int frame, int timeoutMs) {
-		return MotControllerJNI.GetStatusFramePeriod(m_handle, frame, timeoutMs);
+		return m_backend.GetStatusFramePeriod(m_handle, frame, timeoutMs);
 	}
 	public int getStatusFramePeriod(int frame) {
 		int timeoutMs = 0;
@@ -832,7 +1051,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Period of the given status frame.
 	 */
 	public int getStatusFramePeriod(StatusFrame frame, int timeoutMs) {
-		return MotControllerJNI.GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
+		return m_backend.GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
 	}
 	public int getStatusFramePeriod(StatusFrame frame) {
 		int timeoutMs = 0;
@@ -851,7 +1070,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Period of the given status frame.
 	 */
 	public int getStatusFramePeriod(StatusFrameEnhanced frame, int timeoutMs) {
-		return MotControllerJNI.GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
+		return m_backend.GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
 	}
 	public int getStatusFramePeriod(StatusFrameEnhanced frame) {
 		int timeoutMs = 0;
@@ -873,7 +1092,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configVelocityMeasurementPeriod(VelocityMeasPeriod period, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigVelocityMeasurementPeriod(m_handle, period.value, timeoutMs);
+		int retval = m_backend.ConfigVelocityMeasurementPeriod(m_handle, period.value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configVelocityMeasurementPeriod(VelocityMeasPeriod period) {
@@ -896,7 +1115,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configVelocityMeasurementWindow(int windowSize, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigVelocityMeasurementWindow(m_handle, windowSize, timeoutMs);
+		int retval = m_backend.ConfigVelocityMeasurementWindow(m_handle, windowSize, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configVelocityMeasurementWindow(int windowSize) {
@@ -955,7 +1174,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 */
 	public ErrorCode configReverseLimitSwitchSource(RemoteLimitSwitchSource type, LimitSwitchNormal normalOpenOrClose,
 			int deviceID, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigReverseLimitSwitchSource(m_handle, type.value, normalOpenOrClose.value,
+		int retval = m_backend.ConfigReverseLimitSwitchSource(m_handle, type.value, normalOpenOrClose.value,
 				deviceID, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -998,7 +1217,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 
 	protected ErrorCode configForwardLimitSwitchSource(int typeValue, int normalOpenOrCloseValue, int deviceID,
 			int timeoutMs) {
-		int retval = MotControllerJNI.ConfigForwardLimitSwitchSource(m_handle, typeValue, normalOpenOrCloseValue,
+		int retval = m_backend.ConfigForwardLimitSwitchSource(m_handle, typeValue, normalOpenOrCloseValue,
 				deviceID, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -1027,7 +1246,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 */
 	protected ErrorCode configReverseLimitSwitchSource(int typeValue, int normalOpenOrCloseValue, int deviceID,
 			int timeoutMs) {
-		int retval = MotControllerJNI.ConfigReverseLimitSwitchSource(m_handle, typeValue, normalOpenOrCloseValue,
+		int retval = m_backend.ConfigReverseLimitSwitchSource(m_handle, typeValue, normalOpenOrCloseValue,
 				deviceID, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -1039,7 +1258,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *            Enable state for limit switches.
 	 **/
 	public void overrideLimitSwitchesEnable(boolean enable) {
-		MotControllerJNI.OverrideLimitSwitchesEnable(m_handle, enable);
+		m_backend.OverrideLimitSwitchesEnable(m_handle, enable);
 	}
 
 	// ------ soft limit ----------//
@@ -1055,7 +1274,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configForwardSoftLimitThreshold(int forwardSensorLimit, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigForwardSoftLimitThreshold(m_handle, forwardSensorLimit, timeoutMs);
+		int retval = m_backend.ConfigForwardSoftLimitThreshold(m_handle, forwardSensorLimit, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configForwardSoftLimitThreshold(int forwardSensorLimit) {
@@ -1075,7 +1294,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configReverseSoftLimitThreshold(int reverseSensorLimit, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigReverseSoftLimitThreshold(m_handle, reverseSensorLimit, timeoutMs);
+		int retval = m_backend.ConfigReverseSoftLimitThreshold(m_handle, reverseSensorLimit, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configReverseSoftLimitThreshold(int reverseSensorLimit) {
@@ -1095,7 +1314,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configForwardSoftLimitEnable(boolean enable, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigForwardSoftLimitEnable(m_handle, enable, timeoutMs);
+		int retval = m_backend.ConfigForwardSoftLimitEnable(m_handle, enable, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configForwardSoftLimitEnable(boolean enable) {
@@ -1115,7 +1334,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configReverseSoftLimitEnable(boolean enable, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigReverseSoftLimitEnable(m_handle, enable, timeoutMs);
+		int retval = m_backend.ConfigReverseSoftLimitEnable(m_handle, enable, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configReverseSoftLimitEnable(boolean enable) {
@@ -1132,7 +1351,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *            Enable state for soft limit switches.
 	 */
 	public void overrideSoftLimitsEnable(boolean enable) {
-		MotControllerJNI.OverrideSoftLimitsEnable(m_handle, enable);
+		m_backend.OverrideSoftLimitsEnable(m_handle, enable);
 	}
 
 	// ------ Current Lim ----------//
@@ -1153,7 +1372,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode config_kP(int slotIdx, double value, int timeoutMs) {
-		int retval = MotControllerJNI.Config_kP(m_handle, slotIdx,  value, timeoutMs);
+		int retval = m_backend.Config_kP(m_handle, slotIdx,  value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode config_kP(int slotIdx, double value) {
@@ -1175,7 +1394,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode config_kI(int slotIdx, double value, int timeoutMs) {
-		int retval = MotControllerJNI.Config_kI(m_handle, slotIdx,  value, timeoutMs);
+		int retval = m_backend.Config_kI(m_handle, slotIdx,  value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode config_kI(int slotIdx, double value) {
@@ -1198,7 +1417,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode config_kD(int slotIdx, double value, int timeoutMs) {
-		int retval = MotControllerJNI.Config_kD(m_handle, slotIdx,  value, timeoutMs);
+		int retval = m_backend.Config_kD(m_handle, slotIdx,  value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode config_kD(int slotIdx, double value) {
@@ -1220,7 +1439,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode config_kF(int slotIdx, double value, int timeoutMs) {
-		int retval = MotControllerJNI.Config_kF(m_handle, slotIdx,  value, timeoutMs);
+		int retval = m_backend.Config_kF(m_handle, slotIdx,  value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode config_kF(int slotIdx,  double value) {
@@ -1246,7 +1465,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode config_IntegralZone(int slotIdx, int izone, int timeoutMs) {
-		int retval = MotControllerJNI.Config_IntegralZone(m_handle, slotIdx,  izone, timeoutMs);
+		int retval = m_backend.Config_IntegralZone(m_handle, slotIdx,  izone, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode config_IntegralZone(int slotIdx, int izone) {
@@ -1268,7 +1487,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configAllowableClosedloopError(int slotIdx, int allowableClosedLoopError, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigAllowableClosedloopError(m_handle, slotIdx, allowableClosedLoopError,
+		int retval = m_backend.ConfigAllowableClosedloopError(m_handle, slotIdx, allowableClosedLoopError,
 				timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -1293,7 +1512,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configMaxIntegralAccumulator(int slotIdx, double iaccum, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigMaxIntegralAccumulator(m_handle, slotIdx, iaccum, timeoutMs);
+		int retval = m_backend.ConfigMaxIntegralAccumulator(m_handle, slotIdx, iaccum, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configMaxIntegralAccumulator(int slotIdx, double iaccum) {
@@ -1318,7 +1537,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configClosedLoopPeakOutput(int slotIdx, double percentOut, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigClosedLoopPeakOutput(m_handle, slotIdx, percentOut, timeoutMs);
+		int retval = m_backend.ConfigClosedLoopPeakOutput(m_handle, slotIdx, percentOut, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configClosedLoopPeakOutput(int slotIdx, double percentOut) {
@@ -1343,7 +1562,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
   	public ErrorCode configClosedLoopPeriod(int slotIdx, int loopTimeMs, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigClosedLoopPeriod(m_handle, slotIdx, loopTimeMs, timeoutMs);
+		int retval = m_backend.ConfigClosedLoopPeriod(m_handle, slotIdx, loopTimeMs, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
   	public ErrorCode configClosedLoopPeriod(int slotIdx, int loopTimeMs) {
@@ -1395,7 +1614,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setIntegralAccumulator(double iaccum, int pidIdx, int timeoutMs) {
-		int retval = MotControllerJNI.SetIntegralAccumulator(m_handle,  iaccum, pidIdx, timeoutMs);
+		int retval = m_backend.SetIntegralAccumulator(m_handle,  iaccum, pidIdx, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setIntegralAccumulator(double iaccum) {
@@ -1413,7 +1632,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Closed-loop error value.
 	 */
 	public int getClosedLoopError(int pidIdx) {
-		return MotControllerJNI.GetClosedLoopError(m_handle, pidIdx);
+		_frameUsage.read(pidIdx == 0 ? kPIDF0 : kPIDF1);
+		return m_backend.GetClosedLoopError(m_handle, pidIdx);
 	}
 	public int getClosedLoopError() {
 		int pidIdx = 0;
@@ -1428,7 +1648,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Integral accumulator value (Closed-loop error X 1ms).
 	 */
 	public double getIntegralAccumulator(int pidIdx) {
-		return MotControllerJNI.GetIntegralAccumulator(m_handle, pidIdx);
+		_frameUsage.read(pidIdx == 0 ? kPIDF0 : kPIDF1);
+		return m_backend.GetIntegralAccumulator(m_handle, pidIdx);
 	}
 	public double getIntegralAccumulator() {
 		int pidIdx = 0;
@@ -1444,7 +1665,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The error derivative value.
 	 */
 	public double getErrorDerivative(int pidIdx) {
-		return MotControllerJNI.GetErrorDerivative(m_handle, pidIdx);
+		_frameUsage.read(pidIdx == 0 ? kPIDF0 : kPIDF1);
+		return m_backend.GetErrorDerivative(m_handle, pidIdx);
 	}
 	public double getErrorDerivative() {
 		int pidIdx = 0;
@@ -1461,7 +1683,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *            0 for Primary closed-loop. 1 for auxiliary closed-loop.
 	 **/
 	public void selectProfileSlot(int slotIdx, int pidIdx) {
-		MotControllerJNI.SelectProfileSlot(m_handle, slotIdx, pidIdx);
+		if (!WriteCombiner.stageProfileSlot(this, slotIdx, pidIdx))
+			m_backend.SelectProfileSlot(m_handle, slotIdx, pidIdx);
 	}
 
 	/**
@@ -1472,7 +1695,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The closed loop target.
 	 */
 	public int getClosedLoopTarget(int pidIdx) {
-		return MotControllerJNI.GetClosedLoopTarget(m_handle, pidIdx);
+		_frameUsage.read(pidIdx == 0 ? kPIDF0 : kPIDF1);
+		return m_backend.GetClosedLoopTarget(m_handle, pidIdx);
 	}
 	public int getClosedLoopTarget() {
 		int pidIdx = 0;
@@ -1486,7 +1710,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The Active Trajectory Position in sensor units.
 	 */
 	public int getActiveTrajectoryPosition() {
-		return MotControllerJNI.GetActiveTrajectoryPosition(m_handle);
+		_frameUsage.read(kMotionMagic);
+		return m_backend.GetActiveTrajectoryPosition(m_handle);
 	}
 
 	/**
@@ -1496,7 +1721,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The Active Trajectory Velocity in sensor units per 100ms.
 	 */
 	public int getActiveTrajectoryVelocity() {
-		return MotControllerJNI.GetActiveTrajectoryVelocity(m_handle);
+		_frameUsage.read(kMotionMagic);
+		return m_backend.GetActiveTrajectoryVelocity(m_handle);
 	}
 
 	/**
@@ -1506,7 +1732,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return The Active Trajectory Heading in degreees.
 	 */
 	public double getActiveTrajectoryHeading() {
-		return MotControllerJNI.GetActiveTrajectoryHeading(m_handle);
+		_frameUsage.read(kMotionMagic);
+		return m_backend.GetActiveTrajectoryHeading(m_handle);
 	}
 
 	// ------ Motion Profile Settings used in Motion Magic and Motion Profile ----------//
@@ -1524,7 +1751,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configMotionCruiseVelocity(int sensorUnitsPer100ms, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigMotionCruiseVelocity(m_handle, sensorUnitsPer100ms, timeoutMs);
+		int retval = m_backend.ConfigMotionCruiseVelocity(m_handle, sensorUnitsPer100ms, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configMotionCruiseVelocity(int sensorUnitsPer100ms) {
@@ -1546,7 +1773,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configMotionAcceleration(int sensorUnitsPer100msPerSec, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigMotionAcceleration(m_handle, sensorUnitsPer100msPerSec, timeoutMs);
+		int retval = m_backend.ConfigMotionAcceleration(m_handle, sensorUnitsPer100msPerSec, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configMotionAcceleration(int sensorUnitsPer100msPerSec) {
@@ -1560,7 +1787,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * API (top).
 	 */
 	public ErrorCode clearMotionProfileTrajectories() {
-		int retval = MotControllerJNI.ClearMotionProfileTrajectories(m_handle);
+		int retval = m_backend.ClearMotionProfileTrajectories(m_handle);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -1573,7 +1800,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return number of trajectory points in the top buffer.
 	 */
 	public int getMotionProfileTopLevelBufferCount() {
-		return MotControllerJNI.GetMotionProfileTopLevelBufferCount(m_handle);
+		return m_backend.GetMotionProfileTopLevelBufferCount(m_handle);
 	}
 	/**
 	 * Push another trajectory point into the top level buffer (which is emptied
@@ -1610,13 +1837,31 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *         full due to kMotionProfileTopBufferCapacity.
 	 */
 	public ErrorCode pushMotionProfileTrajectory(TrajectoryPoint trajPt) {
-		int retval = MotControllerJNI.PushMotionProfileTrajectory2(m_handle,
+		int retval = m_backend.PushMotionProfileTrajectory2(m_handle,
 				trajPt.position, trajPt.velocity, trajPt.auxiliaryPos,
 				trajPt.profileSlotSelect0, trajPt.profileSlotSelect1,
 				trajPt.isLastPoint, trajPt.zeroPos, trajPt.timeDur.value);
 		return ErrorCode.valueOf(retval);
 	}
 
+	/**
+	 * Push a range of points from a TrajectoryBuffer into the top level
+	 * buffer in one call, instead of one pushMotionProfileTrajectory() per
+	 * TrajectoryPoint. Stops at the first point that does not fit.
+	 *
+	 * @param buffer  Points to push.
+	 * @param offset  Index of the first point to push.
+	 * @param count   Number of points to push.
+	 * @return Number of points pushed, less than count if the top buffer
+	 *         filled up.
+	 */
+	public int pushMotionProfileTrajectories(TrajectoryBuffer buffer, int offset, int count) {
+		count = Math.min(count, buffer.size() - offset);
+		return m_backend.PushMotionProfileTrajectories(m_handle, buffer.getPositions(), buffer.getVelocities(),
+				buffer.getAuxiliaryPositions(), buffer.getProfileSlotSelect0(), buffer.getProfileSlotSelect1(),
+				buffer.getIsLastPoint(), buffer.getZeroPos(), buffer.getDurationsMs(), offset, count);
+	}
+
 	/**
 	 * Retrieve just the buffer full for the api-level (top) buffer. This
 	 * routine performs no CAN or data structure lookups, so its fast and ideal
@@ -1626,7 +1871,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return number of trajectory points in the top buffer.
 	 */
 	public boolean isMotionProfileTopLevelBufferFull() {
-		return MotControllerJNI.IsMotionProfileTopLevelBufferFull(m_handle);
+		return m_backend.IsMotionProfileTopLevelBufferFull(m_handle);
 	}
 
 	/**
@@ -1639,7 +1884,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * utilize threading.
 	 */
 	public void processMotionProfileBuffer() {
-		MotControllerJNI.ProcessMotionProfileBuffer(m_handle);
+		m_backend.ProcessMotionProfileBuffer(m_handle);
 	}
 	/**
 	 * Retrieve all status information.
@@ -1685,7 +1930,8 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *						confirm the change takes effect before interacting with the top buffer.
 	 */
 	public ErrorCode getMotionProfileStatus(MotionProfileStatus statusToFill) {
-		int retval = MotControllerJNI.GetMotionProfileStatus2(m_handle, _motionProfStats);
+		_frameUsage.read(kMotProfBuffer);
+		int retval = m_backend.GetMotionProfileStatus2(m_handle, _motionProfStats);
 		statusToFill.topBufferRem = _motionProfStats[0];
 		statusToFill.topBufferCnt = _motionProfStats[1];
 		statusToFill.btmBufferCnt = _motionProfStats[2];
@@ -1711,7 +1957,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode clearMotionProfileHasUnderrun(int timeoutMs) {
-		int retval = MotControllerJNI.ClearMotionProfileHasUnderrun(m_handle, timeoutMs);
+		int retval = m_backend.ClearMotionProfileHasUnderrun(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode clearMotionProfileHasUnderrun() {
@@ -1730,7 +1976,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode changeMotionControlFramePeriod(int periodMs) {
-		int retval = MotControllerJNI.ChangeMotionControlFramePeriod(m_handle, periodMs);
+		int retval = m_backend.ChangeMotionControlFramePeriod(m_handle, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -1750,7 +1996,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configMotionProfileTrajectoryPeriod(int baseTrajDurationMs, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigMotionProfileTrajectoryPeriod(m_handle, baseTrajDurationMs, timeoutMs);
+		int retval = m_backend.ConfigMotionProfileTrajectoryPeriod(m_handle, baseTrajDurationMs, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configMotionProfileTrajectoryPeriod(int baseTrajDurationMs) {
@@ -1774,7 +2020,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configFeedbackNotContinuous(boolean feedbackNotContinuous, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigFeedbackNotContinuous(m_handle, feedbackNotContinuous, timeoutMs);
+        int retval = m_backend.ConfigFeedbackNotContinuous(m_handle, feedbackNotContinuous, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1790,7 +2036,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configRemoteSensorClosedLoopDisableNeutralOnLOS(boolean remoteSensorClosedLoopDisableNeutralOnLOS, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(m_handle, remoteSensorClosedLoopDisableNeutralOnLOS, timeoutMs);
+        int retval = m_backend.ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(m_handle, remoteSensorClosedLoopDisableNeutralOnLOS, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     /**
@@ -1805,7 +2051,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configClearPositionOnLimitF(boolean clearPositionOnLimitF, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigClearPositionOnLimitF(m_handle, clearPositionOnLimitF, timeoutMs);
+        int retval = m_backend.ConfigClearPositionOnLimitF(m_handle, clearPositionOnLimitF, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1821,7 +2067,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configClearPositionOnLimitR(boolean clearPositionOnLimitR, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigClearPositionOnLimitR(m_handle, clearPositionOnLimitR, timeoutMs);
+        int retval = m_backend.ConfigClearPositionOnLimitR(m_handle, clearPositionOnLimitR, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1837,7 +2083,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configClearPositionOnQuadIdx(boolean clearPositionOnQuadIdx, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigClearPositionOnQuadIdx(m_handle, clearPositionOnQuadIdx, timeoutMs);
+        int retval = m_backend.ConfigClearPositionOnQuadIdx(m_handle, clearPositionOnQuadIdx, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1853,7 +2099,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configLimitSwitchDisableNeutralOnLOS(boolean limitSwitchDisableNeutralOnLOS, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigLimitSwitchDisableNeutralOnLOS(m_handle, limitSwitchDisableNeutralOnLOS, timeoutMs);
+        int retval = m_backend.ConfigLimitSwitchDisableNeutralOnLOS(m_handle, limitSwitchDisableNeutralOnLOS, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1869,7 +2115,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configSoftLimitDisableNeutralOnLOS(boolean softLimitDisableNeutralOnLOS, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigSoftLimitDisableNeutralOnLOS(m_handle, softLimitDisableNeutralOnLOS, timeoutMs);
+        int retval = m_backend.ConfigSoftLimitDisableNeutralOnLOS(m_handle, softLimitDisableNeutralOnLOS, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1886,7 +2132,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configPulseWidthPeriod_EdgesPerRot(int pulseWidthPeriod_EdgesPerRot, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigPulseWidthPeriod_EdgesPerRot(m_handle, pulseWidthPeriod_EdgesPerRot, timeoutMs);
+        int retval = m_backend.ConfigPulseWidthPeriod_EdgesPerRot(m_handle, pulseWidthPeriod_EdgesPerRot, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
     
@@ -1903,9 +2149,113 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error.
      */
     public ErrorCode configPulseWidthPeriod_FilterWindowSz(int pulseWidthPeriod_FilterWindowSz, int timeoutMs) {
-        int retval = MotControllerJNI.ConfigPulseWidthPeriod_FilterWindowSz(m_handle, pulseWidthPeriod_FilterWindowSz, timeoutMs);
+        int retval = m_backend.ConfigPulseWidthPeriod_FilterWindowSz(m_handle, pulseWidthPeriod_FilterWindowSz, timeoutMs);
         return ErrorCode.valueOf(retval);
     }
+	// ------ Status snapshot ----------//
+	/**
+	 * Reads all commonly used status signals in one call.
+	 * Intended to replace the individual getters in periodic loops, toFill
+	 * should be allocated once and reused.
+	 *
+	 * @param toFill
+	 *            Object to fill with the latest signals.
+	 * @param pidIdx
+	 *            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+	 * @return First nonzero Error Code of the status frames read.
+	 */
+	public ErrorCode getStatusSnapshot(MotorStatusSnapshot toFill, int pidIdx) {
+		readSnapshotFrames(pidIdx);
+		long sinceNs = System.nanoTime();
+		m_backend.GetStatusSnapshot(m_handle, pidIdx, _statusBlock, 0);
+		toFill.update(_statusBlock, 0);
+		toFill.sampleTime.update(m_backend.GetReceiveTimeNs(m_handle, sinceNs), toFill.lastError);
+		return toFill.lastError;
+	}
+	public ErrorCode getStatusSnapshot(MotorStatusSnapshot toFill) {
+		int pidIdx = 0;
+		return getStatusSnapshot(toFill, pidIdx);
+	}
+
+	/**
+	 * Reads all commonly used status signals into a caller provided block.
+	 *
+	 * @param block
+	 *            Status block, laid out per MotorStatusSignal.
+	 * @param offset
+	 *            Index of the first signal to fill.
+	 * @param pidIdx
+	 *            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+	 * @return First nonzero Error Code of the status frames read.
+	 */
+	public ErrorCode getStatusSnapshot(double[] block, int offset, int pidIdx) {
+		readSnapshotFrames(pidIdx);
+		int retval = m_backend.GetStatusSnapshot(m_handle, pidIdx, block, offset);
+		return ErrorCode.valueOf(retval);
+	}
+
+	/**
+	 * Reads the status signals of several motor controllers into one block.
+	 * Device i is written at offset i * MotorStatusSignal.kStride, so a block of
+	 * controllers.length * MotorStatusSignal.kStride doubles can be reused every loop.
+	 *
+	 * @param controllers
+	 *            Motor controllers to read.
+	 * @param pidIdx
+	 *            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+	 * @param block
+	 *            Status block to fill.
+	 * @return First nonzero Error Code reported by the devices.
+	 */
+	public static ErrorCode getStatusSnapshots(BaseMotorController[] controllers, int pidIdx, double[] block) {
+		int retval = 0;
+		int offset = 0;
+		for (int i = 0; i < controllers.length; ++i) {
+			controllers[i].readSnapshotFrames(pidIdx);
+			int err = controllers[i].m_backend.GetStatusSnapshot(controllers[i].m_handle, pidIdx, block, offset);
+			if (retval == 0)
+				retval = err;
+			offset += MotorStatusSignal.kStride;
+		}
+		return ErrorCode.valueOf(retval);
+	}
+
+	// ------ sample time ----------//
+	/**
+	 * Gets when the signals returned by the getters called since the previous
+	 * call with the same sampleTime were received, and the last error of the
+	 * device. Any getter can be followed by this call to check whether its
+	 * value is fresh. Each caller keeps its own SampleTime, so loops reading
+	 * the same device do not reset each other's window.
+	 *
+	 * The receive time is the oldest of the signals read. Without receive
+	 * times from the native layer it is SampleTime.kUnknown, and staleness
+	 * is only reported through the error (CAN_MSG_STALE).
+	 *
+	 * @param sampleTime
+	 *            Object to fill.
+	 * @return Last Error Code generated by the device.
+	 */
+	public ErrorCode getSampleTime(SampleTime sampleTime) {
+		return fillSampleTime(sampleTime, sampleTime.nextWindow());
+	}
+	private ErrorCode fillSampleTime(SampleTime sampleTime, long sinceNs) {
+		long receiveTimeNs = m_backend.GetReceiveTimeNs(m_handle, sinceNs);
+		ErrorCode err = ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		sampleTime.update(receiveTimeNs, err);
+		return err;
+	}
+
+	/** Marks the frames carrying the signals of a status snapshot as read. */
+	private void readSnapshotFrames(int pidIdx) {
+		_frameUsage.read(kGeneral);
+		_frameUsage.read(pidIdx == 0 ? kFeedback0 : kFeedback1);
+		_frameUsage.read(kFeedback0); /* sticky faults */
+		_frameUsage.read(kAinTempVbat);
+		_frameUsage.read(pidIdx == 0 ? kPIDF0 : kPIDF1);
+		_frameUsage.read(kMotionMagic);
+	}
+
 	// ------ error ----------//
 	/**
 	 * Gets the last error generated by this object. Not all functions return an
@@ -1915,7 +2265,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Last Error Code generated by a function.
 	 */
 	public ErrorCode getLastError() {
-		int retval = MotControllerJNI.GetLastError(m_handle);
+		int retval = m_backend.GetLastError(m_handle);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -1928,8 +2278,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Last Error Code generated by a function.
 	 */
 	public ErrorCode getFaults(Faults toFill) {
-		int bits = MotControllerJNI.GetFaults(m_handle);
-		toFill.update(bits);
+		toFill.update(getFaultBits());
 		return getLastError();
 	}
 
@@ -1941,10 +2290,64 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Last Error Code generated by a function.
 	 */
 	public ErrorCode getStickyFaults(StickyFaults toFill) {
-		int bits = MotControllerJNI.GetStickyFaults(m_handle);
-		toFill.update(bits);
+		toFill.update(getStickyFaultBits());
 		return getLastError();
 	}
+	/**
+	 * Gets the fault flags as a bitfield, in the bit order of Faults.
+	 * Check getLastError() for the error of the read.
+	 *
+	 * @return Fault bitfield.
+	 */
+	public int getFaultBits() {
+		_frameUsage.read(kGeneral);
+		return m_backend.GetFaults(m_handle);
+	}
+	/**
+	 * Gets the sticky fault flags as a bitfield, in the bit order of
+	 * StickyFaults. Check getLastError() for the error of the read.
+	 *
+	 * @return Sticky fault bitfield.
+	 */
+	public int getStickyFaultBits() {
+		_frameUsage.read(kFeedback0);
+		return m_backend.GetStickyFaults(m_handle);
+	}
+	/**
+	 * Gets the fault flags as a bitfield together with the error of that
+	 * read, for a thread other than the robot thread. The error is fetched
+	 * right after the read under a lock shared by the reads that return their
+	 * own error, so concurrent monitors never see each other's errors and
+	 * need not call getLastError().
+	 *
+	 * @param bits
+	 *            bits[0] is filled with the fault bitfield, in the bit order
+	 *            of Faults.
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getFaultBits(int[] bits) {
+		_frameUsage.read(kGeneral);
+		synchronized (_readErrorLock) {
+			bits[0] = m_backend.GetFaults(m_handle);
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
+	/**
+	 * Gets the sticky fault flags as a bitfield together with the error of
+	 * that read, see getFaultBits(int[]).
+	 *
+	 * @param bits
+	 *            bits[0] is filled with the sticky fault bitfield, in the bit
+	 *            order of StickyFaults.
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getStickyFaultBits(int[] bits) {
+		_frameUsage.read(kFeedback0);
+		synchronized (_readErrorLock) {
+			bits[0] = m_backend.GetStickyFaults(m_handle);
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
 
 	/**
 	 * Clears all sticky faults.
@@ -1956,7 +2359,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Last Error Code generated by a function.
 	 */
 	public ErrorCode clearStickyFaults(int timeoutMs) {
-		int retval = MotControllerJNI.ClearStickyFaults(m_handle, timeoutMs);
+		int retval = m_backend.ClearStickyFaults(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode clearStickyFaults() {
@@ -1972,7 +2375,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 *         0x0102.
 	 */
 	public int getFirmwareVersion() {
-		return MotControllerJNI.GetFirmwareVersion(m_handle);
+		return m_backend.GetFirmwareVersion(m_handle);
 	}
 
 	/**
@@ -1981,7 +2384,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Has a Device Reset Occurred?
 	 */
 	public boolean hasResetOccurred() {
-		return MotControllerJNI.HasResetOccurred(m_handle);
+		return m_backend.HasResetOccurred(m_handle);
 	}
 
 	//------ Custom Persistent Params ----------//
@@ -2003,7 +2406,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSetCustomParam(int newValue, int paramIndex, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigSetCustomParam(m_handle, newValue, paramIndex, timeoutMs);
+		int retval = m_backend.ConfigSetCustomParam(m_handle, newValue, paramIndex, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSetCustomParam(int newValue, int paramIndex) {
@@ -2023,7 +2426,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Value of the custom param.
 	 */
 	public int configGetCustomParam(int paramIndex, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigGetCustomParam(m_handle, paramIndex, timeoutMs);
+		int retval = m_backend.ConfigGetCustomParam(m_handle, paramIndex, timeoutMs);
 		return retval;
 	}
 	public int configGetCustomParam(int paramIndex) {
@@ -2077,7 +2480,7 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSetParameter(int param, double value, int subValue, int ordinal, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigSetParameter(m_handle, param,  value, subValue, ordinal,
+		int retval = m_backend.ConfigSetParameter(m_handle, param,  value, subValue, ordinal,
 				timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -2119,7 +2522,37 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 	 * @return Value of parameter.
 	 */
 	public double configGetParameter(int param, int ordinal, int timeoutMs) {
-		return MotControllerJNI.ConfigGetParameter(m_handle, param, ordinal, timeoutMs);
+		double retval = m_backend.ConfigGetParameter(m_handle, param, ordinal, timeoutMs);
+		if (_readBackThread == Thread.currentThread()) {
+			/* read the error right away, before another read replaces it */
+			int err = m_backend.GetLastError(m_handle);
+			if (err != 0)
+				_readBackErrors.NewError(err, "param " + param + "[" + ordinal + "]");
+		}
+		return retval;
+	}
+	/**
+	 * Runs a set of configGetParameter() reads, recording the error of each
+	 * one, rather than only the last one as getLastError() would.
+	 *
+	 * @param reads             Routine making the reads on this thread.
+	 * @param errorCollection   Collection to record the failed reads into.
+	 * @return Worst error of the reads, OK if they all succeeded.
+	 */
+	protected ErrorCode readBack(Runnable reads, ErrorCollection errorCollection) {
+		ErrorCollection errors = new ErrorCollection();
+		synchronized (_readBackLock) {
+			_readBackErrors = errors;
+			_readBackThread = Thread.currentThread();
+			try {
+				reads.run();
+			} finally {
+				_readBackThread = null;
+				_readBackErrors = null;
+			}
+		}
+		errorCollection.NewErrors(errors, "");
+		return errors._worstError;
 	}
 	public double configGetParameter(int param, int ordinal) {
 		int timeoutMs = 0;
@@ -2191,6 +2624,46 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
 
     //------Config All------//
 
+    /**
+     * Runs a configuration routine on a background thread. Routines of
+     * different devices run at the same time, so their round trips overlap.
+     * Each failed setting is named "[class] [device ID]: [setting]".
+     *
+     * @param routine       Configuration routine, filling the collection.
+     * @return Future completed with the errors once the routine finishes.
+     */
+    protected CompletableFuture<ErrorCollection> configAsync(final Consumer<ErrorCollection> routine) {
+        final String prefix = getClass().getSimpleName() + " " + getDeviceID() + ": ";
+        return CompletableFuture.supplyAsync(new Supplier<ErrorCollection>() {
+            public ErrorCollection get() {
+                ErrorCollection deviceErrors = new ErrorCollection();
+                routine.accept(deviceErrors);
+                ErrorCollection retval = new ErrorCollection();
+                retval.NewErrors(deviceErrors, prefix);
+                return retval;
+            }
+        }, ConfigExecutor.get());
+    }
+
+    /**
+     * Waits for several asynchronous configurations, typically one per device.
+     *
+     * @param futures       Futures returned by configAllSettingsAsync().
+     * @return Future completed with every failure of every device once all
+     *         have finished.
+     */
+    public static CompletableFuture<ErrorCollection> allOf(final List<CompletableFuture<ErrorCollection>> futures) {
+        CompletableFuture<?>[] array = futures.toArray(new CompletableFuture<?>[futures.size()]);
+        return CompletableFuture.allOf(array).thenApply(new Function<Void, ErrorCollection>() {
+            public ErrorCollection apply(Void ignored) {
+                ErrorCollection retval = new ErrorCollection();
+                for (CompletableFuture<ErrorCollection> future : futures)
+                    retval.NewErrors(future.join(), "");
+                return retval;
+            }
+        });
+    }
+
     /**
      * Configures all base persistant settings.
      *
@@ -2203,37 +2676,50 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error. 
      */
     protected ErrorCode baseConfigAllSettings(BaseMotorControllerConfiguration allConfigs, int timeoutMs) {
-        
-    
         ErrorCollection errorCollection = new ErrorCollection();
+        baseConfigAllSettings(allConfigs, timeoutMs, errorCollection);
+        return errorCollection._worstError;
+    }
+    /**
+     * Configures all base persistant settings, recording each failed setting.
+     *
+	 * @param allConfigs        Object with all of the base persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record errors into.
+     */
+    protected void baseConfigAllSettings(BaseMotorControllerConfiguration allConfigs, int timeoutMs,
+            ErrorCollection errorCollection) {
     
-        errorCollection.NewError(configFactoryDefault(timeoutMs));
+        errorCollection.NewError(configFactoryDefault(timeoutMs), "factoryDefault");
 
         //----- general output shaping ------------------//
-        errorCollection.NewError(configOpenloopRamp(allConfigs.openloopRamp, timeoutMs));
-        errorCollection.NewError(configClosedloopRamp(allConfigs.closedloopRamp, timeoutMs));
-        errorCollection.NewError(configPeakOutputForward(allConfigs.peakOutputForward, timeoutMs));
-        errorCollection.NewError(configPeakOutputReverse(allConfigs.peakOutputReverse, timeoutMs));
-        errorCollection.NewError(configNominalOutputForward(allConfigs.nominalOutputForward, timeoutMs));
-        errorCollection.NewError(configNominalOutputReverse(allConfigs.nominalOutputReverse, timeoutMs));
-        errorCollection.NewError(configNeutralDeadband(allConfigs.neutralDeadband, timeoutMs));
+        errorCollection.NewError(configOpenloopRamp(allConfigs.openloopRamp, timeoutMs), "openloopRamp");
+        errorCollection.NewError(configClosedloopRamp(allConfigs.closedloopRamp, timeoutMs), "closedloopRamp");
+        errorCollection.NewError(configPeakOutputForward(allConfigs.peakOutputForward, timeoutMs), "peakOutputForward");
+        errorCollection.NewError(configPeakOutputReverse(allConfigs.peakOutputReverse, timeoutMs), "peakOutputReverse");
+        errorCollection.NewError(configNominalOutputForward(allConfigs.nominalOutputForward, timeoutMs), "nominalOutputForward");
+        errorCollection.NewError(configNominalOutputReverse(allConfigs.nominalOutputReverse, timeoutMs), "nominalOutputReverse");
+        errorCollection.NewError(configNeutralDeadband(allConfigs.neutralDeadband, timeoutMs), "neutralDeadband");
         
     
         //------ Voltage Compensation ----------//
-        errorCollection.NewError(configVoltageCompSaturation(allConfigs.voltageCompSaturation, timeoutMs));
-        errorCollection.NewError(configVoltageMeasurementFilter(allConfigs.voltageMeasurementFilter, timeoutMs));
+        errorCollection.NewError(configVoltageCompSaturation(allConfigs.voltageCompSaturation, timeoutMs), "voltageCompSaturation");
+        errorCollection.NewError(configVoltageMeasurementFilter(allConfigs.voltageMeasurementFilter, timeoutMs), "voltageMeasurementFilter");
         
     
         //----- velocity signal conditionaing ------//
-        errorCollection.NewError(configVelocityMeasurementPeriod(allConfigs.velocityMeasurementPeriod, timeoutMs));
-        errorCollection.NewError(configVelocityMeasurementWindow(allConfigs.velocityMeasurementWindow, timeoutMs));
+        errorCollection.NewError(configVelocityMeasurementPeriod(allConfigs.velocityMeasurementPeriod, timeoutMs), "velocityMeasurementPeriod");
+        errorCollection.NewError(configVelocityMeasurementWindow(allConfigs.velocityMeasurementWindow, timeoutMs), "velocityMeasurementWindow");
         
     
         //------ soft limit ----------//
-        errorCollection.NewError(configForwardSoftLimitThreshold(allConfigs.forwardSoftLimitThreshold, timeoutMs));
-        errorCollection.NewError(configReverseSoftLimitThreshold(allConfigs.reverseSoftLimitThreshold, timeoutMs));
-        errorCollection.NewError(configForwardSoftLimitEnable(allConfigs.forwardSoftLimitEnable, timeoutMs));
-        errorCollection.NewError(configReverseSoftLimitEnable(allConfigs.reverseSoftLimitEnable, timeoutMs));
+        errorCollection.NewError(configForwardSoftLimitThreshold(allConfigs.forwardSoftLimitThreshold, timeoutMs), "forwardSoftLimitThreshold");
+        errorCollection.NewError(configReverseSoftLimitThreshold(allConfigs.reverseSoftLimitThreshold, timeoutMs), "reverseSoftLimitThreshold");
+        errorCollection.NewError(configForwardSoftLimitEnable(allConfigs.forwardSoftLimitEnable, timeoutMs), "forwardSoftLimitEnable");
+        errorCollection.NewError(configReverseSoftLimitEnable(allConfigs.reverseSoftLimitEnable, timeoutMs), "reverseSoftLimitEnable");
         
     
     
@@ -2245,53 +2731,262 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
     
         //--------Slots---------------//
     
-        errorCollection.NewError(configureSlot(allConfigs.slot_0, 0, timeoutMs));
-        errorCollection.NewError(configureSlot(allConfigs.slot_1, 1, timeoutMs));
-        errorCollection.NewError(configureSlot(allConfigs.slot_2, 2, timeoutMs));
-        errorCollection.NewError(configureSlot(allConfigs.slot_3, 3, timeoutMs));
+        configureSlot(allConfigs.slot_0, 0, timeoutMs, errorCollection);
+        configureSlot(allConfigs.slot_1, 1, timeoutMs, errorCollection);
+        configureSlot(allConfigs.slot_2, 2, timeoutMs, errorCollection);
+        configureSlot(allConfigs.slot_3, 3, timeoutMs, errorCollection);
         
     
         //---------Auxilary Closed Loop Polarity-------------//
     
-        errorCollection.NewError(configAuxPIDPolarity(allConfigs.auxPIDPolarity, timeoutMs));
+        errorCollection.NewError(configAuxPIDPolarity(allConfigs.auxPIDPolarity, timeoutMs), "auxPIDPolarity");
         
     
         //----------Remote Feedback Filters----------//
-        errorCollection.NewError(configureFilter(allConfigs.filter_0, 0, timeoutMs));
-        errorCollection.NewError(configureFilter(allConfigs.filter_1, 1, timeoutMs));
+        configureFilter(allConfigs.filter_0, 0, timeoutMs, errorCollection);
+        configureFilter(allConfigs.filter_1, 1, timeoutMs, errorCollection);
         
     
         //------ Motion Profile Settings used in Motion Magic  ----------//
-        errorCollection.NewError(configMotionCruiseVelocity(allConfigs.motionCruiseVelocity, timeoutMs));
-        errorCollection.NewError(configMotionAcceleration(allConfigs.motionAcceleration, timeoutMs));
+        errorCollection.NewError(configMotionCruiseVelocity(allConfigs.motionCruiseVelocity, timeoutMs), "motionCruiseVelocity");
+        errorCollection.NewError(configMotionAcceleration(allConfigs.motionAcceleration, timeoutMs), "motionAcceleration");
         
     
         //------ Motion Profile Buffer ----------//
-        errorCollection.NewError(configMotionProfileTrajectoryPeriod(allConfigs.motionProfileTrajectoryPeriod, timeoutMs));
+        errorCollection.NewError(configMotionProfileTrajectoryPeriod(allConfigs.motionProfileTrajectoryPeriod, timeoutMs), "motionProfileTrajectoryPeriod");
         
     
         //------ Custom Persistent Params ----------//
-        errorCollection.NewError(configSetCustomParam(allConfigs.customParam_0, 0, timeoutMs));
-        errorCollection.NewError(configSetCustomParam(allConfigs.customParam_1, 1, timeoutMs));
+        errorCollection.NewError(configSetCustomParam(allConfigs.customParam_0, 0, timeoutMs), "customParam_0");
+        errorCollection.NewError(configSetCustomParam(allConfigs.customParam_1, 1, timeoutMs), "customParam_1");
         
     
-        errorCollection.NewError(configFeedbackNotContinuous(allConfigs.feedbackNotContinuous, timeoutMs));
-        errorCollection.NewError(configRemoteSensorClosedLoopDisableNeutralOnLOS(allConfigs.remoteSensorClosedLoopDisableNeutralOnLOS, timeoutMs));
-        errorCollection.NewError(configClearPositionOnLimitF(allConfigs.clearPositionOnLimitF, timeoutMs));
-        errorCollection.NewError(configClearPositionOnLimitR(allConfigs.clearPositionOnLimitR, timeoutMs));
-        errorCollection.NewError(configClearPositionOnQuadIdx(allConfigs.clearPositionOnQuadIdx, timeoutMs));
-        errorCollection.NewError(configLimitSwitchDisableNeutralOnLOS(allConfigs.limitSwitchDisableNeutralOnLOS, timeoutMs));
-        errorCollection.NewError(configSoftLimitDisableNeutralOnLOS(allConfigs.softLimitDisableNeutralOnLOS, timeoutMs));
-        errorCollection.NewError(configPulseWidthPeriod_EdgesPerRot(allConfigs.pulseWidthPeriod_EdgesPerRot, timeoutMs));
-        errorCollection.NewError(configPulseWidthPeriod_FilterWindowSz(allConfigs.pulseWidthPeriod_FilterWindowSz, timeoutMs));
+        errorCollection.NewError(configFeedbackNotContinuous(allConfigs.feedbackNotContinuous, timeoutMs), "feedbackNotContinuous");
+        errorCollection.NewError(configRemoteSensorClosedLoopDisableNeutralOnLOS(allConfigs.remoteSensorClosedLoopDisableNeutralOnLOS, timeoutMs), "remoteSensorClosedLoopDisableNeutralOnLOS");
+        errorCollection.NewError(configClearPositionOnLimitF(allConfigs.clearPositionOnLimitF, timeoutMs), "clearPositionOnLimitF");
+        errorCollection.NewError(configClearPositionOnLimitR(allConfigs.clearPositionOnLimitR, timeoutMs), "clearPositionOnLimitR");
+        errorCollection.NewError(configClearPositionOnQuadIdx(allConfigs.clearPositionOnQuadIdx, timeoutMs), "clearPositionOnQuadIdx");
+        errorCollection.NewError(configLimitSwitchDisableNeutralOnLOS(allConfigs.limitSwitchDisableNeutralOnLOS, timeoutMs), "limitSwitchDisableNeutralOnLOS");
+        errorCollection.NewError(configSoftLimitDisableNeutralOnLOS(allConfigs.softLimitDisableNeutralOnLOS, timeoutMs), "softLimitDisableNeutralOnLOS");
+        errorCollection.NewError(configPulseWidthPeriod_EdgesPerRot(allConfigs.pulseWidthPeriod_EdgesPerRot, timeoutMs), "pulseWidthPeriod_EdgesPerRot");
+        errorCollection.NewError(configPulseWidthPeriod_FilterWindowSz(allConfigs.pulseWidthPeriod_FilterWindowSz, timeoutMs), "pulseWidthPeriod_FilterWindowSz");
         
     
-        return errorCollection._worstError;
     }
 
 
 
     
+    /**
+     * Discards the settings remembered by configChangedSettings(), so the
+     * next call reads them back from the device first. Settings changed
+     * through the individual config routines are not tracked, so call this
+     * after using them. configFactoryDefault() calls this.
+     */
+    public void forgetKnownConfigs() {
+        _knownConfigs = null;
+    }
+    /**
+     * @return Settings remembered by the last configChangedSettings(), or
+     *         null. The object is updated in place by later calls.
+     */
+    public BaseMotorControllerConfiguration getKnownConfigs() {
+        return _knownConfigs;
+    }
+    /**
+     * Supplies the settings the device is known to hold, so the next
+     * configChangedSettings() diffs against them instead of reading every
+     * setting back from the device.
+     *
+     * Persistant settings survive a reboot, so the configuration applied by
+     * the previous run of the robot program (built by the same code, or
+     * saved by the caller) can be supplied after a warm reboot, making the
+     * first apply as cheap as later ones. Only supply settings nothing else
+     * has changed since, a configuration tool for instance, otherwise the
+     * differing settings will not be written.
+     *
+     * @param knownConfigs
+     *              Settings of the device, a TalonSRXConfiguration for a
+     *              TalonSRX, a VictorSPXConfiguration for a VictorSPX. The
+     *              object is kept and updated in place, so pass one that is
+     *              not otherwise modified, and not the one later passed to
+     *              configChangedSettings(). Null to read back again.
+     */
+    public void setKnownConfigs(BaseMotorControllerConfiguration knownConfigs) {
+        _knownConfigs = knownConfigs;
+    }
+    /**
+     * Configures the base persistant settings that differ from the last known
+     * device values, updating known as each write succeeds. Unlike
+     * baseConfigAllSettings(), the device is not factory defaulted first.
+     *
+	 * @param allConfigs        Object with all of the base persistant settings
+	 * @param known             Last known settings of the device.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param diff              Tracks skipped settings and records errors.
+     */
+    void baseConfigChangedSettings(BaseMotorControllerConfiguration allConfigs, BaseMotorControllerConfiguration known,
+            int timeoutMs, ConfigDiff diff) {
+        //----- general output shaping ------------------//
+        if (diff.changedRamp(known.openloopRamp, allConfigs.openloopRamp)
+                && diff.write(configOpenloopRamp(allConfigs.openloopRamp, timeoutMs), "openloopRamp"))
+            known.openloopRamp = allConfigs.openloopRamp;
+        if (diff.changedRamp(known.closedloopRamp, allConfigs.closedloopRamp)
+                && diff.write(configClosedloopRamp(allConfigs.closedloopRamp, timeoutMs), "closedloopRamp"))
+            known.closedloopRamp = allConfigs.closedloopRamp;
+        if (diff.changedOutput(known.peakOutputForward, allConfigs.peakOutputForward)
+                && diff.write(configPeakOutputForward(allConfigs.peakOutputForward, timeoutMs), "peakOutputForward"))
+            known.peakOutputForward = allConfigs.peakOutputForward;
+        if (diff.changedOutput(known.peakOutputReverse, allConfigs.peakOutputReverse)
+                && diff.write(configPeakOutputReverse(allConfigs.peakOutputReverse, timeoutMs), "peakOutputReverse"))
+            known.peakOutputReverse = allConfigs.peakOutputReverse;
+        if (diff.changedOutput(known.nominalOutputForward, allConfigs.nominalOutputForward)
+                && diff.write(configNominalOutputForward(allConfigs.nominalOutputForward, timeoutMs), "nominalOutputForward"))
+            known.nominalOutputForward = allConfigs.nominalOutputForward;
+        if (diff.changedOutput(known.nominalOutputReverse, allConfigs.nominalOutputReverse)
+                && diff.write(configNominalOutputReverse(allConfigs.nominalOutputReverse, timeoutMs), "nominalOutputReverse"))
+            known.nominalOutputReverse = allConfigs.nominalOutputReverse;
+        if (diff.changedOutput(known.neutralDeadband, allConfigs.neutralDeadband)
+                && diff.write(configNeutralDeadband(allConfigs.neutralDeadband, timeoutMs), "neutralDeadband"))
+            known.neutralDeadband = allConfigs.neutralDeadband;
+        
+    
+        //------ Voltage Compensation ----------//
+        if (diff.changed(known.voltageCompSaturation, allConfigs.voltageCompSaturation)
+                && diff.write(configVoltageCompSaturation(allConfigs.voltageCompSaturation, timeoutMs), "voltageCompSaturation"))
+            known.voltageCompSaturation = allConfigs.voltageCompSaturation;
+        if (diff.changed(known.voltageMeasurementFilter, allConfigs.voltageMeasurementFilter)
+                && diff.write(configVoltageMeasurementFilter(allConfigs.voltageMeasurementFilter, timeoutMs), "voltageMeasurementFilter"))
+            known.voltageMeasurementFilter = allConfigs.voltageMeasurementFilter;
+        
+    
+        //----- velocity signal conditionaing ------//
+        if (diff.changed(known.velocityMeasurementPeriod.value, allConfigs.velocityMeasurementPeriod.value)
+                && diff.write(configVelocityMeasurementPeriod(allConfigs.velocityMeasurementPeriod, timeoutMs), "velocityMeasurementPeriod"))
+            known.velocityMeasurementPeriod = allConfigs.velocityMeasurementPeriod;
+        if (diff.changed(known.velocityMeasurementWindow, allConfigs.velocityMeasurementWindow)
+                && diff.write(configVelocityMeasurementWindow(allConfigs.velocityMeasurementWindow, timeoutMs), "velocityMeasurementWindow"))
+            known.velocityMeasurementWindow = allConfigs.velocityMeasurementWindow;
+        
+    
+        //------ soft limit ----------//
+        if (diff.changed(known.forwardSoftLimitThreshold, allConfigs.forwardSoftLimitThreshold)
+                && diff.write(configForwardSoftLimitThreshold(allConfigs.forwardSoftLimitThreshold, timeoutMs), "forwardSoftLimitThreshold"))
+            known.forwardSoftLimitThreshold = allConfigs.forwardSoftLimitThreshold;
+        if (diff.changed(known.reverseSoftLimitThreshold, allConfigs.reverseSoftLimitThreshold)
+                && diff.write(configReverseSoftLimitThreshold(allConfigs.reverseSoftLimitThreshold, timeoutMs), "reverseSoftLimitThreshold"))
+            known.reverseSoftLimitThreshold = allConfigs.reverseSoftLimitThreshold;
+        if (diff.changed(known.forwardSoftLimitEnable, allConfigs.forwardSoftLimitEnable)
+                && diff.write(configForwardSoftLimitEnable(allConfigs.forwardSoftLimitEnable, timeoutMs), "forwardSoftLimitEnable"))
+            known.forwardSoftLimitEnable = allConfigs.forwardSoftLimitEnable;
+        if (diff.changed(known.reverseSoftLimitEnable, allConfigs.reverseSoftLimitEnable)
+                && diff.write(configReverseSoftLimitEnable(allConfigs.reverseSoftLimitEnable, timeoutMs), "reverseSoftLimitEnable"))
+            known.reverseSoftLimitEnable = allConfigs.reverseSoftLimitEnable;
+        
+    
+    
+        //------ limit switch ----------//   
+        /* not in base */
+    
+        //------ Current Lim ----------//
+        /* not in base */
+    
+        //--------Slots---------------//
+    
+        configureChangedSlot(allConfigs.slot_0, known.slot_0, 0, timeoutMs, diff);
+        configureChangedSlot(allConfigs.slot_1, known.slot_1, 1, timeoutMs, diff);
+        configureChangedSlot(allConfigs.slot_2, known.slot_2, 2, timeoutMs, diff);
+        configureChangedSlot(allConfigs.slot_3, known.slot_3, 3, timeoutMs, diff);
+        
+    
+        //---------Auxilary Closed Loop Polarity-------------//
+    
+        if (diff.changed(known.auxPIDPolarity, allConfigs.auxPIDPolarity)
+                && diff.write(configAuxPIDPolarity(allConfigs.auxPIDPolarity, timeoutMs), "auxPIDPolarity"))
+            known.auxPIDPolarity = allConfigs.auxPIDPolarity;
+        
+    
+        //----------Remote Feedback Filters----------//
+        if (diff.check(known.filter_0.remoteSensorDeviceID != allConfigs.filter_0.remoteSensorDeviceID
+                || known.filter_0.remoteSensorSource.value != allConfigs.filter_0.remoteSensorSource.value)) {
+            /* one frame sets both */
+            ErrorCode err = configureFilter(allConfigs.filter_0, 0, timeoutMs);
+            diff.write(err, "filter_0.remoteSensorDeviceID");
+            if (diff.write(err, "filter_0.remoteSensorSource")) {
+                known.filter_0.remoteSensorDeviceID = allConfigs.filter_0.remoteSensorDeviceID;
+                known.filter_0.remoteSensorSource = allConfigs.filter_0.remoteSensorSource;
+            }
+        }
+        if (diff.check(known.filter_1.remoteSensorDeviceID != allConfigs.filter_1.remoteSensorDeviceID
+                || known.filter_1.remoteSensorSource.value != allConfigs.filter_1.remoteSensorSource.value)) {
+            /* one frame sets both */
+            ErrorCode err = configureFilter(allConfigs.filter_1, 1, timeoutMs);
+            diff.write(err, "filter_1.remoteSensorDeviceID");
+            if (diff.write(err, "filter_1.remoteSensorSource")) {
+                known.filter_1.remoteSensorDeviceID = allConfigs.filter_1.remoteSensorDeviceID;
+                known.filter_1.remoteSensorSource = allConfigs.filter_1.remoteSensorSource;
+            }
+        }
+        
+    
+        //------ Motion Profile Settings used in Motion Magic  ----------//
+        if (diff.changed(known.motionCruiseVelocity, allConfigs.motionCruiseVelocity)
+                && diff.write(configMotionCruiseVelocity(allConfigs.motionCruiseVelocity, timeoutMs), "motionCruiseVelocity"))
+            known.motionCruiseVelocity = allConfigs.motionCruiseVelocity;
+        if (diff.changed(known.motionAcceleration, allConfigs.motionAcceleration)
+                && diff.write(configMotionAcceleration(allConfigs.motionAcceleration, timeoutMs), "motionAcceleration"))
+            known.motionAcceleration = allConfigs.motionAcceleration;
+        
+    
+        //------ Motion Profile Buffer ----------//
+        if (diff.changed(known.motionProfileTrajectoryPeriod, allConfigs.motionProfileTrajectoryPeriod)
+                && diff.write(configMotionProfileTrajectoryPeriod(allConfigs.motionProfileTrajectoryPeriod, timeoutMs), "motionProfileTrajectoryPeriod"))
+            known.motionProfileTrajectoryPeriod = allConfigs.motionProfileTrajectoryPeriod;
+        
+    
+        //------ Custom Persistent Params ----------//
+        if (diff.changed(known.customParam_0, allConfigs.customParam_0)
+                && diff.write(configSetCustomParam(allConfigs.customParam_0, 0, timeoutMs), "customParam_0"))
+            known.customParam_0 = allConfigs.customParam_0;
+        if (diff.changed(known.customParam_1, allConfigs.customParam_1)
+                && diff.write(configSetCustomParam(allConfigs.customParam_1, 1, timeoutMs), "customParam_1"))
+            known.customParam_1 = allConfigs.customParam_1;
+        
+    
+        if (diff.changed(known.feedbackNotContinuous, allConfigs.feedbackNotContinuous)
+                && diff.write(configFeedbackNotContinuous(allConfigs.feedbackNotContinuous, timeoutMs), "feedbackNotContinuous"))
+            known.feedbackNotContinuous = allConfigs.feedbackNotContinuous;
+        if (diff.changed(known.remoteSensorClosedLoopDisableNeutralOnLOS, allConfigs.remoteSensorClosedLoopDisableNeutralOnLOS)
+                && diff.write(configRemoteSensorClosedLoopDisableNeutralOnLOS(allConfigs.remoteSensorClosedLoopDisableNeutralOnLOS, timeoutMs), "remoteSensorClosedLoopDisableNeutralOnLOS"))
+            known.remoteSensorClosedLoopDisableNeutralOnLOS = allConfigs.remoteSensorClosedLoopDisableNeutralOnLOS;
+        if (diff.changed(known.clearPositionOnLimitF, allConfigs.clearPositionOnLimitF)
+                && diff.write(configClearPositionOnLimitF(allConfigs.clearPositionOnLimitF, timeoutMs), "clearPositionOnLimitF"))
+            known.clearPositionOnLimitF = allConfigs.clearPositionOnLimitF;
+        if (diff.changed(known.clearPositionOnLimitR, allConfigs.clearPositionOnLimitR)
+                && diff.write(configClearPositionOnLimitR(allConfigs.clearPositionOnLimitR, timeoutMs), "clearPositionOnLimitR"))
+            known.clearPositionOnLimitR = allConfigs.clearPositionOnLimitR;
+        if (diff.changed(known.clearPositionOnQuadIdx, allConfigs.clearPositionOnQuadIdx)
+                && diff.write(configClearPositionOnQuadIdx(allConfigs.clearPositionOnQuadIdx, timeoutMs), "clearPositionOnQuadIdx"))
+            known.clearPositionOnQuadIdx = allConfigs.clearPositionOnQuadIdx;
+        if (diff.changed(known.limitSwitchDisableNeutralOnLOS, allConfigs.limitSwitchDisableNeutralOnLOS)
+                && diff.write(configLimitSwitchDisableNeutralOnLOS(allConfigs.limitSwitchDisableNeutralOnLOS, timeoutMs), "limitSwitchDisableNeutralOnLOS"))
+            known.limitSwitchDisableNeutralOnLOS = allConfigs.limitSwitchDisableNeutralOnLOS;
+        if (diff.changed(known.softLimitDisableNeutralOnLOS, allConfigs.softLimitDisableNeutralOnLOS)
+                && diff.write(configSoftLimitDisableNeutralOnLOS(allConfigs.softLimitDisableNeutralOnLOS, timeoutMs), "softLimitDisableNeutralOnLOS"))
+            known.softLimitDisableNeutralOnLOS = allConfigs.softLimitDisableNeutralOnLOS;
+        if (diff.changed(known.pulseWidthPeriod_EdgesPerRot, allConfigs.pulseWidthPeriod_EdgesPerRot)
+                && diff.write(configPulseWidthPeriod_EdgesPerRot(allConfigs.pulseWidthPeriod_EdgesPerRot, timeoutMs), "pulseWidthPeriod_EdgesPerRot"))
+            known.pulseWidthPeriod_EdgesPerRot = allConfigs.pulseWidthPeriod_EdgesPerRot;
+        if (diff.changed(known.pulseWidthPeriod_FilterWindowSz, allConfigs.pulseWidthPeriod_FilterWindowSz)
+                && diff.write(configPulseWidthPeriod_FilterWindowSz(allConfigs.pulseWidthPeriod_FilterWindowSz, timeoutMs), "pulseWidthPeriod_FilterWindowSz"))
+            known.pulseWidthPeriod_FilterWindowSz = allConfigs.pulseWidthPeriod_FilterWindowSz;
+        
+    
+    }
+
     /**
      * Configures all slot persistant settings.
      *
@@ -2305,23 +3000,80 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
      * @return Error Code generated by function. 0 indicates no error. 
      */
     public ErrorCode configureSlot( SlotConfiguration slot, int slotIdx, int timeoutMs) {
-    
         ErrorCollection errorCollection = new ErrorCollection();
+        configureSlot(slot, slotIdx, timeoutMs, errorCollection);
+        return errorCollection._worstError;
+    }
+    /**
+     * Configures all slot persistant settings, recording each failed setting
+     * as "slot_[slotIdx].[setting]".
+     *
+	 * @param slot        Object with all of the slot persistant settings
+	 * @param slotIdx     Parameter slot for the constant.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record errors into.
+     */
+    public void configureSlot( SlotConfiguration slot, int slotIdx, int timeoutMs, ErrorCollection errorCollection) {
+        String prefix = "slot_" + slotIdx + ".";
         //------ General Close loop ----------//    
     
-        errorCollection.NewError(config_kP(slotIdx, slot.kP, timeoutMs));
-        errorCollection.NewError(config_kI(slotIdx, slot.kI, timeoutMs));
-        errorCollection.NewError(config_kD(slotIdx, slot.kD, timeoutMs));
-        errorCollection.NewError(config_kF(slotIdx, slot.kF, timeoutMs));
-        errorCollection.NewError(config_IntegralZone(slotIdx, slot.integralZone, timeoutMs));
-        errorCollection.NewError(configAllowableClosedloopError(slotIdx, slot.allowableClosedloopError, timeoutMs));
-        errorCollection.NewError(configMaxIntegralAccumulator(slotIdx, slot.maxIntegralAccumulator, timeoutMs));
-        errorCollection.NewError(configClosedLoopPeakOutput(slotIdx, slot.closedLoopPeakOutput, timeoutMs));
-        errorCollection.NewError(configClosedLoopPeriod(slotIdx, slot.closedLoopPeriod, timeoutMs));
-        
-    
-        return errorCollection._worstError;
+        errorCollection.NewError(config_kP(slotIdx, slot.kP, timeoutMs), prefix + "kP");
+        errorCollection.NewError(config_kI(slotIdx, slot.kI, timeoutMs), prefix + "kI");
+        errorCollection.NewError(config_kD(slotIdx, slot.kD, timeoutMs), prefix + "kD");
+        errorCollection.NewError(config_kF(slotIdx, slot.kF, timeoutMs), prefix + "kF");
+        errorCollection.NewError(config_IntegralZone(slotIdx, slot.integralZone, timeoutMs), prefix + "integralZone");
+        errorCollection.NewError(configAllowableClosedloopError(slotIdx, slot.allowableClosedloopError, timeoutMs), prefix + "allowableClosedloopError");
+        errorCollection.NewError(configMaxIntegralAccumulator(slotIdx, slot.maxIntegralAccumulator, timeoutMs), prefix + "maxIntegralAccumulator");
+        errorCollection.NewError(configClosedLoopPeakOutput(slotIdx, slot.closedLoopPeakOutput, timeoutMs), prefix + "closedLoopPeakOutput");
+        errorCollection.NewError(configClosedLoopPeriod(slotIdx, slot.closedLoopPeriod, timeoutMs), prefix + "closedLoopPeriod");
+    }
+
+    /**
+     * Configures the slot persistant settings that differ from the last known
+     * device values, updating known as each write succeeds.
+     *
+	 * @param slot        Object with all of the slot persistant settings
+	 * @param known       Last known slot settings of the device.
+	 * @param slotIdx     Parameter slot for the constant.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param diff        Tracks skipped settings and records errors.
+     */
+    void configureChangedSlot(SlotConfiguration slot, SlotConfiguration known, int slotIdx, int timeoutMs, ConfigDiff diff) {
+        String prefix = "slot_" + slotIdx + ".";
     
+        if (diff.changed(known.kP, slot.kP)
+                && diff.write(config_kP(slotIdx, slot.kP, timeoutMs), prefix + "kP"))
+            known.kP = slot.kP;
+        if (diff.changed(known.kI, slot.kI)
+                && diff.write(config_kI(slotIdx, slot.kI, timeoutMs), prefix + "kI"))
+            known.kI = slot.kI;
+        if (diff.changed(known.kD, slot.kD)
+                && diff.write(config_kD(slotIdx, slot.kD, timeoutMs), prefix + "kD"))
+            known.kD = slot.kD;
+        if (diff.changed(known.kF, slot.kF)
+                && diff.write(config_kF(slotIdx, slot.kF, timeoutMs), prefix + "kF"))
+            known.kF = slot.kF;
+        if (diff.changed(known.integralZone, slot.integralZone)
+                && diff.write(config_IntegralZone(slotIdx, slot.integralZone, timeoutMs), prefix + "integralZone"))
+            known.integralZone = slot.integralZone;
+        if (diff.changed(known.allowableClosedloopError, slot.allowableClosedloopError)
+                && diff.write(configAllowableClosedloopError(slotIdx, slot.allowableClosedloopError, timeoutMs), prefix + "allowableClosedloopError"))
+            known.allowableClosedloopError = slot.allowableClosedloopError;
+        if (diff.changed(known.maxIntegralAccumulator, slot.maxIntegralAccumulator)
+                && diff.write(configMaxIntegralAccumulator(slotIdx, slot.maxIntegralAccumulator, timeoutMs), prefix + "maxIntegralAccumulator"))
+            known.maxIntegralAccumulator = slot.maxIntegralAccumulator;
+        if (diff.changedOutput(known.closedLoopPeakOutput, slot.closedLoopPeakOutput)
+                && diff.write(configClosedLoopPeakOutput(slotIdx, slot.closedLoopPeakOutput, timeoutMs), prefix + "closedLoopPeakOutput"))
+            known.closedLoopPeakOutput = slot.closedLoopPeakOutput;
+        if (diff.changed(known.closedLoopPeriod, slot.closedLoopPeriod)
+                && diff.write(configClosedLoopPeriod(slotIdx, slot.closedLoopPeriod, timeoutMs), prefix + "closedLoopPeriod"))
+            known.closedLoopPeriod = slot.closedLoopPeriod;
     }
 
    
@@ -2389,6 +3141,26 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
         return configRemoteFeedbackFilter(filter.remoteSensorDeviceID, filter.remoteSensorSource, ordinal, timeoutMs);
     
     }
+    /**
+     * Configures all filter persistant settings, recording the result of each
+     * setting in errorCollection as "filter_[ordinal].[setting]". Device ID and
+     * source are sent in one frame, so they share an error.
+     *
+	 * @param filter        Object with all of the filter persistant settings
+     * @param ordinal       0 for remote sensor 0 and 1 for remote sensor 1.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection
+     *              Collection the result of each setting is added to.
+     */
+    public void configureFilter( FilterConfiguration filter, int ordinal, int timeoutMs, ErrorCollection errorCollection) {
+        String prefix = "filter_" + ordinal + ".";
+        ErrorCode err = configureFilter(filter, ordinal, timeoutMs);
+        errorCollection.NewError(err, prefix + "remoteSensorDeviceID");
+        errorCollection.NewError(err, prefix + "remoteSensorSource");
+    }
     /**
      * Configures all filter persistant settings (overloaded so timeoutMs is 50 ms
      * and ordinal is 0).
@@ -2447,6 +3219,31 @@ public abstract class BaseMotorController implements com.ctre.phoenix.motorcontr
         return configSelectedFeedbackCoefficient(pid.selectedFeedbackCoefficient, pidIdx, timeoutMs);
     
     }
+    /**
+     * Configures all base PID set persistant settings, recording the result
+     * of each setting in errorCollection under pidPrefix(pidIdx).
+     *
+	 * @param pid           Object with all of the base PID set persistant settings
+     * @param pidIdx        0 for Primary closed-loop. 1 for auxiliary closed-loop.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection
+     *              Collection the result of each setting is added to.
+     */
+    protected void baseConfigurePID(BasePIDSetConfiguration pid, int pidIdx, int timeoutMs, ErrorCollection errorCollection) {
+    
+        errorCollection.NewError(configSelectedFeedbackCoefficient(pid.selectedFeedbackCoefficient, pidIdx, timeoutMs),
+                pidPrefix(pidIdx) + "selectedFeedbackCoefficient");
+    
+    }
+    /**
+     * @return Name of the PID set in a configuration, with a trailing dot.
+     */
+    protected static String pidPrefix(int pidIdx) {
+        return pidIdx == 0 ? "primaryPID." : "auxilaryPID.";
+    }
     /**
      * Gets all base PID set persistant settings.
      *
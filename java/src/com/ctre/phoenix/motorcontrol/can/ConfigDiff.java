@@ -0,0 +1,97 @@
+package com.ctre.phoenix.motorcontrol.can;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ErrorCollection;
+
+/**
+ * Bookkeeping for a diff-based config apply. Each setting is compared against
+ * the last known device value; unchanged settings are counted as skipped,
+ * changed ones are written and their result recorded. Enums are compared by
+ * value since several share one (QuadEncoder and CTRE_MagEncoder_Relative).
+ *
+ * Doubles are compared within the resolution the firmware stores them at,
+ * since settings read back from the device come back rounded: kP = 0.1 is
+ * not read back as exactly 0.1. Gains and most settings are fixed point
+ * with plenty of fractional bits, outputs are in 1/1023 steps, and ramps
+ * are coarser still.
+ */
+class ConfigDiff {
+
+	private final ErrorCollection _errorCollection;
+	private int _skipped = 0;
+
+	ConfigDiff(ErrorCollection errorCollection) {
+		_errorCollection = errorCollection;
+	}
+
+	/**
+	 * @param differs
+	 *            True if any value written by the config call has changed.
+	 * @return True if the config call should be made.
+	 */
+	boolean check(boolean differs) {
+		if (!differs)
+			++_skipped;
+		return differs;
+	}
+	// ------ resolutions ----------//
+	/** Relative difference treated as rounding, for gains and such. */
+	private static final double kRelativeResolution = 1.0 / 1024;
+	/** Absolute difference treated as rounding, for gains near zero. */
+	private static final double kAbsoluteResolution = 1.0 / (1 << 22);
+	/** Half a step of an output stored in 1/1023 units. */
+	private static final double kOutputResolution = 0.5 / 1023;
+	/** Relative difference treated as rounding, for ramps. */
+	private static final double kRampResolution = 1.0 / 16;
+
+	/**
+	 * @return True if the values differ by more than the rounding of a
+	 *         fixed point setting.
+	 */
+	static boolean differs(double known, double wanted) {
+		return differs(known, wanted, kRelativeResolution, kAbsoluteResolution);
+	}
+	private static boolean differs(double known, double wanted, double relative, double absolute) {
+		double tolerance = absolute + relative * Math.max(Math.abs(known), Math.abs(wanted));
+		return !(Math.abs(known - wanted) <= tolerance);
+	}
+
+	boolean changed(double known, double wanted) {
+		return check(differs(known, wanted));
+	}
+	/**
+	 * Compares an output fraction, peak, nominal or deadband.
+	 */
+	boolean changedOutput(double known, double wanted) {
+		return check(differs(known, wanted, 0, kOutputResolution));
+	}
+	/**
+	 * Compares a ramp in seconds.
+	 */
+	boolean changedRamp(double known, double wanted) {
+		return check(differs(known, wanted, kRampResolution, kAbsoluteResolution));
+	}
+	boolean changed(int known, int wanted) {
+		return check(known != wanted);
+	}
+	boolean changed(boolean known, boolean wanted) {
+		return check(known != wanted);
+	}
+
+	/**
+	 * Records the result of a config call.
+	 *
+	 * @return True if the write succeeded, so the known value can be updated.
+	 */
+	boolean write(ErrorCode err, String name) {
+		_errorCollection.NewError(err, name);
+		return err.value == 0;
+	}
+
+	/**
+	 * @return Number of config calls skipped because the value was unchanged.
+	 */
+	int getSkipped() {
+		return _skipped;
+	}
+}
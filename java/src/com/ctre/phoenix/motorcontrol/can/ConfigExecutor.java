@@ -0,0 +1,30 @@
+package com.ctre.phoenix.motorcontrol.can;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads used to run blocking config routines in the background.
+ * Each device's routine blocks on its own round trips, so the pool grows to
+ * one thread per device being configured rather than sharing a fixed number.
+ */
+class ConfigExecutor {
+
+	private static ExecutorService _executor = null;
+
+	static synchronized ExecutorService get() {
+		if (_executor == null) {
+			_executor = Executors.newCachedThreadPool(new ThreadFactory() {
+				private int _count = 0;
+
+				public synchronized Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "CTRE config " + (_count++));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return _executor;
+	}
+}
@@ -0,0 +1,276 @@
+package com.ctre.phoenix.motorcontrol.can;
+
+/**
+ * Low level interface used by the CAN motor controller classes.
+ * Each routine mirrors the same named routine in MotControllerJNI,
+ * so a backend other than the CCI (such as a simulation) can be selected
+ * with com.ctre.phoenix.DeviceBackend.
+ */
+public interface IMotControllerBackend {
+
+	long Create(int baseArbId);
+
+	int GetDeviceNumber(long handle);
+
+	void SetDemand(long handle, int mode, int demand0, int demand1);
+
+	void Set_4(long handle, int mode, double demand0, double demand1, int demand1Type);
+
+	void SetNeutralMode(long handle, int neutralMode);
+
+	void SetSensorPhase(long handle, boolean PhaseSensor);
+
+	void SetInverted(long handle, boolean invert);
+
+	int ConfigFactoryDefault(long handle, int timeoutMs);
+
+	int ConfigOpenLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs);
+
+	int ConfigClosedLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs);
+
+	int ConfigPeakOutputForward(long handle, double percentOut, int timeoutMs);
+
+	int ConfigPeakOutputReverse(long handle, double percentOut, int timeoutMs);
+
+	int ConfigNominalOutputForward(long handle, double percentOut, int timeoutMs);
+
+	int ConfigNominalOutputReverse(long handle, double percentOut, int timeoutMs);
+
+	int ConfigNeutralDeadband(long handle, double percentDeadband, int timeoutMs);
+
+	int ConfigVoltageCompSaturation(long handle, double voltage, int timeoutMs);
+
+	int ConfigVoltageMeasurementFilter(long handle, int filterWindowSamples, int timeoutMs);
+
+	void EnableVoltageCompensation(long handle, boolean enable);
+
+	double GetBusVoltage(long handle);
+
+	double GetMotorOutputPercent(long handle);
+
+	double GetOutputCurrent(long handle);
+
+	double GetTemperature(long handle);
+
+	int ConfigRemoteFeedbackFilter(long handle, int deviceID, int remoteSensorSource,
+			int remoteOrdinal, int timeoutMs);
+
+	int ConfigSelectedFeedbackSensor(long handle, int feedbackDevice, int pidIdx, int timeoutMs);
+
+	int ConfigSensorTerm(long handle, int sensorTerm, int feedbackDevice, int timeoutMs);
+
+	int GetSelectedSensorPosition(long handle, int pidIdx);
+
+	int GetSelectedSensorVelocity(long handle, int pidIdx);
+
+	int SetSelectedSensorPosition(long handle, int sensorPos, int pidIdx, int timeoutMs);
+
+	int SetControlFramePeriod(long handle, int frame, int periodMs);
+
+	int SetStatusFramePeriod(long handle, int frame, int periodMs, int timeoutMs);
+
+	int GetStatusFramePeriod(long handle, int frame, int timeoutMs);
+
+	int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs);
+
+	int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs);
+
+	int ConfigForwardLimitSwitchSource(long handle, int type, int normalOpenOrClose, int deviceID,
+			int timeoutMs);
+
+	int ConfigReverseLimitSwitchSource(long handle, int type, int normalOpenOrClose, int deviceID,
+			int timeoutMs);
+
+	void OverrideLimitSwitchesEnable(long handle, boolean enable);
+
+	int ConfigForwardSoftLimitThreshold(long handle, int forwardSensorLimit, int timeoutMs);
+
+	int ConfigReverseSoftLimitThreshold(long handle, int reverseSensorLimit, int timeoutMs);
+
+	int ConfigForwardSoftLimitEnable(long handle, boolean enable, int timeoutMs);
+
+	int ConfigReverseSoftLimitEnable(long handle, boolean enable, int timeoutMs);
+
+	void OverrideSoftLimitsEnable(long handle, boolean enable);
+
+	int Config_kP(long handle, int slotIdx, double value, int timeoutMs);
+
+	int Config_kI(long handle, int slotIdx, double value, int timeoutMs);
+
+	int Config_kD(long handle, int slotIdx, double value, int timeoutMs);
+
+	int Config_kF(long handle, int slotIdx, double value, int timeoutMs);
+
+	int Config_IntegralZone(long handle, int slotIdx, double izone, int timeoutMs);
+
+	int ConfigAllowableClosedloopError(long handle, int slotIdx, int allowableClosedLoopError, int timeoutMs);
+
+	int ConfigMaxIntegralAccumulator(long handle, int slotIdx, double iaccum, int timeoutMs);
+
+	int SetIntegralAccumulator(long handle, double iaccum, int pidIdx, int timeoutMs);
+
+	int GetClosedLoopError(long handle, int pidIdx);
+
+	double GetIntegralAccumulator(long handle, int pidIdx);
+
+	double GetErrorDerivative(long handle, int pidIdx);
+
+	void SelectProfileSlot(long handle, int slotIdx, int pidIdx);
+
+	int GetActiveTrajectoryPosition(long handle);
+
+	int GetActiveTrajectoryVelocity(long handle);
+
+	double GetActiveTrajectoryHeading(long handle);
+
+	int ConfigMotionCruiseVelocity(long handle, int sensorUnitsPer100ms, int timeoutMs);
+
+	int ConfigMotionAcceleration(long handle, int sensorUnitsPer100msPerSec, int timeoutMs);
+
+	int ClearMotionProfileTrajectories(long handle);
+
+	int GetMotionProfileTopLevelBufferCount(long handle);
+
+	int PushMotionProfileTrajectory(long handle, double position, double velocity, double headingDeg,
+			int profileSlotSelect, boolean isLastPoint, boolean zeroPos);
+
+	int PushMotionProfileTrajectory2(long handle, double position, double velocity, double headingDeg,
+			int profileSlotSelect0, int profileSlotSelect1, boolean isLastPoint, boolean zeroPos, int durationMs);
+
+	/**
+	 * Pushes points [offset, offset + count) of the parallel arrays, stopping
+	 * at the first point that does not fit.
+	 *
+	 * @return Number of points pushed.
+	 */
+	int PushMotionProfileTrajectories(long handle, double[] position, double[] velocity, double[] headingDeg,
+			int[] profileSlotSelect0, int[] profileSlotSelect1, boolean[] isLastPoint, boolean[] zeroPos,
+			int[] durationMs, int offset, int count);
+
+	boolean IsMotionProfileTopLevelBufferFull(long handle);
+
+	int ProcessMotionProfileBuffer(long handle);
+
+	int GetMotionProfileStatus(long handle, int[] toFill_9);
+
+	int GetMotionProfileStatus2(long handle, int[] toFill_11);
+
+	int ClearMotionProfileHasUnderrun(long handle, int timeoutMs);
+
+	int ChangeMotionControlFramePeriod(long handle, int periodMs);
+
+	int ConfigMotionProfileTrajectoryPeriod(long handle, int periodMs, int timeoutMs);
+
+	int ConfigFeedbackNotContinuous(long handle, boolean feedbackNotContinuous, int timeoutMs);
+
+	int ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(long handle,
+			boolean remoteSensorClosedLoopDisableNeutralOnLOS, int timeoutMs);
+
+	int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs);
+
+	int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs);
+
+	int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs);
+
+	int ConfigLimitSwitchDisableNeutralOnLOS(long handle, boolean limitSwitchDisableNeutralOnLOS, int timeoutMs);
+
+	int ConfigSoftLimitDisableNeutralOnLOS(long handle, boolean softLimitDisableNeutralOnLOS, int timeoutMs);
+
+	int ConfigPulseWidthPeriod_EdgesPerRot(long handle, int pulseWidthPeriod_EdgesPerRot, int timeoutMs);
+
+	int ConfigPulseWidthPeriod_FilterWindowSz(long handle, int pulseWidthPeriod_FilterWindowSz, int timeoutMs);
+
+	int GetLastError(long handle);
+
+	int GetFirmwareVersion(long handle);
+
+	boolean HasResetOccurred(long handle);
+
+	int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs);
+
+	int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs);
+
+	int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal, int timeoutMs);
+
+	double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs);
+
+	int ConfigPeakCurrentLimit(long handle, int amps, int timeoutMs);
+
+	int ConfigPeakCurrentDuration(long handle, int milliseconds, int timeoutMs);
+
+	int ConfigContinuousCurrentLimit(long handle, int amps, int timeoutMs);
+
+	int EnableCurrentLimit(long handle, boolean enable);
+
+	int GetAnalogIn(long handle);
+
+	int SetAnalogPosition(long handle, int newPosition, int timeoutMs);
+
+	int GetAnalogInRaw(long handle);
+
+	int GetAnalogInVel(long handle);
+
+	int GetQuadraturePosition(long handle);
+
+	int SetQuadraturePosition(long handle, int newPosition, int timeoutMs);
+
+	int GetQuadratureVelocity(long handle);
+
+	int GetPulseWidthPosition(long handle);
+
+	int SetPulseWidthPosition(long handle, int newPosition, int timeoutMs);
+
+	int GetPulseWidthVelocity(long handle);
+
+	int GetPulseWidthRiseToFallUs(long handle);
+
+	int GetPulseWidthRiseToRiseUs(long handle);
+
+	int GetPinStateQuadA(long handle);
+
+	int GetPinStateQuadB(long handle);
+
+	int GetPinStateQuadIdx(long handle);
+
+	int IsFwdLimitSwitchClosed(long handle);
+
+	int IsRevLimitSwitchClosed(long handle);
+
+	int GetFaults(long handle);
+
+	int GetStickyFaults(long handle);
+
+	int ClearStickyFaults(long handle, int timeoutMs);
+
+	int SelectDemandType(long handle, int enable);
+
+	int SetMPEOutput(long handle, int mpeOutput);
+
+	int EnableHeadingHold(long handle, int enable);
+
+	int GetClosedLoopTarget(long handle, int pidIdx);
+
+	int ConfigSelectedFeedbackCoefficient(long handle, double coefficient, int pidIdx, int timeoutMs);
+
+	int ConfigClosedLoopPeakOutput(long handle, int slotIdx, double percentOut, int timeoutMs);
+
+	int ConfigClosedLoopPeriod(long handle, int slotIdx, int loopTimeMs, int timeoutMs);
+
+	/**
+	 * Fills one device's stride of a status block, laid out per MotorStatusSignal.
+	 *
+	 * @return First nonzero error of the signals read, also stored as
+	 *         MotorStatusSignal.LastError.
+	 */
+	int GetStatusSnapshot(long handle, int pidIdx, double[] block, int offset);
+
+	/**
+	 * @param sinceNs
+	 *            System.nanoTime() from which getter calls are considered.
+	 * @return System.nanoTime() at which the oldest signal returned by the
+	 *         getters since sinceNs was received, the current time if none
+	 *         were called, SampleTime.kNever if one was never received and
+	 *         SampleTime.kUnknown if the backend does not know.
+	 */
+	long GetReceiveTimeNs(long handle, long sinceNs);
+}
@@ -1,6 +1,7 @@
 package com.ctre.phoenix.motorcontrol.can;
 
 import com.ctre.phoenix.CTREJNIWrapper;
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
 
 public class MotControllerJNI extends CTREJNIWrapper {
 
@@ -787,4 +788,48 @@ public class MotControllerJNI extends CTREJNIWrapper {
 	public static native int ConfigClosedLoopPeakOutput(long handle, int slotIdx, double percentOut, int timeoutMs);
 
 	public static native int ConfigClosedLoopPeriod(long handle, int slotIdx, int loopTimeMs, int timeoutMs);
+
+	/**
+	 * Fills one device's stride of a status block, laid out per MotorStatusSignal.
+	 * The CCI does not export a combined status getter, so this still makes one
+	 * native call per signal; it saves the Java side work of the getters, not
+	 * JNI crossings. Signals are read grouped by status frame, with the last
+	 * error checked after each frame, so a stale or failed frame is not hidden
+	 * by a later successful read.
+	 *
+	 * @return First nonzero error of the frames read, OK if all succeeded.
+	 */
+	public static int GetStatusSnapshot(long handle, int pidIdx, double[] block, int offset) {
+		/* Status_1_General */
+		block[offset + MotorStatusSignal.MotorOutputPercent.value] = GetMotorOutputPercent(handle);
+		block[offset + MotorStatusSignal.Faults.value] = GetFaults(handle);
+		int retval = GetLastError(handle);
+		/* Status_2_Feedback0 */
+		block[offset + MotorStatusSignal.SelectedSensorPosition.value] = GetSelectedSensorPosition(handle, pidIdx);
+		block[offset + MotorStatusSignal.SelectedSensorVelocity.value] = GetSelectedSensorVelocity(handle, pidIdx);
+		block[offset + MotorStatusSignal.OutputCurrent.value] = GetOutputCurrent(handle);
+		block[offset + MotorStatusSignal.StickyFaults.value] = GetStickyFaults(handle);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		/* Status_4_AinTempVbat */
+		block[offset + MotorStatusSignal.BusVoltage.value] = GetBusVoltage(handle);
+		block[offset + MotorStatusSignal.Temperature.value] = GetTemperature(handle);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		/* Status_13_Base_PIDF0 */
+		block[offset + MotorStatusSignal.ClosedLoopError.value] = GetClosedLoopError(handle, pidIdx);
+		block[offset + MotorStatusSignal.IntegralAccumulator.value] = GetIntegralAccumulator(handle, pidIdx);
+		block[offset + MotorStatusSignal.ErrorDerivative.value] = GetErrorDerivative(handle, pidIdx);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		/* Status_10_MotionMagic */
+		block[offset + MotorStatusSignal.ClosedLoopTarget.value] = GetClosedLoopTarget(handle, pidIdx);
+		block[offset + MotorStatusSignal.ActiveTrajectoryPosition.value] = GetActiveTrajectoryPosition(handle);
+		block[offset + MotorStatusSignal.ActiveTrajectoryVelocity.value] = GetActiveTrajectoryVelocity(handle);
+		block[offset + MotorStatusSignal.ActiveTrajectoryHeading.value] = GetActiveTrajectoryHeading(handle);
+		if (retval == 0)
+			retval = GetLastError(handle);
+		block[offset + MotorStatusSignal.LastError.value] = retval;
+		return retval;
+	}
 }
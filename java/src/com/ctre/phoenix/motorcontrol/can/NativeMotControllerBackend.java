@@ -0,0 +1,508 @@
+package com.ctre.phoenix.motorcontrol.can;
+
+import com.ctre.phoenix.time.SampleTime;
+
+/**
+ * Motor controller backend that forwards to the CTRE_PhoenixCCI natives.
+ */
+public class NativeMotControllerBackend implements IMotControllerBackend {
+
+	public long Create(int baseArbId) {
+		return MotControllerJNI.Create(baseArbId);
+	}
+
+	public int GetDeviceNumber(long handle) {
+		return MotControllerJNI.GetDeviceNumber(handle);
+	}
+
+	public void SetDemand(long handle, int mode, int demand0, int demand1) {
+		MotControllerJNI.SetDemand(handle, mode, demand0, demand1);
+	}
+
+	public void Set_4(long handle, int mode, double demand0, double demand1, int demand1Type) {
+		MotControllerJNI.Set_4(handle, mode, demand0, demand1, demand1Type);
+	}
+
+	public void SetNeutralMode(long handle, int neutralMode) {
+		MotControllerJNI.SetNeutralMode(handle, neutralMode);
+	}
+
+	public void SetSensorPhase(long handle, boolean PhaseSensor) {
+		MotControllerJNI.SetSensorPhase(handle, PhaseSensor);
+	}
+
+	public void SetInverted(long handle, boolean invert) {
+		MotControllerJNI.SetInverted(handle, invert);
+	}
+
+	public int ConfigFactoryDefault(long handle, int timeoutMs) {
+		return MotControllerJNI.ConfigFactoryDefault(handle, timeoutMs);
+	}
+
+	public int ConfigOpenLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs) {
+		return MotControllerJNI.ConfigOpenLoopRamp(handle, secondsFromNeutralToFull, timeoutMs);
+	}
+
+	public int ConfigClosedLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs) {
+		return MotControllerJNI.ConfigClosedLoopRamp(handle, secondsFromNeutralToFull, timeoutMs);
+	}
+
+	public int ConfigPeakOutputForward(long handle, double percentOut, int timeoutMs) {
+		return MotControllerJNI.ConfigPeakOutputForward(handle, percentOut, timeoutMs);
+	}
+
+	public int ConfigPeakOutputReverse(long handle, double percentOut, int timeoutMs) {
+		return MotControllerJNI.ConfigPeakOutputReverse(handle, percentOut, timeoutMs);
+	}
+
+	public int ConfigNominalOutputForward(long handle, double percentOut, int timeoutMs) {
+		return MotControllerJNI.ConfigNominalOutputForward(handle, percentOut, timeoutMs);
+	}
+
+	public int ConfigNominalOutputReverse(long handle, double percentOut, int timeoutMs) {
+		return MotControllerJNI.ConfigNominalOutputReverse(handle, percentOut, timeoutMs);
+	}
+
+	public int ConfigNeutralDeadband(long handle, double percentDeadband, int timeoutMs) {
+		return MotControllerJNI.ConfigNeutralDeadband(handle, percentDeadband, timeoutMs);
+	}
+
+	public int ConfigVoltageCompSaturation(long handle, double voltage, int timeoutMs) {
+		return MotControllerJNI.ConfigVoltageCompSaturation(handle, voltage, timeoutMs);
+	}
+
+	public int ConfigVoltageMeasurementFilter(long handle, int filterWindowSamples, int timeoutMs) {
+		return MotControllerJNI.ConfigVoltageMeasurementFilter(handle, filterWindowSamples, timeoutMs);
+	}
+
+	public void EnableVoltageCompensation(long handle, boolean enable) {
+		MotControllerJNI.EnableVoltageCompensation(handle, enable);
+	}
+
+	public double GetBusVoltage(long handle) {
+		return MotControllerJNI.GetBusVoltage(handle);
+	}
+
+	public double GetMotorOutputPercent(long handle) {
+		return MotControllerJNI.GetMotorOutputPercent(handle);
+	}
+
+	public double GetOutputCurrent(long handle) {
+		return MotControllerJNI.GetOutputCurrent(handle);
+	}
+
+	public double GetTemperature(long handle) {
+		return MotControllerJNI.GetTemperature(handle);
+	}
+
+	public int ConfigRemoteFeedbackFilter(long handle, int deviceID, int remoteSensorSource,
+			int remoteOrdinal, int timeoutMs) {
+		return MotControllerJNI.ConfigRemoteFeedbackFilter(handle, deviceID, remoteSensorSource, remoteOrdinal, timeoutMs);
+	}
+
+	public int ConfigSelectedFeedbackSensor(long handle, int feedbackDevice, int pidIdx, int timeoutMs) {
+		return MotControllerJNI.ConfigSelectedFeedbackSensor(handle, feedbackDevice, pidIdx, timeoutMs);
+	}
+
+	public int ConfigSensorTerm(long handle, int sensorTerm, int feedbackDevice, int timeoutMs) {
+		return MotControllerJNI.ConfigSensorTerm(handle, sensorTerm, feedbackDevice, timeoutMs);
+	}
+
+	public int GetSelectedSensorPosition(long handle, int pidIdx) {
+		return MotControllerJNI.GetSelectedSensorPosition(handle, pidIdx);
+	}
+
+	public int GetSelectedSensorVelocity(long handle, int pidIdx) {
+		return MotControllerJNI.GetSelectedSensorVelocity(handle, pidIdx);
+	}
+
+	public int SetSelectedSensorPosition(long handle, int sensorPos, int pidIdx, int timeoutMs) {
+		return MotControllerJNI.SetSelectedSensorPosition(handle, sensorPos, pidIdx, timeoutMs);
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return MotControllerJNI.SetControlFramePeriod(handle, frame, periodMs);
+	}
+
+	public int SetStatusFramePeriod(long handle, int frame, int periodMs, int timeoutMs) {
+		return MotControllerJNI.SetStatusFramePeriod(handle, frame, periodMs, timeoutMs);
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return MotControllerJNI.GetStatusFramePeriod(handle, frame, timeoutMs);
+	}
+
+	public int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs) {
+		return MotControllerJNI.ConfigVelocityMeasurementPeriod(handle, period, timeoutMs);
+	}
+
+	public int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs) {
+		return MotControllerJNI.ConfigVelocityMeasurementWindow(handle, windowSize, timeoutMs);
+	}
+
+	public int ConfigForwardLimitSwitchSource(long handle, int type, int normalOpenOrClose,
+			int deviceID, int timeoutMs) {
+		return MotControllerJNI.ConfigForwardLimitSwitchSource(handle, type, normalOpenOrClose, deviceID, timeoutMs);
+	}
+
+	public int ConfigReverseLimitSwitchSource(long handle, int type, int normalOpenOrClose,
+			int deviceID, int timeoutMs) {
+		return MotControllerJNI.ConfigReverseLimitSwitchSource(handle, type, normalOpenOrClose, deviceID, timeoutMs);
+	}
+
+	public void OverrideLimitSwitchesEnable(long handle, boolean enable) {
+		MotControllerJNI.OverrideLimitSwitchesEnable(handle, enable);
+	}
+
+	public int ConfigForwardSoftLimitThreshold(long handle, int forwardSensorLimit, int timeoutMs) {
+		return MotControllerJNI.ConfigForwardSoftLimitThreshold(handle, forwardSensorLimit, timeoutMs);
+	}
+
+	public int ConfigReverseSoftLimitThreshold(long handle, int reverseSensorLimit, int timeoutMs) {
+		return MotControllerJNI.ConfigReverseSoftLimitThreshold(handle, reverseSensorLimit, timeoutMs);
+	}
+
+	public int ConfigForwardSoftLimitEnable(long handle, boolean enable, int timeoutMs) {
+		return MotControllerJNI.ConfigForwardSoftLimitEnable(handle, enable, timeoutMs);
+	}
+
+	public int ConfigReverseSoftLimitEnable(long handle, boolean enable, int timeoutMs) {
+		return MotControllerJNI.ConfigReverseSoftLimitEnable(handle, enable, timeoutMs);
+	}
+
+	public void OverrideSoftLimitsEnable(long handle, boolean enable) {
+		MotControllerJNI.OverrideSoftLimitsEnable(handle, enable);
+	}
+
+	public int Config_kP(long handle, int slotIdx, double value, int timeoutMs) {
+		return MotControllerJNI.Config_kP(handle, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_kI(long handle, int slotIdx, double value, int timeoutMs) {
+		return MotControllerJNI.Config_kI(handle, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_kD(long handle, int slotIdx, double value, int timeoutMs) {
+		return MotControllerJNI.Config_kD(handle, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_kF(long handle, int slotIdx, double value, int timeoutMs) {
+		return MotControllerJNI.Config_kF(handle, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_IntegralZone(long handle, int slotIdx, double izone, int timeoutMs) {
+		return MotControllerJNI.Config_IntegralZone(handle, slotIdx, izone, timeoutMs);
+	}
+
+	public int ConfigAllowableClosedloopError(long handle, int slotIdx, int allowableClosedLoopError,
+			int timeoutMs) {
+		return MotControllerJNI.ConfigAllowableClosedloopError(handle, slotIdx, allowableClosedLoopError, timeoutMs);
+	}
+
+	public int ConfigMaxIntegralAccumulator(long handle, int slotIdx, double iaccum, int timeoutMs) {
+		return MotControllerJNI.ConfigMaxIntegralAccumulator(handle, slotIdx, iaccum, timeoutMs);
+	}
+
+	public int SetIntegralAccumulator(long handle, double iaccum, int pidIdx, int timeoutMs) {
+		return MotControllerJNI.SetIntegralAccumulator(handle, iaccum, pidIdx, timeoutMs);
+	}
+
+	public int GetClosedLoopError(long handle, int pidIdx) {
+		return MotControllerJNI.GetClosedLoopError(handle, pidIdx);
+	}
+
+	public double GetIntegralAccumulator(long handle, int pidIdx) {
+		return MotControllerJNI.GetIntegralAccumulator(handle, pidIdx);
+	}
+
+	public double GetErrorDerivative(long handle, int pidIdx) {
+		return MotControllerJNI.GetErrorDerivative(handle, pidIdx);
+	}
+
+	public void SelectProfileSlot(long handle, int slotIdx, int pidIdx) {
+		MotControllerJNI.SelectProfileSlot(handle, slotIdx, pidIdx);
+	}
+
+	public int GetActiveTrajectoryPosition(long handle) {
+		return MotControllerJNI.GetActiveTrajectoryPosition(handle);
+	}
+
+	public int GetActiveTrajectoryVelocity(long handle) {
+		return MotControllerJNI.GetActiveTrajectoryVelocity(handle);
+	}
+
+	public double GetActiveTrajectoryHeading(long handle) {
+		return MotControllerJNI.GetActiveTrajectoryHeading(handle);
+	}
+
+	public int ConfigMotionCruiseVelocity(long handle, int sensorUnitsPer100ms, int timeoutMs) {
+		return MotControllerJNI.ConfigMotionCruiseVelocity(handle, sensorUnitsPer100ms, timeoutMs);
+	}
+
+	public int ConfigMotionAcceleration(long handle, int sensorUnitsPer100msPerSec, int timeoutMs) {
+		return MotControllerJNI.ConfigMotionAcceleration(handle, sensorUnitsPer100msPerSec, timeoutMs);
+	}
+
+	public int ClearMotionProfileTrajectories(long handle) {
+		return MotControllerJNI.ClearMotionProfileTrajectories(handle);
+	}
+
+	public int GetMotionProfileTopLevelBufferCount(long handle) {
+		return MotControllerJNI.GetMotionProfileTopLevelBufferCount(handle);
+	}
+
+	public int PushMotionProfileTrajectory(long handle, double position, double velocity,
+			double headingDeg, int profileSlotSelect, boolean isLastPoint, boolean zeroPos) {
+		return MotControllerJNI.PushMotionProfileTrajectory(handle, position, velocity, headingDeg, profileSlotSelect, isLastPoint, zeroPos);
+	}
+
+	public int PushMotionProfileTrajectory2(long handle, double position, double velocity,
+			double headingDeg, int profileSlotSelect0, int profileSlotSelect1, boolean isLastPoint, boolean zeroPos, int durationMs) {
+		return MotControllerJNI.PushMotionProfileTrajectory2(handle, position, velocity, headingDeg, profileSlotSelect0, profileSlotSelect1, isLastPoint, zeroPos, durationMs);
+	}
+
+	public int PushMotionProfileTrajectories(long handle, double[] position, double[] velocity,
+			double[] headingDeg, int[] profileSlotSelect0, int[] profileSlotSelect1, boolean[] isLastPoint,
+			boolean[] zeroPos, int[] durationMs, int offset, int count) {
+		/* CCI has no bulk push, one call per point */
+		for (int i = 0; i < count; ++i) {
+			int idx = offset + i;
+			int retval = MotControllerJNI.PushMotionProfileTrajectory2(handle, position[idx], velocity[idx],
+					headingDeg[idx], profileSlotSelect0[idx], profileSlotSelect1[idx], isLastPoint[idx], zeroPos[idx],
+					durationMs[idx]);
+			if (retval != 0)
+				return i;
+		}
+		return count;
+	}
+
+	public boolean IsMotionProfileTopLevelBufferFull(long handle) {
+		return MotControllerJNI.IsMotionProfileTopLevelBufferFull(handle);
+	}
+
+	public int ProcessMotionProfileBuffer(long handle) {
+		return MotControllerJNI.ProcessMotionProfileBuffer(handle);
+	}
+
+	public int GetMotionProfileStatus(long handle, int[] toFill_9) {
+		return MotControllerJNI.GetMotionProfileStatus(handle, toFill_9);
+	}
+
+	public int GetMotionProfileStatus2(long handle, int[] toFill_11) {
+		return MotControllerJNI.GetMotionProfileStatus2(handle, toFill_11);
+	}
+
+	public int ClearMotionProfileHasUnderrun(long handle, int timeoutMs) {
+		return MotControllerJNI.ClearMotionProfileHasUnderrun(handle, timeoutMs);
+	}
+
+	public int ChangeMotionControlFramePeriod(long handle, int periodMs) {
+		return MotControllerJNI.ChangeMotionControlFramePeriod(handle, periodMs);
+	}
+
+	public int ConfigMotionProfileTrajectoryPeriod(long handle, int periodMs, int timeoutMs) {
+		return MotControllerJNI.ConfigMotionProfileTrajectoryPeriod(handle, periodMs, timeoutMs);
+	}
+
+	public int ConfigFeedbackNotContinuous(long handle, boolean feedbackNotContinuous, int timeoutMs) {
+		return MotControllerJNI.ConfigFeedbackNotContinuous(handle, feedbackNotContinuous, timeoutMs);
+	}
+
+	public int ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(long handle,
+			boolean remoteSensorClosedLoopDisableNeutralOnLOS, int timeoutMs) {
+		return MotControllerJNI.ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(handle, remoteSensorClosedLoopDisableNeutralOnLOS, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs) {
+		return MotControllerJNI.ConfigClearPositionOnLimitF(handle, clearPositionOnLimitF, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs) {
+		return MotControllerJNI.ConfigClearPositionOnLimitR(handle, clearPositionOnLimitR, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs) {
+		return MotControllerJNI.ConfigClearPositionOnQuadIdx(handle, clearPositionOnQuadIdx, timeoutMs);
+	}
+
+	public int ConfigLimitSwitchDisableNeutralOnLOS(long handle,
+			boolean limitSwitchDisableNeutralOnLOS, int timeoutMs) {
+		return MotControllerJNI.ConfigLimitSwitchDisableNeutralOnLOS(handle, limitSwitchDisableNeutralOnLOS, timeoutMs);
+	}
+
+	public int ConfigSoftLimitDisableNeutralOnLOS(long handle, boolean softLimitDisableNeutralOnLOS,
+			int timeoutMs) {
+		return MotControllerJNI.ConfigSoftLimitDisableNeutralOnLOS(handle, softLimitDisableNeutralOnLOS, timeoutMs);
+	}
+
+	public int ConfigPulseWidthPeriod_EdgesPerRot(long handle, int pulseWidthPeriod_EdgesPerRot, int timeoutMs) {
+		return MotControllerJNI.ConfigPulseWidthPeriod_EdgesPerRot(handle, pulseWidthPeriod_EdgesPerRot, timeoutMs);
+	}
+
+	public int ConfigPulseWidthPeriod_FilterWindowSz(long handle, int pulseWidthPeriod_FilterWindowSz,
+			int timeoutMs) {
+		return MotControllerJNI.ConfigPulseWidthPeriod_FilterWindowSz(handle, pulseWidthPeriod_FilterWindowSz, timeoutMs);
+	}
+
+	public int GetLastError(long handle) {
+		return MotControllerJNI.GetLastError(handle);
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return MotControllerJNI.GetFirmwareVersion(handle);
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return MotControllerJNI.HasResetOccurred(handle);
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return MotControllerJNI.ConfigSetCustomParam(handle, newValue, paramIndex, timeoutMs);
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return MotControllerJNI.ConfigGetCustomParam(handle, paramIndex, timoutMs);
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal,
+			int timeoutMs) {
+		return MotControllerJNI.ConfigSetParameter(handle, param, value, subValue, ordinal, timeoutMs);
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return MotControllerJNI.ConfigGetParameter(handle, param, ordinal, timeoutMs);
+	}
+
+	public int ConfigPeakCurrentLimit(long handle, int amps, int timeoutMs) {
+		return MotControllerJNI.ConfigPeakCurrentLimit(handle, amps, timeoutMs);
+	}
+
+	public int ConfigPeakCurrentDuration(long handle, int milliseconds, int timeoutMs) {
+		return MotControllerJNI.ConfigPeakCurrentDuration(handle, milliseconds, timeoutMs);
+	}
+
+	public int ConfigContinuousCurrentLimit(long handle, int amps, int timeoutMs) {
+		return MotControllerJNI.ConfigContinuousCurrentLimit(handle, amps, timeoutMs);
+	}
+
+	public int EnableCurrentLimit(long handle, boolean enable) {
+		return MotControllerJNI.EnableCurrentLimit(handle, enable);
+	}
+
+	public int GetAnalogIn(long handle) {
+		return MotControllerJNI.GetAnalogIn(handle);
+	}
+
+	public int SetAnalogPosition(long handle, int newPosition, int timeoutMs) {
+		return MotControllerJNI.SetAnalogPosition(handle, newPosition, timeoutMs);
+	}
+
+	public int GetAnalogInRaw(long handle) {
+		return MotControllerJNI.GetAnalogInRaw(handle);
+	}
+
+	public int GetAnalogInVel(long handle) {
+		return MotControllerJNI.GetAnalogInVel(handle);
+	}
+
+	public int GetQuadraturePosition(long handle) {
+		return MotControllerJNI.GetQuadraturePosition(handle);
+	}
+
+	public int SetQuadraturePosition(long handle, int newPosition, int timeoutMs) {
+		return MotControllerJNI.SetQuadraturePosition(handle, newPosition, timeoutMs);
+	}
+
+	public int GetQuadratureVelocity(long handle) {
+		return MotControllerJNI.GetQuadratureVelocity(handle);
+	}
+
+	public int GetPulseWidthPosition(long handle) {
+		return MotControllerJNI.GetPulseWidthPosition(handle);
+	}
+
+	public int SetPulseWidthPosition(long handle, int newPosition, int timeoutMs) {
+		return MotControllerJNI.SetPulseWidthPosition(handle, newPosition, timeoutMs);
+	}
+
+	public int GetPulseWidthVelocity(long handle) {
+		return MotControllerJNI.GetPulseWidthVelocity(handle);
+	}
+
+	public int GetPulseWidthRiseToFallUs(long handle) {
+		return MotControllerJNI.GetPulseWidthRiseToFallUs(handle);
+	}
+
+	public int GetPulseWidthRiseToRiseUs(long handle) {
+		return MotControllerJNI.GetPulseWidthRiseToRiseUs(handle);
+	}
+
+	public int GetPinStateQuadA(long handle) {
+		return MotControllerJNI.GetPinStateQuadA(handle);
+	}
+
+	public int GetPinStateQuadB(long handle) {
+		return MotControllerJNI.GetPinStateQuadB(handle);
+	}
+
+	public int GetPinStateQuadIdx(long handle) {
+		return MotControllerJNI.GetPinStateQuadIdx(handle);
+	}
+
+	public int IsFwdLimitSwitchClosed(long handle) {
+		return MotControllerJNI.IsFwdLimitSwitchClosed(handle);
+	}
+
+	public int IsRevLimitSwitchClosed(long handle) {
+		return MotControllerJNI.IsRevLimitSwitchClosed(handle);
+	}
+
+	public int GetFaults(long handle) {
+		return MotControllerJNI.GetFaults(handle);
+	}
+
+	public int GetStickyFaults(long handle) {
+		return MotControllerJNI.GetStickyFaults(handle);
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return MotControllerJNI.ClearStickyFaults(handle, timeoutMs);
+	}
+
+	public int SelectDemandType(long handle, int enable) {
+		return MotControllerJNI.SelectDemandType(handle, enable);
+	}
+
+	public int SetMPEOutput(long handle, int mpeOutput) {
+		return MotControllerJNI.SetMPEOutput(handle, mpeOutput);
+	}
+
+	public int EnableHeadingHold(long handle, int enable) {
+		return MotControllerJNI.EnableHeadingHold(handle, enable);
+	}
+
+	public int GetClosedLoopTarget(long handle, int pidIdx) {
+		return MotControllerJNI.GetClosedLoopTarget(handle, pidIdx);
+	}
+
+	public int ConfigSelectedFeedbackCoefficient(long handle, double coefficient, int pidIdx, int timeoutMs) {
+		return MotControllerJNI.ConfigSelectedFeedbackCoefficient(handle, coefficient, pidIdx, timeoutMs);
+	}
+
+	public int ConfigClosedLoopPeakOutput(long handle, int slotIdx, double percentOut, int timeoutMs) {
+		return MotControllerJNI.ConfigClosedLoopPeakOutput(handle, slotIdx, percentOut, timeoutMs);
+	}
+
+	public int ConfigClosedLoopPeriod(long handle, int slotIdx, int loopTimeMs, int timeoutMs) {
+		return MotControllerJNI.ConfigClosedLoopPeriod(handle, slotIdx, loopTimeMs, timeoutMs);
+	}
+
+	public int GetStatusSnapshot(long handle, int pidIdx, double[] block, int offset) {
+		return MotControllerJNI.GetStatusSnapshot(handle, pidIdx, block, offset);
+	}
+
+	public long GetReceiveTimeNs(long handle, long sinceNs) {
+		/* the CCI does not export receive times, staleness is only reported through GetLastError */
+		return SampleTime.kUnknown;
+	}
+}
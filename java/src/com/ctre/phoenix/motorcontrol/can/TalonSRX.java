@@ -1,4 +1,5 @@
 package com.ctre.phoenix.motorcontrol.can;
+import com.ctre.phoenix.DeviceBackend;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.motorcontrol.IMotorControllerEnhanced;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
@@ -10,6 +11,8 @@ import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
 import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
 import com.ctre.phoenix.motorcontrol.can.MotControllerJNI;
 import com.ctre.phoenix.ErrorCollection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import com.ctre.phoenix.ParamEnum;
 import com.ctre.phoenix.motorcontrol.SensorTerm;
 
@@ -26,7 +29,8 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
 	public TalonSRX(int deviceNumber) {
 		super(deviceNumber | 0x02040000);
 		_sensorColl = new SensorCollection(this);
-		HAL.report(tResourceType.kResourceType_CANTalonSRX, deviceNumber + 1);
+		if (DeviceBackend.isNative())
+			HAL.report(tResourceType.kResourceType_CANTalonSRX, deviceNumber + 1);
 	}
 
 	/**
@@ -207,7 +211,7 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
 	 *            blocking or checking is performed.
 	 */
 	public ErrorCode configPeakCurrentLimit(int amps, int timeoutMs) {
-		int retval =  MotControllerJNI.ConfigPeakCurrentLimit(m_handle, amps, timeoutMs);
+		int retval =  m_backend.ConfigPeakCurrentLimit(m_handle, amps, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configPeakCurrentLimit(int amps) {
@@ -235,7 +239,7 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
 	 *            blocking or checking is performed.
 	 */
 	public ErrorCode configPeakCurrentDuration(int milliseconds, int timeoutMs) {
-		int retval = MotControllerJNI.ConfigPeakCurrentDuration(m_handle, milliseconds, timeoutMs);
+		int retval = m_backend.ConfigPeakCurrentDuration(m_handle, milliseconds, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configPeakCurrentDuration(int milliseconds) {
@@ -264,7 +268,7 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
 	 *            blocking or checking is performed.
 	 */
 	public ErrorCode configContinuousCurrentLimit(int amps, int timeoutMs) {
-		int retval =  MotControllerJNI.ConfigContinuousCurrentLimit(m_handle, amps, timeoutMs);
+		int retval =  m_backend.ConfigContinuousCurrentLimit(m_handle, amps, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configContinuousCurrentLimit(int amps) {
@@ -281,7 +285,7 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
 	 *      configContinuousCurrentLimit
 	 */
 	public void enableCurrentLimit(boolean enable) {
-		MotControllerJNI.EnableCurrentLimit(m_handle, enable);
+		m_backend.EnableCurrentLimit(m_handle, enable);
 	}
 	
     /**
@@ -323,6 +327,25 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
         int timeoutMs = 50;
         return configurePID(pid, pidIdx, timeoutMs);
     }
+    /**
+     * Configures all PID set persistant settings, recording the result of
+     * each setting in errorCollection as "primaryPID.[setting]" or
+     * "auxilaryPID.[setting]".
+     *
+	 * @param pid               Object with all of the PID set persistant settings
+	 * @param pidIdx            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection
+     *              Collection the result of each setting is added to.
+     */
+	public void configurePID(TalonSRXPIDSetConfiguration pid, int pidIdx, int timeoutMs, ErrorCollection errorCollection) {
+        baseConfigurePID(pid, pidIdx, timeoutMs, errorCollection);
+        errorCollection.NewError(configSelectedFeedbackSensor(pid.selectedFeedbackSensor, pidIdx, timeoutMs),
+                pidPrefix(pidIdx) + "selectedFeedbackSensor");
+    }
 
     /**
      * Gets all PID set persistant settings.
@@ -367,37 +390,166 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
      */
 	public ErrorCode configAllSettings(TalonSRXConfiguration allConfigs, int timeoutMs) {
         ErrorCollection errorCollection = new ErrorCollection();
+        configAllSettings(allConfigs, timeoutMs, errorCollection);
+        return errorCollection._worstError;
+	}
+
+    /**
+     * Configures all peristant settings, recording each failed setting.
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record errors into.
+     */
+	public void configAllSettings(TalonSRXConfiguration allConfigs, int timeoutMs, ErrorCollection errorCollection) {
 
-        errorCollection.NewError(baseConfigAllSettings(allConfigs, timeoutMs));
+        baseConfigAllSettings(allConfigs, timeoutMs, errorCollection);
 
         //------ limit switch ----------//   
-        errorCollection.NewError(MotControllerJNI.ConfigForwardLimitSwitchSource(m_handle, allConfigs.forwardLimitSwitchSource.value,
-                allConfigs.forwardLimitSwitchNormal.value, allConfigs.forwardLimitSwitchDeviceID, timeoutMs));
-        errorCollection.NewError(MotControllerJNI.ConfigReverseLimitSwitchSource(m_handle, allConfigs.reverseLimitSwitchSource.value,
-                allConfigs.reverseLimitSwitchNormal.value, allConfigs.reverseLimitSwitchDeviceID, timeoutMs));
+        errorCollection.NewError(m_backend.ConfigForwardLimitSwitchSource(m_handle, allConfigs.forwardLimitSwitchSource.value,
+                allConfigs.forwardLimitSwitchNormal.value, allConfigs.forwardLimitSwitchDeviceID, timeoutMs), "forwardLimitSwitchSource");
+        errorCollection.NewError(m_backend.ConfigReverseLimitSwitchSource(m_handle, allConfigs.reverseLimitSwitchSource.value,
+                allConfigs.reverseLimitSwitchNormal.value, allConfigs.reverseLimitSwitchDeviceID, timeoutMs), "reverseLimitSwitchSource");
         
 
 
         //--------PIDs---------------//
 
-        errorCollection.NewError(configurePID(allConfigs.primaryPID, 0, timeoutMs));
-        errorCollection.NewError(configurePID(allConfigs.auxilaryPID, 1, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Sum0, allConfigs.sum_0, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Sum1, allConfigs.sum_1, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Diff0, allConfigs.diff_0, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Diff1, allConfigs.diff_1, timeoutMs));
+        configurePID(allConfigs.primaryPID, 0, timeoutMs, errorCollection);
+        configurePID(allConfigs.auxilaryPID, 1, timeoutMs, errorCollection);
+        errorCollection.NewError(configSensorTerm(SensorTerm.Sum0, allConfigs.sum_0, timeoutMs), "sum_0");
+        errorCollection.NewError(configSensorTerm(SensorTerm.Sum1, allConfigs.sum_1, timeoutMs), "sum_1");
+        errorCollection.NewError(configSensorTerm(SensorTerm.Diff0, allConfigs.diff_0, timeoutMs), "diff_0");
+        errorCollection.NewError(configSensorTerm(SensorTerm.Diff1, allConfigs.diff_1, timeoutMs), "diff_1");
         
 
         //--------Current Limiting-----//
-        errorCollection.NewError(configPeakCurrentLimit(allConfigs.peakCurrentLimit, timeoutMs));
-        errorCollection.NewError(configPeakCurrentDuration(allConfigs.peakCurrentDuration, timeoutMs));
-        errorCollection.NewError(configContinuousCurrentLimit(allConfigs.continuousCurrentLimit, timeoutMs));
-        
+        errorCollection.NewError(configPeakCurrentLimit(allConfigs.peakCurrentLimit, timeoutMs), "peakCurrentLimit");
+        errorCollection.NewError(configPeakCurrentDuration(allConfigs.peakCurrentDuration, timeoutMs), "peakCurrentDuration");
+        errorCollection.NewError(configContinuousCurrentLimit(allConfigs.continuousCurrentLimit, timeoutMs), "continuousCurrentLimit");
+
+	}
+
+    /**
+     * Configures all peristant settings on a background thread, so several
+     * devices can be configured at the same time. Combine the futures of
+     * several devices with BaseMotorController.allOf().
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     *
+     * @return Future completed with the worst error and each failed setting.
+     */
+	public CompletableFuture<ErrorCollection> configAllSettingsAsync(final TalonSRXConfiguration allConfigs, final int timeoutMs) {
+		return configAsync(new Consumer<ErrorCollection>() {
+			public void accept(ErrorCollection errorCollection) {
+				configAllSettings(allConfigs, timeoutMs, errorCollection);
+			}
+		});
+	}
+
+    /**
+     * Configures only the persistant settings that differ from the device's.
+     * The device settings are read back on first use, unless supplied with
+     * setKnownConfigs(), and remembered after that, so later calls write
+     * nothing but the changes. Unlike
+     * configAllSettings(), the device is not factory defaulted first, so
+     * settings outside of allConfigs keep their current value.
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record errors into.
+     *
+     * @return Number of settings skipped because they were already applied.
+     */
+	public int configChangedSettings(TalonSRXConfiguration allConfigs, int timeoutMs, ErrorCollection errorCollection) {
+        BaseMotorControllerConfiguration supplied = getKnownConfigs();
+        TalonSRXConfiguration known = (supplied instanceof TalonSRXConfiguration) ? (TalonSRXConfiguration) supplied : null;
+        if (known == null || known == allConfigs) {
+            known = new TalonSRXConfiguration();
+            if (getAllConfigs(known, timeoutMs, new ErrorCollection()) != ErrorCode.OK) {
+                /* device settings unknown, write all of them */
+                configAllSettings(allConfigs, timeoutMs, errorCollection);
+                return 0;
+            }
+            setKnownConfigs(known);
+        }
+        ConfigDiff diff = new ConfigDiff(errorCollection);
+
+        baseConfigChangedSettings(allConfigs, known, timeoutMs, diff);
 
+        //------ limit switch ----------//   
+        if (diff.check(known.forwardLimitSwitchSource.value != allConfigs.forwardLimitSwitchSource.value
+                || known.forwardLimitSwitchNormal.value != allConfigs.forwardLimitSwitchNormal.value
+                || known.forwardLimitSwitchDeviceID != allConfigs.forwardLimitSwitchDeviceID)
+                && diff.write(ErrorCode.valueOf(m_backend.ConfigForwardLimitSwitchSource(m_handle,
+                        allConfigs.forwardLimitSwitchSource.value, allConfigs.forwardLimitSwitchNormal.value,
+                        allConfigs.forwardLimitSwitchDeviceID, timeoutMs)), "forwardLimitSwitchSource")) {
+            known.forwardLimitSwitchSource = allConfigs.forwardLimitSwitchSource;
+            known.forwardLimitSwitchNormal = allConfigs.forwardLimitSwitchNormal;
+            known.forwardLimitSwitchDeviceID = allConfigs.forwardLimitSwitchDeviceID;
+        }
+        if (diff.check(known.reverseLimitSwitchSource.value != allConfigs.reverseLimitSwitchSource.value
+                || known.reverseLimitSwitchNormal.value != allConfigs.reverseLimitSwitchNormal.value
+                || known.reverseLimitSwitchDeviceID != allConfigs.reverseLimitSwitchDeviceID)
+                && diff.write(ErrorCode.valueOf(m_backend.ConfigReverseLimitSwitchSource(m_handle,
+                        allConfigs.reverseLimitSwitchSource.value, allConfigs.reverseLimitSwitchNormal.value,
+                        allConfigs.reverseLimitSwitchDeviceID, timeoutMs)), "reverseLimitSwitchSource")) {
+            known.reverseLimitSwitchSource = allConfigs.reverseLimitSwitchSource;
+            known.reverseLimitSwitchNormal = allConfigs.reverseLimitSwitchNormal;
+            known.reverseLimitSwitchDeviceID = allConfigs.reverseLimitSwitchDeviceID;
+        }
+
+        //--------PIDs---------------//
 
-        return errorCollection._worstError; 	
+        if (diff.check(ConfigDiff.differs(known.primaryPID.selectedFeedbackCoefficient, allConfigs.primaryPID.selectedFeedbackCoefficient))
+                && diff.write(configSelectedFeedbackCoefficient(allConfigs.primaryPID.selectedFeedbackCoefficient, 0, timeoutMs), "primaryPID.selectedFeedbackCoefficient"))
+            known.primaryPID.selectedFeedbackCoefficient = allConfigs.primaryPID.selectedFeedbackCoefficient;
+        if (diff.changed(known.primaryPID.selectedFeedbackSensor.value, allConfigs.primaryPID.selectedFeedbackSensor.value)
+                && diff.write(configSelectedFeedbackSensor(allConfigs.primaryPID.selectedFeedbackSensor, 0, timeoutMs), "primaryPID.selectedFeedbackSensor"))
+            known.primaryPID.selectedFeedbackSensor = allConfigs.primaryPID.selectedFeedbackSensor;
+        if (diff.check(ConfigDiff.differs(known.auxilaryPID.selectedFeedbackCoefficient, allConfigs.auxilaryPID.selectedFeedbackCoefficient))
+                && diff.write(configSelectedFeedbackCoefficient(allConfigs.auxilaryPID.selectedFeedbackCoefficient, 1, timeoutMs), "auxilaryPID.selectedFeedbackCoefficient"))
+            known.auxilaryPID.selectedFeedbackCoefficient = allConfigs.auxilaryPID.selectedFeedbackCoefficient;
+        if (diff.changed(known.auxilaryPID.selectedFeedbackSensor.value, allConfigs.auxilaryPID.selectedFeedbackSensor.value)
+                && diff.write(configSelectedFeedbackSensor(allConfigs.auxilaryPID.selectedFeedbackSensor, 1, timeoutMs), "auxilaryPID.selectedFeedbackSensor"))
+            known.auxilaryPID.selectedFeedbackSensor = allConfigs.auxilaryPID.selectedFeedbackSensor;
+        if (diff.changed(known.sum_0.value, allConfigs.sum_0.value)
+                && diff.write(configSensorTerm(SensorTerm.Sum0, allConfigs.sum_0, timeoutMs), "sum_0"))
+            known.sum_0 = allConfigs.sum_0;
+        if (diff.changed(known.sum_1.value, allConfigs.sum_1.value)
+                && diff.write(configSensorTerm(SensorTerm.Sum1, allConfigs.sum_1, timeoutMs), "sum_1"))
+            known.sum_1 = allConfigs.sum_1;
+        if (diff.changed(known.diff_0.value, allConfigs.diff_0.value)
+                && diff.write(configSensorTerm(SensorTerm.Diff0, allConfigs.diff_0, timeoutMs), "diff_0"))
+            known.diff_0 = allConfigs.diff_0;
+        if (diff.changed(known.diff_1.value, allConfigs.diff_1.value)
+                && diff.write(configSensorTerm(SensorTerm.Diff1, allConfigs.diff_1, timeoutMs), "diff_1"))
+            known.diff_1 = allConfigs.diff_1;
 
+        //--------Current Limiting-----//
+        if (diff.changed(known.peakCurrentLimit, allConfigs.peakCurrentLimit)
+                && diff.write(configPeakCurrentLimit(allConfigs.peakCurrentLimit, timeoutMs), "peakCurrentLimit"))
+            known.peakCurrentLimit = allConfigs.peakCurrentLimit;
+        if (diff.changed(known.peakCurrentDuration, allConfigs.peakCurrentDuration)
+                && diff.write(configPeakCurrentDuration(allConfigs.peakCurrentDuration, timeoutMs), "peakCurrentDuration"))
+            known.peakCurrentDuration = allConfigs.peakCurrentDuration;
+        if (diff.changed(known.continuousCurrentLimit, allConfigs.continuousCurrentLimit)
+                && diff.write(configContinuousCurrentLimit(allConfigs.continuousCurrentLimit, timeoutMs), "continuousCurrentLimit"))
+            known.continuousCurrentLimit = allConfigs.continuousCurrentLimit;
+
+        return diff.getSkipped();
 	}
+
 	
     /**
      * Configures all peristant settings (overloaded so timeoutMs is 50 ms).
@@ -411,6 +563,26 @@ public class TalonSRX extends com.ctre.phoenix.motorcontrol.can.BaseMotorControl
 		return configAllSettings(allConfigs, timeoutMs);
 	}
 
+    /**
+     * Gets all persistant settings, checking the error of every read.
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record the failed reads into.
+     *
+     * @return Worst error of the reads. If not OK, some settings of
+     *         allConfigs were not read.
+     */
+    public ErrorCode getAllConfigs(final TalonSRXConfiguration allConfigs, final int timeoutMs, ErrorCollection errorCollection) {
+        return readBack(new Runnable() {
+            public void run() {
+                getAllConfigs(allConfigs, timeoutMs);
+            }
+        }, errorCollection);
+    }
     /**
      * Gets all persistant settings.
      *
@@ -2,10 +2,14 @@ package com.ctre.phoenix.motorcontrol.can;
 
 import com.ctre.phoenix.motorcontrol.IMotorController;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
+import com.ctre.phoenix.DeviceBackend;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.ErrorCollection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import com.ctre.phoenix.ParamEnum;
 import com.ctre.phoenix.motorcontrol.SensorTerm;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
 import com.ctre.phoenix.motorcontrol.RemoteFeedbackDevice;
 import com.ctre.phoenix.motorcontrol.RemoteLimitSwitchSource;
 
@@ -23,7 +27,12 @@ public class VictorSPX extends com.ctre.phoenix.motorcontrol.can.BaseMotorContro
 	 */
 	public VictorSPX(int deviceNumber) {
 		super(deviceNumber | 0x01040000);
-		HAL.report(65, deviceNumber + 1);
+		/* sensor frames only sent by a Talon */
+		getStatusFrameUsage().setNotSent(StatusFrameEnhanced.Status_3_Quadrature.value);
+		getStatusFrameUsage().setNotSent(StatusFrameEnhanced.Status_8_PulseWidth.value);
+		getStatusFrameUsage().setNotSent(StatusFrameEnhanced.Status_11_UartGadgeteer.value);
+		if (DeviceBackend.isNative())
+			HAL.report(65, deviceNumber + 1);
 	}
 	
     /**
@@ -66,6 +75,25 @@ public class VictorSPX extends com.ctre.phoenix.motorcontrol.can.BaseMotorContro
         int timeoutMs = 50;
         return configurePID(pid, pidIdx, timeoutMs);
     }
+    /**
+     * Configures all PID set persistant settings, recording the result of
+     * each setting in errorCollection as "primaryPID.[setting]" or
+     * "auxilaryPID.[setting]".
+     *
+	 * @param pid               Object with all of the PID set persistant settings
+	 * @param pidIdx            0 for Primary closed-loop. 1 for auxiliary closed-loop.
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection
+     *              Collection the result of each setting is added to.
+     */
+	void configurePID(VictorSPXPIDSetConfiguration pid, int pidIdx, int timeoutMs, ErrorCollection errorCollection) {
+        baseConfigurePID(pid, pidIdx, timeoutMs, errorCollection);
+        errorCollection.NewError(configSelectedFeedbackSensor(pid.selectedFeedbackSensor, pidIdx, timeoutMs),
+                pidPrefix(pidIdx) + "selectedFeedbackSensor");
+    }
 
 
     /**
@@ -108,28 +136,145 @@ public class VictorSPX extends com.ctre.phoenix.motorcontrol.can.BaseMotorContro
      * @return Error Code generated by function. 0 indicates no error. 
      */
 	public ErrorCode configAllSettings(VictorSPXConfiguration allConfigs, int timeoutMs) {
-	
         ErrorCollection errorCollection = new ErrorCollection();
-        
-        errorCollection.NewError(baseConfigAllSettings(allConfigs, timeoutMs));
+        configAllSettings(allConfigs, timeoutMs, errorCollection);
+        return errorCollection._worstError;
+	}
+
+    /**
+     * Configures all peristant settings, recording each failed setting.
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record errors into.
+     */
+	public void configAllSettings(VictorSPXConfiguration allConfigs, int timeoutMs, ErrorCollection errorCollection) {
+
+        baseConfigAllSettings(allConfigs, timeoutMs, errorCollection);
 
         //------ remote limit switch ----------//   
-        errorCollection.NewError(configForwardLimitSwitchSource(allConfigs.forwardLimitSwitchSource, allConfigs.forwardLimitSwitchNormal, allConfigs.forwardLimitSwitchDeviceID, timeoutMs));
-        errorCollection.NewError(configReverseLimitSwitchSource(allConfigs.reverseLimitSwitchSource, allConfigs.reverseLimitSwitchNormal, allConfigs.reverseLimitSwitchDeviceID, timeoutMs));
+        errorCollection.NewError(configForwardLimitSwitchSource(allConfigs.forwardLimitSwitchSource, allConfigs.forwardLimitSwitchNormal, allConfigs.forwardLimitSwitchDeviceID, timeoutMs), "forwardLimitSwitchSource");
+        errorCollection.NewError(configReverseLimitSwitchSource(allConfigs.reverseLimitSwitchSource, allConfigs.reverseLimitSwitchNormal, allConfigs.reverseLimitSwitchDeviceID, timeoutMs), "reverseLimitSwitchSource");
         
 
         //--------PIDs---------------//
 
-        errorCollection.NewError(configurePID(allConfigs.primaryPID, 0, timeoutMs));
-        errorCollection.NewError(configurePID(allConfigs.auxilaryPID, 1, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Sum0, allConfigs.sum_0, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Sum1, allConfigs.sum_1, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Diff0, allConfigs.diff_0, timeoutMs));
-        errorCollection.NewError(configSensorTerm(SensorTerm.Diff1, allConfigs.diff_1, timeoutMs));
+        configurePID(allConfigs.primaryPID, 0, timeoutMs, errorCollection);
+        configurePID(allConfigs.auxilaryPID, 1, timeoutMs, errorCollection);
+        errorCollection.NewError(configSensorTerm(SensorTerm.Sum0, allConfigs.sum_0, timeoutMs), "sum_0");
+        errorCollection.NewError(configSensorTerm(SensorTerm.Sum1, allConfigs.sum_1, timeoutMs), "sum_1");
+        errorCollection.NewError(configSensorTerm(SensorTerm.Diff0, allConfigs.diff_0, timeoutMs), "diff_0");
+        errorCollection.NewError(configSensorTerm(SensorTerm.Diff1, allConfigs.diff_1, timeoutMs), "diff_1");
 
-        return errorCollection._worstError;
+	}
 
+    /**
+     * Configures all peristant settings on a background thread, so several
+     * devices can be configured at the same time. Combine the futures of
+     * several devices with BaseMotorController.allOf().
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     *
+     * @return Future completed with the worst error and each failed setting.
+     */
+	public CompletableFuture<ErrorCollection> configAllSettingsAsync(final VictorSPXConfiguration allConfigs, final int timeoutMs) {
+		return configAsync(new Consumer<ErrorCollection>() {
+			public void accept(ErrorCollection errorCollection) {
+				configAllSettings(allConfigs, timeoutMs, errorCollection);
+			}
+		});
 	}
+
+    /**
+     * Configures only the persistant settings that differ from the device's.
+     * The device settings are read back on first use, unless supplied with
+     * setKnownConfigs(), and remembered after that, so later calls write
+     * nothing but the changes. Unlike
+     * configAllSettings(), the device is not factory defaulted first, so
+     * settings outside of allConfigs keep their current value.
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record errors into.
+     *
+     * @return Number of settings skipped because they were already applied.
+     */
+	public int configChangedSettings(VictorSPXConfiguration allConfigs, int timeoutMs, ErrorCollection errorCollection) {
+        BaseMotorControllerConfiguration supplied = getKnownConfigs();
+        VictorSPXConfiguration known = (supplied instanceof VictorSPXConfiguration) ? (VictorSPXConfiguration) supplied : null;
+        if (known == null || known == allConfigs) {
+            known = new VictorSPXConfiguration();
+            if (getAllConfigs(known, timeoutMs, new ErrorCollection()) != ErrorCode.OK) {
+                /* device settings unknown, write all of them */
+                configAllSettings(allConfigs, timeoutMs, errorCollection);
+                return 0;
+            }
+            setKnownConfigs(known);
+        }
+        ConfigDiff diff = new ConfigDiff(errorCollection);
+
+        baseConfigChangedSettings(allConfigs, known, timeoutMs, diff);
+
+        //------ limit switch ----------//   
+        if (diff.check(known.forwardLimitSwitchSource.value != allConfigs.forwardLimitSwitchSource.value
+                || known.forwardLimitSwitchNormal.value != allConfigs.forwardLimitSwitchNormal.value
+                || known.forwardLimitSwitchDeviceID != allConfigs.forwardLimitSwitchDeviceID)
+                && diff.write(configForwardLimitSwitchSource(allConfigs.forwardLimitSwitchSource,
+                        allConfigs.forwardLimitSwitchNormal, allConfigs.forwardLimitSwitchDeviceID, timeoutMs), "forwardLimitSwitchSource")) {
+            known.forwardLimitSwitchSource = allConfigs.forwardLimitSwitchSource;
+            known.forwardLimitSwitchNormal = allConfigs.forwardLimitSwitchNormal;
+            known.forwardLimitSwitchDeviceID = allConfigs.forwardLimitSwitchDeviceID;
+        }
+        if (diff.check(known.reverseLimitSwitchSource.value != allConfigs.reverseLimitSwitchSource.value
+                || known.reverseLimitSwitchNormal.value != allConfigs.reverseLimitSwitchNormal.value
+                || known.reverseLimitSwitchDeviceID != allConfigs.reverseLimitSwitchDeviceID)
+                && diff.write(configReverseLimitSwitchSource(allConfigs.reverseLimitSwitchSource,
+                        allConfigs.reverseLimitSwitchNormal, allConfigs.reverseLimitSwitchDeviceID, timeoutMs), "reverseLimitSwitchSource")) {
+            known.reverseLimitSwitchSource = allConfigs.reverseLimitSwitchSource;
+            known.reverseLimitSwitchNormal = allConfigs.reverseLimitSwitchNormal;
+            known.reverseLimitSwitchDeviceID = allConfigs.reverseLimitSwitchDeviceID;
+        }
+
+        //--------PIDs---------------//
+
+        if (diff.check(ConfigDiff.differs(known.primaryPID.selectedFeedbackCoefficient, allConfigs.primaryPID.selectedFeedbackCoefficient))
+                && diff.write(configSelectedFeedbackCoefficient(allConfigs.primaryPID.selectedFeedbackCoefficient, 0, timeoutMs), "primaryPID.selectedFeedbackCoefficient"))
+            known.primaryPID.selectedFeedbackCoefficient = allConfigs.primaryPID.selectedFeedbackCoefficient;
+        if (diff.changed(known.primaryPID.selectedFeedbackSensor.value, allConfigs.primaryPID.selectedFeedbackSensor.value)
+                && diff.write(configSelectedFeedbackSensor(allConfigs.primaryPID.selectedFeedbackSensor, 0, timeoutMs), "primaryPID.selectedFeedbackSensor"))
+            known.primaryPID.selectedFeedbackSensor = allConfigs.primaryPID.selectedFeedbackSensor;
+        if (diff.check(ConfigDiff.differs(known.auxilaryPID.selectedFeedbackCoefficient, allConfigs.auxilaryPID.selectedFeedbackCoefficient))
+                && diff.write(configSelectedFeedbackCoefficient(allConfigs.auxilaryPID.selectedFeedbackCoefficient, 1, timeoutMs), "auxilaryPID.selectedFeedbackCoefficient"))
+            known.auxilaryPID.selectedFeedbackCoefficient = allConfigs.auxilaryPID.selectedFeedbackCoefficient;
+        if (diff.changed(known.auxilaryPID.selectedFeedbackSensor.value, allConfigs.auxilaryPID.selectedFeedbackSensor.value)
+                && diff.write(configSelectedFeedbackSensor(allConfigs.auxilaryPID.selectedFeedbackSensor, 1, timeoutMs), "auxilaryPID.selectedFeedbackSensor"))
+            known.auxilaryPID.selectedFeedbackSensor = allConfigs.auxilaryPID.selectedFeedbackSensor;
+        if (diff.changed(known.sum_0.value, allConfigs.sum_0.value)
+                && diff.write(configSensorTerm(SensorTerm.Sum0, allConfigs.sum_0, timeoutMs), "sum_0"))
+            known.sum_0 = allConfigs.sum_0;
+        if (diff.changed(known.sum_1.value, allConfigs.sum_1.value)
+                && diff.write(configSensorTerm(SensorTerm.Sum1, allConfigs.sum_1, timeoutMs), "sum_1"))
+            known.sum_1 = allConfigs.sum_1;
+        if (diff.changed(known.diff_0.value, allConfigs.diff_0.value)
+                && diff.write(configSensorTerm(SensorTerm.Diff0, allConfigs.diff_0, timeoutMs), "diff_0"))
+            known.diff_0 = allConfigs.diff_0;
+        if (diff.changed(known.diff_1.value, allConfigs.diff_1.value)
+                && diff.write(configSensorTerm(SensorTerm.Diff1, allConfigs.diff_1, timeoutMs), "diff_1"))
+            known.diff_1 = allConfigs.diff_1;
+
+        return diff.getSkipped();
+	}
+
     /**
      * Configures all peristant settings (overloaded so timeoutMs is 50 ms).
      *
@@ -141,6 +286,26 @@ public class VictorSPX extends com.ctre.phoenix.motorcontrol.can.BaseMotorContro
 		int timeoutMs = 50;
 		return configAllSettings(allConfigs, timeoutMs);
 	}	
+    /**
+     * Gets all persistant settings, checking the error of every read.
+     *
+	 * @param allConfigs        Object with all of the persistant settings
+     * @param timeoutMs
+     *              Timeout value in ms. If nonzero, function will wait for
+     *              config success and report an error if it times out.
+     *              If zero, no blocking or checking is performed.
+     * @param errorCollection   Collection to record the failed reads into.
+     *
+     * @return Worst error of the reads. If not OK, some settings of
+     *         allConfigs were not read.
+     */
+    public ErrorCode getAllConfigs(final VictorSPXConfiguration allConfigs, final int timeoutMs, ErrorCollection errorCollection) {
+        return readBack(new Runnable() {
+            public void run() {
+                getAllConfigs(allConfigs, timeoutMs);
+            }
+        }, errorCollection);
+    }
     /**
      * Gets all persistant settings.
      *
@@ -12,6 +12,7 @@ package com.ctre.phoenix.motorcontrol.can;
 
 import edu.wpi.first.wpilibj.SpeedController;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
+import com.ctre.phoenix.DeviceBackend;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import edu.wpi.first.wpilibj.MotorSafety;
 import edu.wpi.first.wpilibj.MotorSafetyHelper;
@@ -28,7 +29,8 @@ public class WPI_TalonSRX extends TalonSRX implements SpeedController, Sendable,
 	/** Constructor */
 	public WPI_TalonSRX(int deviceNumber) {
 		super(deviceNumber);
-		HAL.report(66, deviceNumber + 1);
+		if (DeviceBackend.isNative())
+			HAL.report(66, deviceNumber + 1);
 		_description = "Talon SRX " + deviceNumber;
 		/* prep motor safety */
 		_safetyHelper = new MotorSafetyHelper(this);
@@ -12,6 +12,7 @@ package com.ctre.phoenix.motorcontrol.can;
 
 import edu.wpi.first.wpilibj.SpeedController;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
+import com.ctre.phoenix.DeviceBackend;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import edu.wpi.first.wpilibj.MotorSafety;
 import edu.wpi.first.wpilibj.MotorSafetyHelper;
@@ -28,7 +29,8 @@ public class WPI_VictorSPX extends VictorSPX implements SpeedController, Sendabl
 	/** Constructor */
 	public WPI_VictorSPX(int deviceNumber) {
 		super(deviceNumber);
-		HAL.report(67, deviceNumber + 1);
+		if (DeviceBackend.isNative())
+			HAL.report(67, deviceNumber + 1);
 		_description = "Victor SPX " + deviceNumber;
 		/* prep motor safety */
 		_safetyHelper = new MotorSafetyHelper(this);
@@ -0,0 +1,249 @@
+package com.ctre.phoenix.motorcontrol.can;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces control writes to motor controllers over one robot loop.
+ *
+ * Between begin() and commit(), set(), setNeutralMode() and
+ * selectProfileSlot() on any BaseMotorController are staged in a per-device
+ * slot table instead of calling into the native layer. commit() then sends
+ * only the last value of each field, device by device in the order they
+ * were first written, with selections ahead of the setpoint. A device that is
+ * written several times per loop costs one native call per field.
+ *
+ * A transaction belongs to the thread that began it, only writes made from
+ * that thread are staged. Other threads, for instance a
+ * MotionProfileStreamer, keep writing straight to the native layer, as does
+ * everything outside of a transaction. The slot table is emptied on each
+ * commit, so it holds no device past the loop it was written in.
+ *
+ * Typical use:
+ *	WriteCombiner.begin();
+ *	... control loops call set() ...
+ *	WriteCombiner.commit();
+ */
+public final class WriteCombiner {
+
+	// ------ staged fields, one bit each ----------//
+	private static final int kNeutralMode = 1 << 0;
+	private static final int kProfileSlot0 = 1 << 1;
+	private static final int kProfileSlot1 = 1 << 2;
+	private static final int kSet4 = 1 << 3;
+	private static final int kSetDemand = 1 << 4;
+
+	private static final Object _lock = new Object();
+	/* transactions open on any thread, writes skip the thread lookup while 0 */
+	private static volatile int _openCount = 0;
+	private static final ThreadLocal<WriteCombiner> _transaction = new ThreadLocal<WriteCombiner>();
+
+	private static final AtomicLong _staged = new AtomicLong();
+	private static final AtomicLong _sent = new AtomicLong();
+
+	// ------ slot table of one thread, in the order of first write ----------//
+	private boolean _active = false;
+	private BaseMotorController[] _devices = new BaseMotorController[16];
+	private int[] _dirty = new int[16];
+	private int[] _neutralMode = new int[16];
+	private int[] _profileSlot0 = new int[16];
+	private int[] _profileSlot1 = new int[16];
+	private int[] _mode = new int[16];
+	private double[] _demand0 = new double[16];
+	private double[] _demand1 = new double[16];
+	private int[] _demand1Type = new int[16];
+	private int _slotCount = 0;
+
+	private WriteCombiner() {
+	}
+
+	/**
+	 * Starts staging the writes of the calling thread. Does nothing if the
+	 * thread already has a transaction open.
+	 */
+	public static void begin() {
+		WriteCombiner txn = _transaction.get();
+		if (txn == null) {
+			txn = new WriteCombiner();
+			_transaction.set(txn);
+		}
+		synchronized (_lock) {
+			if (txn._active)
+				return;
+			txn._active = true;
+			++_openCount;
+		}
+	}
+	/**
+	 * Sends every write staged by the calling thread and stops staging.
+	 *
+	 * @return Number of native calls made.
+	 */
+	public static int commit() {
+		WriteCombiner txn = _transaction.get();
+		if (txn == null)
+			return 0;
+		synchronized (_lock) {
+			if (txn._active) {
+				txn._active = false;
+				--_openCount;
+			}
+		}
+		return txn.flush();
+	}
+	/**
+	 * Sends every write staged by the calling thread and keeps staging, for a
+	 * commit point in the middle of a loop.
+	 *
+	 * @return Number of native calls made.
+	 */
+	public static int flushNow() {
+		WriteCombiner txn = _transaction.get();
+		if (txn == null)
+			return 0;
+		return txn.flush();
+	}
+	/**
+	 * @return True between begin() and commit() on the calling thread.
+	 */
+	public static boolean isActive() {
+		WriteCombiner txn = _transaction.get();
+		return txn != null && txn._active;
+	}
+	/**
+	 * @return Number of writes staged by all threads since the last
+	 *         resetCounts().
+	 */
+	public static long getStagedCount() {
+		return _staged.get();
+	}
+	/**
+	 * @return Number of native calls made by commits since the last
+	 *         resetCounts().
+	 */
+	public static long getSentCount() {
+		return _sent.get();
+	}
+	public static void resetCounts() {
+		_staged.set(0);
+		_sent.set(0);
+	}
+
+	// ------ staging, called by BaseMotorController ----------//
+	/**
+	 * @return The calling thread's open transaction, null if the write must
+	 *         be sent now.
+	 */
+	private static WriteCombiner open() {
+		if (_openCount == 0)
+			return null;
+		WriteCombiner txn = _transaction.get();
+		return (txn != null && txn._active) ? txn : null;
+	}
+
+	/** @return False if no transaction is open and the write must be sent now. */
+	static boolean stageNeutralMode(BaseMotorController dev, int neutralMode) {
+		WriteCombiner txn = open();
+		if (txn == null)
+			return false;
+		txn._neutralMode[txn.touch(dev, kNeutralMode)] = neutralMode;
+		return true;
+	}
+	static boolean stageProfileSlot(BaseMotorController dev, int slotIdx, int pidIdx) {
+		if (pidIdx != 0 && pidIdx != 1)
+			return false;
+		WriteCombiner txn = open();
+		if (txn == null)
+			return false;
+		if (pidIdx == 0)
+			txn._profileSlot0[txn.touch(dev, kProfileSlot0)] = slotIdx;
+		else
+			txn._profileSlot1[txn.touch(dev, kProfileSlot1)] = slotIdx;
+		return true;
+	}
+	/**
+	 * @param demand
+	 *            True for a SetDemand() call, false for Set_4(). Only the last
+	 *            of the two is sent.
+	 */
+	static boolean stageSet(BaseMotorController dev, boolean demand, int mode, double demand0, double demand1,
+			int demand1Type) {
+		WriteCombiner txn = open();
+		if (txn == null)
+			return false;
+		int slot = txn.touch(dev, demand ? kSetDemand : kSet4);
+		txn._dirty[slot] &= ~(demand ? kSet4 : kSetDemand);
+		txn._mode[slot] = mode;
+		txn._demand0[slot] = demand0;
+		txn._demand1[slot] = demand1;
+		txn._demand1Type[slot] = demand1Type;
+		return true;
+	}
+
+	/** Marks a field of the device dirty, adding it to the table if needed. */
+	private int touch(BaseMotorController dev, int field) {
+		/* a loop writes a handful of devices, a scan beats a map */
+		int slot = 0;
+		while (slot < _slotCount && _devices[slot] != dev)
+			++slot;
+		if (slot == _slotCount) {
+			if (slot == _devices.length)
+				grow();
+			_devices[slot] = dev;
+			++_slotCount;
+		}
+		_dirty[slot] |= field;
+		_staged.incrementAndGet();
+		return slot;
+	}
+
+	private void grow() {
+		int capacity = _devices.length * 2;
+		_devices = Arrays.copyOf(_devices, capacity);
+		_dirty = Arrays.copyOf(_dirty, capacity);
+		_neutralMode = Arrays.copyOf(_neutralMode, capacity);
+		_profileSlot0 = Arrays.copyOf(_profileSlot0, capacity);
+		_profileSlot1 = Arrays.copyOf(_profileSlot1, capacity);
+		_mode = Arrays.copyOf(_mode, capacity);
+		_demand0 = Arrays.copyOf(_demand0, capacity);
+		_demand1 = Arrays.copyOf(_demand1, capacity);
+		_demand1Type = Arrays.copyOf(_demand1Type, capacity);
+	}
+
+	/** Sends the staged writes and empties the slot table. */
+	private int flush() {
+		int calls = 0;
+		for (int slot = 0; slot < _slotCount; ++slot) {
+			int dirty = _dirty[slot];
+			BaseMotorController dev = _devices[slot];
+			_dirty[slot] = 0;
+			_devices[slot] = null;
+			IMotControllerBackend backend = dev.m_backend;
+			long handle = dev.m_handle;
+
+			if ((dirty & kNeutralMode) != 0) {
+				backend.SetNeutralMode(handle, _neutralMode[slot]);
+				++calls;
+			}
+			if ((dirty & kProfileSlot0) != 0) {
+				backend.SelectProfileSlot(handle, _profileSlot0[slot], 0);
+				++calls;
+			}
+			if ((dirty & kProfileSlot1) != 0) {
+				backend.SelectProfileSlot(handle, _profileSlot1[slot], 1);
+				++calls;
+			}
+			if ((dirty & kSet4) != 0) {
+				backend.Set_4(handle, _mode[slot], _demand0[slot], _demand1[slot], _demand1Type[slot]);
+				++calls;
+			}
+			if ((dirty & kSetDemand) != 0) {
+				backend.SetDemand(handle, _mode[slot], (int) _demand0[slot], (int) _demand1[slot]);
+				++calls;
+			}
+		}
+		_slotCount = 0;
+		_sent.addAndGet(calls);
+		return calls;
+	}
+}
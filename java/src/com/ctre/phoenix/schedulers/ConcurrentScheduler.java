@@ -1,79 +1,370 @@
 package com.ctre.phoenix.schedulers;
-import java.util.ArrayList;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.time.TimingHistogram;
 
+/**
+ * Runs every enabled ILoopable once per process() call.
+ *
+ * By default the loops run in order on the caller's thread. Constructed with
+ * worker threads, the loops of each tick are spread across the workers and
+ * the caller, and process() returns once all of them have finished, so the
+ * loops must not depend on each other's order within a tick.
+ *
+ * With setTimingEnabled(true), the execution time of each loop and of each
+ * tick is recorded in a TimingHistogram. It is off by default, as reading the
+ * clock around every loop costs more than the tick itself when the loops are
+ * short. start()/stop() may be called from any thread. An exception or error
+ * thrown by a loop, on any thread, is rethrown by process() once the rest of
+ * the tick has run.
+ */
 public class ConcurrentScheduler implements ILoopable {
-	ArrayList<ILoopable> _loops = new ArrayList<ILoopable>();
-	ArrayList<Boolean> _enabs = new ArrayList<Boolean>();
+
+	/** Loops with their enables and timing, replaced as a whole by add()/removeAll(). */
+	private static class LoopSet {
+		final ILoopable[] loops;
+		final TimingHistogram[] timings;
+		final AtomicLongArray enabs;
+
+		LoopSet(ILoopable[] loops, TimingHistogram[] timings) {
+			this.loops = loops;
+			this.timings = timings;
+			this.enabs = new AtomicLongArray((loops.length + 63) / 64);
+		}
+		boolean isEnabled(int idx) {
+			return (enabs.get(idx >> 6) & (1L << idx)) != 0;
+		}
+		void setEnabled(int idx, boolean enable) {
+			long mask = 1L << idx;
+			long prev, next;
+			do {
+				prev = enabs.get(idx >> 6);
+				next = enable ? (prev | mask) : (prev & ~mask);
+			} while (!enabs.compareAndSet(idx >> 6, prev, next));
+		}
+	}
+
+	private final Object _lock = new Object();
+	private volatile LoopSet _set = new LoopSet(new ILoopable[0], new TimingHistogram[0]);
+	private final TimingHistogram _tickTiming = new TimingHistogram();
+	private volatile boolean _timing = false;
+
+	// ------ worker pool ----------//
+	private final Thread[] _workers;
+	private final CyclicBarrier _tickStart;
+	private final CyclicBarrier _tickEnd;
+	private volatile boolean _pooled;
+	/* set by shutdown() during a tick, process() stops the pool after it */
+	private volatile boolean _stopping = false;
+	/* guards _inTick and the stop of the pool */
+	private final Object _tickLock = new Object();
+	private boolean _inTick = false;
+	private Thread _tickThread = null;
+	private LoopSet _tickSet;
+	private boolean _tickTimed;
+	private final AtomicInteger _nextLoop = new AtomicInteger();
+	private final AtomicReference<Throwable> _failure = new AtomicReference<Throwable>();
+
+	/**
+	 * Scheduler that runs its loops on the caller's thread.
+	 */
+	public ConcurrentScheduler() {
+		this(0);
+	}
+	/**
+	 * @param workerCount
+	 *            Number of worker threads to spread the loops of each tick
+	 *            across, in addition to the caller's thread. 0 runs all loops
+	 *            on the caller's thread.
+	 */
+	public ConcurrentScheduler(int workerCount) {
+		_workers = new Thread[workerCount];
+		_tickStart = new CyclicBarrier(workerCount + 1);
+		_tickEnd = new CyclicBarrier(workerCount + 1);
+		for (int i = 0; i < workerCount; ++i) {
+			_workers[i] = new Thread(new Runnable() {
+				public void run() {
+					work();
+				}
+			}, "CTRE scheduler " + i);
+			_workers[i].setDaemon(true);
+			_workers[i].start();
+		}
+		_pooled = workerCount > 0;
+	}
 
 	public void add(ILoopable aLoop, boolean enable) {
-		_loops.add(aLoop);
-		_enabs.add(enable);
+		synchronized (_lock) {
+			LoopSet old = _set;
+			int count = old.loops.length;
+			ILoopable[] loops = new ILoopable[count + 1];
+			TimingHistogram[] timings = new TimingHistogram[count + 1];
+			System.arraycopy(old.loops, 0, loops, 0, count);
+			System.arraycopy(old.timings, 0, timings, 0, count);
+			loops[count] = aLoop;
+			timings[count] = new TimingHistogram();
+
+			LoopSet set = new LoopSet(loops, timings);
+			for (int i = 0; i < count; ++i)
+				set.setEnabled(i, old.isEnabled(i));
+			set.setEnabled(count, enable);
+			_set = set;
+		}
 	}
 	public void add(ILoopable aLoop) {
 		add(aLoop, true);
 	}
 
 	public void removeAll() {
-		_loops.clear();
-		_enabs.clear();
+		synchronized (_lock) {
+			_set = new LoopSet(new ILoopable[0], new TimingHistogram[0]);
+		}
 	}
 
 	public void start(ILoopable toStart) {
-		for (int i = 0; i < _loops.size(); ++i) {
-			ILoopable lp = (ILoopable) _loops.get(i);
+		synchronized (_lock) {
+			LoopSet set = _set;
+			for (int i = 0; i < set.loops.length; ++i) {
+				ILoopable lp = set.loops[i];
 
-			if (lp == toStart) {
-				_enabs.set(i, true);
-				lp.onStart();
-				return;
+				if (lp == toStart) {
+					set.setEnabled(i, true);
+					lp.onStart();
+					return;
+				}
 			}
 		}
-
 	}
 
 	public void stop(ILoopable toStop) {
-		for (int i = 0; i < (int) _loops.size(); ++i) {
-			ILoopable lp = (ILoopable) _loops.get(i);
+		synchronized (_lock) {
+			LoopSet set = _set;
+			for (int i = 0; i < set.loops.length; ++i) {
+				ILoopable lp = set.loops[i];
 
-			if (lp == toStop) {
-				_enabs.set(i, false);
-				lp.onStop();
-				return;
+				if (lp == toStop) {
+					set.setEnabled(i, false);
+					lp.onStop();
+					return;
+				}
 			}
 		}
 	}
 
 	public void startAll() { // All Loops
-
-		for (ILoopable loop : _loops) {
-			loop.onStart();
-		}
-		for (int i = 0; i < _enabs.size(); ++i) {
-			_enabs.set(i,  true);
+		synchronized (_lock) {
+			LoopSet set = _set;
+			for (ILoopable loop : set.loops) {
+				loop.onStart();
+			}
+			for (int i = 0; i < set.loops.length; ++i) {
+				set.setEnabled(i, true);
+			}
 		}
 	}
 
 	public void stopAll() { // All Loops
-		for (ILoopable loop : _loops) {
-			loop.onStop();
+		synchronized (_lock) {
+			LoopSet set = _set;
+			for (ILoopable loop : set.loops) {
+				loop.onStop();
+			}
+			for (int i = 0; i < set.loops.length; ++i) {
+				set.setEnabled(i, false);
+			}
 		}
-		for (int i = 0; i < _enabs.size(); ++i) {
-			_enabs.set(i,  false);
+	}
+
+	/**
+	 * Records the execution time of each loop and of each tick, see
+	 * getTiming() and getTickTiming(). Off by default. Takes effect at the
+	 * next tick.
+	 */
+	public void setTimingEnabled(boolean enable) {
+		_timing = enable;
+	}
+	public boolean isTimingEnabled() {
+		return _timing;
+	}
+	/**
+	 * @return Execution time of each onLoop() of the loop while timing is
+	 *         enabled, or null if it was not added.
+	 */
+	public TimingHistogram getTiming(ILoopable loop) {
+		LoopSet set = _set;
+		for (int i = 0; i < set.loops.length; ++i) {
+			if (set.loops[i] == loop)
+				return set.timings[i];
 		}
+		return null;
+	}
+	/**
+	 * @return Execution time of each process() call while timing is enabled.
+	 */
+	public TimingHistogram getTickTiming() {
+		return _tickTiming;
 	}
 
 	public void process() {
-		for (int i = 0; i < (int) _loops.size(); ++i) {
-			ILoopable loop = (ILoopable) _loops.get(i);
-			boolean en = (boolean) _enabs.get(i);
-			if (en) {
-				loop.onLoop();
+		boolean timing = _timing;
+		long start = timing ? System.nanoTime() : 0;
+		_tickSet = _set;
+		_tickTimed = timing;
+		_nextLoop.set(0);
+		boolean pooled = _pooled;
+		if (pooled) {
+			synchronized (_tickLock) {
+				pooled = _pooled;
+				_inTick = pooled;
+				_tickThread = Thread.currentThread();
+			}
+		}
+		long end;
+		if (pooled && await(_tickStart)) {
+			runLoops(start);
+			await(_tickEnd);
+			end = timing ? System.nanoTime() : 0;
+		} else {
+			/* no workers, or the barrier was broken by an outside interrupt */
+			end = runLoops(start);
+		}
+		if (pooled) {
+			synchronized (_tickLock) {
+				_inTick = false;
+				/* shutdown() was called during the tick */
+				if (_stopping && _pooled)
+					stopWorkers();
+				_tickLock.notifyAll();
+			}
+		}
+		if (timing)
+			_tickTiming.record(end - start);
+
+		Throwable failure = _failure.getAndSet(null);
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new RuntimeException(failure);
+	}
+
+	/**
+	 * Stops the worker threads, later ticks run on the caller's thread.
+	 * Workers only stop between ticks: a tick in progress finishes first, and
+	 * the call returns once the workers have exited. Called from a loop, the
+	 * workers are stopped by process() at the end of the tick instead.
+	 */
+	public void shutdown() {
+		boolean interrupted = false;
+		synchronized (_tickLock) {
+			if (!_pooled)
+				return;
+			_stopping = true;
+			if (_inTick && isTickThread(Thread.currentThread()))
+				return;
+			while (_inTick) {
+				try {
+					_tickLock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (_pooled)
+				stopWorkers();
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private boolean isTickThread(Thread thread) {
+		if (thread == _tickThread)
+			return true;
+		for (Thread worker : _workers) {
+			if (worker == thread)
+				return true;
+		}
+		return false;
+	}
+
+	/** Releases the idle workers past _tickStart and joins them, must hold _tickLock. */
+	private void stopWorkers() {
+		_pooled = false;
+		await(_tickStart);
+		boolean interrupted = false;
+		for (Thread worker : _workers) {
+			while (worker.isAlive()) {
+				try {
+					worker.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Runs enabled loops of the current tick until none are left. When timed,
+	 * each loop's end time is the next one's start time, to read the clock
+	 * once per loop. Anything a loop throws is kept for process() to rethrow,
+	 * so a worker always reaches the end of the tick.
+	 *
+	 * @param now
+	 *            System.nanoTime() shortly before the call, if timed.
+	 * @return System.nanoTime() after the last loop this thread ran, if
+	 *         timed.
+	 */
+	private long runLoops(long now) {
+		LoopSet set = _tickSet;
+		boolean timing = _tickTimed;
+		int idx;
+		while ((idx = _nextLoop.getAndIncrement()) < set.loops.length) {
+			if (set.isEnabled(idx)) {
+				long start = now;
+				try {
+					set.loops[idx].onLoop();
+				} catch (Throwable e) {
+					_failure.compareAndSet(null, e);
+				}
+				if (timing) {
+					now = System.nanoTime();
+					set.timings[idx].record(now - start);
+				}
 			} else {
 				/* Current ILoopable is turned off, don't call onLoop for it */
 			}
 		}
+		return now;
+	}
+
+	private void work() {
+		/* _pooled only turns false in stopWorkers(), which runs between ticks */
+		while (await(_tickStart) && _pooled) {
+			runLoops(_tickTimed ? System.nanoTime() : 0);
+			if (!await(_tickEnd))
+				break;
+		}
+	}
+
+	/** @return False if the barrier was broken, only by an outside interrupt. */
+	private boolean await(CyclicBarrier barrier) {
+		try {
+			barrier.await();
+			return true;
+		} catch (InterruptedException e) {
+			_pooled = false;
+			Thread.currentThread().interrupt();
+		} catch (BrokenBarrierException e) {
+			_pooled = false;
+		}
+		return false;
 	}
 
 	/* ILoopable */
@@ -92,4 +383,4 @@ public class ConcurrentScheduler implements ILoopable {
 	public boolean isDone() {
 		return false;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,225 @@
+package com.ctre.phoenix.schedulers;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.time.TimingHistogram;
+
+/**
+ * Runs an ILoopable on its own thread at a fixed period.
+ *
+ * Each onLoop() is scheduled against an absolute System.nanoTime() deadline,
+ * so the period does not drift by the loop's own execution time. When
+ * onLoop() runs past the next deadline it is counted as an overrun, and the
+ * deadlines that were missed are skipped rather than run back to back.
+ *
+ * onStart(), onLoop() and onStop() are all called from the executor thread.
+ * The executor stops by itself once the loop's isDone() returns true.
+ */
+public class PeriodicExecutor {
+
+	private final ILoopable _loop;
+	private volatile long _periodNs;
+	private final String _name;
+	private long _spinNs = 0;
+
+	private volatile boolean _running = false;
+	private Thread _thread = null;
+
+	// ------ statistics ----------//
+	private final TimingHistogram _lateness = new TimingHistogram();
+	private final TimingHistogram _execution = new TimingHistogram();
+	private final AtomicLong _ticks = new AtomicLong();
+	private final AtomicLong _overruns = new AtomicLong();
+	private final AtomicLong _missed = new AtomicLong();
+
+	/**
+	 * @param loop
+	 *            Loop to run, typically a scheduler.
+	 * @param periodMs
+	 *            Time between the start of each onLoop().
+	 */
+	public PeriodicExecutor(ILoopable loop, int periodMs) {
+		this(loop, TimeUnit.MILLISECONDS.toNanos(periodMs), "CTRE periodic " + periodMs + "ms");
+	}
+	/**
+	 * @param loop
+	 *            Loop to run, typically a scheduler.
+	 * @param periodNs
+	 *            Time between the start of each onLoop().
+	 * @param name
+	 *            Name of the executor thread.
+	 */
+	public PeriodicExecutor(ILoopable loop, long periodNs, String name) {
+		_loop = loop;
+		_periodNs = periodNs;
+		_name = name;
+	}
+	/**
+	 * Runs a SequentialScheduler at the period it was constructed with.
+	 */
+	public PeriodicExecutor(SequentialScheduler scheduler) {
+		this(scheduler, scheduler.getPeriodMs());
+	}
+
+	/**
+	 * Busy-waits the last part of each period instead of sleeping through
+	 * it. Sleeping typically wakes 50-100us late, spinning trades CPU time
+	 * for a wake up within a microsecond or so. Disabled by default.
+	 *
+	 * @param spinUs
+	 *            Time before each deadline to spin for, 0 to only sleep.
+	 */
+	public synchronized void setSpinUs(int spinUs) {
+		_spinNs = TimeUnit.MICROSECONDS.toNanos(spinUs);
+	}
+
+	/**
+	 * Changes the time between the start of each onLoop(), from the next
+	 * deadline on. May be called from onLoop().
+	 */
+	public void setPeriodNs(long periodNs) {
+		_periodNs = periodNs;
+	}
+
+	/**
+	 * Starts the executor thread, which calls onStart() and then onLoop()
+	 * once per period. Does nothing if already running.
+	 */
+	public synchronized void start() {
+		if (_running)
+			return;
+		_running = true;
+		final long spinNs = _spinNs;
+		_thread = new Thread(new Runnable() {
+			public void run() {
+				execute(spinNs);
+			}
+		}, _name);
+		_thread.setDaemon(true);
+		_thread.start();
+	}
+	/**
+	 * Stops the executor thread and waits for it to call onStop(). The
+	 * onLoop() in progress, if any, finishes first.
+	 */
+	public void stop() {
+		Thread thread;
+		synchronized (this) {
+			_running = false;
+			thread = _thread;
+			_thread = null;
+		}
+		if (thread == null || thread == Thread.currentThread())
+			return;
+		LockSupport.unpark(thread);
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+	public boolean isRunning() {
+		return _running;
+	}
+
+	private void execute(long spinNs) {
+		_loop.onStart();
+		try {
+			long deadline = System.nanoTime();
+			while (_running && !_loop.isDone()) {
+				long start = waitUntil(deadline, spinNs);
+				if (!_running)
+					break;
+				_lateness.record(start - deadline);
+
+				_loop.onLoop();
+
+				long end = System.nanoTime();
+				_execution.record(end - start);
+				_ticks.incrementAndGet();
+
+				long periodNs = _periodNs;
+				deadline += periodNs;
+				if (end - deadline > 0) {
+					_overruns.incrementAndGet();
+					/* skip the deadlines already missed, stay on the same grid */
+					long missed = (end - deadline) / periodNs + 1;
+					_missed.addAndGet(missed);
+					deadline += missed * periodNs;
+				}
+			}
+		} finally {
+			_running = false;
+			_loop.onStop();
+		}
+	}
+
+	/** @return System.nanoTime() once the deadline has passed or on stop. */
+	private long waitUntil(long deadline, long spinNs) {
+		long now = System.nanoTime();
+		while (_running && now - deadline < 0) {
+			long remaining = deadline - now;
+			if (remaining > spinNs)
+				LockSupport.parkNanos(this, remaining - spinNs);
+			now = System.nanoTime();
+		}
+		return now;
+	}
+
+	// ------ statistics ----------//
+	public long getPeriodNs() {
+		return _periodNs;
+	}
+	/**
+	 * @return How late each onLoop() started after its deadline.
+	 */
+	public TimingHistogram getLateness() {
+		return _lateness;
+	}
+	/**
+	 * @return Execution time of each onLoop().
+	 */
+	public TimingHistogram getExecutionTiming() {
+		return _execution;
+	}
+	/**
+	 * @return Number of onLoop() calls made.
+	 */
+	public long getTickCount() {
+		return _ticks.get();
+	}
+	/**
+	 * @return Number of onLoop() calls that ran past the next deadline.
+	 */
+	public long getOverrunCount() {
+		return _overruns.get();
+	}
+	/**
+	 * @return Number of periods skipped because of overruns.
+	 */
+	public long getMissedPeriodCount() {
+		return _missed.get();
+	}
+	/**
+	 * Clears all statistics.
+	 */
+	public void resetStatistics() {
+		_lateness.reset();
+		_execution.reset();
+		_ticks.set(0);
+		_overruns.set(0);
+		_missed.set(0);
+	}
+
+	public String toString() {
+		return _name + ": ticks=" + getTickCount() + " overruns=" + getOverrunCount() + " missed="
+				+ getMissedPeriodCount() + "\n  lateness " + _lateness + "\n  execution " + _execution;
+	}
+}
@@ -13,6 +13,14 @@ public class SequentialScheduler implements com.ctre.phoenix.ILoopable
 	{
 		_periodMs = periodMs;
 	}
+	/**
+	 * @return Period this scheduler is meant to be processed at, see
+	 *         PeriodicExecutor.
+	 */
+	public int getPeriodMs()
+	{
+		return _periodMs;
+	}
 	public void add(com.ctre.phoenix.ILoopable aLoop)
 	{
 		_loops.add(aLoop);
@@ -0,0 +1,108 @@
+package com.ctre.phoenix.sensors;
+
+/**
+ * Low level interface used by PigeonIMU.
+ * Each routine mirrors the JNI_ routine of the same name in PigeonImuJNI,
+ * so a backend other than the CCI (such as a simulation) can be selected
+ * with com.ctre.phoenix.DeviceBackend.
+ */
+public interface IPigeonImuBackend {
+
+	long CreateTalon(int talonID);
+
+	long Create(int deviceNumber);
+
+	int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs);
+
+	int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs);
+
+	int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal, int timeoutMs);
+
+	double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs);
+
+	int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs);
+
+	int SetYaw(long handle, double angleDeg, int timeoutMs);
+
+	int AddYaw(long handle, double angleDeg, int timeoutMs);
+
+	int SetYawToCompass(long handle, int timeoutMs);
+
+	int SetFusedHeading(long handle, double angleDeg, int timeoutMs);
+
+	int AddFusedHeading(long handle, double angleDeg, int timeoutMs);
+
+	int SetFusedHeadingToCompass(long handle, int timeoutMs);
+
+	int SetAccumZAngle(long handle, double angleDeg, int timeoutMs);
+
+	int SetTemperatureCompensationDisable(long handle, int bTempCompDisable, int timeoutMs);
+
+	int SetCompassDeclination(long handle, double angleDegOffset, int timeoutMs);
+
+	int SetCompassAngle(long handle, double angleDeg, int timeoutMs);
+
+	int EnterCalibrationMode(long handle, int calMode, int timeoutMs);
+
+	int GetGeneralStatus(long handle, double[] params);
+
+	int Get6dQuaternion(long handle, double[] wxyz);
+
+	int GetYawPitchRoll(long handle, double[] ypr);
+
+	int GetAccumGyro(long handle, double[] xyz_deg);
+
+	double GetAbsoluteCompassHeading(long handle);
+
+	double GetCompassHeading(long handle);
+
+	double GetCompassFieldStrength(long handle);
+
+	double GetTemp(long handle);
+
+	int GetUpTime(long handle);
+
+	int GetRawMagnetometer(long handle, short[] rm_xyz);
+
+	int GetBiasedMagnetometer(long handle, short[] bm_xyz);
+
+	int GetBiasedAccelerometer(long handle, short[] ba_xyz);
+
+	int GetRawGyro(long handle, double[] xyz_dps);
+
+	int GetAccelerometerAngles(long handle, double[] tiltAngles);
+
+	int GetFusedHeading(long handle, double[] params);
+
+	int GetState(long handle);
+
+	int GetResetCount(long handle);
+
+	int GetResetFlags(long handle);
+
+	int GetFirmwareVersion(long handle);
+
+	int GetLastError(long handle);
+
+	boolean HasResetOccurred(long handle);
+
+	int GetStatusFramePeriod(long handle, int frame, int timeoutMs);
+
+	int SetControlFramePeriod(long handle, int frame, int periodMs);
+
+	int GetFaults(long handle);
+
+	int GetStickyFaults(long handle);
+
+	int ClearStickyFaults(long handle, int timeoutMs);
+
+	/**
+	 * @param sinceNs
+	 *            System.nanoTime() from which getter calls are considered.
+	 * @return System.nanoTime() at which the oldest signal returned by the
+	 *         getters since sinceNs was received, the current time if none
+	 *         were called, SampleTime.kNever if one was never received and
+	 *         SampleTime.kUnknown if the backend does not know.
+	 */
+	long GetReceiveTimeNs(long handle, long sinceNs);
+}
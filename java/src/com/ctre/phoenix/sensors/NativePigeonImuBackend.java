@@ -0,0 +1,191 @@
+package com.ctre.phoenix.sensors;
+
+import com.ctre.phoenix.time.SampleTime;
+
+/**
+ * Pigeon IMU backend that forwards to the CTRE_PhoenixCCI natives.
+ */
+public class NativePigeonImuBackend implements IPigeonImuBackend {
+
+	public long CreateTalon(int talonID) {
+		return PigeonImuJNI.JNI_new_PigeonImu_Talon(talonID);
+	}
+
+	public long Create(int deviceNumber) {
+		return PigeonImuJNI.JNI_new_PigeonImu(deviceNumber);
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return PigeonImuJNI.JNI_ConfigSetCustomParam(handle, newValue, paramIndex, timeoutMs);
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return PigeonImuJNI.JNI_ConfigGetCustomParam(handle, paramIndex, timoutMs);
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal,
+			int timeoutMs) {
+		return PigeonImuJNI.JNI_ConfigSetParameter(handle, param, value, subValue, ordinal, timeoutMs);
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return PigeonImuJNI.JNI_ConfigGetParameter(handle, param, ordinal, timeoutMs);
+	}
+
+	public int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetStatusFramePeriod(handle, statusFrame, periodMs, timeoutMs);
+	}
+
+	public int SetYaw(long handle, double angleDeg, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetYaw(handle, angleDeg, timeoutMs);
+	}
+
+	public int AddYaw(long handle, double angleDeg, int timeoutMs) {
+		return PigeonImuJNI.JNI_AddYaw(handle, angleDeg, timeoutMs);
+	}
+
+	public int SetYawToCompass(long handle, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetYawToCompass(handle, timeoutMs);
+	}
+
+	public int SetFusedHeading(long handle, double angleDeg, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetFusedHeading(handle, angleDeg, timeoutMs);
+	}
+
+	public int AddFusedHeading(long handle, double angleDeg, int timeoutMs) {
+		return PigeonImuJNI.JNI_AddFusedHeading(handle, angleDeg, timeoutMs);
+	}
+
+	public int SetFusedHeadingToCompass(long handle, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetFusedHeadingToCompass(handle, timeoutMs);
+	}
+
+	public int SetAccumZAngle(long handle, double angleDeg, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetAccumZAngle(handle, angleDeg, timeoutMs);
+	}
+
+	public int SetTemperatureCompensationDisable(long handle, int bTempCompDisable, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetTemperatureCompensationDisable(handle, bTempCompDisable, timeoutMs);
+	}
+
+	public int SetCompassDeclination(long handle, double angleDegOffset, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetCompassDeclination(handle, angleDegOffset, timeoutMs);
+	}
+
+	public int SetCompassAngle(long handle, double angleDeg, int timeoutMs) {
+		return PigeonImuJNI.JNI_SetCompassAngle(handle, angleDeg, timeoutMs);
+	}
+
+	public int EnterCalibrationMode(long handle, int calMode, int timeoutMs) {
+		return PigeonImuJNI.JNI_EnterCalibrationMode(handle, calMode, timeoutMs);
+	}
+
+	public int GetGeneralStatus(long handle, double[] params) {
+		return PigeonImuJNI.JNI_GetGeneralStatus(handle, params);
+	}
+
+	public int Get6dQuaternion(long handle, double[] wxyz) {
+		return PigeonImuJNI.JNI_Get6dQuaternion(handle, wxyz);
+	}
+
+	public int GetYawPitchRoll(long handle, double[] ypr) {
+		return PigeonImuJNI.JNI_GetYawPitchRoll(handle, ypr);
+	}
+
+	public int GetAccumGyro(long handle, double[] xyz_deg) {
+		return PigeonImuJNI.JNI_GetAccumGyro(handle, xyz_deg);
+	}
+
+	public double GetAbsoluteCompassHeading(long handle) {
+		return PigeonImuJNI.JNI_GetAbsoluteCompassHeading(handle);
+	}
+
+	public double GetCompassHeading(long handle) {
+		return PigeonImuJNI.JNI_GetCompassHeading(handle);
+	}
+
+	public double GetCompassFieldStrength(long handle) {
+		return PigeonImuJNI.JNI_GetCompassFieldStrength(handle);
+	}
+
+	public double GetTemp(long handle) {
+		return PigeonImuJNI.JNI_GetTemp(handle);
+	}
+
+	public int GetUpTime(long handle) {
+		return PigeonImuJNI.JNI_GetUpTime(handle);
+	}
+
+	public int GetRawMagnetometer(long handle, short[] rm_xyz) {
+		return PigeonImuJNI.JNI_GetRawMagnetometer(handle, rm_xyz);
+	}
+
+	public int GetBiasedMagnetometer(long handle, short[] bm_xyz) {
+		return PigeonImuJNI.JNI_GetBiasedMagnetometer(handle, bm_xyz);
+	}
+
+	public int GetBiasedAccelerometer(long handle, short[] ba_xyz) {
+		return PigeonImuJNI.JNI_GetBiasedAccelerometer(handle, ba_xyz);
+	}
+
+	public int GetRawGyro(long handle, double[] xyz_dps) {
+		return PigeonImuJNI.JNI_GetRawGyro(handle, xyz_dps);
+	}
+
+	public int GetAccelerometerAngles(long handle, double[] tiltAngles) {
+		return PigeonImuJNI.JNI_GetAccelerometerAngles(handle, tiltAngles);
+	}
+
+	public int GetFusedHeading(long handle, double[] params) {
+		return PigeonImuJNI.JNI_GetFusedHeading(handle, params);
+	}
+
+	public int GetState(long handle) {
+		return PigeonImuJNI.JNI_GetState(handle);
+	}
+
+	public int GetResetCount(long handle) {
+		return PigeonImuJNI.JNI_GetResetCount(handle);
+	}
+
+	public int GetResetFlags(long handle) {
+		return PigeonImuJNI.JNI_GetResetFlags(handle);
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return PigeonImuJNI.JNI_GetFirmwareVersion(handle);
+	}
+
+	public int GetLastError(long handle) {
+		return PigeonImuJNI.JNI_GetLastError(handle);
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return PigeonImuJNI.JNI_HasResetOccurred(handle);
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return PigeonImuJNI.JNI_GetStatusFramePeriod(handle, frame, timeoutMs);
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return PigeonImuJNI.JNI_SetControlFramePeriod(handle, frame, periodMs);
+	}
+
+	public int GetFaults(long handle) {
+		return PigeonImuJNI.JNI_GetFaults(handle);
+	}
+
+	public int GetStickyFaults(long handle) {
+		return PigeonImuJNI.JNI_GetStickyFaults(handle);
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return PigeonImuJNI.JNI_ClearStickyFaults(handle, timeoutMs);
+	}
+
+	public long GetReceiveTimeNs(long handle, long sinceNs) {
+		/* the CCI does not export receive times, staleness is only reported through GetLastError */
+		return SampleTime.kUnknown;
+	}
+}
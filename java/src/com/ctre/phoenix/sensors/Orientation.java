@@ -0,0 +1,247 @@
+package com.ctre.phoenix.sensors;
+
+/**
+ * Quaternion and orientation math on primitive arrays, for the output of
+ * PigeonIMU.get6dQuaternion().
+ *
+ * Quaternions are double[4] laid out w[0], x[1], y[2], z[3], as filled by
+ * get6dQuaternion(), and vectors are double[3] x, y, z. Results go into
+ * arrays passed by the caller, and an output may be the same array as an
+ * input, so none of these allocate. Most of what is usually derived from
+ * yaw/pitch/roll with trigonometry (gravity direction, tilt, heading
+ * vector) is a handful of multiplies on the quaternion.
+ *
+ * Euler angles are yaw about Z, then pitch about Y, then roll about X, in
+ * degrees (Tait-Bryan Z-Y-X).
+ *
+ * Typical use:
+ *	pigeon.get6dQuaternion(q);
+ *	Orientation.gravity(q, g);
+ *	double tiltDeg = Orientation.tiltDeg(q);
+ */
+public class Orientation {
+
+	private Orientation() {
+	}
+
+	// ------ quaternions ----------//
+	public static void identity(double[] out) {
+		out[0] = 1;
+		out[1] = 0;
+		out[2] = 0;
+		out[3] = 0;
+	}
+	/**
+	 * out = a * b, the rotation b followed by a.
+	 */
+	public static void multiply(double[] a, double[] b, double[] out) {
+		double aw = a[0], ax = a[1], ay = a[2], az = a[3];
+		double bw = b[0], bx = b[1], by = b[2], bz = b[3];
+		out[0] = aw * bw - ax * bx - ay * by - az * bz;
+		out[1] = aw * bx + ax * bw + ay * bz - az * by;
+		out[2] = aw * by - ax * bz + ay * bw + az * bx;
+		out[3] = aw * bz + ax * by - ay * bx + az * bw;
+	}
+	/**
+	 * out = the inverse rotation of a unit quaternion.
+	 */
+	public static void conjugate(double[] q, double[] out) {
+		out[0] = q[0];
+		out[1] = -q[1];
+		out[2] = -q[2];
+		out[3] = -q[3];
+	}
+	/**
+	 * Scales q to unit length, the identity if q is all zeros.
+	 *
+	 * @return Length of q before normalizing.
+	 */
+	public static double normalize(double[] q) {
+		double norm = Math.sqrt(q[0] * q[0] + q[1] * q[1] + q[2] * q[2] + q[3] * q[3]);
+		if (norm == 0) {
+			identity(q);
+			return 0;
+		}
+		double inv = 1 / norm;
+		q[0] *= inv;
+		q[1] *= inv;
+		q[2] *= inv;
+		q[3] *= inv;
+		return norm;
+	}
+	public static double dot(double[] a, double[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2] + a[3] * b[3];
+	}
+	/**
+	 * Interpolates between unit quaternions along the shortest arc, at
+	 * constant angular rate.
+	 *
+	 * @param t
+	 *            0 for a, 1 for b.
+	 */
+	public static void slerp(double[] a, double[] b, double t, double[] out) {
+		double cos = dot(a, b);
+		/* q and -q are the same rotation, take the short way round */
+		double sign = 1;
+		if (cos < 0) {
+			cos = -cos;
+			sign = -1;
+		}
+		double wa, wb;
+		if (cos > 0.9995) {
+			/* nearly parallel, a normalized lerp is as good and stable */
+			wa = 1 - t;
+			wb = t * sign;
+		} else {
+			double theta = Math.acos(cos);
+			double inv = 1 / Math.sin(theta);
+			wa = Math.sin((1 - t) * theta) * inv;
+			wb = Math.sin(t * theta) * inv * sign;
+		}
+		out[0] = wa * a[0] + wb * b[0];
+		out[1] = wa * a[1] + wb * b[1];
+		out[2] = wa * a[2] + wb * b[2];
+		out[3] = wa * a[3] + wb * b[3];
+		normalize(out);
+	}
+
+	// ------ Euler angles ----------//
+	/**
+	 * @param ypr
+	 *            Filled with yaw[0], pitch[1] and roll[2] in degrees, yaw and
+	 *            roll in [-180,180], pitch in [-90,90].
+	 */
+	public static void toYawPitchRoll(double[] q, double[] ypr) {
+		double w = q[0], x = q[1], y = q[2], z = q[3];
+		double sinPitch = 2 * (w * y - z * x);
+		if (sinPitch > 1)
+			sinPitch = 1;
+		else if (sinPitch < -1)
+			sinPitch = -1;
+		ypr[0] = Math.toDegrees(Math.atan2(2 * (w * z + x * y), 1 - 2 * (y * y + z * z)));
+		ypr[1] = Math.toDegrees(Math.asin(sinPitch));
+		ypr[2] = Math.toDegrees(Math.atan2(2 * (w * x + y * z), 1 - 2 * (x * x + y * y)));
+	}
+	/**
+	 * @param ypr
+	 *            yaw[0], pitch[1] and roll[2] in degrees.
+	 */
+	public static void fromYawPitchRoll(double[] ypr, double[] out) {
+		double hy = Math.toRadians(ypr[0]) * 0.5;
+		double hp = Math.toRadians(ypr[1]) * 0.5;
+		double hr = Math.toRadians(ypr[2]) * 0.5;
+		double cy = Math.cos(hy), sy = Math.sin(hy);
+		double cp = Math.cos(hp), sp = Math.sin(hp);
+		double cr = Math.cos(hr), sr = Math.sin(hr);
+		out[0] = cr * cp * cy + sr * sp * sy;
+		out[1] = sr * cp * cy - cr * sp * sy;
+		out[2] = cr * sp * cy + sr * cp * sy;
+		out[3] = cr * cp * sy - sr * sp * cy;
+	}
+
+	// ------ vectors ----------//
+	/**
+	 * out = v rotated by the unit quaternion q, from the sensor frame to the
+	 * world frame.
+	 */
+	public static void rotate(double[] q, double[] v, double[] out) {
+		double w = q[0], x = q[1], y = q[2], z = q[3];
+		double vx = v[0], vy = v[1], vz = v[2];
+		/* t = 2 * cross(q.xyz, v), out = v + w * t + cross(q.xyz, t) */
+		double tx = 2 * (y * vz - z * vy);
+		double ty = 2 * (z * vx - x * vz);
+		double tz = 2 * (x * vy - y * vx);
+		out[0] = vx + w * tx + (y * tz - z * ty);
+		out[1] = vy + w * ty + (z * tx - x * tz);
+		out[2] = vz + w * tz + (x * ty - y * tx);
+	}
+	/**
+	 * @param m
+	 *            Filled with the rotation matrix of the unit quaternion q, row
+	 *            major.
+	 */
+	public static void toRotationMatrix(double[] q, double[] m) {
+		double w = q[0], x = q[1], y = q[2], z = q[3];
+		double xx = x * x, yy = y * y, zz = z * z;
+		double xy = x * y, xz = x * z, yz = y * z;
+		double wx = w * x, wy = w * y, wz = w * z;
+		m[0] = 1 - 2 * (yy + zz);
+		m[1] = 2 * (xy - wz);
+		m[2] = 2 * (xz + wy);
+		m[3] = 2 * (xy + wz);
+		m[4] = 1 - 2 * (xx + zz);
+		m[5] = 2 * (yz - wx);
+		m[6] = 2 * (xz - wy);
+		m[7] = 2 * (yz + wx);
+		m[8] = 1 - 2 * (xx + yy);
+	}
+	/**
+	 * @param out
+	 *            Filled with the world's up direction in the sensor frame, a
+	 *            unit vector, (0, 0, 1) when level.
+	 */
+	public static void gravity(double[] q, double[] out) {
+		double w = q[0], x = q[1], y = q[2], z = q[3];
+		out[0] = 2 * (x * z - w * y);
+		out[1] = 2 * (y * z + w * x);
+		out[2] = w * w - x * x - y * y + z * z;
+	}
+	/**
+	 * @return Angle between the sensor's Z axis and vertical in degrees,
+	 *         whatever the direction of the tilt.
+	 */
+	public static double tiltDeg(double[] q) {
+		double x = q[1], y = q[2];
+		double up = 1 - 2 * (x * x + y * y);
+		if (up > 1)
+			up = 1;
+		else if (up < -1)
+			up = -1;
+		return Math.toDegrees(Math.acos(up));
+	}
+	/**
+	 * @param out
+	 *            Filled with the direction the sensor's X axis points to,
+	 *            projected on the floor, cos[0] and sin[1] of the yaw.
+	 */
+	public static void headingVector(double[] q, double[] out) {
+		double w = q[0], x = q[1], y = q[2], z = q[3];
+		double c = 1 - 2 * (y * y + z * z);
+		double s = 2 * (w * z + x * y);
+		double norm = Math.sqrt(c * c + s * s);
+		if (norm == 0) {
+			out[0] = 1;
+			out[1] = 0;
+			return;
+		}
+		out[0] = c / norm;
+		out[1] = s / norm;
+	}
+
+	// ------ headings ----------//
+	/**
+	 * @return b - a wrapped to [-180,180), the shortest turn from heading a
+	 *         to heading b.
+	 */
+	public static double headingDeltaDeg(double aDeg, double bDeg) {
+		double delta = (bDeg - aDeg) % 360;
+		if (delta >= 180)
+			delta -= 360;
+		else if (delta < -180)
+			delta += 360;
+		return delta;
+	}
+	/**
+	 * Makes a wrapped heading continuous, so turning past 180 degrees keeps
+	 * counting instead of jumping to -180.
+	 *
+	 * @param previousDeg
+	 *            Previous continuous heading.
+	 * @param headingDeg
+	 *            New heading, wrapped to any 360 degree range.
+	 * @return Continuous heading nearest previousDeg.
+	 */
+	public static double unwrapDeg(double previousDeg, double headingDeg) {
+		return previousDeg + headingDeltaDeg(previousDeg, headingDeg);
+	}
+}
@@ -21,11 +21,14 @@
  * (INCLUDING NEGLIGENCE), BREACH OF WARRANTY, OR OTHERWISE
  */
 package com.ctre.phoenix.sensors;
+import com.ctre.phoenix.DeviceBackend;
 import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.ParamEnum;
 import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 import com.ctre.phoenix.ErrorCollection;
 import com.ctre.phoenix.ParamEnum;
+import com.ctre.phoenix.StatusFrameUsage;
+import com.ctre.phoenix.time.SampleTime;
 
 import edu.wpi.first.wpilibj.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.wpilibj.hal.HAL;
@@ -36,6 +39,7 @@ import edu.wpi.first.wpilibj.hal.HAL;
  */
 public class PigeonIMU {
 	private long m_handle;
+	private IPigeonImuBackend m_backend;
 
 	/** Data object for holding fusion information. */
 	public static class FusionStatus {
@@ -244,7 +248,50 @@ public class PigeonIMU {
 	private int m_deviceNumber = 0;
 
 	private double[] _generalStatus = { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+	/* guarded by itself, getFusedHeading() may be called from a sampler thread */
 	private double[] _fusionStatus = { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+	/* see getFaultBits(int[]) */
+	private final Object _readErrorLock = new Object();
+
+	// ------ status frame usage, indexes into kStatusFrames ----------//
+	private static final int kGeneral = 0;
+	private static final int kYpr = 1;
+	private static final int kFusion = 2;
+	private static final int kGyroAccum = 3;
+	private static final int kCompass = 4;
+	private static final int kAccel = 5;
+	private static final int kQuat = 6;
+	private static final int kMag = 7;
+	private static final int kGyro = 8;
+	private static final int kBiasedAccel = 9;
+	private static final int[] kStatusFrames = {
+		PigeonIMU_StatusFrame.CondStatus_1_General.value,
+		PigeonIMU_StatusFrame.CondStatus_9_SixDeg_YPR.value,
+		PigeonIMU_StatusFrame.CondStatus_6_SensorFusion.value,
+		PigeonIMU_StatusFrame.CondStatus_11_GyroAccum.value,
+		PigeonIMU_StatusFrame.CondStatus_2_GeneralCompass.value,
+		PigeonIMU_StatusFrame.CondStatus_3_GeneralAccel.value,
+		PigeonIMU_StatusFrame.CondStatus_10_SixDeg_Quat.value,
+		PigeonIMU_StatusFrame.RawStatus_4_Mag.value,
+		PigeonIMU_StatusFrame.BiasedStatus_2_Gyro.value,
+		PigeonIMU_StatusFrame.BiasedStatus_6_Accel.value,
+	};
+	private static final int[] kStatusPeriodsMs = { 100, 10, 10, 20, 100, 100, 10, 20, 20, 20 };
+	private final StatusFrameUsage _frameUsage;
+
+	/* the control frame is only sent on demand by default */
+	private static final int[] kControlFrames = { PigeonIMU_ControlFrame.Control_1.value };
+	private static final int[] kControlPeriodsMs = { 0 };
+
+	private StatusFrameUsage newFrameUsage() {
+		StatusFrameUsage usage = new StatusFrameUsage("PigeonIMU " + m_deviceNumber, kStatusFrames, kStatusPeriodsMs) {
+			protected ErrorCode setPeriod(int frameValue, int periodMs) {
+				return setStatusFramePeriod(frameValue, periodMs, 0);
+			}
+		};
+		usage.setControlFrames(kControlFrames, kControlPeriodsMs);
+		return usage;
+	}
 
 	/**
 	 * Create a Pigeon object that communicates with Pigeon on CAN Bus.
@@ -253,9 +300,12 @@ public class PigeonIMU {
 	 *            CAN Device Id of Pigeon [0,62]
 	 */
 	public PigeonIMU(int deviceNumber) {
-		m_handle = PigeonImuJNI.JNI_new_PigeonImu(deviceNumber);
+		m_backend = DeviceBackend.getPigeonImu();
+		m_handle = m_backend.Create(deviceNumber);
 		m_deviceNumber = deviceNumber;
-		HAL.report(tResourceType.kResourceType_PigeonIMU, m_deviceNumber + 1);
+		_frameUsage = newFrameUsage();
+		if (DeviceBackend.isNative())
+			HAL.report(tResourceType.kResourceType_PigeonIMU, m_deviceNumber + 1);
 	}
 
 	/**
@@ -267,9 +317,13 @@ public class PigeonIMU {
 	 */
 	public PigeonIMU(TalonSRX talonSrx) {
 		m_deviceNumber = talonSrx.getDeviceID();
-		m_handle = PigeonImuJNI.JNI_new_PigeonImu_Talon(m_deviceNumber);
-		HAL.report(tResourceType.kResourceType_PigeonIMU, m_deviceNumber + 1);
-		HAL.report(64, m_deviceNumber + 1);
+		m_backend = DeviceBackend.getPigeonImu();
+		m_handle = m_backend.CreateTalon(m_deviceNumber);
+		_frameUsage = newFrameUsage();
+		if (DeviceBackend.isNative()) {
+			HAL.report(tResourceType.kResourceType_PigeonIMU, m_deviceNumber + 1);
+			HAL.report(64, m_deviceNumber + 1);
+		}
 	}
 
 	/**
@@ -283,7 +337,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setYaw(double angleDeg, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetYaw(m_handle, angleDeg, timeoutMs);
+		int retval = m_backend.SetYaw(m_handle, angleDeg, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setYaw(double angleDeg) {
@@ -301,7 +355,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode addYaw(double angleDeg, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_AddYaw(m_handle, angleDeg, timeoutMs);
+		int retval = m_backend.AddYaw(m_handle, angleDeg, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode addYaw(double angleDeg) {
@@ -318,7 +372,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setYawToCompass(int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetYawToCompass(m_handle, timeoutMs);
+		int retval = m_backend.SetYawToCompass(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setYawToCompass() {
@@ -336,7 +390,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setFusedHeading(double angleDeg, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetFusedHeading(m_handle, angleDeg, timeoutMs);
+		int retval = m_backend.SetFusedHeading(m_handle, angleDeg, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setFusedHeading(double angleDeg) {
@@ -354,7 +408,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode addFusedHeading(double angleDeg, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_AddFusedHeading(m_handle, angleDeg, timeoutMs);
+		int retval = m_backend.AddFusedHeading(m_handle, angleDeg, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode addFusedHeading(double angleDeg) {
@@ -371,7 +425,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setFusedHeadingToCompass(int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetFusedHeadingToCompass(m_handle, timeoutMs);
+		int retval = m_backend.SetFusedHeadingToCompass(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setFusedHeadingToCompass() {
@@ -389,7 +443,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setAccumZAngle(double angleDeg, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetAccumZAngle(m_handle, angleDeg, timeoutMs);
+		int retval = m_backend.SetAccumZAngle(m_handle, angleDeg, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setAccumZAngle(double angleDeg) {
@@ -427,7 +481,7 @@ public class PigeonIMU {
      * @return Error Code generated by function. 0 indicates no error.
      */
 	public ErrorCode setTemperatureCompensationDisable(boolean bTempCompDisable, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetTemperatureCompensationDisable(m_handle, bTempCompDisable ? 1 : 0, timeoutMs);
+		int retval = m_backend.SetTemperatureCompensationDisable(m_handle, bTempCompDisable ? 1 : 0, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setTemperatureCompensationDisable(boolean bTempCompDisable) {
@@ -447,7 +501,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setCompassDeclination(double angleDegOffset, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetCompassDeclination(m_handle, angleDegOffset, timeoutMs);
+		int retval = m_backend.SetCompassDeclination(m_handle, angleDegOffset, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setCompassDeclination(double angleDegOffset) {
@@ -467,7 +521,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setCompassAngle(double angleDeg, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetCompassAngle(m_handle, angleDeg, timeoutMs);
+		int retval = m_backend.SetCompassAngle(m_handle, angleDeg, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setCompassAngle(double angleDeg) {
@@ -488,7 +542,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode enterCalibrationMode(CalibrationMode calMode, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_EnterCalibrationMode(m_handle, calMode.value, timeoutMs);
+		int retval = m_backend.EnterCalibrationMode(m_handle, calMode.value, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode enterCalibrationMode(CalibrationMode calMode) {
@@ -503,7 +557,8 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode getGeneralStatus(GeneralStatus toFill) {
-		int retval = PigeonImuJNI.JNI_GetGeneralStatus(m_handle, _generalStatus);
+		_frameUsage.read(kGeneral);
+		int retval = m_backend.GetGeneralStatus(m_handle, _generalStatus);
 		toFill.state = PigeonState.valueOf((int) _generalStatus[0]);
 		toFill.currentMode = CalibrationMode.valueOf((int) _generalStatus[1]);
 		toFill.calibrationError = (int) _generalStatus[2];
@@ -516,6 +571,14 @@ public class PigeonIMU {
 		return toFill.lastError;
 	}
 
+	/**
+	 * @return Status frames of this device and which of them were read, for
+	 *         a StatusFrameManager.
+	 */
+	public StatusFrameUsage getStatusFrameUsage() {
+		return _frameUsage;
+	}
+
 	// ----------------------- General Error status -----------------------//
 	/**
 	 * Call GetLastError() generated by this object.
@@ -527,9 +590,23 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getLastError() {
-		int retval = PigeonImuJNI.JNI_GetLastError(m_handle);
+		int retval = m_backend.GetLastError(m_handle);
 		return ErrorCode.valueOf(retval);
 	}
+	/**
+	 * Gets when the signals returned by the getters called since the previous
+	 * call with the same sampleTime were received, and the last error of the
+	 * device. SampleTime.kUnknown without receive times from the native layer.
+	 *
+	 * @param sampleTime Object to fill.
+	 * @return The last ErrorCode generated.
+	 */
+	public ErrorCode getSampleTime(SampleTime sampleTime) {
+		long receiveTimeNs = m_backend.GetReceiveTimeNs(m_handle, sampleTime.nextWindow());
+		ErrorCode err = getLastError();
+		sampleTime.update(receiveTimeNs, err);
+		return err;
+	}
 
 	// ----------------------- Strongly typed Signal decoders
 	// -----------------------//
@@ -540,7 +617,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode get6dQuaternion(double[] wxyz) {
-		int retval = PigeonImuJNI.JNI_Get6dQuaternion(m_handle, wxyz);
+		_frameUsage.read(kQuat);
+		int retval = m_backend.Get6dQuaternion(m_handle, wxyz);
 		return ErrorCode.valueOf(retval);
 	}
 	/**
@@ -550,9 +628,25 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getYawPitchRoll(double[] ypr_deg) {
-		int retval = PigeonImuJNI.JNI_GetYawPitchRoll(m_handle, ypr_deg);
+		_frameUsage.read(kYpr);
+		int retval = m_backend.GetYawPitchRoll(m_handle, ypr_deg);
 		return ErrorCode.valueOf(retval);
 	}
+	/**
+	 * Get Yaw, Pitch, and Roll data along with when it was received.
+	 *
+	 * @param ypr_deg Array to fill with yaw[0], pitch[1], and roll[2] data
+	 * @param sampleTime Object to fill with the receive time and error of the read.
+	 * @return The last ErrorCode generated.
+	 */
+	public ErrorCode getYawPitchRoll(double[] ypr_deg, SampleTime sampleTime) {
+		long sinceNs = System.nanoTime();
+		_frameUsage.read(kYpr);
+		int retval = m_backend.GetYawPitchRoll(m_handle, ypr_deg);
+		ErrorCode err = ErrorCode.valueOf(retval);
+		sampleTime.update(m_backend.GetReceiveTimeNs(m_handle, sinceNs), err);
+		return err;
+	}
 	/**
 	 * Get AccumGyro data.
 	 * AccumGyro is the integrated gyro value on each axis.
@@ -561,7 +655,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getAccumGyro(double[] xyz_deg) {
-		int retval = PigeonImuJNI.JNI_GetAccumGyro(m_handle, xyz_deg);
+		_frameUsage.read(kGyroAccum);
+		int retval = m_backend.GetAccumGyro(m_handle, xyz_deg);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -570,7 +665,8 @@ public class PigeonIMU {
 	 * @return compass heading [0,360) degrees.
 	 */
 	public double getAbsoluteCompassHeading() {
-		double retval = PigeonImuJNI.JNI_GetAbsoluteCompassHeading(m_handle);
+		_frameUsage.read(kCompass);
+		double retval = m_backend.GetAbsoluteCompassHeading(m_handle);
 		return retval;
 	}
 
@@ -580,7 +676,8 @@ public class PigeonIMU {
 	 *         SetCompassHeading to modify the wrap-around portion.
 	 */
 	public double getCompassHeading() {
-		double retval = PigeonImuJNI.JNI_GetCompassHeading(m_handle);
+		_frameUsage.read(kCompass);
+		double retval = m_backend.GetCompassHeading(m_handle);
 		return retval;
 	}
 
@@ -589,7 +686,8 @@ public class PigeonIMU {
 	 * @return field strength in Microteslas (uT).
 	 */
 	public double getCompassFieldStrength() {
-		double retval = PigeonImuJNI.JNI_GetCompassFieldStrength(m_handle);
+		_frameUsage.read(kCompass);
+		double retval = m_backend.GetCompassFieldStrength(m_handle);
 		return retval;
 	}
 	/**
@@ -598,7 +696,8 @@ public class PigeonIMU {
 	 * @return Temperature in ('C)
 	 */
 	public double getTemp() {
-		double retval = PigeonImuJNI.JNI_GetTemp(m_handle);
+		_frameUsage.read(kGeneral);
+		double retval = m_backend.GetTemp(m_handle);
 		return retval;
 	}
 
@@ -608,7 +707,8 @@ public class PigeonIMU {
 	 * @return PigeonState enum
 	 */
 	public PigeonState getState() {
-		int retval = PigeonImuJNI.JNI_GetState(m_handle);
+		_frameUsage.read(kGeneral);
+		int retval = m_backend.GetState(m_handle);
 		return PigeonState.valueOf(retval);
 	}
 
@@ -619,7 +719,8 @@ public class PigeonIMU {
 	 *         255.
 	 */
 	public int getUpTime() {
-		int retval = PigeonImuJNI.JNI_GetUpTime(m_handle);
+		_frameUsage.read(kGeneral);
+		int retval = m_backend.GetUpTime(m_handle);
 		return retval;
 	}
 	/**
@@ -630,7 +731,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getRawMagnetometer(short[] rm_xyz) {
-		int retval = PigeonImuJNI.JNI_GetRawMagnetometer(m_handle, rm_xyz);
+		_frameUsage.read(kMag);
+		int retval = m_backend.GetRawMagnetometer(m_handle, rm_xyz);
 		return ErrorCode.valueOf(retval);
 	}
 	/**
@@ -641,7 +743,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getBiasedMagnetometer(short[] bm_xyz) {
-		int retval = PigeonImuJNI.JNI_GetBiasedMagnetometer(m_handle, bm_xyz);
+		_frameUsage.read(kMag);
+		int retval = m_backend.GetBiasedMagnetometer(m_handle, bm_xyz);
 		return ErrorCode.valueOf(retval);
 	}
 	/**
@@ -652,7 +755,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getBiasedAccelerometer(short[] ba_xyz) {
-		int retval = PigeonImuJNI.JNI_GetBiasedAccelerometer(m_handle, ba_xyz);
+		_frameUsage.read(kBiasedAccel);
+		int retval = m_backend.GetBiasedAccelerometer(m_handle, ba_xyz);
 		return ErrorCode.valueOf(retval);
 	}
 	/**
@@ -662,7 +766,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getRawGyro(double[] xyz_dps) {
-		int retval = PigeonImuJNI.JNI_GetRawGyro(m_handle, xyz_dps);
+		_frameUsage.read(kGyro);
+		int retval = m_backend.GetRawGyro(m_handle, xyz_dps);
 		return ErrorCode.valueOf(retval);
 	}
 	/**
@@ -672,7 +777,8 @@ public class PigeonIMU {
 	 * @return The last ErrorCode generated.
 	 */
 	public ErrorCode getAccelerometerAngles(double[] tiltAngles) {
-		int retval = PigeonImuJNI.JNI_GetAccelerometerAngles(m_handle, tiltAngles);
+		_frameUsage.read(kAccel);
+		int retval = m_backend.GetAccelerometerAngles(m_handle, tiltAngles);
 		return ErrorCode.valueOf(retval);
 	}
 	/**
@@ -680,19 +786,23 @@ public class PigeonIMU {
 	 *
 	 * @param toFill 	object reference to fill with fusion status flags.
 	 *					Caller may pass null if flags are not needed.
+	 *					Its lastError is the error of this read.
 	 * @return The fused heading in degrees.
 	 */
 	public double getFusedHeading(FusionStatus toFill) {
-		int errorCode = PigeonImuJNI.JNI_GetFusedHeading(m_handle, _fusionStatus);
+		_frameUsage.read(kFusion);
+		synchronized (_fusionStatus) {
+			int errorCode = m_backend.GetFusedHeading(m_handle, _fusionStatus);
 
-		if (toFill != null) {
-			toFill.heading = _fusionStatus[0];
-			toFill.bIsFusing = (_fusionStatus[1] != 0);
-			toFill.bIsValid = (_fusionStatus[2] != 0);
-			toFill.lastError = ErrorCode.valueOf(errorCode);
-		}
+			if (toFill != null) {
+				toFill.heading = _fusionStatus[0];
+				toFill.bIsFusing = (_fusionStatus[1] != 0);
+				toFill.bIsValid = (_fusionStatus[2] != 0);
+				toFill.lastError = ErrorCode.valueOf(errorCode);
+			}
 
-		return _fusionStatus[0];
+			return _fusionStatus[0];
+		}
 	}
 	/**
 	 * Gets the Fused Heading
@@ -700,9 +810,12 @@ public class PigeonIMU {
 	 * @return The fused heading in degrees.
 	 */
 	public double getFusedHeading() {
-		PigeonImuJNI.JNI_GetFusedHeading(m_handle, _fusionStatus);
+		_frameUsage.read(kFusion);
+		synchronized (_fusionStatus) {
+			m_backend.GetFusedHeading(m_handle, _fusionStatus);
 
-		return _fusionStatus[0];
+			return _fusionStatus[0];
+		}
 	}
 
 	/**
@@ -712,7 +825,7 @@ public class PigeonIMU {
 	 * cycled at least once.
 	 */
 	public int getFirmwareVersion() {
-		int k = PigeonImuJNI.JNI_GetFirmwareVersion(m_handle);
+		int k = m_backend.GetFirmwareVersion(m_handle);
 		return k;
 	}
 
@@ -720,7 +833,7 @@ public class PigeonIMU {
 	 * @return true iff a reset has occurred since last call.
 	 */
 	public boolean hasResetOccurred() {
-		boolean k = PigeonImuJNI.JNI_HasResetOccurred(m_handle);
+		boolean k = m_backend.HasResetOccurred(m_handle);
 		return k;
 	}
 
@@ -742,7 +855,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSetCustomParam(int newValue, int paramIndex, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_ConfigSetCustomParam(m_handle, newValue, paramIndex, timeoutMs);
+		int retval = m_backend.ConfigSetCustomParam(m_handle, newValue, paramIndex, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode configSetCustomParam(int newValue, int paramIndex ) {
@@ -766,7 +879,7 @@ public class PigeonIMU {
 	 * @return Value of the custom param.
 	 */
 	public int configGetCustomParam(int paramIndex, int timoutMs) {
-		int retval = PigeonImuJNI.JNI_ConfigGetCustomParam(m_handle, paramIndex, timoutMs);
+		int retval = m_backend.ConfigGetCustomParam(m_handle, paramIndex, timoutMs);
 		return retval;
 	}
 	public int configGetCustomParam(int paramIndex) {
@@ -824,7 +937,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode configSetParameter(int param, double value, int subValue, int ordinal, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_ConfigSetParameter(m_handle, param, value, subValue, ordinal,
+		int retval = m_backend.ConfigSetParameter(m_handle, param, value, subValue, ordinal,
 				timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
@@ -870,7 +983,7 @@ public class PigeonIMU {
 	 * @return Value of parameter.
 	 */
 	public double configGetParameter(int param, int ordinal, int timeoutMs) {
-		return PigeonImuJNI.JNI_ConfigGetParameter(m_handle, param, ordinal, timeoutMs);
+		return m_backend.ConfigGetParameter(m_handle, param, ordinal, timeoutMs);
 	}
 	public double configGetParameter(int param, int ordinal) {
 		int timeoutMs = 0;
@@ -890,8 +1003,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setStatusFramePeriod(PigeonIMU_StatusFrame statusFrame, int periodMs, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetStatusFramePeriod(m_handle, statusFrame.value, periodMs, timeoutMs);
-		return ErrorCode.valueOf(retval);
+		return setStatusFramePeriod(statusFrame.value, periodMs, timeoutMs);
 	}
 	public ErrorCode setStatusFramePeriod(PigeonIMU_StatusFrame statusFrame, int periodMs) {
 		int timeoutMs = 0;
@@ -911,7 +1023,9 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setStatusFramePeriod(int statusFrame, int periodMs, int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_SetStatusFramePeriod(m_handle, statusFrame, periodMs, timeoutMs);
+		int retval = m_backend.SetStatusFramePeriod(m_handle, statusFrame, periodMs, timeoutMs);
+		if (retval == 0)
+			_frameUsage.onPeriodSet(statusFrame, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode setStatusFramePeriod(int statusFrame, int periodMs) {
@@ -931,7 +1045,7 @@ public class PigeonIMU {
 	 * @return Period of the given status frame.
 	 */
 	public int getStatusFramePeriod(PigeonIMU_StatusFrame frame, int timeoutMs) {
-		return PigeonImuJNI.JNI_GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
+		return m_backend.GetStatusFramePeriod(m_handle, frame.value, timeoutMs);
 	}
 	public int getStatusFramePeriod(PigeonIMU_StatusFrame frame) {
 		int timeoutMs = 0;
@@ -947,8 +1061,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setControlFramePeriod(PigeonIMU_ControlFrame frame, int periodMs) {
-		int retval = PigeonImuJNI.JNI_SetControlFramePeriod(m_handle, frame.value, periodMs);
-		return ErrorCode.valueOf(retval);
+		return setControlFramePeriod(frame.value, periodMs);
 	}
 	/**
 	 * Sets the period of the given control frame.
@@ -960,7 +1073,9 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode setControlFramePeriod(int frame, int periodMs) {
-		int retval = PigeonImuJNI.JNI_SetControlFramePeriod(m_handle, frame, periodMs);
+		int retval = m_backend.SetControlFramePeriod(m_handle, frame, periodMs);
+		if (retval == 0)
+			_frameUsage.onControlPeriodSet(frame, periodMs);
 		return ErrorCode.valueOf(retval);
 	}
 
@@ -973,8 +1088,7 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode getFaults(PigeonIMU_Faults toFill) {
-		int bits = PigeonImuJNI.JNI_GetFaults(m_handle);
-		toFill.update(bits);
+		toFill.update(getFaultBits());
 		return getLastError();
 	}
 	/**
@@ -985,17 +1099,71 @@ public class PigeonIMU {
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode getStickyFaults(PigeonIMU_StickyFaults toFill) {
-		int bits = PigeonImuJNI.JNI_GetStickyFaults(m_handle);
-		toFill.update(bits);
+		toFill.update(getStickyFaultBits());
 		return getLastError();
 	}
+	/**
+	 * Gets the fault flags as a bitfield, in the bit order of PigeonIMU_Faults.
+	 * Check getLastError() for the error of the read.
+	 *
+	 * @return Fault bitfield.
+	 */
+	public int getFaultBits() {
+		_frameUsage.read(kGeneral);
+		return m_backend.GetFaults(m_handle);
+	}
+	/**
+	 * Gets the sticky fault flags as a bitfield, in the bit order of
+	 * PigeonIMU_StickyFaults. Check getLastError() for the error of the read.
+	 *
+	 * @return Sticky fault bitfield.
+	 */
+	public int getStickyFaultBits() {
+		_frameUsage.read(kGeneral);
+		return m_backend.GetStickyFaults(m_handle);
+	}
+	/**
+	 * Gets the fault flags as a bitfield together with the error of that
+	 * read, for a thread other than the robot thread. The error is fetched
+	 * right after the read under a lock shared by the reads that return their
+	 * own error, so concurrent monitors never see each other's errors and
+	 * need not call getLastError().
+	 *
+	 * @param bits
+	 *            bits[0] is filled with the fault bitfield, in the bit order
+	 *            of PigeonIMU_Faults.
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getFaultBits(int[] bits) {
+		_frameUsage.read(kGeneral);
+		synchronized (_readErrorLock) {
+			bits[0] = m_backend.GetFaults(m_handle);
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
+	/**
+	 * Gets the sticky fault flags as a bitfield together with the error of
+	 * that read, see getFaultBits(int[]).
+	 *
+	 * @param bits
+	 *            bits[0] is filled with the sticky fault bitfield, in the bit
+	 *            order of PigeonIMU_StickyFaults.
+	 * @return Error Code of the read. 0 indicates no error.
+	 */
+	public ErrorCode getStickyFaultBits(int[] bits) {
+		_frameUsage.read(kGeneral);
+		synchronized (_readErrorLock) {
+			bits[0] = m_backend.GetStickyFaults(m_handle);
+			return ErrorCode.valueOf(m_backend.GetLastError(m_handle));
+		}
+	}
 	/**
 	 * Clears the Sticky Faults
 	 *
 	 * @return Error Code generated by function. 0 indicates no error.
 	 */
 	public ErrorCode clearStickyFaults(int timeoutMs) {
-		int retval = PigeonImuJNI.JNI_ClearStickyFaults(m_handle, timeoutMs);
+		int retval = m_backend.ClearStickyFaults(m_handle, timeoutMs);
 		return ErrorCode.valueOf(retval);
 	}
 	public ErrorCode clearStickyFaults() {
@@ -0,0 +1,194 @@
+package com.ctre.phoenix.sensors;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.schedulers.PeriodicExecutor;
+import com.ctre.phoenix.time.SampleTime;
+
+/**
+ * Samples a PigeonIMU on a thread of its own and publishes the latest
+ * readings as one immutable State.
+ *
+ * Each pass reads quaternion, yaw/pitch/roll, fused heading, gyro rates and
+ * accelerometer back to back, then publishes them together through a
+ * volatile reference. Readers on any thread get the latest State with
+ * getState(), without a native call or a lock, and every field of a State
+ * comes from the same pass, so a yaw never pairs with the rate of another
+ * sample. A State is never modified once published, readers may keep it.
+ *
+ * Typical use:
+ *	PigeonIMUSampler imu = new PigeonIMUSampler(pigeon);
+ *	imu.start(10);
+ *	PigeonIMUSampler.State s = imu.getState();
+ *	double turn = kP * (target - s.yaw) - kD * s.gyroZ;
+ */
+public class PigeonIMUSampler implements ILoopable {
+
+	/**
+	 * Readings of one pass.
+	 */
+	public static class State {
+		/** Passes published before this one, 0 for the initial empty State. */
+		public final long sequence;
+		/** System.nanoTime() at the end of the pass. */
+		public final long sampleTimeNs;
+		/**
+		 * System.nanoTime() at which the oldest signal read was received,
+		 * SampleTime.kNever if never received, SampleTime.kUnknown if the
+		 * backend does not report receive times.
+		 */
+		public final long receiveTimeNs;
+		/** First error of the pass, OK if every read succeeded. */
+		public final ErrorCode error;
+
+		// ------ orientation ----------//
+		public final double quatW, quatX, quatY, quatZ;
+		public final double yaw, pitch, roll;
+		public final double fusedHeading;
+		// ------ rates, degrees per second ----------//
+		public final double gyroX, gyroY, gyroZ;
+		// ------ acceleration, g ----------//
+		public final double accelX, accelY, accelZ;
+
+		State(long sequence, long sampleTimeNs, long receiveTimeNs, ErrorCode error, double[] quat,
+				double[] ypr, double fusedHeading, double[] gyro, short[] accel) {
+			this.sequence = sequence;
+			this.sampleTimeNs = sampleTimeNs;
+			this.receiveTimeNs = receiveTimeNs;
+			this.error = error;
+			quatW = quat[0];
+			quatX = quat[1];
+			quatY = quat[2];
+			quatZ = quat[3];
+			yaw = ypr[0];
+			pitch = ypr[1];
+			roll = ypr[2];
+			this.fusedHeading = fusedHeading;
+			gyroX = gyro[0];
+			gyroY = gyro[1];
+			gyroZ = gyro[2];
+			/* Q2.14 fixed point, 16384 = 1g */
+			accelX = accel[0] / 16384.0;
+			accelY = accel[1] / 16384.0;
+			accelZ = accel[2] / 16384.0;
+		}
+
+		/**
+		 * @return Nanoseconds since the signals were received, Long.MAX_VALUE
+		 *         if never received. When the receive time is unknown, the
+		 *         time since the pass read them, which is a lower bound.
+		 */
+		public long getAgeNs() {
+			if (receiveTimeNs == SampleTime.kNever)
+				return Long.MAX_VALUE;
+			if (receiveTimeNs == SampleTime.kUnknown)
+				return System.nanoTime() - sampleTimeNs;
+			return System.nanoTime() - receiveTimeNs;
+		}
+		/**
+		 * @param maxAgeMs
+		 *            Oldest readings still considered fresh.
+		 * @return True if the pass had no error or stale warning and the
+		 *         signals were received at most maxAgeMs ago. When the
+		 *         receive time is unknown, as on a robot, only the error is
+		 *         checked.
+		 */
+		public boolean isFresh(double maxAgeMs) {
+			return SampleTime.isFresh(receiveTimeNs, error, maxAgeMs);
+		}
+	}
+
+	private final PigeonIMU _pigeon;
+	private volatile State _state;
+	private PeriodicExecutor _executor = null;
+
+	// ------ sampler thread only ----------//
+	private final double[] _quat = new double[4];
+	private final double[] _ypr = new double[3];
+	private final double[] _gyro = new double[3];
+	private final short[] _accel = new short[3];
+	private final PigeonIMU.FusionStatus _fusion = new PigeonIMU.FusionStatus();
+	private final SampleTime _sampleTime = new SampleTime();
+	private long _sequence = 0;
+
+	public PigeonIMUSampler(PigeonIMU pigeon) {
+		_pigeon = pigeon;
+		_state = new State(0, System.nanoTime(), SampleTime.kNever, ErrorCode.SigNotUpdated, _quat, _ypr, 0,
+				_gyro, _accel);
+	}
+
+	/**
+	 * Starts sampling on a thread of its own. Does nothing if already
+	 * started.
+	 *
+	 * @param periodMs
+	 *            Time between passes, the period of the fastest status frame
+	 *            read is enough.
+	 */
+	public synchronized void start(int periodMs) {
+		if (_executor != null)
+			return;
+		_executor = new PeriodicExecutor(this, periodMs * 1000000L, "CTRE Pigeon sampler");
+		_executor.start();
+	}
+	/**
+	 * Stops the thread started by start(). The last State stays available.
+	 */
+	public void stop() {
+		PeriodicExecutor executor;
+		synchronized (this) {
+			executor = _executor;
+			_executor = null;
+		}
+		if (executor != null)
+			executor.stop();
+	}
+
+	/**
+	 * Reads the Pigeon once and publishes the readings. Called by the
+	 * sampler thread, or directly when not started.
+	 *
+	 * @return The State published.
+	 */
+	public synchronized State sample() {
+		ErrorCode error = first(ErrorCode.OK, _pigeon.get6dQuaternion(_quat));
+		error = first(error, _pigeon.getYawPitchRoll(_ypr));
+		double fusedHeading = _pigeon.getFusedHeading(_fusion);
+		error = first(error, _fusion.lastError);
+		error = first(error, _pigeon.getRawGyro(_gyro));
+		error = first(error, _pigeon.getBiasedAccelerometer(_accel));
+		_pigeon.getSampleTime(_sampleTime);
+		State state = new State(++_sequence, System.nanoTime(), _sampleTime.receiveTimeNs, error, _quat, _ypr,
+				fusedHeading, _gyro, _accel);
+		_state = state;
+		return state;
+	}
+	private static ErrorCode first(ErrorCode sofar, ErrorCode err) {
+		return sofar != ErrorCode.OK ? sofar : err;
+	}
+
+	/**
+	 * @return Latest readings, from any thread.
+	 */
+	public State getState() {
+		return _state;
+	}
+	public PigeonIMU getPigeon() {
+		return _pigeon;
+	}
+
+	// ------ ILoopable ----------//
+	public void onStart() {
+	}
+
+	public void onLoop() {
+		sample();
+	}
+
+	public boolean isDone() {
+		return false;
+	}
+
+	public void onStop() {
+	}
+}
@@ -0,0 +1,50 @@
+package com.ctre.phoenix.signals;
+
+/**
+ * First order low pass filter, each output moves a fixed fraction of the way
+ * toward the input. The first sample after clear() passes through.
+ */
+public class ExponentialFilter extends Filter {
+
+	private final double _alpha;
+	private double _value;
+	private boolean _primed;
+
+	/**
+	 * @param alpha
+	 *            Fraction of the way toward each input, (0,1]. Smaller is
+	 *            smoother.
+	 */
+	public ExponentialFilter(double alpha) {
+		_alpha = Math.max(0, Math.min(1, alpha));
+		clear();
+	}
+	/**
+	 * @param timeConstantSec
+	 *            Time for the output to cover ~63% of a step.
+	 * @param periodSec
+	 *            Time between samples.
+	 * @return Filter with the equivalent alpha.
+	 */
+	public static ExponentialFilter fromTimeConstant(double timeConstantSec, double periodSec) {
+		return new ExponentialFilter(1 - Math.exp(-periodSec / timeConstantSec));
+	}
+
+	public double process(double input) {
+		if (_primed) {
+			_value += _alpha * (input - _value);
+		} else {
+			_value = input;
+			_primed = true;
+		}
+		return _value;
+	}
+	public void clear() {
+		_value = 0;
+		_primed = false;
+	}
+
+	public double getAlpha() {
+		return _alpha;
+	}
+}
@@ -0,0 +1,37 @@
+package com.ctre.phoenix.signals;
+
+/**
+ * Base of the signal filters. A filter takes one sample at a time and
+ * returns the filtered value, keeping its history in preallocated primitive
+ * buffers, so filtering a sample never allocates.
+ *
+ * Filters are not thread safe, use one per signal and thread.
+ */
+public abstract class Filter {
+	/**
+	 * @param input
+	 *            Next sample of the signal.
+	 * @return Filtered value.
+	 */
+	public abstract double process(double input);
+
+	/**
+	 * Forgets the history, the next sample starts over.
+	 */
+	public abstract void clear();
+
+	/**
+	 * Filters count samples from in[inOffset] into out[outOffset], in order.
+	 * in and out may be the same array.
+	 */
+	public void process(double[] in, int inOffset, double[] out, int outOffset, int count) {
+		for (int i = 0; i < count; ++i)
+			out[outOffset + i] = process(in[inOffset + i]);
+	}
+	/**
+	 * Filters every sample of in into out.
+	 */
+	public void process(double[] in, double[] out) {
+		process(in, 0, out, 0, in.length);
+	}
+}
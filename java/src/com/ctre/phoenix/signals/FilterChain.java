@@ -0,0 +1,40 @@
+package com.ctre.phoenix.signals;
+
+/**
+ * Runs filters in series, each one's output feeding the next, a median to
+ * reject spikes then a moving average to smooth for instance.
+ *
+ *	FilterChain current = new FilterChain(new MedianFilter(5), new MovingAverage(10));
+ *	double amps = current.process(talon.getOutputCurrent());
+ */
+public class FilterChain extends Filter {
+
+	private final Filter[] _filters;
+
+	public FilterChain(Filter... filters) {
+		_filters = filters.clone();
+	}
+
+	public double process(double input) {
+		for (Filter filter : _filters)
+			input = filter.process(input);
+		return input;
+	}
+	public void clear() {
+		for (Filter filter : _filters)
+			filter.clear();
+	}
+	/**
+	 * Runs the samples through each filter in turn, so each stage runs its
+	 * own tight loop. The later stages filter out in place.
+	 */
+	public void process(double[] in, int inOffset, double[] out, int outOffset, int count) {
+		if (_filters.length == 0) {
+			System.arraycopy(in, inOffset, out, outOffset, count);
+			return;
+		}
+		_filters[0].process(in, inOffset, out, outOffset, count);
+		for (int i = 1; i < _filters.length; ++i)
+			_filters[i].process(out, outOffset, out, outOffset, count);
+	}
+}
@@ -0,0 +1,71 @@
+package com.ctre.phoenix.signals;
+
+import java.util.Arrays;
+
+/**
+ * Median of the last N samples, which rejects spikes a moving average would
+ * smear out.
+ *
+ * The samples are kept twice: in a ring buffer, to know which one leaves the
+ * window, and in a sorted array, where the leaving sample is found by binary
+ * search and the new one inserted by shifting its neighbours. That is O(N)
+ * per sample with no allocation, fast for the small windows used on
+ * sensors.
+ */
+public class MedianFilter extends Filter {
+
+	private final double[] _ring;
+	private final double[] _sorted;
+	private int _in;
+	private int _cnt;
+
+	/**
+	 * @param size
+	 *            Number of samples in the window.
+	 */
+	public MedianFilter(int size) {
+		_ring = new double[Math.max(1, size)];
+		_sorted = new double[_ring.length];
+		clear();
+	}
+
+	public double process(double input) {
+		if (_cnt == _ring.length) {
+			/* remove the oldest from the sorted window */
+			int at = Arrays.binarySearch(_sorted, 0, _cnt, _ring[_in]);
+			System.arraycopy(_sorted, at + 1, _sorted, at, _cnt - at - 1);
+			--_cnt;
+		}
+		int at = Arrays.binarySearch(_sorted, 0, _cnt, input);
+		if (at < 0)
+			at = -at - 1;
+		System.arraycopy(_sorted, at, _sorted, at + 1, _cnt - at);
+		_sorted[at] = input;
+		++_cnt;
+
+		_ring[_in] = input;
+		if (++_in >= _ring.length)
+			_in = 0;
+		return getMedian();
+	}
+	public void clear() {
+		_in = 0;
+		_cnt = 0;
+	}
+
+	/**
+	 * @return Median of the window, the mean of the middle two when it holds
+	 *         an even number of samples, 0 if empty.
+	 */
+	public double getMedian() {
+		if (_cnt == 0)
+			return 0;
+		int mid = _cnt >> 1;
+		if ((_cnt & 1) != 0)
+			return _sorted[mid];
+		return (_sorted[mid - 1] + _sorted[mid]) * 0.5;
+	}
+	public int getCount() {
+		return _cnt;
+	}
+}
@@ -0,0 +1,89 @@
+package com.ctre.phoenix.signals;
+
+/**
+ * Average of the last samples, held in a ring buffer.
+ *
+ * The sum is kept incrementally, adding the new sample and subtracting the
+ * oldest. Done naively this drifts over millions of samples as rounding
+ * errors accumulate, so the sum carries a compensation term (Neumaier
+ * summation) that holds the lost low order bits.
+ */
+public class MovingAverage extends Filter {
+
+	private final double[] _d; //!< ring buffer
+	private final int _cap; //!< capacity of ring buffer
+	private int _in; //!< head ptr for ringbuffer
+	private int _ou; //!< tail ptr for ringbuffer
+	private int _cnt; //!< number of element in ring buffer
+	private double _sum; //!< sum of all elements in ring buffer
+	private double _comp; //!< low order bits lost from _sum
+
+	/**
+	 * @param capacity
+	 *            Number of samples averaged.
+	 */
+	public MovingAverage(int capacity) {
+		_cap = Math.max(1, capacity);
+		_d = new double[_cap];
+		clear();
+	}
+
+	public double process(double input) {
+		push(input);
+		return getSum() / _cnt;
+	}
+	public void clear() {
+		_in = 0;
+		_ou = 0;
+		_cnt = 0;
+		_sum = 0;
+		_comp = 0;
+	}
+	public void push(double d) {
+		/* if full, pop one */
+		if (_cnt >= _cap)
+			pop();
+
+		/* process it */
+		add(d);
+
+		/* push new one */
+		_d[_in] = d;
+		if (++_in >= _cap)
+			_in = 0;
+		++_cnt;
+	}
+	public void pop() {
+		if (_cnt == 0)
+			return;
+		/* get the oldest */
+		double d = _d[_ou];
+
+		/* process it */
+		add(-d);
+
+		/* pop it */
+		if (++_ou >= _cap)
+			_ou = 0;
+		--_cnt;
+	}
+	private void add(double d) {
+		double t = _sum + d;
+		if (Math.abs(_sum) >= Math.abs(d))
+			_comp += (_sum - t) + d;
+		else
+			_comp += (d - t) + _sum;
+		_sum = t;
+	}
+
+	// ------ Properties ----------//
+	public double getSum() {
+		return _sum + _comp;
+	}
+	public int getCount() {
+		return _cnt;
+	}
+	public int getCapacity() {
+		return _cap;
+	}
+}
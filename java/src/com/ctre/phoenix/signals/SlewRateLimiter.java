@@ -0,0 +1,63 @@
+package com.ctre.phoenix.signals;
+
+/**
+ * Limits how fast a signal may rise and fall per sample, to soften steps in
+ * a setpoint for instance. The first sample after clear() passes through.
+ */
+public class SlewRateLimiter extends Filter {
+
+	private final double _maxRise;
+	private final double _maxFall;
+	private double _value;
+	private boolean _primed;
+
+	/**
+	 * @param maxRise
+	 *            Largest increase per sample, positive.
+	 * @param maxFall
+	 *            Largest decrease per sample, positive.
+	 */
+	public SlewRateLimiter(double maxRise, double maxFall) {
+		_maxRise = Math.abs(maxRise);
+		_maxFall = Math.abs(maxFall);
+		clear();
+	}
+	public SlewRateLimiter(double maxChange) {
+		this(maxChange, maxChange);
+	}
+	/**
+	 * @param maxRatePerSec
+	 *            Largest change per second.
+	 * @param periodSec
+	 *            Time between samples.
+	 */
+	public static SlewRateLimiter fromRate(double maxRatePerSec, double periodSec) {
+		return new SlewRateLimiter(maxRatePerSec * periodSec);
+	}
+
+	public double process(double input) {
+		if (_primed) {
+			double delta = input - _value;
+			if (delta > _maxRise)
+				delta = _maxRise;
+			else if (delta < -_maxFall)
+				delta = -_maxFall;
+			_value += delta;
+		} else {
+			_value = input;
+			_primed = true;
+		}
+		return _value;
+	}
+	public void clear() {
+		_value = 0;
+		_primed = false;
+	}
+	/**
+	 * Starts limiting from a known value instead of the next sample.
+	 */
+	public void reset(double value) {
+		_value = value;
+		_primed = true;
+	}
+}
@@ -0,0 +1,259 @@
+package com.ctre.phoenix.sim;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ctre.phoenix.DeviceBackend;
+import com.ctre.phoenix.ErrorCode;
+
+/**
+ * In-process simulation of a CAN bus populated with CTRE devices.
+ *
+ * Once installed, devices constructed afterwards (TalonSRX, VictorSPX,
+ * PigeonIMU, CANifier) talk to simulated devices instead of the
+ * CTRE_PhoenixCCI natives, so robot code can be exercised, profiled and load
+ * tested on any machine.
+ *
+ * The simulation models:
+ * - status frame periods: signals only update when their frame is "received",
+ * - config round-trip latency: blocking calls (timeoutMs nonzero) wait for the
+ *   round trip and fail with SigNotUpdated if it exceeds timeoutMs,
+ * - a first-order motor/sensor model, integrated lazily on access,
+ * - motion profile top/bottom buffers draining by point duration.
+ *
+ * Time either follows System.nanoTime() or is advanced manually with
+ * advanceMs(), which makes runs deterministic.
+ *
+ * Typical use:
+ *
+ *	SimCANBus bus = new SimCANBus(false);
+ *	bus.install();
+ *	TalonSRX talon = new TalonSRX(1);
+ *	talon.set(ControlMode.PercentOutput, 0.5);
+ *	bus.advanceMs(100);
+ *	talon.getSelectedSensorVelocity(0);
+ */
+public class SimCANBus {
+
+	private final boolean _realTime;
+	private final long _startNs;
+	private volatile long _offsetNs = 0;
+	private volatile long _configRoundTripNs = 2000000;
+
+	private final ArrayList<SimMotController> _motControllers = new ArrayList<SimMotController>();
+	private final ArrayList<SimPigeonImu> _pigeons = new ArrayList<SimPigeonImu>();
+	private final ArrayList<SimCANifier> _canifiers = new ArrayList<SimCANifier>();
+
+	private final SimMotControllerBackend _motControllerBackend = new SimMotControllerBackend(this);
+	private final SimPigeonImuBackend _pigeonBackend = new SimPigeonImuBackend(this);
+	private final SimCANifierBackend _canifierBackend = new SimCANifierBackend(this);
+
+	/**
+	 * Creates a bus that follows wall-clock time.
+	 */
+	public SimCANBus() {
+		this(true);
+	}
+
+	/**
+	 * @param realTime
+	 *            True to follow System.nanoTime(), false to only advance
+	 *            time through advanceMs()/advanceNs().
+	 */
+	public SimCANBus(boolean realTime) {
+		_realTime = realTime;
+		_startNs = System.nanoTime();
+	}
+
+	/**
+	 * Routes devices constructed after this call to this bus.
+	 */
+	public void install() {
+		DeviceBackend.set(_motControllerBackend, _pigeonBackend, _canifierBackend);
+	}
+
+	/**
+	 * Restores the native backends for devices constructed after this call.
+	 */
+	public void uninstall() {
+		DeviceBackend.reset();
+	}
+
+	public SimMotControllerBackend getMotControllerBackend() {
+		return _motControllerBackend;
+	}
+	public SimPigeonImuBackend getPigeonImuBackend() {
+		return _pigeonBackend;
+	}
+	public SimCANifierBackend getCANifierBackend() {
+		return _canifierBackend;
+	}
+
+	// ------ time ----------//
+	/**
+	 * @return Simulation time in nanoseconds since the bus was created.
+	 */
+	public long getTimeNs() {
+		long now = _offsetNs;
+		if (_realTime)
+			now += System.nanoTime() - _startNs;
+		return now;
+	}
+
+	/**
+	 * Moves simulation time forward. With a real time bus this skips ahead.
+	 *
+	 * @param ns
+	 *            Nanoseconds to advance.
+	 */
+	public synchronized void advanceNs(long ns) {
+		if (ns > 0)
+			_offsetNs += ns;
+	}
+	public void advanceMs(double ms) {
+		advanceNs((long) (ms * 1e6));
+	}
+
+	public boolean isRealTime() {
+		return _realTime;
+	}
+
+	/**
+	 * Blocks the caller for the given duration of simulation time.
+	 */
+	void sleepNs(long ns) {
+		if (ns <= 0)
+			return;
+		if (!_realTime) {
+			advanceNs(ns);
+			return;
+		}
+		long end = System.nanoTime() + ns;
+		long rem = ns;
+		while (rem > 0) {
+			LockSupport.parkNanos(rem);
+			rem = end - System.nanoTime();
+		}
+	}
+
+	// ------ config transactions ----------//
+	/**
+	 * Sets the simulated round trip of a config request and its response.
+	 *
+	 * @param ms
+	 *            Round trip in milliseconds, 2ms by default.
+	 */
+	public void setConfigRoundTripMs(double ms) {
+		_configRoundTripNs = (long) (ms * 1e6);
+	}
+	public double getConfigRoundTripMs() {
+		return _configRoundTripNs / 1e6;
+	}
+
+	/**
+	 * Models a config request. If timeoutMs is zero the request is sent and
+	 * the caller does not wait, otherwise the caller waits for the response
+	 * (or the timeout).
+	 *
+	 * @return Error code of the transaction.
+	 */
+	int configTransaction(int timeoutMs) {
+		if (timeoutMs <= 0)
+			return ErrorCode.OK.value;
+		long rtt = _configRoundTripNs;
+		long timeoutNs = timeoutMs * 1000000L;
+		if (rtt > timeoutNs) {
+			sleepNs(timeoutNs);
+			return ErrorCode.SigNotUpdated.value;
+		}
+		sleepNs(rtt);
+		return ErrorCode.OK.value;
+	}
+
+	// ------ devices ----------//
+	synchronized long addMotController(int baseArbId) {
+		for (int i = 0; i < _motControllers.size(); ++i) {
+			if (_motControllers.get(i).getBaseArbId() == baseArbId)
+				return i + 1;
+		}
+		_motControllers.add(new SimMotController(this, baseArbId));
+		return _motControllers.size();
+	}
+	synchronized SimMotController motController(long handle) {
+		return _motControllers.get((int) handle - 1);
+	}
+	synchronized SimMotController findMotController(int baseArbId) {
+		for (SimMotController dev : _motControllers) {
+			if (dev.getBaseArbId() == baseArbId)
+				return dev;
+		}
+		return null;
+	}
+
+	synchronized long addPigeonImu(int deviceNumber, boolean onTalon) {
+		for (int i = 0; i < _pigeons.size(); ++i) {
+			if (_pigeons.get(i).getDeviceNumber() == deviceNumber && _pigeons.get(i).isOnTalon() == onTalon)
+				return i + 1;
+		}
+		_pigeons.add(new SimPigeonImu(this, deviceNumber, onTalon));
+		return _pigeons.size();
+	}
+	synchronized SimPigeonImu pigeonImu(long handle) {
+		return _pigeons.get((int) handle - 1);
+	}
+
+	synchronized long addCANifier(int deviceNumber) {
+		for (int i = 0; i < _canifiers.size(); ++i) {
+			if (_canifiers.get(i).getDeviceNumber() == deviceNumber)
+				return i + 1;
+		}
+		_canifiers.add(new SimCANifier(this, deviceNumber));
+		return _canifiers.size();
+	}
+	synchronized SimCANifier canifier(long handle) {
+		return _canifiers.get((int) handle - 1);
+	}
+
+	/**
+	 * @param deviceNumber
+	 *            CAN Device ID of a Talon SRX.
+	 * @return Simulated Talon, or null if none was constructed.
+	 */
+	public SimMotController getTalonSRX(int deviceNumber) {
+		return findMotController(deviceNumber | 0x02040000);
+	}
+	/**
+	 * @param deviceNumber
+	 *            CAN Device ID of a Victor SPX.
+	 * @return Simulated Victor, or null if none was constructed.
+	 */
+	public SimMotController getVictorSPX(int deviceNumber) {
+		return findMotController(deviceNumber | 0x01040000);
+	}
+	/**
+	 * @return Simulated Pigeon, or null if none was constructed.
+	 */
+	public synchronized SimPigeonImu getPigeonImu(int deviceNumber) {
+		for (SimPigeonImu dev : _pigeons) {
+			if (dev.getDeviceNumber() == deviceNumber)
+				return dev;
+		}
+		return null;
+	}
+	/**
+	 * @return Simulated CANifier, or null if none was constructed.
+	 */
+	public synchronized SimCANifier getCANifier(int deviceNumber) {
+		for (SimCANifier dev : _canifiers) {
+			if (dev.getDeviceNumber() == deviceNumber)
+				return dev;
+		}
+		return null;
+	}
+	/**
+	 * @return All simulated motor controllers, in creation order.
+	 */
+	public synchronized SimMotController[] getMotControllers() {
+		return _motControllers.toArray(new SimMotController[_motControllers.size()]);
+	}
+}
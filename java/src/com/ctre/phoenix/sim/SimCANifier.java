@@ -0,0 +1,186 @@
+package com.ctre.phoenix.sim;
+
+/**
+ * Simulated CANifier.
+ *
+ * General pins read back what the robot drives when configured as outputs,
+ * otherwise the injected input level. PWM inputs, quadrature and supply
+ * voltage are injected.
+ */
+public class SimCANifier extends SimDevice {
+
+	private static final int kPinCount = 11;
+
+	private final SimFrame _status1 = addFrame(0x041400, 100);
+	private final SimFrame _status2 = addFrame(0x041440, 20);
+	private final SimFrame[] _pwmFrames = { addFrame(0x041480, 100), addFrame(0x0414C0, 100),
+			addFrame(0x041500, 100), addFrame(0x041540, 100) };
+	private final SimFrame _status8 = addFrame(0x0415C0, 100);
+
+	// ------ environment ----------//
+	private final boolean[] _inputs = new boolean[kPinCount];
+	private final double[][] _pwmIn = new double[4][2];
+	private double _busVoltage = 12;
+	private double _quadPosition = 0;
+	private double _quadVelocity = 0;
+	private long _modelNs;
+
+	// ------ outputs ----------//
+	private int _outputBits = 0;
+	private int _isOutputBits = 0;
+	private final int[] _ledDutyCycle = new int[3];
+	private final int[] _pwmOutDutyCycle = new int[4];
+	private final boolean[] _pwmOutEnabled = new boolean[4];
+
+	// ------ published signals ----------//
+	private final boolean[] _pPins = new boolean[kPinCount];
+	private final double[][] _pPwm = new double[4][2];
+	private double _pBusVoltage;
+	private double _pQuadPos, _pQuadVel;
+
+	SimCANifier(SimCANBus bus, int deviceNumber) {
+		super(bus, deviceNumber);
+		_modelNs = bus.getTimeNs();
+	}
+
+	// ------ simulation interface ----------//
+	/**
+	 * @param pin
+	 *            CANifier.GeneralPin value.
+	 */
+	public synchronized void setInput(int pin, boolean level) {
+		_inputs[pin] = level;
+	}
+	/**
+	 * @param bits
+	 *            Level of every input pin, bit n for CANifier.GeneralPin value
+	 *            n.
+	 */
+	public synchronized void setInputs(int bits) {
+		for (int i = 0; i < kPinCount; ++i)
+			_inputs[i] = (bits & (1 << i)) != 0;
+	}
+	/**
+	 * @param channel
+	 *            CANifier.PWMChannel value.
+	 */
+	public synchronized void setPWMInput(int channel, double pulseWidthUs, double periodUs) {
+		_pwmIn[channel][0] = pulseWidthUs;
+		_pwmIn[channel][1] = periodUs;
+	}
+	public synchronized void setBusVoltage(double volts) {
+		_busVoltage = volts;
+	}
+	/**
+	 * @param unitsPer100ms
+	 *            Quadrature velocity, position integrates it.
+	 */
+	public synchronized void setQuadratureVelocity(double unitsPer100ms) {
+		integrate();
+		_quadVelocity = unitsPer100ms;
+	}
+	/**
+	 * Sets position and velocity directly, for replaying recorded values.
+	 */
+	public synchronized void setQuadrature(double position, double unitsPer100ms) {
+		integrate();
+		_quadPosition = position;
+		_quadVelocity = unitsPer100ms;
+	}
+	/**
+	 * @return LED duty cycle as last commanded, 0 to 1023.
+	 */
+	public synchronized int getLEDOutput(int ledChannel) {
+		return _ledDutyCycle[ledChannel];
+	}
+	/**
+	 * @return PWM output duty cycle, 0 to 1023, or -1 if the output is disabled.
+	 */
+	public synchronized int getPWMOutput(int pwmChannel) {
+		return _pwmOutEnabled[pwmChannel] ? _pwmOutDutyCycle[pwmChannel] : -1;
+	}
+	public synchronized boolean getGeneralOutput(int pin) {
+		return ((_outputBits >> pin) & 1) != 0;
+	}
+	public synchronized boolean isOutput(int pin) {
+		return ((_isOutputBits >> pin) & 1) != 0;
+	}
+
+	private void integrate() {
+		long now = _bus.getTimeNs();
+		_quadPosition += _quadVelocity * (now - _modelNs) / 1e8;
+		_modelNs = now;
+	}
+
+	// ------ backend interface ----------//
+	synchronized void setLEDOutput(int dutyCycle, int ledChannel) {
+		_ledDutyCycle[ledChannel] = dutyCycle;
+	}
+	synchronized void setGeneralOutputs(int outputBits, int isOutputBits) {
+		_outputBits = outputBits;
+		_isOutputBits = isOutputBits;
+	}
+	synchronized void setGeneralOutput(int outputPin, boolean outputValue, boolean outputEnable) {
+		int mask = 1 << outputPin;
+		_outputBits = outputValue ? (_outputBits | mask) : (_outputBits & ~mask);
+		_isOutputBits = outputEnable ? (_isOutputBits | mask) : (_isOutputBits & ~mask);
+	}
+	synchronized void setPWMOutput(int pwmChannel, int dutyCycle) {
+		_pwmOutDutyCycle[pwmChannel] = dutyCycle;
+	}
+	synchronized void enablePWMOutput(int pwmChannel, boolean bEnable) {
+		_pwmOutEnabled[pwmChannel] = bEnable;
+	}
+
+	synchronized void getGeneralInputs(boolean[] allPins) {
+		if (poll(_status2)) {
+			for (int i = 0; i < kPinCount; ++i)
+				_pPins[i] = isOutput(i) ? getGeneralOutput(i) : _inputs[i];
+		}
+		System.arraycopy(_pPins, 0, allPins, 0, Math.min(allPins.length, kPinCount));
+		rx();
+	}
+	synchronized boolean getGeneralInput(int inputPin) {
+		boolean[] pins = new boolean[kPinCount];
+		getGeneralInputs(pins);
+		return pins[inputPin];
+	}
+	synchronized void getPWMInput(int pwmChannel, double[] pulseWidthAndPeriod) {
+		if (poll(_pwmFrames[pwmChannel])) {
+			_pPwm[pwmChannel][0] = _pwmIn[pwmChannel][0];
+			_pPwm[pwmChannel][1] = _pwmIn[pwmChannel][1];
+		}
+		pulseWidthAndPeriod[0] = _pPwm[pwmChannel][0];
+		pulseWidthAndPeriod[1] = _pPwm[pwmChannel][1];
+		rx();
+	}
+	synchronized double getBusVoltage() {
+		if (poll(_status1))
+			_pBusVoltage = _busVoltage;
+		rx();
+		return _pBusVoltage;
+	}
+	private void sampleQuad() {
+		if (poll(_status8)) {
+			integrate();
+			_pQuadPos = _quadPosition;
+			_pQuadVel = _quadVelocity;
+		}
+		rx();
+	}
+	synchronized int getQuadraturePosition() {
+		sampleQuad();
+		return (int) _pQuadPos;
+	}
+	synchronized int getQuadratureVelocity() {
+		sampleQuad();
+		return (int) _pQuadVel;
+	}
+	int setQuadraturePosition(int newPosition, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_quadPosition = newPosition;
+		}
+		return transaction(timeoutMs);
+	}
+}
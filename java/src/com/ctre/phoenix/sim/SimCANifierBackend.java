@@ -0,0 +1,158 @@
+package com.ctre.phoenix.sim;
+
+import com.ctre.phoenix.ICANifierBackend;
+import com.ctre.phoenix.ParamEnum;
+
+/**
+ * CANifier backend that routes each handle to a SimCANifier on a SimCANBus.
+ */
+public class SimCANifierBackend implements ICANifierBackend {
+
+	private final SimCANBus _bus;
+
+	SimCANifierBackend(SimCANBus bus) {
+		_bus = bus;
+	}
+
+	private SimCANifier dev(long handle) {
+		return _bus.canifier(handle);
+	}
+	private static double bool(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	public long Create(int deviceNumber) {
+		return _bus.addCANifier(deviceNumber);
+	}
+
+	// ------ outputs ----------//
+	public void SetLEDOutput(long handle, int dutyCycle, int ledChannel) {
+		dev(handle).setLEDOutput(dutyCycle, ledChannel);
+	}
+
+	public void SetGeneralOutputs(long handle, int outputBits, int isOutputBits) {
+		dev(handle).setGeneralOutputs(outputBits, isOutputBits);
+	}
+
+	public void SetGeneralOutput(long handle, int outputPin, boolean outputValue, boolean outputEnable) {
+		dev(handle).setGeneralOutput(outputPin, outputValue, outputEnable);
+	}
+
+	public void SetPWMOutput(long handle, int pwmChannel, int dutyCycle) {
+		dev(handle).setPWMOutput(pwmChannel, dutyCycle);
+	}
+
+	public void EnablePWMOutput(long handle, int pwmChannel, boolean bEnable) {
+		dev(handle).enablePWMOutput(pwmChannel, bEnable);
+	}
+
+	// ------ inputs ----------//
+	public void GetGeneralInputs(long handle, boolean[] allPins) {
+		dev(handle).getGeneralInputs(allPins);
+	}
+
+	public boolean GetGeneralInput(long handle, int inputPin) {
+		return dev(handle).getGeneralInput(inputPin);
+	}
+
+	public void GetPWMInput(long handle, int pwmChannel, double[] pulseWidthAndPeriod) {
+		dev(handle).getPWMInput(pwmChannel, pulseWidthAndPeriod);
+	}
+
+	public double GetBatteryVoltage(long handle) {
+		return dev(handle).getBusVoltage();
+	}
+
+	public double GetBusVoltage(long handle) {
+		return dev(handle).getBusVoltage();
+	}
+
+	public int GetQuadraturePosition(long handle) {
+		return dev(handle).getQuadraturePosition();
+	}
+
+	public int SetQuadraturePosition(long handle, int newPosition, int timeoutMs) {
+		return dev(handle).setQuadraturePosition(newPosition, timeoutMs);
+	}
+
+	public int GetQuadratureVelocity(long handle) {
+		return dev(handle).getQuadratureVelocity();
+	}
+
+	// ------ config ----------//
+	public int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eSampleVelocityPeriod.value, 0, period, timeoutMs);
+	}
+
+	public int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eSampleVelocityWindow.value, 0, windowSize, timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eClearPositionOnLimitF.value, 0, bool(clearPositionOnLimitF),
+				timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eClearPositionOnLimitR.value, 0, bool(clearPositionOnLimitR),
+				timeoutMs);
+	}
+
+	public int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eClearPositionOnQuadIdx.value, 0, bool(clearPositionOnQuadIdx),
+				timeoutMs);
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eCustomParam.value, paramIndex, newValue, timeoutMs);
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return (int) dev(handle).configGet(ParamEnum.eCustomParam.value, paramIndex, timoutMs);
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal, int timeoutMs) {
+		return dev(handle).configSet(param, ordinal, value, timeoutMs);
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return dev(handle).configGet(param, ordinal, timeoutMs);
+	}
+
+	public int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs) {
+		return dev(handle).setStatusFramePeriod(statusFrame, periodMs, timeoutMs);
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return dev(handle).getStatusFramePeriod(frame, timeoutMs);
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return dev(handle).setControlFramePeriod(frame, periodMs);
+	}
+
+	// ------ device ----------//
+	public int GetLastError(long handle) {
+		return dev(handle).getLastError();
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return dev(handle).getFirmwareVersion();
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return dev(handle).hasResetOccurred();
+	}
+
+	public int GetFaults(long handle) {
+		return dev(handle).getFaults();
+	}
+
+	public int GetStickyFaults(long handle) {
+		return dev(handle).getStickyFaults();
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return dev(handle).clearStickyFaults(timeoutMs);
+	}
+}
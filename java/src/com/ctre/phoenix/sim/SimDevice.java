@@ -0,0 +1,189 @@
+package com.ctre.phoenix.sim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.ctre.phoenix.ErrorCode;
+
+/**
+ * State shared by the simulated sensors: persistent parameters, status frames,
+ * presence on the bus and the last error.
+ */
+abstract class SimDevice {
+
+	protected final SimCANBus _bus;
+	private final int _deviceNumber;
+	private final ArrayList<SimFrame> _frames = new ArrayList<SimFrame>();
+	private final HashMap<Integer, Double> _params = new HashMap<Integer, Double>();
+	private boolean _present = true;
+	private boolean _hasReset = false;
+	private int _firmwareVersion = 0x0400;
+	private int _stickyFaults = 0;
+	private int _faults = 0;
+	private int _lastError = 0;
+	private final SimReceiveTime _rxTime = new SimReceiveTime();
+
+	SimDevice(SimCANBus bus, int deviceNumber) {
+		_bus = bus;
+		_deviceNumber = deviceNumber;
+	}
+
+	public int getDeviceNumber() {
+		return _deviceNumber;
+	}
+	/**
+	 * Simulates the device dropping off the bus. While not present status
+	 * frames are not received and getters report RxTimeout.
+	 */
+	public synchronized void setPresent(boolean present) {
+		_present = present;
+	}
+	public synchronized boolean isPresent() {
+		return _present;
+	}
+	/**
+	 * Simulates a power cycle of the device.
+	 */
+	public synchronized void simulateReset() {
+		_hasReset = true;
+		_stickyFaults |= 1;
+		for (SimFrame frame : _frames)
+			frame.reset();
+	}
+	public synchronized void setFirmwareVersion(int version) {
+		_firmwareVersion = version;
+	}
+	/**
+	 * Forces fault bits, sticky faults latch them.
+	 */
+	public synchronized void setFaults(int bits) {
+		_faults = bits;
+		_stickyFaults |= bits;
+	}
+
+	// ------ frames ----------//
+	protected SimFrame addFrame(int id, int defaultPeriodMs) {
+		SimFrame frame = new SimFrame(id, defaultPeriodMs);
+		_frames.add(frame);
+		return frame;
+	}
+	/**
+	 * @return true if the frame was received since the signals it carries
+	 *         were last refreshed.
+	 */
+	protected boolean poll(SimFrame frame) {
+		boolean received = _present && frame.poll(_bus.getTimeNs());
+		_rxTime.read(frame);
+		return received;
+	}
+	synchronized long getReceiveTimeNs(long sinceNs) {
+		return _rxTime.oldestSince(_bus, sinceNs);
+	}
+	private SimFrame frame(int frameId) {
+		for (SimFrame frame : _frames) {
+			if (frame.id == frameId)
+				return frame;
+		}
+		return null;
+	}
+
+	// ------ errors ----------//
+	int getLastError() {
+		return _lastError;
+	}
+	protected int setLastError(int err) {
+		_lastError = err;
+		return err;
+	}
+	/**
+	 * Sets the last error as a getter would, after a status frame read.
+	 */
+	protected int rx() {
+		return setLastError(_present ? ErrorCode.OK.value : ErrorCode.RxTimeout.value);
+	}
+	/**
+	 * Models the round trip of a blocking request, without holding the device.
+	 */
+	protected int transaction(int timeoutMs) {
+		int err = _bus.configTransaction(timeoutMs);
+		synchronized (this) {
+			if (err == 0 && !_present && timeoutMs > 0)
+				err = ErrorCode.SigNotUpdated.value;
+			return setLastError(err);
+		}
+	}
+
+	// ------ params ----------//
+	private static int key(int param, int ordinal) {
+		return (param << 8) | (ordinal & 0xFF);
+	}
+	protected synchronized double param(int param, int ordinal) {
+		Double value = _params.get(key(param, ordinal));
+		return value == null ? 0 : value;
+	}
+	/**
+	 * Called when a parameter is written, so derived devices can apply it.
+	 */
+	protected void onParam(int param, int ordinal, double value) {
+	}
+	int configSet(int param, int ordinal, double value, int timeoutMs) {
+		synchronized (this) {
+			_params.put(key(param, ordinal), value);
+			onParam(param, ordinal, value);
+		}
+		return transaction(timeoutMs);
+	}
+	double configGet(int param, int ordinal, int timeoutMs) {
+		int err = transaction(timeoutMs);
+		return err == 0 ? param(param, ordinal) : 0;
+	}
+
+	int setStatusFramePeriod(int frameId, int periodMs, int timeoutMs) {
+		synchronized (this) {
+			SimFrame frame = frame(frameId);
+			if (frame == null)
+				return setLastError(ErrorCode.InvalidParamValue.value);
+			frame.setPeriodMs(periodMs);
+		}
+		return transaction(timeoutMs);
+	}
+	int getStatusFramePeriod(int frameId, int timeoutMs) {
+		int err = transaction(timeoutMs);
+		synchronized (this) {
+			SimFrame frame = frame(frameId);
+			if (frame == null) {
+				setLastError(ErrorCode.InvalidParamValue.value);
+				return 0;
+			}
+			return err == 0 ? frame.getPeriodMs() : 0;
+		}
+	}
+	synchronized int setControlFramePeriod(int frameId, int periodMs) {
+		return setLastError(0);
+	}
+
+	// ------ device ----------//
+	synchronized int getFirmwareVersion() {
+		rx();
+		return _firmwareVersion;
+	}
+	synchronized boolean hasResetOccurred() {
+		boolean retval = _hasReset;
+		_hasReset = false;
+		return retval;
+	}
+	synchronized int getFaults() {
+		rx();
+		return _faults;
+	}
+	synchronized int getStickyFaults() {
+		rx();
+		return _stickyFaults;
+	}
+	int clearStickyFaults(int timeoutMs) {
+		synchronized (this) {
+			_stickyFaults = 0;
+		}
+		return transaction(timeoutMs);
+	}
+}
@@ -0,0 +1,77 @@
+package com.ctre.phoenix.sim;
+
+/**
+ * Periodic frame of a simulated device.
+ * A frame is considered sent at every multiple of its period; signals carried
+ * by the frame are only refreshed when a new one has been sent.
+ */
+final class SimFrame {
+	final int id;
+	private final int _defaultPeriodMs;
+	private int _periodMs;
+	private long _lastTxNs = Long.MIN_VALUE;
+	private boolean _read = false;
+	private long _readNs = 0;
+
+	SimFrame(int id, int periodMs) {
+		this.id = id;
+		_defaultPeriodMs = periodMs;
+		_periodMs = periodMs;
+	}
+
+	int getPeriodMs() {
+		return _periodMs;
+	}
+	void setPeriodMs(int periodMs) {
+		/* firmware clamps to [1,255] */
+		if (periodMs < 1)
+			periodMs = 1;
+		if (periodMs > 255)
+			periodMs = 255;
+		_periodMs = periodMs;
+	}
+	void reset() {
+		_periodMs = _defaultPeriodMs;
+	}
+
+	/**
+	 * @return Timestamp of the most recently sent frame.
+	 */
+	long lastTxNs(long nowNs) {
+		long periodNs = _periodMs * 1000000L;
+		return nowNs - Math.floorMod(nowNs, periodNs);
+	}
+
+	/**
+	 * @return true if a frame was sent since the previous poll.
+	 */
+	boolean poll(long nowNs) {
+		long tx = lastTxNs(nowNs);
+		if (tx == _lastTxNs)
+			return false;
+		_lastTxNs = tx;
+		return true;
+	}
+
+	/**
+	 * @return Timestamp of the frame the cached signals came from.
+	 */
+	long receivedNs() {
+		return _lastTxNs;
+	}
+
+	// ------ reads by the getters, see SimReceiveTime ----------//
+	void markRead(long nowNs) {
+		_read = true;
+		_readNs = nowNs;
+	}
+	boolean wasRead() {
+		return _read;
+	}
+	/**
+	 * @return System.nanoTime() of the last read.
+	 */
+	long readNs() {
+		return _readNs;
+	}
+}
@@ -0,0 +1,1157 @@
+package com.ctre.phoenix.sim;
+
+import java.util.HashMap;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ParamEnum;
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
+
+/**
+ * Simulated Talon SRX / Victor SPX.
+ *
+ * The motor is modeled as a first-order system: the sensor velocity
+ * approaches (applied output x free speed) with a configurable time constant,
+ * and position integrates velocity. The firmware closed loops (Position,
+ * Velocity, MotionMagic, MotionProfile) run at 1ms with the configured slot
+ * gains, using the same (kP * err + kI * iaccum + kD * derr + kF * target) / 1023
+ * form as the motor controller.
+ *
+ * The model is only integrated when a signal is sampled or the demand changes,
+ * so idle devices cost nothing. Signals are published per status frame, a
+ * getter returns the value carried by the most recently sent frame.
+ *
+ * Public setters inject the environment (supply voltage, limit switches,
+ * faults ...), they take effect immediately. setPlayback() replaces the
+ * model's signals with recorded ones, for replaying a log through the
+ * getters.
+ */
+public class SimMotController {
+
+	/* modes, per ControlMode */
+	private static final int kPercentOutput = 0;
+	private static final int kPosition = 1;
+	private static final int kVelocity = 2;
+	private static final int kCurrent = 3;
+	private static final int kFollower = 5;
+	private static final int kMotionProfile = 6;
+	private static final int kMotionMagic = 7;
+	private static final int kMotionProfileArc = 10;
+	private static final int kArbitraryFeedForward = 2;
+
+	private static final long kStepNs = 1000000;
+	private static final int kTopBufferCapacity = 2048;
+	private static final int kBottomBufferCapacity = 128;
+
+	private final SimCANBus _bus;
+	private final int _baseArbId;
+
+	// ------ frames ----------//
+	private final SimFrame _status1 = new SimFrame(0x1400, 10);
+	private final SimFrame _status2 = new SimFrame(0x1440, 20);
+	private final SimFrame _status3 = new SimFrame(0x1480, 160);
+	private final SimFrame _status4 = new SimFrame(0x14C0, 160);
+	private final SimFrame _status6 = new SimFrame(0x1540, 160);
+	private final SimFrame _status7 = new SimFrame(0x1580, 160);
+	private final SimFrame _status8 = new SimFrame(0x15C0, 160);
+	private final SimFrame _status9 = new SimFrame(0x1600, 160);
+	private final SimFrame _status10 = new SimFrame(0x1640, 160);
+	private final SimFrame _status11 = new SimFrame(0x1680, 160);
+	private final SimFrame _status12 = new SimFrame(0x16C0, 160);
+	private final SimFrame _status13 = new SimFrame(0x1700, 160);
+	private final SimFrame _status14 = new SimFrame(0x1740, 160);
+	private final SimFrame _status15 = new SimFrame(0x1780, 160);
+	private final SimFrame[] _frames = { _status1, _status2, _status3, _status4, _status6, _status7, _status8,
+			_status9, _status10, _status11, _status12, _status13, _status14, _status15 };
+	private final HashMap<Integer, Integer> _controlPeriods = new HashMap<Integer, Integer>();
+
+	// ------ control ----------//
+	private int _mode = kPercentOutput;
+	private double _demand0 = 0;
+	private double _demand1 = 0;
+	private int _demand1Type = 0;
+	private int _neutralMode = 0;
+	private boolean _inverted = false;
+	private boolean _sensorPhase = false;
+	private boolean _voltageCompEnabled = false;
+	private boolean _currentLimitEnabled = false;
+	private boolean _limitSwitchesEnabled = true;
+	private boolean _softLimitsEnabled = true;
+	private final int[] _slot = new int[2];
+
+	// ------ persistent params ----------//
+	private final HashMap<Integer, Double> _params = new HashMap<Integer, Double>();
+
+	// ------ environment ----------//
+	private double _freeSpeed = 4096;
+	private double _timeConstantMs = 50;
+	private double _stallCurrent = 100;
+	private double _sensorDirection = 1;
+	private double _busVoltage = 12;
+	private double _temperature = 25;
+	private int _analogIn = 0;
+	private double _auxPosition = 0;
+	private double _auxVelocity = 0;
+	private boolean _fwdLimitClosed = false;
+	private boolean _revLimitClosed = false;
+	private int _injectedFaults = 0;
+	private boolean _present = true;
+	private boolean _hasReset = false;
+	private int _firmwareVersion = 0x0400;
+
+	// ------ model ----------//
+	private long _modelNs;
+	private double _position = 0;
+	private double _velocity = 0;
+	private volatile double _output = 0;
+	private double _current = 0;
+	private int _faults = 0;
+	private int _stickyFaults = 0;
+	private final double[] _target = new double[2];
+	private final double[] _err = new double[2];
+	private final double[] _lastErr = new double[2];
+	private final double[] _derr = new double[2];
+	private final double[] _iaccum = new double[2];
+	private double _mmPos = 0;
+	private double _mmVel = 0;
+
+	// ------ motion profile ----------//
+	private final SimTrajBuffer _top = new SimTrajBuffer(kTopBufferCapacity);
+	private final SimTrajBuffer _btm = new SimTrajBuffer(kBottomBufferCapacity);
+	private boolean _apValid = false;
+	private double _apPos, _apVel, _apHdg;
+	private int _apSlot0, _apSlot1, _apDurMs;
+	private boolean _apLast = false;
+	private long _apStartNs = 0;
+	private boolean _isUnderrun = false;
+	private boolean _hasUnderrun = false;
+	private int _mpFramePeriodMs = 10;
+	private long _mpXferNs = Long.MIN_VALUE;
+
+	// ------ published signals ----------//
+	private double _p1Output;
+	private int _p1Faults;
+	private boolean _p1FwdLimit, _p1RevLimit;
+	private double _p2Pos, _p2Vel, _p2Current;
+	private int _p2StickyFaults;
+	private double _p3QuadPos, _p3QuadVel;
+	private int _p3Pins;
+	private int _p4Analog;
+	private double _p4Temperature, _p4BusVoltage;
+	private double _p8PulseWidthPos, _p8PulseWidthVel;
+	private final int[] _p9MotProf = new int[11];
+	private double _p10TrajPos, _p10TrajVel, _p10TrajHeading;
+	private double _p12Pos, _p12Vel;
+	private final double[] _p13 = new double[4];
+	private final double[] _p14 = new double[4];
+
+	private final SimReceiveTime _rxTime = new SimReceiveTime();
+	private int _lastError = 0;
+
+	// ------ playback ----------//
+	private boolean _playback = false;
+	private final double[] _pb = new double[MotorStatusSignal.kStride];
+
+	SimMotController(SimCANBus bus, int baseArbId) {
+		_bus = bus;
+		_baseArbId = baseArbId;
+		_modelNs = bus.getTimeNs();
+		loadFactoryDefaults();
+	}
+
+	// ------ simulation interface ----------//
+	public int getBaseArbId() {
+		return _baseArbId;
+	}
+	public int getDeviceNumber() {
+		return _baseArbId & 0x3F;
+	}
+	/**
+	 * @param unitsPer100ms
+	 *            Sensor velocity reached at full output and 12V.
+	 */
+	public synchronized void setFreeSpeed(double unitsPer100ms) {
+		integrate();
+		_freeSpeed = unitsPer100ms;
+	}
+	/**
+	 * @param ms
+	 *            Time constant of the mechanism's velocity response.
+	 */
+	public synchronized void setTimeConstantMs(double ms) {
+		integrate();
+		_timeConstantMs = ms;
+	}
+	/**
+	 * @param amps
+	 *            Current drawn at full output and zero speed.
+	 */
+	public synchronized void setStallCurrent(double amps) {
+		integrate();
+		_stallCurrent = amps;
+	}
+	/**
+	 * @param outOfPhase
+	 *            True if the sensor counts down when the motor is driven
+	 *            forward, which is then corrected with setSensorPhase(true).
+	 */
+	public synchronized void setSensorOutOfPhase(boolean outOfPhase) {
+		integrate();
+		_sensorDirection = outOfPhase ? -1 : 1;
+	}
+	public synchronized void setBusVoltage(double volts) {
+		integrate();
+		_busVoltage = volts;
+	}
+	public synchronized void setTemperature(double degC) {
+		_temperature = degC;
+	}
+	public synchronized void setAnalogIn(int adc) {
+		_analogIn = adc;
+	}
+	/**
+	 * Sets the sensor used by the auxiliary PID loop (pidIdx 1).
+	 */
+	public synchronized void setAuxiliarySensor(double position, double velocity) {
+		_auxPosition = position;
+		_auxVelocity = velocity;
+	}
+	public synchronized void setLimitSwitches(boolean fwdClosed, boolean revClosed) {
+		integrate();
+		_fwdLimitClosed = fwdClosed;
+		_revLimitClosed = revClosed;
+	}
+	/**
+	 * Forces fault bits (see Faults.update()), they are OR'ed with the
+	 * faults detected by the model.
+	 */
+	public synchronized void setFaults(int bits) {
+		_injectedFaults = bits;
+	}
+	/**
+	 * Simulates the device dropping off the bus. While not present status
+	 * frames are not received and getters report RxTimeout.
+	 */
+	public synchronized void setPresent(boolean present) {
+		_present = present;
+	}
+	/**
+	 * Simulates a power cycle of the device.
+	 */
+	public synchronized void simulateReset() {
+		integrate();
+		_hasReset = true;
+		_stickyFaults |= 1 << 6; /* ResetDuringEn */
+		_velocity = 0;
+		_apValid = false;
+		_btm.clear();
+		for (SimFrame frame : _frames)
+			frame.reset();
+	}
+	public synchronized void setFirmwareVersion(int version) {
+		_firmwareVersion = version;
+	}
+	/**
+	 * Publishes recorded signals instead of the model's, until
+	 * stopPlayback(). They still go out with their status frames, so getters
+	 * see them at the frame periods. The quadrature and pulse width sensors
+	 * follow the selected sensor, the limit switches the fault bits.
+	 *
+	 * @param block
+	 *            Signals laid out per MotorStatusSignal.
+	 * @param offset
+	 *            Index of the first signal within block.
+	 */
+	public synchronized void setPlayback(double[] block, int offset) {
+		System.arraycopy(block, offset, _pb, 0, MotorStatusSignal.kStride);
+		_playback = true;
+	}
+	/**
+	 * Goes back to publishing the model's signals.
+	 */
+	public synchronized void stopPlayback() {
+		_playback = false;
+	}
+	/**
+	 * @return Output applied to the motor right now (percent), not delayed by
+	 *         status frames.
+	 */
+	public double getAppliedOutput() {
+		return _output;
+	}
+	/**
+	 * @return Raw sensor position right now, not delayed by status frames.
+	 */
+	public synchronized double getRawPosition() {
+		integrate();
+		return _position;
+	}
+	/**
+	 * @return Raw sensor velocity right now, not delayed by status frames.
+	 */
+	public synchronized double getRawVelocity() {
+		integrate();
+		return _velocity;
+	}
+	/**
+	 * @return Control mode value of the last demand (see ControlMode).
+	 */
+	public synchronized int getControlMode() {
+		return _mode;
+	}
+	public synchronized double getDemand0() {
+		return _demand0;
+	}
+	public synchronized double getDemand1() {
+		return _demand1;
+	}
+	public synchronized int getDemand1Type() {
+		return _demand1Type;
+	}
+	/**
+	 * @return Persistent parameter as last written, regardless of latency.
+	 */
+	public synchronized double getParameter(ParamEnum param, int ordinal) {
+		return param(param.value, ordinal);
+	}
+
+	// ------ params ----------//
+	private static int key(int param, int ordinal) {
+		return (param << 8) | (ordinal & 0xFF);
+	}
+	private double param(int param, int ordinal) {
+		Double value = _params.get(key(param, ordinal));
+		return value == null ? 0 : value;
+	}
+	private double param(ParamEnum param, int ordinal) {
+		return param(param.value, ordinal);
+	}
+	private void putParam(ParamEnum param, int ordinal, double value) {
+		_params.put(key(param.value, ordinal), value);
+	}
+	private void loadFactoryDefaults() {
+		_params.clear();
+		putParam(ParamEnum.ePeakPosOutput, 0, 1.0);
+		putParam(ParamEnum.ePeakNegOutput, 0, -1.0);
+		putParam(ParamEnum.eNeutralDeadband, 0, 0.04);
+		putParam(ParamEnum.eBatteryVoltageFilterSize, 0, 32);
+		putParam(ParamEnum.eSampleVelocityPeriod, 0, 100);
+		putParam(ParamEnum.eSampleVelocityWindow, 0, 64);
+		for (int slot = 0; slot < 4; ++slot) {
+			putParam(ParamEnum.eProfileParamSlot_PeakOutput, slot, 1.0);
+			putParam(ParamEnum.ePIDLoopPeriod, slot, 1);
+		}
+		putParam(ParamEnum.eSelectedSensorCoefficient, 0, 1.0);
+		putParam(ParamEnum.eSelectedSensorCoefficient, 1, 1.0);
+		putParam(ParamEnum.ePulseWidthPeriod_EdgesPerRot, 0, 1);
+		putParam(ParamEnum.ePulseWidthPeriod_FilterWindowSz, 0, 1);
+		putParam(ParamEnum.ePeakCurrentLimitAmps, 0, 1);
+		putParam(ParamEnum.ePeakCurrentLimitMs, 0, 1);
+		putParam(ParamEnum.eContinuousCurrentLimitAmps, 0, 1);
+	}
+
+	// ------ backend interface ----------//
+	int getLastError() {
+		return _lastError;
+	}
+	private int setLastError(int err) {
+		_lastError = err;
+		return err;
+	}
+	private int rxError() {
+		return _present ? ErrorCode.OK.value : ErrorCode.RxTimeout.value;
+	}
+
+	/**
+	 * Writes a persistent parameter, the caller waits for the response if
+	 * timeoutMs is nonzero.
+	 */
+	int configSet(int param, int ordinal, double value, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_params.put(key(param, ordinal), value);
+			if (param == ParamEnum.eDefaultConfig.value)
+				loadFactoryDefaults();
+		}
+		return transaction(timeoutMs);
+	}
+	int configSet(ParamEnum param, int ordinal, double value, int timeoutMs) {
+		return configSet(param.value, ordinal, value, timeoutMs);
+	}
+	double configGet(int param, int ordinal, int timeoutMs) {
+		int err = transaction(timeoutMs);
+		synchronized (this) {
+			return err == 0 ? param(param, ordinal) : 0;
+		}
+	}
+	int configFactoryDefault(int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			loadFactoryDefaults();
+		}
+		return transaction(timeoutMs);
+	}
+	/**
+	 * Models the round trip of a blocking request, without holding the device.
+	 */
+	private int transaction(int timeoutMs) {
+		int err = _bus.configTransaction(timeoutMs);
+		synchronized (this) {
+			if (err == 0 && !_present)
+				err = timeoutMs > 0 ? ErrorCode.SigNotUpdated.value : ErrorCode.OK.value;
+			return setLastError(err);
+		}
+	}
+
+	synchronized void setDemand(int mode, double demand0, double demand1, int demand1Type) {
+		integrate();
+		if (mode != _mode && (mode == kMotionMagic)) {
+			/* Motion Magic starts from the current state */
+			_mmPos = selectedPosition(0);
+			_mmVel = selectedVelocity(0);
+		}
+		_mode = mode;
+		_demand0 = demand0;
+		_demand1 = demand1;
+		_demand1Type = demand1Type;
+		setLastError(0);
+	}
+	synchronized void setMPEOutput(int mpeOutput) {
+		integrate();
+		if (_mode == kMotionProfile || _mode == kMotionProfileArc)
+			_demand0 = mpeOutput;
+	}
+	synchronized void setNeutralMode(int neutralMode) {
+		_neutralMode = neutralMode;
+	}
+	synchronized void setSensorPhase(boolean phaseSensor) {
+		integrate();
+		_sensorPhase = phaseSensor;
+	}
+	synchronized void setInverted(boolean invert) {
+		integrate();
+		_inverted = invert;
+	}
+	synchronized void enableVoltageCompensation(boolean enable) {
+		integrate();
+		_voltageCompEnabled = enable;
+	}
+	synchronized void enableCurrentLimit(boolean enable) {
+		integrate();
+		_currentLimitEnabled = enable;
+	}
+	synchronized void overrideLimitSwitchesEnable(boolean enable) {
+		integrate();
+		_limitSwitchesEnabled = enable;
+	}
+	synchronized void overrideSoftLimitsEnable(boolean enable) {
+		integrate();
+		_softLimitsEnabled = enable;
+	}
+	synchronized void selectProfileSlot(int slotIdx, int pidIdx) {
+		integrate();
+		_slot[pidIdx & 1] = slotIdx & 3;
+	}
+
+	int setSelectedSensorPosition(int sensorPos, int pidIdx, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			if (pidIdx == 0)
+				_position = sensorPos / sensorScale(0);
+			else
+				_auxPosition = sensorPos / sensorScale(1);
+		}
+		return transaction(timeoutMs);
+	}
+	int setIntegralAccumulator(double iaccum, int pidIdx, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_iaccum[pidIdx & 1] = iaccum;
+		}
+		return transaction(timeoutMs);
+	}
+	int setQuadraturePosition(int newPosition, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_position = newPosition;
+		}
+		return transaction(timeoutMs);
+	}
+	int setAnalogPosition(int newPosition, int timeoutMs) {
+		synchronized (this) {
+			_analogIn = newPosition;
+		}
+		return transaction(timeoutMs);
+	}
+	int clearStickyFaults(int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_stickyFaults = 0;
+		}
+		return transaction(timeoutMs);
+	}
+
+	// ------ frame periods ----------//
+	private SimFrame frame(int frameId) {
+		for (SimFrame frame : _frames) {
+			if (frame.id == (frameId & 0xFFFF))
+				return frame;
+		}
+		return null;
+	}
+	int setStatusFramePeriod(int frameId, int periodMs, int timeoutMs) {
+		synchronized (this) {
+			SimFrame frame = frame(frameId);
+			if (frame == null)
+				return setLastError(ErrorCode.InvalidParamValue.value);
+			frame.setPeriodMs(periodMs);
+		}
+		return transaction(timeoutMs);
+	}
+	int getStatusFramePeriod(int frameId, int timeoutMs) {
+		int err = transaction(timeoutMs);
+		synchronized (this) {
+			SimFrame frame = frame(frameId);
+			if (frame == null) {
+				setLastError(ErrorCode.InvalidParamValue.value);
+				return 0;
+			}
+			return err == 0 ? frame.getPeriodMs() : 0;
+		}
+	}
+	synchronized int setControlFramePeriod(int frameId, int periodMs) {
+		_controlPeriods.put(frameId, periodMs);
+		return setLastError(0);
+	}
+	synchronized int changeMotionControlFramePeriod(int periodMs) {
+		if (periodMs < 1)
+			periodMs = 1;
+		if (periodMs > 255)
+			periodMs = 255;
+		_mpFramePeriodMs = periodMs;
+		return setLastError(0);
+	}
+
+	// ------ status frames ----------//
+	/**
+	 * @return true if the frame was received since the signals it carries
+	 *         were last refreshed.
+	 */
+	private boolean poll(SimFrame frame, long now) {
+		boolean received = _present && frame.poll(now);
+		_rxTime.read(frame);
+		return received;
+	}
+	synchronized long getReceiveTimeNs(long sinceNs) {
+		return _rxTime.oldestSince(_bus, sinceNs);
+	}
+
+	private void sample1(long now) {
+		if (!poll(_status1, now))
+			return;
+		if (_playback) {
+			_p1Output = _pb[MotorStatusSignal.MotorOutputPercent.value];
+			_p1Faults = (int) _pb[MotorStatusSignal.Faults.value];
+			_p1FwdLimit = (_p1Faults & (1 << 1)) != 0;
+			_p1RevLimit = (_p1Faults & (1 << 2)) != 0;
+			return;
+		}
+		integrate(now);
+		_p1Output = _output;
+		_p1Faults = _faults | _injectedFaults;
+		_p1FwdLimit = _fwdLimitClosed;
+		_p1RevLimit = _revLimitClosed;
+	}
+	private void sample2(long now) {
+		if (!poll(_status2, now))
+			return;
+		if (_playback) {
+			_p2Pos = _pb[MotorStatusSignal.SelectedSensorPosition.value];
+			_p2Vel = _pb[MotorStatusSignal.SelectedSensorVelocity.value];
+			_p2Current = _pb[MotorStatusSignal.OutputCurrent.value];
+			_p2StickyFaults = (int) _pb[MotorStatusSignal.StickyFaults.value];
+			return;
+		}
+		integrate(now);
+		_p2Pos = selectedPosition(0);
+		_p2Vel = selectedVelocity(0);
+		_p2Current = _current;
+		_p2StickyFaults = _stickyFaults | _injectedFaults;
+	}
+	private void sample3(long now) {
+		if (!poll(_status3, now))
+			return;
+		if (_playback) {
+			_p3QuadPos = _pb[MotorStatusSignal.SelectedSensorPosition.value];
+			_p3QuadVel = _pb[MotorStatusSignal.SelectedSensorVelocity.value];
+			return;
+		}
+		integrate(now);
+		_p3QuadPos = _position;
+		_p3QuadVel = _velocity;
+		_p3Pins = 0;
+	}
+	private void sample4(long now) {
+		if (!poll(_status4, now))
+			return;
+		_p4Analog = _analogIn;
+		_p4Temperature = _playback ? _pb[MotorStatusSignal.Temperature.value] : _temperature;
+		_p4BusVoltage = _playback ? _pb[MotorStatusSignal.BusVoltage.value] : _busVoltage;
+	}
+	private void sample8(long now) {
+		if (!poll(_status8, now))
+			return;
+		if (_playback) {
+			_p8PulseWidthPos = _pb[MotorStatusSignal.SelectedSensorPosition.value];
+			_p8PulseWidthVel = _pb[MotorStatusSignal.SelectedSensorVelocity.value];
+			return;
+		}
+		integrate(now);
+		_p8PulseWidthPos = _position;
+		_p8PulseWidthVel = _velocity;
+	}
+	private void sample9(long now) {
+		if (!poll(_status9, now))
+			return;
+		integrate(now);
+		boolean mp = _mode == kMotionProfile || _mode == kMotionProfileArc;
+		_p9MotProf[2] = _btm.count();
+		_p9MotProf[3] = _hasUnderrun ? 1 : 0;
+		_p9MotProf[4] = _isUnderrun ? 1 : 0;
+		_p9MotProf[5] = _apValid ? 1 : 0;
+		_p9MotProf[6] = _apLast ? 1 : 0;
+		_p9MotProf[7] = _apSlot0;
+		_p9MotProf[8] = mp ? (int) _demand0 : 0;
+		_p9MotProf[9] = _apDurMs;
+		_p9MotProf[10] = _apSlot1;
+	}
+	private void sample10(long now) {
+		if (!poll(_status10, now))
+			return;
+		if (_playback) {
+			_p10TrajPos = _pb[MotorStatusSignal.ActiveTrajectoryPosition.value];
+			_p10TrajVel = _pb[MotorStatusSignal.ActiveTrajectoryVelocity.value];
+			_p10TrajHeading = _pb[MotorStatusSignal.ActiveTrajectoryHeading.value];
+			return;
+		}
+		integrate(now);
+		if (_mode == kMotionMagic) {
+			_p10TrajPos = _mmPos;
+			_p10TrajVel = _mmVel;
+			_p10TrajHeading = 0;
+		} else {
+			_p10TrajPos = _apPos;
+			_p10TrajVel = _apVel;
+			_p10TrajHeading = _apHdg;
+		}
+	}
+	private void sample12(long now) {
+		if (!poll(_status12, now))
+			return;
+		integrate(now);
+		_p12Pos = selectedPosition(1);
+		_p12Vel = selectedVelocity(1);
+	}
+	private void samplePid(long now, int pidIdx) {
+		SimFrame frame = pidIdx == 0 ? _status13 : _status14;
+		double[] pub = pidIdx == 0 ? _p13 : _p14;
+		if (!poll(frame, now))
+			return;
+		if (_playback && pidIdx == 0) {
+			/* only the primary loop is recorded */
+			pub[0] = _pb[MotorStatusSignal.ClosedLoopError.value];
+			pub[1] = _pb[MotorStatusSignal.IntegralAccumulator.value];
+			pub[2] = _pb[MotorStatusSignal.ErrorDerivative.value];
+			pub[3] = _pb[MotorStatusSignal.ClosedLoopTarget.value];
+			return;
+		}
+		integrate(now);
+		pub[0] = _err[pidIdx];
+		pub[1] = _iaccum[pidIdx];
+		pub[2] = _derr[pidIdx];
+		pub[3] = _target[pidIdx];
+	}
+
+	synchronized double getBusVoltage() {
+		sample4(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p4BusVoltage;
+	}
+	synchronized double getTemperature() {
+		sample4(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p4Temperature;
+	}
+	synchronized double getMotorOutputPercent() {
+		sample1(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p1Output;
+	}
+	synchronized double getOutputCurrent() {
+		sample2(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p2Current;
+	}
+	synchronized int getSelectedSensorPosition(int pidIdx) {
+		long now = _bus.getTimeNs();
+		setLastError(rxError());
+		if (pidIdx == 0) {
+			sample2(now);
+			return (int) _p2Pos;
+		}
+		sample12(now);
+		return (int) _p12Pos;
+	}
+	synchronized int getSelectedSensorVelocity(int pidIdx) {
+		long now = _bus.getTimeNs();
+		setLastError(rxError());
+		if (pidIdx == 0) {
+			sample2(now);
+			return (int) _p2Vel;
+		}
+		sample12(now);
+		return (int) _p12Vel;
+	}
+	private double[] pid(int pidIdx) {
+		samplePid(_bus.getTimeNs(), pidIdx & 1);
+		setLastError(rxError());
+		return (pidIdx & 1) == 0 ? _p13 : _p14;
+	}
+	synchronized int getClosedLoopError(int pidIdx) {
+		return (int) pid(pidIdx)[0];
+	}
+	synchronized double getIntegralAccumulator(int pidIdx) {
+		return pid(pidIdx)[1];
+	}
+	synchronized double getErrorDerivative(int pidIdx) {
+		return pid(pidIdx)[2];
+	}
+	synchronized int getClosedLoopTarget(int pidIdx) {
+		return (int) pid(pidIdx)[3];
+	}
+	synchronized int getActiveTrajectoryPosition() {
+		sample10(_bus.getTimeNs());
+		setLastError(rxError());
+		return (int) _p10TrajPos;
+	}
+	synchronized int getActiveTrajectoryVelocity() {
+		sample10(_bus.getTimeNs());
+		setLastError(rxError());
+		return (int) _p10TrajVel;
+	}
+	synchronized double getActiveTrajectoryHeading() {
+		sample10(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p10TrajHeading;
+	}
+	synchronized int getFaults() {
+		sample1(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p1Faults;
+	}
+	synchronized int getStickyFaults() {
+		sample2(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p2StickyFaults;
+	}
+	synchronized int isFwdLimitSwitchClosed() {
+		sample1(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p1FwdLimit ? 1 : 0;
+	}
+	synchronized int isRevLimitSwitchClosed() {
+		sample1(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p1RevLimit ? 1 : 0;
+	}
+	synchronized int getAnalogIn() {
+		sample4(_bus.getTimeNs());
+		setLastError(rxError());
+		return _p4Analog;
+	}
+	synchronized int getAnalogInRaw() {
+		return getAnalogIn() & 0x3FF;
+	}
+	synchronized int getQuadraturePosition() {
+		sample3(_bus.getTimeNs());
+		setLastError(rxError());
+		return (int) _p3QuadPos;
+	}
+	synchronized int getQuadratureVelocity() {
+		sample3(_bus.getTimeNs());
+		setLastError(rxError());
+		return (int) _p3QuadVel;
+	}
+	synchronized int getPinState(int bit) {
+		sample3(_bus.getTimeNs());
+		setLastError(rxError());
+		return (_p3Pins >> bit) & 1;
+	}
+	synchronized int getPulseWidthPosition() {
+		sample8(_bus.getTimeNs());
+		setLastError(rxError());
+		return (int) _p8PulseWidthPos;
+	}
+	synchronized int getPulseWidthVelocity() {
+		sample8(_bus.getTimeNs());
+		setLastError(rxError());
+		return (int) _p8PulseWidthVel;
+	}
+	synchronized int getPulseWidthRiseToFallUs() {
+		/* 12bit absolute encoder, 4096us period with 1us per count */
+		return 1 + (int) Math.floorMod((long) getPulseWidthPosition(), 4096L);
+	}
+	synchronized int getPulseWidthRiseToRiseUs() {
+		sample8(_bus.getTimeNs());
+		setLastError(rxError());
+		return 4098;
+	}
+	synchronized boolean hasResetOccurred() {
+		boolean retval = _hasReset;
+		_hasReset = false;
+		return retval;
+	}
+	synchronized int getFirmwareVersion() {
+		setLastError(rxError());
+		return _firmwareVersion;
+	}
+
+	/**
+	 * Fills a status block laid out per MotorStatusSignal.
+	 */
+	synchronized int getStatusSnapshot(int pidIdx, double[] block, int offset) {
+		/* same frame grouping and first error as MotControllerJNI */
+		block[offset + 1] = getMotorOutputPercent();
+		block[offset + 13] = getFaults();
+		int retval = _lastError;
+		block[offset + 4] = getSelectedSensorPosition(pidIdx);
+		block[offset + 5] = getSelectedSensorVelocity(pidIdx);
+		block[offset + 2] = getOutputCurrent();
+		block[offset + 14] = getStickyFaults();
+		if (retval == 0)
+			retval = _lastError;
+		block[offset + 0] = getBusVoltage();
+		block[offset + 3] = getTemperature();
+		if (retval == 0)
+			retval = _lastError;
+		block[offset + 6] = getClosedLoopError(pidIdx);
+		block[offset + 8] = getIntegralAccumulator(pidIdx);
+		block[offset + 9] = getErrorDerivative(pidIdx);
+		if (retval == 0)
+			retval = _lastError;
+		block[offset + 7] = getClosedLoopTarget(pidIdx);
+		block[offset + 10] = getActiveTrajectoryPosition();
+		block[offset + 11] = getActiveTrajectoryVelocity();
+		block[offset + 12] = getActiveTrajectoryHeading();
+		if (retval == 0)
+			retval = _lastError;
+		block[offset + 15] = retval;
+		return retval;
+	}
+
+	// ------ motion profile ----------//
+	synchronized int pushMotionProfileTrajectory(double position, double velocity, double headingDeg,
+			int profileSlotSelect0, int profileSlotSelect1, boolean isLastPoint, boolean zeroPos, int durationMs) {
+		if (!_top.push(position, velocity, headingDeg, profileSlotSelect0, profileSlotSelect1, isLastPoint,
+				zeroPos, durationMs))
+			return setLastError(ErrorCode.BufferFull.value);
+		return setLastError(0);
+	}
+	synchronized int pushMotionProfileTrajectories(double[] position, double[] velocity, double[] headingDeg,
+			int[] profileSlotSelect0, int[] profileSlotSelect1, boolean[] isLastPoint, boolean[] zeroPos,
+			int[] durationMs, int offset, int count) {
+		for (int i = 0; i < count; ++i) {
+			int idx = offset + i;
+			if (pushMotionProfileTrajectory(position[idx], velocity[idx], headingDeg[idx], profileSlotSelect0[idx],
+					profileSlotSelect1[idx], isLastPoint[idx], zeroPos[idx], durationMs[idx]) != 0)
+				return i;
+		}
+		return count;
+	}
+	synchronized int clearMotionProfileTrajectories() {
+		integrate();
+		_top.clear();
+		_btm.clear();
+		_apValid = false;
+		_apLast = false;
+		return setLastError(0);
+	}
+	synchronized int getMotionProfileTopLevelBufferCount() {
+		return _top.count();
+	}
+	synchronized boolean isMotionProfileTopLevelBufferFull() {
+		return _top.remaining() == 0;
+	}
+	/**
+	 * Streams points from the top buffer to the device, one per motion control
+	 * frame period elapsed since the last transfer.
+	 */
+	synchronized int processMotionProfileBuffer() {
+		long now = _bus.getTimeNs();
+		integrate(now);
+		long periodNs = _mpFramePeriodMs * 1000000L;
+		if (_mpXferNs == Long.MIN_VALUE || now - _mpXferNs > kBottomBufferCapacity * periodNs)
+			_mpXferNs = now - periodNs;
+		long frames = (now - _mpXferNs) / periodNs;
+		long moved = 0;
+		while (moved < frames && _present && _top.moveTo(_btm))
+			++moved;
+		if (moved == frames)
+			_mpXferNs += frames * periodNs;
+		else
+			_mpXferNs = now;
+		return setLastError(rxError());
+	}
+	synchronized int getMotionProfileStatus(int[] toFill) {
+		sample9(_bus.getTimeNs());
+		_p9MotProf[0] = _top.remaining();
+		_p9MotProf[1] = _top.count();
+		int n = Math.min(toFill.length, _p9MotProf.length);
+		System.arraycopy(_p9MotProf, 0, toFill, 0, n);
+		return setLastError(rxError());
+	}
+	int clearMotionProfileHasUnderrun(int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_hasUnderrun = false;
+		}
+		return transaction(timeoutMs);
+	}
+
+	// ------ model ----------//
+	private double sensorScale(int pidIdx) {
+		double coef = param(ParamEnum.eSelectedSensorCoefficient, pidIdx);
+		if (pidIdx == 0 && _sensorPhase)
+			coef = -coef;
+		return coef;
+	}
+	private double selectedPosition(int pidIdx) {
+		return (pidIdx == 0 ? _position : _auxPosition) * sensorScale(pidIdx);
+	}
+	private double selectedVelocity(int pidIdx) {
+		return (pidIdx == 0 ? _velocity : _auxVelocity) * sensorScale(pidIdx);
+	}
+
+	private void integrate() {
+		integrate(_bus.getTimeNs());
+	}
+	private void integrate(long now) {
+		while (now - _modelNs >= kStepNs) {
+			_modelNs += kStepNs;
+			step(kStepNs / 1e9);
+		}
+	}
+
+	private double closedLoop(int pidIdx, double target, double targetVel, double dt) {
+		int slot = _slot[pidIdx];
+		double measured = selectedPosition(pidIdx);
+		if (_mode == kVelocity) {
+			measured = selectedVelocity(pidIdx);
+			targetVel = target;
+		}
+		double err = target - measured;
+		if (Math.abs(err) <= param(ParamEnum.eProfileParamSlot_AllowableErr, slot)) {
+			err = 0;
+			_iaccum[pidIdx] = 0;
+		}
+		double izone = param(ParamEnum.eProfileParamSlot_IZone, slot);
+		if (izone == 0 || Math.abs(err) < izone)
+			_iaccum[pidIdx] += err;
+		else
+			_iaccum[pidIdx] = 0;
+		double maxIAccum = param(ParamEnum.eProfileParamSlot_MaxIAccum, slot);
+		if (maxIAccum > 0)
+			_iaccum[pidIdx] = Math.max(-maxIAccum, Math.min(maxIAccum, _iaccum[pidIdx]));
+		_derr[pidIdx] = err - _lastErr[pidIdx];
+		_lastErr[pidIdx] = err;
+		_err[pidIdx] = err;
+		_target[pidIdx] = target;
+		double out = param(ParamEnum.eProfileParamSlot_P, slot) * err
+				+ param(ParamEnum.eProfileParamSlot_I, slot) * _iaccum[pidIdx]
+				+ param(ParamEnum.eProfileParamSlot_D, slot) * _derr[pidIdx]
+				+ param(ParamEnum.eProfileParamSlot_F, slot) * targetVel;
+		out /= 1023.0;
+		double peak = param(ParamEnum.eProfileParamSlot_PeakOutput, slot);
+		return Math.max(-peak, Math.min(peak, out));
+	}
+
+	private void stepMotionMagic(double dt) {
+		double cruise = Math.abs(param(ParamEnum.eMotMag_VelCruise, 0));
+		double accel = Math.abs(param(ParamEnum.eMotMag_Accel, 0));
+		double remaining = _demand0 - _mmPos;
+		if (cruise == 0 || accel == 0) {
+			_mmVel = 0;
+			return;
+		}
+		/* positions are per 100ms, so scale time accordingly */
+		double dt100 = dt * 10;
+		double stopDist = _mmVel * _mmVel / (2 * accel * 10);
+		double dir = Math.signum(remaining);
+		double desired;
+		if (Math.abs(remaining) <= stopDist && Math.signum(_mmVel) == dir)
+			desired = 0;
+		else
+			desired = dir * cruise;
+		double dv = accel * dt;
+		if (_mmVel < desired)
+			_mmVel = Math.min(desired, _mmVel + dv);
+		else
+			_mmVel = Math.max(desired, _mmVel - dv);
+		_mmPos += _mmVel * dt100;
+		if (Math.signum(_demand0 - _mmPos) != dir && dir != 0) {
+			_mmPos = _demand0;
+			_mmVel = 0;
+		}
+	}
+
+	private void stepMotionProfile() {
+		if ((int) _demand0 != 1)
+			return;
+		long durNs = (_apDurMs + (long) param(ParamEnum.eMotionProfileTrajectoryPointDurationMs, 0)) * 1000000L;
+		if (_apValid && (_apLast || _modelNs - _apStartNs < durNs))
+			return;
+		if (_btm.count() == 0) {
+			if (!(_apValid && _apLast)) {
+				_isUnderrun = true;
+				_hasUnderrun = true;
+			}
+			return;
+		}
+		int i = _btm.peek();
+		_apPos = _btm.position[i];
+		_apVel = _btm.velocity[i];
+		_apHdg = _btm.heading[i];
+		_apSlot0 = _btm.slot0[i];
+		_apSlot1 = _btm.slot1[i];
+		_apLast = _btm.isLast[i];
+		_apDurMs = _btm.durationMs[i];
+		if (_btm.zeroPos[i])
+			_position = 0;
+		_btm.pop();
+		_apValid = true;
+		_apStartNs = _modelNs;
+		_isUnderrun = false;
+		_slot[0] = _apSlot0 & 3;
+		_slot[1] = _apSlot1 & 3;
+	}
+
+	private double demandOutput(double dt) {
+		double out;
+		switch (_mode) {
+		case kPercentOutput:
+			out = _demand0;
+			break;
+		case kPosition:
+			out = closedLoop(0, _demand0, 0, dt);
+			break;
+		case kVelocity:
+			out = closedLoop(0, _demand0, _demand0, dt);
+			break;
+		case kMotionMagic:
+			stepMotionMagic(dt);
+			out = closedLoop(0, _mmPos, _mmVel, dt);
+			break;
+		case kMotionProfile:
+		case kMotionProfileArc:
+			stepMotionProfile();
+			if ((int) _demand0 == 0 || !_apValid)
+				out = 0;
+			else
+				out = closedLoop(0, _apPos, (int) _demand0 == 2 ? 0 : _apVel, dt);
+			break;
+		case kCurrent: {
+			double amps = _demand0 / 1000.0;
+			double backEmf = _velocity * _sensorDirection / _freeSpeed;
+			out = amps / _stallCurrent + backEmf;
+			break;
+		}
+		case kFollower: {
+			int work = (int) _demand0;
+			SimMotController leader = _bus.findMotController(((work >> 8) << 16) | (work & 0xFF));
+			return leader == null ? 0 : leader._output;
+		}
+		default:
+			return 0;
+		}
+		if (_demand1Type == kArbitraryFeedForward)
+			out += _demand1;
+		return out;
+	}
+
+	private void step(double dt) {
+		double out = demandOutput(dt);
+		boolean closedLoop = _mode != kPercentOutput && _mode != kCurrent && _mode != kFollower;
+
+		/* output shaping */
+		if (_mode != kFollower) {
+			if (Math.abs(out) < param(ParamEnum.eNeutralDeadband, 0))
+				out = 0;
+			if (closedLoop && out > 0)
+				out = Math.max(out, param(ParamEnum.eNominalPosOutput, 0));
+			if (closedLoop && out < 0)
+				out = Math.min(out, param(ParamEnum.eNominalNegOutput, 0));
+			out = Math.min(out, param(ParamEnum.ePeakPosOutput, 0));
+			out = Math.max(out, param(ParamEnum.ePeakNegOutput, 0));
+			double ramp = param(closedLoop ? ParamEnum.eClosedloopRamp : ParamEnum.eOpenloopRamp, 0);
+			if (ramp > 0) {
+				double maxDelta = dt / ramp;
+				out = Math.max(_output - maxDelta, Math.min(_output + maxDelta, out));
+			}
+		}
+
+		/* limits */
+		int faults = 0;
+		double pos = selectedPosition(0);
+		if (_softLimitsEnabled && param(ParamEnum.eForwardSoftLimitEnable, 0) != 0
+				&& pos > param(ParamEnum.eForwardSoftLimitThreshold, 0)) {
+			faults |= 1 << 3;
+			if (out > 0)
+				out = 0;
+		}
+		if (_softLimitsEnabled && param(ParamEnum.eReverseSoftLimitEnable, 0) != 0
+				&& pos < param(ParamEnum.eReverseSoftLimitThreshold, 0)) {
+			faults |= 1 << 4;
+			if (out < 0)
+				out = 0;
+		}
+		/* LimitSwitchNormal.Disabled (2) leaves the switch unused */
+		boolean fwdLimitUsed = param(ParamEnum.eLimitSwitchNormClosedAndDis, 0) != 2;
+		boolean revLimitUsed = param(ParamEnum.eLimitSwitchNormClosedAndDis, 1) != 2;
+		if (_fwdLimitClosed && fwdLimitUsed) {
+			faults |= 1 << 1;
+			if (_limitSwitchesEnabled && out > 0)
+				out = 0;
+		}
+		if (_revLimitClosed && revLimitUsed) {
+			faults |= 1 << 2;
+			if (_limitSwitchesEnabled && out < 0)
+				out = 0;
+		}
+		if (_busVoltage < 6.5)
+			faults |= 1;
+
+		/* voltage compensation */
+		double applied = out;
+		double sat = param(ParamEnum.eNominalBatteryVoltage, 0);
+		if (_voltageCompEnabled && sat > 0 && _busVoltage > 0)
+			applied = out * sat / _busVoltage;
+		applied = Math.max(-1, Math.min(1, applied));
+
+		/* first-order mechanism, velocity in sensor units per 100ms */
+		double drive = applied * _busVoltage / 12.0;
+		double targetVel = drive * _freeSpeed * _sensorDirection;
+		double alpha = _timeConstantMs <= 0 ? 1 : Math.min(1, dt * 1000 / _timeConstantMs);
+		_velocity += (targetVel - _velocity) * alpha;
+		_position += _velocity * dt * 10;
+
+		double current = Math.abs(drive - _velocity * _sensorDirection / _freeSpeed) * _stallCurrent;
+		if (_currentLimitEnabled) {
+			double limit = param(ParamEnum.eContinuousCurrentLimitAmps, 0);
+			if (limit > 0)
+				current = Math.min(current, limit);
+		}
+		_current = current;
+		_output = applied;
+		_faults = faults;
+		_stickyFaults |= faults;
+	}
+}
@@ -0,0 +1,543 @@
+package com.ctre.phoenix.sim;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ParamEnum;
+import com.ctre.phoenix.motorcontrol.can.IMotControllerBackend;
+
+/**
+ * Motor controller backend that routes each handle to a SimMotController on
+ * a SimCANBus. Config routines are stored as persistent parameters, so
+ * configGetParameter() reads back what was written.
+ */
+public class SimMotControllerBackend implements IMotControllerBackend {
+
+	private final SimCANBus _bus;
+
+	SimMotControllerBackend(SimCANBus bus) {
+		_bus = bus;
+	}
+
+	private SimMotController dev(long handle) {
+		return _bus.motController(handle);
+	}
+	private int set(long handle, ParamEnum param, int ordinal, double value, int timeoutMs) {
+		return dev(handle).configSet(param, ordinal, value, timeoutMs);
+	}
+	private static double bool(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	public long Create(int baseArbId) {
+		return _bus.addMotController(baseArbId);
+	}
+
+	public int GetDeviceNumber(long handle) {
+		return dev(handle).getDeviceNumber();
+	}
+
+	// ------ demand ----------//
+	public void SetDemand(long handle, int mode, int demand0, int demand1) {
+		dev(handle).setDemand(mode, demand0, demand1, 0);
+	}
+
+	public void Set_4(long handle, int mode, double demand0, double demand1, int demand1Type) {
+		dev(handle).setDemand(mode, demand0, demand1, demand1Type);
+	}
+
+	public void SetNeutralMode(long handle, int neutralMode) {
+		dev(handle).setNeutralMode(neutralMode);
+	}
+
+	public void SetSensorPhase(long handle, boolean PhaseSensor) {
+		dev(handle).setSensorPhase(PhaseSensor);
+	}
+
+	public void SetInverted(long handle, boolean invert) {
+		dev(handle).setInverted(invert);
+	}
+
+	public int SelectDemandType(long handle, int enable) {
+		return ErrorCode.OK.value;
+	}
+
+	public int SetMPEOutput(long handle, int mpeOutput) {
+		dev(handle).setMPEOutput(mpeOutput);
+		return ErrorCode.OK.value;
+	}
+
+	public int EnableHeadingHold(long handle, int enable) {
+		return ErrorCode.OK.value;
+	}
+
+	// ------ output config ----------//
+	public int ConfigFactoryDefault(long handle, int timeoutMs) {
+		return dev(handle).configFactoryDefault(timeoutMs);
+	}
+
+	public int ConfigOpenLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs) {
+		return set(handle, ParamEnum.eOpenloopRamp, 0, secondsFromNeutralToFull, timeoutMs);
+	}
+
+	public int ConfigClosedLoopRamp(long handle, double secondsFromNeutralToFull, int timeoutMs) {
+		return set(handle, ParamEnum.eClosedloopRamp, 0, secondsFromNeutralToFull, timeoutMs);
+	}
+
+	public int ConfigPeakOutputForward(long handle, double percentOut, int timeoutMs) {
+		return set(handle, ParamEnum.ePeakPosOutput, 0, percentOut, timeoutMs);
+	}
+
+	public int ConfigPeakOutputReverse(long handle, double percentOut, int timeoutMs) {
+		return set(handle, ParamEnum.ePeakNegOutput, 0, percentOut, timeoutMs);
+	}
+
+	public int ConfigNominalOutputForward(long handle, double percentOut, int timeoutMs) {
+		return set(handle, ParamEnum.eNominalPosOutput, 0, percentOut, timeoutMs);
+	}
+
+	public int ConfigNominalOutputReverse(long handle, double percentOut, int timeoutMs) {
+		return set(handle, ParamEnum.eNominalNegOutput, 0, percentOut, timeoutMs);
+	}
+
+	public int ConfigNeutralDeadband(long handle, double percentDeadband, int timeoutMs) {
+		return set(handle, ParamEnum.eNeutralDeadband, 0, percentDeadband, timeoutMs);
+	}
+
+	public int ConfigVoltageCompSaturation(long handle, double voltage, int timeoutMs) {
+		return set(handle, ParamEnum.eNominalBatteryVoltage, 0, voltage, timeoutMs);
+	}
+
+	public int ConfigVoltageMeasurementFilter(long handle, int filterWindowSamples, int timeoutMs) {
+		return set(handle, ParamEnum.eBatteryVoltageFilterSize, 0, filterWindowSamples, timeoutMs);
+	}
+
+	public void EnableVoltageCompensation(long handle, boolean enable) {
+		dev(handle).enableVoltageCompensation(enable);
+	}
+
+	// ------ status ----------//
+	public double GetBusVoltage(long handle) {
+		return dev(handle).getBusVoltage();
+	}
+
+	public double GetMotorOutputPercent(long handle) {
+		return dev(handle).getMotorOutputPercent();
+	}
+
+	public double GetOutputCurrent(long handle) {
+		return dev(handle).getOutputCurrent();
+	}
+
+	public double GetTemperature(long handle) {
+		return dev(handle).getTemperature();
+	}
+
+	// ------ sensor selection ----------//
+	public int ConfigRemoteFeedbackFilter(long handle, int deviceID, int remoteSensorSource,
+			int remoteOrdinal, int timeoutMs) {
+		SimMotController dev = dev(handle);
+		dev.configSet(ParamEnum.eRemoteSensorDeviceID, remoteOrdinal, deviceID, 0);
+		return dev.configSet(ParamEnum.eRemoteSensorSource, remoteOrdinal, remoteSensorSource, timeoutMs);
+	}
+
+	public int ConfigSelectedFeedbackSensor(long handle, int feedbackDevice, int pidIdx, int timeoutMs) {
+		return set(handle, ParamEnum.eFeedbackSensorType, pidIdx, feedbackDevice, timeoutMs);
+	}
+
+	public int ConfigSensorTerm(long handle, int sensorTerm, int feedbackDevice, int timeoutMs) {
+		return set(handle, ParamEnum.eSensorTerm, sensorTerm, feedbackDevice, timeoutMs);
+	}
+
+	public int GetSelectedSensorPosition(long handle, int pidIdx) {
+		return dev(handle).getSelectedSensorPosition(pidIdx);
+	}
+
+	public int GetSelectedSensorVelocity(long handle, int pidIdx) {
+		return dev(handle).getSelectedSensorVelocity(pidIdx);
+	}
+
+	public int SetSelectedSensorPosition(long handle, int sensorPos, int pidIdx, int timeoutMs) {
+		return dev(handle).setSelectedSensorPosition(sensorPos, pidIdx, timeoutMs);
+	}
+
+	public int ConfigSelectedFeedbackCoefficient(long handle, double coefficient, int pidIdx, int timeoutMs) {
+		return set(handle, ParamEnum.eSelectedSensorCoefficient, pidIdx, coefficient, timeoutMs);
+	}
+
+	// ------ frame periods ----------//
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return dev(handle).setControlFramePeriod(frame, periodMs);
+	}
+
+	public int SetStatusFramePeriod(long handle, int frame, int periodMs, int timeoutMs) {
+		return dev(handle).setStatusFramePeriod(frame, periodMs, timeoutMs);
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return dev(handle).getStatusFramePeriod(frame, timeoutMs);
+	}
+
+	public int ConfigVelocityMeasurementPeriod(long handle, int period, int timeoutMs) {
+		return set(handle, ParamEnum.eSampleVelocityPeriod, 0, period, timeoutMs);
+	}
+
+	public int ConfigVelocityMeasurementWindow(long handle, int windowSize, int timeoutMs) {
+		return set(handle, ParamEnum.eSampleVelocityWindow, 0, windowSize, timeoutMs);
+	}
+
+	// ------ limits ----------//
+	private int configLimitSwitchSource(long handle, int ordinal, int type, int normalOpenOrClose, int deviceID,
+			int timeoutMs) {
+		SimMotController dev = dev(handle);
+		dev.configSet(ParamEnum.eLimitSwitchSource, ordinal, type, 0);
+		dev.configSet(ParamEnum.eLimitSwitchRemoteDevID, ordinal, deviceID, 0);
+		return dev.configSet(ParamEnum.eLimitSwitchNormClosedAndDis, ordinal, normalOpenOrClose, timeoutMs);
+	}
+
+	public int ConfigForwardLimitSwitchSource(long handle, int type, int normalOpenOrClose, int deviceID,
+			int timeoutMs) {
+		return configLimitSwitchSource(handle, 0, type, normalOpenOrClose, deviceID, timeoutMs);
+	}
+
+	public int ConfigReverseLimitSwitchSource(long handle, int type, int normalOpenOrClose, int deviceID,
+			int timeoutMs) {
+		return configLimitSwitchSource(handle, 1, type, normalOpenOrClose, deviceID, timeoutMs);
+	}
+
+	public void OverrideLimitSwitchesEnable(long handle, boolean enable) {
+		dev(handle).overrideLimitSwitchesEnable(enable);
+	}
+
+	public int ConfigForwardSoftLimitThreshold(long handle, int forwardSensorLimit, int timeoutMs) {
+		return set(handle, ParamEnum.eForwardSoftLimitThreshold, 0, forwardSensorLimit, timeoutMs);
+	}
+
+	public int ConfigReverseSoftLimitThreshold(long handle, int reverseSensorLimit, int timeoutMs) {
+		return set(handle, ParamEnum.eReverseSoftLimitThreshold, 0, reverseSensorLimit, timeoutMs);
+	}
+
+	public int ConfigForwardSoftLimitEnable(long handle, boolean enable, int timeoutMs) {
+		return set(handle, ParamEnum.eForwardSoftLimitEnable, 0, bool(enable), timeoutMs);
+	}
+
+	public int ConfigReverseSoftLimitEnable(long handle, boolean enable, int timeoutMs) {
+		return set(handle, ParamEnum.eReverseSoftLimitEnable, 0, bool(enable), timeoutMs);
+	}
+
+	public void OverrideSoftLimitsEnable(long handle, boolean enable) {
+		dev(handle).overrideSoftLimitsEnable(enable);
+	}
+
+	// ------ closed loop ----------//
+	public int Config_kP(long handle, int slotIdx, double value, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_P, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_kI(long handle, int slotIdx, double value, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_I, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_kD(long handle, int slotIdx, double value, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_D, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_kF(long handle, int slotIdx, double value, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_F, slotIdx, value, timeoutMs);
+	}
+
+	public int Config_IntegralZone(long handle, int slotIdx, double izone, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_IZone, slotIdx, izone, timeoutMs);
+	}
+
+	public int ConfigAllowableClosedloopError(long handle, int slotIdx, int allowableClosedLoopError, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_AllowableErr, slotIdx, allowableClosedLoopError, timeoutMs);
+	}
+
+	public int ConfigMaxIntegralAccumulator(long handle, int slotIdx, double iaccum, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_MaxIAccum, slotIdx, iaccum, timeoutMs);
+	}
+
+	public int ConfigClosedLoopPeakOutput(long handle, int slotIdx, double percentOut, int timeoutMs) {
+		return set(handle, ParamEnum.eProfileParamSlot_PeakOutput, slotIdx, percentOut, timeoutMs);
+	}
+
+	public int ConfigClosedLoopPeriod(long handle, int slotIdx, int loopTimeMs, int timeoutMs) {
+		return set(handle, ParamEnum.ePIDLoopPeriod, slotIdx, loopTimeMs, timeoutMs);
+	}
+
+	public int SetIntegralAccumulator(long handle, double iaccum, int pidIdx, int timeoutMs) {
+		return dev(handle).setIntegralAccumulator(iaccum, pidIdx, timeoutMs);
+	}
+
+	public int GetClosedLoopError(long handle, int pidIdx) {
+		return dev(handle).getClosedLoopError(pidIdx);
+	}
+
+	public double GetIntegralAccumulator(long handle, int pidIdx) {
+		return dev(handle).getIntegralAccumulator(pidIdx);
+	}
+
+	public double GetErrorDerivative(long handle, int pidIdx) {
+		return dev(handle).getErrorDerivative(pidIdx);
+	}
+
+	public int GetClosedLoopTarget(long handle, int pidIdx) {
+		return dev(handle).getClosedLoopTarget(pidIdx);
+	}
+
+	public void SelectProfileSlot(long handle, int slotIdx, int pidIdx) {
+		dev(handle).selectProfileSlot(slotIdx, pidIdx);
+	}
+
+	// ------ motion profile ----------//
+	public int GetActiveTrajectoryPosition(long handle) {
+		return dev(handle).getActiveTrajectoryPosition();
+	}
+
+	public int GetActiveTrajectoryVelocity(long handle) {
+		return dev(handle).getActiveTrajectoryVelocity();
+	}
+
+	public double GetActiveTrajectoryHeading(long handle) {
+		return dev(handle).getActiveTrajectoryHeading();
+	}
+
+	public int ConfigMotionCruiseVelocity(long handle, int sensorUnitsPer100ms, int timeoutMs) {
+		return set(handle, ParamEnum.eMotMag_VelCruise, 0, sensorUnitsPer100ms, timeoutMs);
+	}
+
+	public int ConfigMotionAcceleration(long handle, int sensorUnitsPer100msPerSec, int timeoutMs) {
+		return set(handle, ParamEnum.eMotMag_Accel, 0, sensorUnitsPer100msPerSec, timeoutMs);
+	}
+
+	public int ClearMotionProfileTrajectories(long handle) {
+		return dev(handle).clearMotionProfileTrajectories();
+	}
+
+	public int GetMotionProfileTopLevelBufferCount(long handle) {
+		return dev(handle).getMotionProfileTopLevelBufferCount();
+	}
+
+	public int PushMotionProfileTrajectory(long handle, double position, double velocity, double headingDeg,
+			int profileSlotSelect, boolean isLastPoint, boolean zeroPos) {
+		return dev(handle).pushMotionProfileTrajectory(position, velocity, headingDeg, profileSlotSelect, 0,
+				isLastPoint, zeroPos, 0);
+	}
+
+	public int PushMotionProfileTrajectory2(long handle, double position, double velocity, double headingDeg,
+			int profileSlotSelect0, int profileSlotSelect1, boolean isLastPoint, boolean zeroPos, int durationMs) {
+		return dev(handle).pushMotionProfileTrajectory(position, velocity, headingDeg, profileSlotSelect0,
+				profileSlotSelect1, isLastPoint, zeroPos, durationMs);
+	}
+
+	public int PushMotionProfileTrajectories(long handle, double[] position, double[] velocity, double[] headingDeg,
+			int[] profileSlotSelect0, int[] profileSlotSelect1, boolean[] isLastPoint, boolean[] zeroPos,
+			int[] durationMs, int offset, int count) {
+		return dev(handle).pushMotionProfileTrajectories(position, velocity, headingDeg, profileSlotSelect0,
+				profileSlotSelect1, isLastPoint, zeroPos, durationMs, offset, count);
+	}
+
+	public boolean IsMotionProfileTopLevelBufferFull(long handle) {
+		return dev(handle).isMotionProfileTopLevelBufferFull();
+	}
+
+	public int ProcessMotionProfileBuffer(long handle) {
+		return dev(handle).processMotionProfileBuffer();
+	}
+
+	public int GetMotionProfileStatus(long handle, int[] toFill_9) {
+		return dev(handle).getMotionProfileStatus(toFill_9);
+	}
+
+	public int GetMotionProfileStatus2(long handle, int[] toFill_11) {
+		return dev(handle).getMotionProfileStatus(toFill_11);
+	}
+
+	public int ClearMotionProfileHasUnderrun(long handle, int timeoutMs) {
+		return dev(handle).clearMotionProfileHasUnderrun(timeoutMs);
+	}
+
+	public int ChangeMotionControlFramePeriod(long handle, int periodMs) {
+		return dev(handle).changeMotionControlFramePeriod(periodMs);
+	}
+
+	public int ConfigMotionProfileTrajectoryPeriod(long handle, int periodMs, int timeoutMs) {
+		return set(handle, ParamEnum.eMotionProfileTrajectoryPointDurationMs, 0, periodMs, timeoutMs);
+	}
+
+	// ------ misc config ----------//
+	public int ConfigFeedbackNotContinuous(long handle, boolean feedbackNotContinuous, int timeoutMs) {
+		return set(handle, ParamEnum.eFeedbackNotContinuous, 0, bool(feedbackNotContinuous), timeoutMs);
+	}
+
+	public int ConfigRemoteSensorClosedLoopDisableNeutralOnLOS(long handle,
+			boolean remoteSensorClosedLoopDisableNeutralOnLOS, int timeoutMs) {
+		return set(handle, ParamEnum.eRemoteSensorClosedLoopDisableNeutralOnLOS, 0,
+				bool(remoteSensorClosedLoopDisableNeutralOnLOS), timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitF(long handle, boolean clearPositionOnLimitF, int timeoutMs) {
+		return set(handle, ParamEnum.eClearPositionOnLimitF, 0, bool(clearPositionOnLimitF), timeoutMs);
+	}
+
+	public int ConfigClearPositionOnLimitR(long handle, boolean clearPositionOnLimitR, int timeoutMs) {
+		return set(handle, ParamEnum.eClearPositionOnLimitR, 0, bool(clearPositionOnLimitR), timeoutMs);
+	}
+
+	public int ConfigClearPositionOnQuadIdx(long handle, boolean clearPositionOnQuadIdx, int timeoutMs) {
+		return set(handle, ParamEnum.eClearPositionOnQuadIdx, 0, bool(clearPositionOnQuadIdx), timeoutMs);
+	}
+
+	public int ConfigLimitSwitchDisableNeutralOnLOS(long handle, boolean limitSwitchDisableNeutralOnLOS, int timeoutMs) {
+		return set(handle, ParamEnum.eLimitSwitchDisableNeutralOnLOS, 0, bool(limitSwitchDisableNeutralOnLOS),
+				timeoutMs);
+	}
+
+	public int ConfigSoftLimitDisableNeutralOnLOS(long handle, boolean softLimitDisableNeutralOnLOS, int timeoutMs) {
+		return set(handle, ParamEnum.eSoftLimitDisableNeutralOnLOS, 0, bool(softLimitDisableNeutralOnLOS), timeoutMs);
+	}
+
+	public int ConfigPulseWidthPeriod_EdgesPerRot(long handle, int pulseWidthPeriod_EdgesPerRot, int timeoutMs) {
+		return set(handle, ParamEnum.ePulseWidthPeriod_EdgesPerRot, 0, pulseWidthPeriod_EdgesPerRot, timeoutMs);
+	}
+
+	public int ConfigPulseWidthPeriod_FilterWindowSz(long handle, int pulseWidthPeriod_FilterWindowSz, int timeoutMs) {
+		return set(handle, ParamEnum.ePulseWidthPeriod_FilterWindowSz, 0, pulseWidthPeriod_FilterWindowSz,
+				timeoutMs);
+	}
+
+	public int ConfigPeakCurrentLimit(long handle, int amps, int timeoutMs) {
+		return set(handle, ParamEnum.ePeakCurrentLimitAmps, 0, amps, timeoutMs);
+	}
+
+	public int ConfigPeakCurrentDuration(long handle, int milliseconds, int timeoutMs) {
+		return set(handle, ParamEnum.ePeakCurrentLimitMs, 0, milliseconds, timeoutMs);
+	}
+
+	public int ConfigContinuousCurrentLimit(long handle, int amps, int timeoutMs) {
+		return set(handle, ParamEnum.eContinuousCurrentLimitAmps, 0, amps, timeoutMs);
+	}
+
+	public int EnableCurrentLimit(long handle, boolean enable) {
+		dev(handle).enableCurrentLimit(enable);
+		return ErrorCode.OK.value;
+	}
+
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return set(handle, ParamEnum.eCustomParam, paramIndex, newValue, timeoutMs);
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return (int) dev(handle).configGet(ParamEnum.eCustomParam.value, paramIndex, timoutMs);
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal, int timeoutMs) {
+		return dev(handle).configSet(param, ordinal, value, timeoutMs);
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return dev(handle).configGet(param, ordinal, timeoutMs);
+	}
+
+	// ------ device ----------//
+	public int GetLastError(long handle) {
+		return dev(handle).getLastError();
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return dev(handle).getFirmwareVersion();
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return dev(handle).hasResetOccurred();
+	}
+
+	public int GetFaults(long handle) {
+		return dev(handle).getFaults();
+	}
+
+	public int GetStickyFaults(long handle) {
+		return dev(handle).getStickyFaults();
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return dev(handle).clearStickyFaults(timeoutMs);
+	}
+
+	// ------ sensor collection ----------//
+	public int GetAnalogIn(long handle) {
+		return dev(handle).getAnalogIn();
+	}
+
+	public int SetAnalogPosition(long handle, int newPosition, int timeoutMs) {
+		return dev(handle).setAnalogPosition(newPosition, timeoutMs);
+	}
+
+	public int GetAnalogInRaw(long handle) {
+		return dev(handle).getAnalogInRaw();
+	}
+
+	public int GetAnalogInVel(long handle) {
+		dev(handle).getAnalogIn();
+		return 0;
+	}
+
+	public int GetQuadraturePosition(long handle) {
+		return dev(handle).getQuadraturePosition();
+	}
+
+	public int SetQuadraturePosition(long handle, int newPosition, int timeoutMs) {
+		return dev(handle).setQuadraturePosition(newPosition, timeoutMs);
+	}
+
+	public int GetQuadratureVelocity(long handle) {
+		return dev(handle).getQuadratureVelocity();
+	}
+
+	public int GetPulseWidthPosition(long handle) {
+		return dev(handle).getPulseWidthPosition();
+	}
+
+	public int SetPulseWidthPosition(long handle, int newPosition, int timeoutMs) {
+		return dev(handle).setQuadraturePosition(newPosition, timeoutMs);
+	}
+
+	public int GetPulseWidthVelocity(long handle) {
+		return dev(handle).getPulseWidthVelocity();
+	}
+
+	public int GetPulseWidthRiseToFallUs(long handle) {
+		return dev(handle).getPulseWidthRiseToFallUs();
+	}
+
+	public int GetPulseWidthRiseToRiseUs(long handle) {
+		return dev(handle).getPulseWidthRiseToRiseUs();
+	}
+
+	public int GetPinStateQuadA(long handle) {
+		return dev(handle).getPinState(0);
+	}
+
+	public int GetPinStateQuadB(long handle) {
+		return dev(handle).getPinState(1);
+	}
+
+	public int GetPinStateQuadIdx(long handle) {
+		return dev(handle).getPinState(2);
+	}
+
+	public int IsFwdLimitSwitchClosed(long handle) {
+		return dev(handle).isFwdLimitSwitchClosed();
+	}
+
+	public int IsRevLimitSwitchClosed(long handle) {
+		return dev(handle).isRevLimitSwitchClosed();
+	}
+
+	public int GetStatusSnapshot(long handle, int pidIdx, double[] block, int offset) {
+		return dev(handle).getStatusSnapshot(pidIdx, block, offset);
+	}
+
+	public long GetReceiveTimeNs(long handle, long sinceNs) {
+		return dev(handle).getReceiveTimeNs(sinceNs);
+	}
+}
@@ -0,0 +1,282 @@
+package com.ctre.phoenix.sim;
+
+import com.ctre.phoenix.ParamEnum;
+
+/**
+ * Simulated Pigeon IMU.
+ *
+ * Yaw integrates a settable yaw rate, pitch and roll are set directly. The
+ * quaternion, gyro rates and accelerometer are derived from that attitude.
+ * Signals are published per status frame like the motor controllers.
+ */
+public class SimPigeonImu extends SimDevice {
+
+	private static final double kGravity = 16384; /* accelerometer counts per g */
+
+	private final boolean _onTalon;
+
+	private final SimFrame _general = addFrame(0x042000, 100);
+	private final SimFrame _ypr = addFrame(0x042200, 10);
+	private final SimFrame _fusion = addFrame(0x042140, 10);
+	private final SimFrame _gyroAccum = addFrame(0x042280, 20);
+	private final SimFrame _compass = addFrame(0x042040, 100);
+	private final SimFrame _accel = addFrame(0x042080, 100);
+	private final SimFrame _quat = addFrame(0x042240, 10);
+	private final SimFrame _mag = addFrame(0x041CC0, 20);
+	private final SimFrame _gyro = addFrame(0x041C40, 20);
+	private final SimFrame _biasedAccel = addFrame(0x41D40, 20);
+
+	// ------ model ----------//
+	private long _modelNs;
+	private double _yaw = 0;
+	private double _fusedHeading = 0;
+	private double _accumZ = 0;
+	private double _yawRate = 0;
+	private double _pitch = 0;
+	private double _roll = 0;
+	private double _compassHeading = 0;
+	private double _temperature = 25;
+	private int _state = 2; /* PigeonState.Ready */
+	private int _calMode = 0;
+
+	// ------ published signals ----------//
+	private final double[] _pGeneral = new double[8];
+	private final double[] _pYpr = new double[3];
+	private final double[] _pFusion = new double[3];
+	private final double[] _pAccum = new double[3];
+	private final double[] _pQuat = new double[4];
+	private final double[] _pGyro = new double[3];
+	private final double[] _pTilt = new double[3];
+	private final short[] _pAccel = new short[3];
+	private double _pCompass;
+
+	SimPigeonImu(SimCANBus bus, int deviceNumber, boolean onTalon) {
+		super(bus, deviceNumber);
+		_onTalon = onTalon;
+		_modelNs = bus.getTimeNs();
+	}
+
+	public boolean isOnTalon() {
+		return _onTalon;
+	}
+
+	// ------ simulation interface ----------//
+	/**
+	 * @param degPerSec
+	 *            Rotation rate about Z, positive is counter-clockwise.
+	 */
+	public synchronized void setYawRate(double degPerSec) {
+		integrate();
+		_yawRate = degPerSec;
+	}
+	/**
+	 * Sets the attitude directly, for replaying recorded values. The yaw rate
+	 * keeps integrating from there, set it to zero to hold the yaw.
+	 */
+	public synchronized void setYawPitchRoll(double yawDeg, double pitchDeg, double rollDeg) {
+		integrate();
+		double delta = yawDeg - _yaw;
+		_yaw = yawDeg;
+		_fusedHeading += delta;
+		_accumZ += delta;
+		_pitch = pitchDeg;
+		_roll = rollDeg;
+	}
+	public synchronized void setPitchRoll(double pitchDeg, double rollDeg) {
+		_pitch = pitchDeg;
+		_roll = rollDeg;
+	}
+	public synchronized void setCompassHeading(double angleDeg) {
+		_compassHeading = angleDeg;
+	}
+	public synchronized void setTemperature(double degC) {
+		_temperature = degC;
+	}
+	/**
+	 * @param state
+	 *            PigeonState value, Ready (2) by default.
+	 */
+	public synchronized void setState(int state) {
+		_state = state;
+	}
+	/**
+	 * @return Yaw right now, not delayed by status frames.
+	 */
+	public synchronized double getYaw() {
+		integrate();
+		return _yaw;
+	}
+
+	// ------ model ----------//
+	private void integrate() {
+		long now = _bus.getTimeNs();
+		double delta = _yawRate * (now - _modelNs) / 1e9;
+		_modelNs = now;
+		_yaw += delta;
+		_fusedHeading += delta;
+		_accumZ += delta;
+	}
+
+	private void quaternion(double[] wxyz) {
+		double cy = Math.cos(Math.toRadians(_yaw) / 2), sy = Math.sin(Math.toRadians(_yaw) / 2);
+		double cp = Math.cos(Math.toRadians(_pitch) / 2), sp = Math.sin(Math.toRadians(_pitch) / 2);
+		double cr = Math.cos(Math.toRadians(_roll) / 2), sr = Math.sin(Math.toRadians(_roll) / 2);
+		wxyz[0] = cr * cp * cy + sr * sp * sy;
+		wxyz[1] = sr * cp * cy - cr * sp * sy;
+		wxyz[2] = cr * sp * cy + sr * cp * sy;
+		wxyz[3] = cr * cp * sy - sr * sp * cy;
+	}
+
+	@Override
+	protected void onParam(int param, int ordinal, double value) {
+		integrate();
+		if (param == ParamEnum.eYawOffset.value)
+			_yaw = value;
+		else if (param == ParamEnum.eFusedHeadingOffset.value)
+			_fusedHeading = value;
+		else if (param == ParamEnum.eAccumZ.value)
+			_accumZ = value;
+		else if (param == ParamEnum.eEnterCalibration.value)
+			_calMode = (int) value;
+	}
+
+	// ------ backend interface ----------//
+	int setYaw(double angleDeg, boolean add, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_yaw = add ? _yaw + angleDeg : angleDeg;
+		}
+		return transaction(timeoutMs);
+	}
+	int setFusedHeading(double angleDeg, boolean add, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_fusedHeading = add ? _fusedHeading + angleDeg : angleDeg;
+		}
+		return transaction(timeoutMs);
+	}
+	int setAccumZAngle(double angleDeg, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			_accumZ = angleDeg;
+		}
+		return transaction(timeoutMs);
+	}
+	int toCompass(boolean fused, int timeoutMs) {
+		synchronized (this) {
+			integrate();
+			if (fused)
+				_fusedHeading = _compassHeading;
+			else
+				_yaw = _compassHeading;
+		}
+		return transaction(timeoutMs);
+	}
+
+	synchronized int getGeneralStatus(double[] params) {
+		if (poll(_general)) {
+			_pGeneral[0] = _state;
+			_pGeneral[1] = _calMode;
+			_pGeneral[2] = 0;
+			_pGeneral[3] = 0;
+			_pGeneral[4] = _temperature;
+			_pGeneral[5] = _bus.getTimeNs() / 1000000000L;
+			_pGeneral[6] = 0;
+			_pGeneral[7] = 0;
+		}
+		System.arraycopy(_pGeneral, 0, params, 0, Math.min(params.length, _pGeneral.length));
+		return rx();
+	}
+	synchronized int getYawPitchRoll(double[] ypr) {
+		if (poll(_ypr)) {
+			integrate();
+			_pYpr[0] = _yaw;
+			_pYpr[1] = _pitch;
+			_pYpr[2] = _roll;
+		}
+		System.arraycopy(_pYpr, 0, ypr, 0, 3);
+		return rx();
+	}
+	synchronized int get6dQuaternion(double[] wxyz) {
+		if (poll(_quat)) {
+			integrate();
+			quaternion(_pQuat);
+		}
+		System.arraycopy(_pQuat, 0, wxyz, 0, 4);
+		return rx();
+	}
+	synchronized int getFusedHeading(double[] params) {
+		if (poll(_fusion)) {
+			integrate();
+			_pFusion[0] = _fusedHeading;
+			_pFusion[1] = param(ParamEnum.eEnableCompassFusion.value, 0);
+			_pFusion[2] = _state == 2 ? 1 : 0;
+		}
+		System.arraycopy(_pFusion, 0, params, 0, Math.min(params.length, 3));
+		return rx();
+	}
+	synchronized int getAccumGyro(double[] xyz_deg) {
+		if (poll(_gyroAccum)) {
+			integrate();
+			_pAccum[0] = 0;
+			_pAccum[1] = 0;
+			_pAccum[2] = _accumZ;
+		}
+		System.arraycopy(_pAccum, 0, xyz_deg, 0, 3);
+		return rx();
+	}
+	synchronized int getRawGyro(double[] xyz_dps) {
+		if (poll(_gyro)) {
+			_pGyro[0] = 0;
+			_pGyro[1] = 0;
+			_pGyro[2] = _yawRate;
+		}
+		System.arraycopy(_pGyro, 0, xyz_dps, 0, 3);
+		return rx();
+	}
+	synchronized int getAccelerometerAngles(double[] tiltAngles) {
+		if (poll(_accel)) {
+			_pTilt[0] = _roll;
+			_pTilt[1] = _pitch;
+			_pTilt[2] = 0;
+		}
+		System.arraycopy(_pTilt, 0, tiltAngles, 0, 3);
+		return rx();
+	}
+	synchronized int getBiasedAccelerometer(short[] ba_xyz) {
+		if (poll(_biasedAccel)) {
+			double p = Math.toRadians(_pitch), r = Math.toRadians(_roll);
+			_pAccel[0] = (short) (-Math.sin(p) * kGravity);
+			_pAccel[1] = (short) (Math.cos(p) * Math.sin(r) * kGravity);
+			_pAccel[2] = (short) (Math.cos(p) * Math.cos(r) * kGravity);
+		}
+		System.arraycopy(_pAccel, 0, ba_xyz, 0, 3);
+		return rx();
+	}
+	synchronized int getMagnetometer(short[] xyz) {
+		poll(_mag);
+		xyz[0] = xyz[1] = xyz[2] = 0;
+		return rx();
+	}
+	synchronized double getCompassHeading() {
+		if (poll(_compass))
+			_pCompass = _compassHeading;
+		rx();
+		return _pCompass;
+	}
+	synchronized double getTemp() {
+		double[] general = new double[8];
+		getGeneralStatus(general);
+		return general[4];
+	}
+	synchronized int getUpTime() {
+		double[] general = new double[8];
+		getGeneralStatus(general);
+		return (int) general[5];
+	}
+	synchronized int getState() {
+		double[] general = new double[8];
+		getGeneralStatus(general);
+		return (int) general[0];
+	}
+}
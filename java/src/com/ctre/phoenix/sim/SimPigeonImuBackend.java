@@ -0,0 +1,206 @@
+package com.ctre.phoenix.sim;
+
+import com.ctre.phoenix.ParamEnum;
+import com.ctre.phoenix.sensors.IPigeonImuBackend;
+
+/**
+ * Pigeon IMU backend that routes each handle to a SimPigeonImu on a
+ * SimCANBus.
+ */
+public class SimPigeonImuBackend implements IPigeonImuBackend {
+
+	private final SimCANBus _bus;
+
+	SimPigeonImuBackend(SimCANBus bus) {
+		_bus = bus;
+	}
+
+	private SimPigeonImu dev(long handle) {
+		return _bus.pigeonImu(handle);
+	}
+
+	public long CreateTalon(int talonID) {
+		return _bus.addPigeonImu(talonID, true);
+	}
+
+	public long Create(int deviceNumber) {
+		return _bus.addPigeonImu(deviceNumber, false);
+	}
+
+	// ------ config ----------//
+	public int ConfigSetCustomParam(long handle, int newValue, int paramIndex, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eCustomParam.value, paramIndex, newValue, timeoutMs);
+	}
+
+	public int ConfigGetCustomParam(long handle, int paramIndex, int timoutMs) {
+		return (int) dev(handle).configGet(ParamEnum.eCustomParam.value, paramIndex, timoutMs);
+	}
+
+	public int ConfigSetParameter(long handle, int param, double value, int subValue, int ordinal, int timeoutMs) {
+		return dev(handle).configSet(param, ordinal, value, timeoutMs);
+	}
+
+	public double ConfigGetParameter(long handle, int param, int ordinal, int timeoutMs) {
+		return dev(handle).configGet(param, ordinal, timeoutMs);
+	}
+
+	public int SetStatusFramePeriod(long handle, int statusFrame, int periodMs, int timeoutMs) {
+		return dev(handle).setStatusFramePeriod(statusFrame, periodMs, timeoutMs);
+	}
+
+	public int GetStatusFramePeriod(long handle, int frame, int timeoutMs) {
+		return dev(handle).getStatusFramePeriod(frame, timeoutMs);
+	}
+
+	public int SetControlFramePeriod(long handle, int frame, int periodMs) {
+		return dev(handle).setControlFramePeriod(frame, periodMs);
+	}
+
+	// ------ heading ----------//
+	public int SetYaw(long handle, double angleDeg, int timeoutMs) {
+		return dev(handle).setYaw(angleDeg, false, timeoutMs);
+	}
+
+	public int AddYaw(long handle, double angleDeg, int timeoutMs) {
+		return dev(handle).setYaw(angleDeg, true, timeoutMs);
+	}
+
+	public int SetYawToCompass(long handle, int timeoutMs) {
+		return dev(handle).toCompass(false, timeoutMs);
+	}
+
+	public int SetFusedHeading(long handle, double angleDeg, int timeoutMs) {
+		return dev(handle).setFusedHeading(angleDeg, false, timeoutMs);
+	}
+
+	public int AddFusedHeading(long handle, double angleDeg, int timeoutMs) {
+		return dev(handle).setFusedHeading(angleDeg, true, timeoutMs);
+	}
+
+	public int SetFusedHeadingToCompass(long handle, int timeoutMs) {
+		return dev(handle).toCompass(true, timeoutMs);
+	}
+
+	public int SetAccumZAngle(long handle, double angleDeg, int timeoutMs) {
+		return dev(handle).setAccumZAngle(angleDeg, timeoutMs);
+	}
+
+	public int SetTemperatureCompensationDisable(long handle, int bTempCompDisable, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eTempCompDisable.value, 0, bTempCompDisable, timeoutMs);
+	}
+
+	public int SetCompassDeclination(long handle, double angleDegOffset, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eCompassOffset.value, 0, angleDegOffset, timeoutMs);
+	}
+
+	public int SetCompassAngle(long handle, double angleDeg, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eCompassOffset.value, 1, angleDeg, timeoutMs);
+	}
+
+	public int EnterCalibrationMode(long handle, int calMode, int timeoutMs) {
+		return dev(handle).configSet(ParamEnum.eEnterCalibration.value, 0, calMode, timeoutMs);
+	}
+
+	// ------ status ----------//
+	public int GetGeneralStatus(long handle, double[] params) {
+		return dev(handle).getGeneralStatus(params);
+	}
+
+	public int Get6dQuaternion(long handle, double[] wxyz) {
+		return dev(handle).get6dQuaternion(wxyz);
+	}
+
+	public int GetYawPitchRoll(long handle, double[] ypr) {
+		return dev(handle).getYawPitchRoll(ypr);
+	}
+
+	public int GetAccumGyro(long handle, double[] xyz_deg) {
+		return dev(handle).getAccumGyro(xyz_deg);
+	}
+
+	public double GetAbsoluteCompassHeading(long handle) {
+		return dev(handle).getCompassHeading();
+	}
+
+	public double GetCompassHeading(long handle) {
+		return dev(handle).getCompassHeading();
+	}
+
+	public double GetCompassFieldStrength(long handle) {
+		dev(handle).getCompassHeading();
+		return 0;
+	}
+
+	public double GetTemp(long handle) {
+		return dev(handle).getTemp();
+	}
+
+	public int GetUpTime(long handle) {
+		return dev(handle).getUpTime();
+	}
+
+	public int GetRawMagnetometer(long handle, short[] rm_xyz) {
+		return dev(handle).getMagnetometer(rm_xyz);
+	}
+
+	public int GetBiasedMagnetometer(long handle, short[] bm_xyz) {
+		return dev(handle).getMagnetometer(bm_xyz);
+	}
+
+	public int GetBiasedAccelerometer(long handle, short[] ba_xyz) {
+		return dev(handle).getBiasedAccelerometer(ba_xyz);
+	}
+
+	public int GetRawGyro(long handle, double[] xyz_dps) {
+		return dev(handle).getRawGyro(xyz_dps);
+	}
+
+	public int GetAccelerometerAngles(long handle, double[] tiltAngles) {
+		return dev(handle).getAccelerometerAngles(tiltAngles);
+	}
+
+	public int GetFusedHeading(long handle, double[] params) {
+		return dev(handle).getFusedHeading(params);
+	}
+
+	public int GetState(long handle) {
+		return dev(handle).getState();
+	}
+
+	// ------ device ----------//
+	public int GetResetCount(long handle) {
+		return 0;
+	}
+
+	public int GetResetFlags(long handle) {
+		return 0;
+	}
+
+	public int GetFirmwareVersion(long handle) {
+		return dev(handle).getFirmwareVersion();
+	}
+
+	public int GetLastError(long handle) {
+		return dev(handle).getLastError();
+	}
+
+	public boolean HasResetOccurred(long handle) {
+		return dev(handle).hasResetOccurred();
+	}
+
+	public int GetFaults(long handle) {
+		return dev(handle).getFaults();
+	}
+
+	public int GetStickyFaults(long handle) {
+		return dev(handle).getStickyFaults();
+	}
+
+	public int ClearStickyFaults(long handle, int timeoutMs) {
+		return dev(handle).clearStickyFaults(timeoutMs);
+	}
+
+	public long GetReceiveTimeNs(long handle, long sinceNs) {
+		return dev(handle).getReceiveTimeNs(sinceNs);
+	}
+}
@@ -0,0 +1,47 @@
+package com.ctre.phoenix.sim;
+
+import java.util.ArrayList;
+
+import com.ctre.phoenix.time.SampleTime;
+
+/**
+ * Tracks when each frame of a simulated device was last read by its
+ * getters, for the backends' GetReceiveTimeNs(). Callers pass the start of
+ * their own window, so no state is consumed by a query.
+ */
+final class SimReceiveTime {
+
+	/** Frames read at least once. */
+	private final ArrayList<SimFrame> _frames = new ArrayList<SimFrame>();
+
+	/**
+	 * Records that signals carried by the frame were returned.
+	 */
+	void read(SimFrame frame) {
+		if (!frame.wasRead())
+			_frames.add(frame);
+		frame.markRead(System.nanoTime());
+	}
+
+	/**
+	 * @param sinceNs
+	 *            System.nanoTime() from which reads are considered.
+	 * @return Receive time of the oldest frame read since sinceNs, on the
+	 *         System.nanoTime() clock. The current time if nothing was read,
+	 *         SampleTime.kNever if a frame was never received.
+	 */
+	long oldestSince(SimCANBus bus, long sinceNs) {
+		long oldest = Long.MAX_VALUE;
+		for (int i = 0; i < _frames.size(); ++i) {
+			SimFrame frame = _frames.get(i);
+			if (frame.readNs() - sinceNs >= 0 && frame.receivedNs() < oldest)
+				oldest = frame.receivedNs();
+		}
+		long now = System.nanoTime();
+		if (oldest == Long.MAX_VALUE)
+			return now;
+		if (oldest == Long.MIN_VALUE)
+			return SampleTime.kNever;
+		return now - (bus.getTimeNs() - oldest);
+	}
+}
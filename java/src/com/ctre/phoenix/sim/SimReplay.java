@@ -0,0 +1,382 @@
+package com.ctre.phoenix.sim;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.Logger;
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
+import com.ctre.phoenix.telemetry.TelemetryLogReader;
+import com.ctre.phoenix.telemetry.TelemetryLogWriter;
+
+/**
+ * Replays a telemetry log into simulated devices, so control code can be run
+ * offline against the signals of a recorded match.
+ *
+ * Each record of the log is applied in turn to the simulated devices, and
+ * the bus is advanced by the recorded time between records. The device
+ * objects (TalonSRX, PigeonIMU, CANifier ...) then read the recorded signals
+ * through their usual getters, at their status frame periods. The commands
+ * the code under test issues through set() are captured after each record,
+ * written to a command log and/or compared against a reference one.
+ *
+ * Log device IDs are mapped to simulated devices explicitly, so a log can be
+ * replayed onto differently numbered devices. Motor controller signals are
+ * looked up by MotorStatusSignal name, others by the names below. Signals
+ * missing from the log read as zero.
+ *
+ * The bus must not follow wall-clock time, or the replay would not be
+ * deterministic. run() paces the loop against wall-clock time instead.
+ *
+ * Typical use, recording the commands of known good code once:
+ *	SimCANBus bus = new SimCANBus(false);
+ *	bus.install();
+ *	TalonSRX talon = new TalonSRX(1);
+ *	TelemetryLogReader log = new TelemetryLogReader();
+ *	log.open("match.ctlg");
+ *	SimReplay replay = new SimReplay(bus, log);
+ *	replay.add(bus.getTalonSRX(1), 1);
+ *	replay.setCommandLog(new TelemetryLogWriter("commands.ctlg"));
+ *	replay.run(drive, 0);
+ * then, in a later session, comparing a new version of the code against
+ * them:
+ *	TelemetryLogReader commands = new TelemetryLogReader();
+ *	commands.open("commands.ctlg");
+ *	SimReplay check = new SimReplay(bus, log);
+ *	check.add(bus.getTalonSRX(1), 1);
+ *	check.setReference(commands);
+ *	check.run(drive, 0);
+ *	check.getCommandMismatchCount();
+ *
+ * The reference is a command log written by setCommandLog(), not the
+ * replayed signal log, which carries no commands.
+ */
+public class SimReplay {
+
+	// ------ signal names ----------//
+	public static final String kYaw = "Yaw";
+	public static final String kPitch = "Pitch";
+	public static final String kRoll = "Roll";
+	public static final String kGeneralInputs = "GeneralInputs";
+	public static final String kBusVoltage = "BusVoltage";
+	public static final String kQuadraturePosition = "QuadraturePosition";
+	public static final String kQuadratureVelocity = "QuadratureVelocity";
+	/** Commands captured for each motor controller. */
+	public static final String kControlMode = "ControlMode";
+	public static final String kDemand0 = "Demand0";
+	public static final String kDemand1 = "Demand1";
+
+	private static final String[] kPigeonSignals = { kYaw, kPitch, kRoll };
+	private static final String[] kCANifierSignals = { kGeneralInputs, kBusVoltage, kQuadraturePosition,
+			kQuadratureVelocity };
+
+	/**
+	 * A simulated device and the log channels feeding it.
+	 */
+	private static class Target {
+		final Object dev;
+		final int logDeviceId;
+		final String[] signals;
+		int[] channels;
+		/** Index of the first channel within the decoded series. */
+		int first;
+
+		Target(Object dev, int logDeviceId, String[] signals) {
+			this.dev = dev;
+			this.logDeviceId = logDeviceId;
+			this.signals = signals;
+		}
+	}
+
+	private final SimCANBus _bus;
+	private final TelemetryLogReader _log;
+	private final ArrayList<Target> _targets = new ArrayList<Target>();
+	private final ArrayList<Target> _motors = new ArrayList<Target>();
+
+	private TelemetryLogWriter _commandLog = null;
+	private TelemetryLogReader _reference = null;
+	private double _tolerance = 0;
+
+	// ------ replay state ----------//
+	private TelemetryLogReader.Series _series = null;
+	private TelemetryLogReader.Series _refSeries = null;
+	private double[] _row;
+	private double[] _commands;
+	private int _index = 0;
+	private boolean _started = false;
+
+	// ------ results ----------//
+	private long _mismatches = 0;
+	private int _firstMismatchIndex = -1;
+	private String _firstMismatch = null;
+
+	/**
+	 * @param bus
+	 *            Bus holding the simulated devices, must not be real time.
+	 * @param log
+	 *            Opened log to replay.
+	 */
+	public SimReplay(SimCANBus bus, TelemetryLogReader log) {
+		_bus = bus;
+		_log = log;
+	}
+
+	// ------ devices, add before start() ----------//
+	/**
+	 * Feeds a motor controller the MotorStatusSignal channels of a log device
+	 * and captures its commands.
+	 */
+	public void add(SimMotController dev, int logDeviceId) {
+		MotorStatusSignal[] all = MotorStatusSignal.values();
+		String[] signals = new String[all.length];
+		for (int i = 0; i < all.length; ++i)
+			signals[i] = all[i].name();
+		Target target = new Target(dev, logDeviceId, signals);
+		_targets.add(target);
+		_motors.add(target);
+	}
+	/**
+	 * Feeds a Pigeon the Yaw, Pitch and Roll channels of a log device. Its yaw
+	 * rate is zeroed so it holds the recorded yaw.
+	 */
+	public void add(SimPigeonImu dev, int logDeviceId) {
+		dev.setYawRate(0);
+		_targets.add(new Target(dev, logDeviceId, kPigeonSignals));
+	}
+	/**
+	 * Feeds a CANifier the GeneralInputs (pin bitmask), BusVoltage,
+	 * QuadraturePosition and QuadratureVelocity channels of a log device.
+	 */
+	public void add(SimCANifier dev, int logDeviceId) {
+		_targets.add(new Target(dev, logDeviceId, kCANifierSignals));
+	}
+
+	/**
+	 * Writes the commands captured after each record, ControlMode, Demand0
+	 * and Demand1 per motor controller under its log device ID. The log is
+	 * opened by start() and closed by finish().
+	 */
+	public void setCommandLog(TelemetryLogWriter commandLog) {
+		_commandLog = commandLog;
+	}
+	/**
+	 * Compares the commands captured after each record to the ones of a
+	 * command log, record by record.
+	 */
+	public void setReference(TelemetryLogReader reference) {
+		_reference = reference;
+	}
+	/**
+	 * @param tolerance
+	 *            Largest difference of demands counted as a match, zero by
+	 *            default.
+	 */
+	public void setCommandTolerance(double tolerance) {
+		_tolerance = tolerance;
+	}
+
+	// ------ replay ----------//
+	/**
+	 * Decodes the log and opens the command log.
+	 *
+	 * @return IncompatibleMode if the bus is real time, GeneralError if a log
+	 *         could not be decoded or written.
+	 */
+	public ErrorCode start() {
+		if (_bus.isRealTime()) {
+			Logger.log(ErrorCode.IncompatibleMode, "SimReplay needs a bus that is not real time");
+			return ErrorCode.IncompatibleMode;
+		}
+		int total = 0;
+		for (Target target : _targets)
+			total += target.signals.length;
+		int[] channels = new int[total];
+		int at = 0;
+		for (Target target : _targets) {
+			target.first = at;
+			target.channels = new int[target.signals.length];
+			for (int i = 0; i < target.signals.length; ++i) {
+				target.channels[i] = _log.findChannel(target.logDeviceId, target.signals[i]);
+				/* decode a stand-in for missing channels, zeroed when applied */
+				channels[at++] = Math.max(0, target.channels[i]);
+			}
+		}
+		_series = _log.readAll(channels);
+		if (_series == null)
+			return ErrorCode.GeneralError;
+		_row = new double[total];
+
+		_commands = new double[3 * _motors.size()];
+		if (_commandLog != null) {
+			for (Target motor : _motors) {
+				_commandLog.addBitsChannel(motor.logDeviceId, kControlMode, 8);
+				_commandLog.addChannel(motor.logDeviceId, kDemand0);
+				_commandLog.addChannel(motor.logDeviceId, kDemand1);
+			}
+			ErrorCode err = _commandLog.open();
+			if (err != ErrorCode.OK)
+				return err;
+		}
+		if (_reference != null) {
+			int[] refChannels = new int[_commands.length];
+			for (int m = 0; m < _motors.size(); ++m) {
+				int id = _motors.get(m).logDeviceId;
+				refChannels[3 * m] = _reference.findChannel(id, kControlMode);
+				refChannels[3 * m + 1] = _reference.findChannel(id, kDemand0);
+				refChannels[3 * m + 2] = _reference.findChannel(id, kDemand1);
+			}
+			for (int c : refChannels) {
+				if (c < 0) {
+					Logger.log(ErrorCode.GeneralError, "SimReplay reference has no commands for every motor controller");
+					return ErrorCode.GeneralError;
+				}
+			}
+			_refSeries = _reference.readAll(refChannels);
+			if (_refSeries == null)
+				return ErrorCode.GeneralError;
+		}
+		_index = 0;
+		_mismatches = 0;
+		_firstMismatchIndex = -1;
+		_firstMismatch = null;
+		_started = true;
+		return ErrorCode.OK;
+	}
+
+	/**
+	 * Captures the commands issued since the previous step, then advances
+	 * the bus to the next record and applies it. Call start() first.
+	 *
+	 * @return False once every record has been applied.
+	 */
+	public boolean step() {
+		if (!_started || _index >= _series.count)
+			return false;
+		if (_index > 0) {
+			capture(_index - 1);
+			_bus.advanceNs(_series.timesNs[_index] - _series.timesNs[_index - 1]);
+		}
+		apply(_index);
+		++_index;
+		return true;
+	}
+
+	/**
+	 * Captures the commands issued after the last record and closes the
+	 * command log.
+	 */
+	public ErrorCode finish() {
+		if (!_started)
+			return ErrorCode.OK;
+		if (_index > 0)
+			capture(_index - 1);
+		_started = false;
+		for (Target motor : _motors)
+			((SimMotController) motor.dev).stopPlayback();
+		if (_commandLog != null)
+			return _commandLog.close();
+		return ErrorCode.OK;
+	}
+
+	/**
+	 * Replays the whole log, calling the loop after each record.
+	 *
+	 * @param loop
+	 *            Code under test, called back like a PeriodicExecutor would.
+	 * @param speed
+	 *            1 to pace records at their recorded times, 10 for ten times
+	 *            faster, zero or less to go as fast as possible.
+	 */
+	public ErrorCode run(ILoopable loop, double speed) {
+		ErrorCode err = start();
+		if (err != ErrorCode.OK)
+			return err;
+		loop.onStart();
+		long wallStart = System.nanoTime();
+		long logStart = _series.count > 0 ? _series.timesNs[0] : 0;
+		while (!loop.isDone() && step()) {
+			if (speed > 0) {
+				long due = wallStart + (long) ((_series.timesNs[_index - 1] - logStart) / speed);
+				long rem;
+				while ((rem = due - System.nanoTime()) > 0)
+					LockSupport.parkNanos(rem);
+			}
+			loop.onLoop();
+		}
+		loop.onStop();
+		return finish();
+	}
+
+	private void apply(int idx) {
+		for (Target target : _targets) {
+			double[] row = _row;
+			for (int i = 0; i < target.channels.length; ++i)
+				row[target.first + i] = target.channels[i] < 0 ? 0 : _series.values[target.first + i][idx];
+			int f = target.first;
+			if (target.dev instanceof SimMotController) {
+				((SimMotController) target.dev).setPlayback(row, f);
+			} else if (target.dev instanceof SimPigeonImu) {
+				((SimPigeonImu) target.dev).setYawPitchRoll(row[f], row[f + 1], row[f + 2]);
+			} else {
+				SimCANifier canifier = (SimCANifier) target.dev;
+				canifier.setInputs((int) row[f]);
+				canifier.setBusVoltage(row[f + 1]);
+				canifier.setQuadrature(row[f + 2], row[f + 3]);
+			}
+		}
+	}
+
+	private void capture(int idx) {
+		double[] cmd = _commands;
+		for (int m = 0; m < _motors.size(); ++m) {
+			SimMotController dev = (SimMotController) _motors.get(m).dev;
+			cmd[3 * m] = dev.getControlMode();
+			cmd[3 * m + 1] = dev.getDemand0();
+			cmd[3 * m + 2] = dev.getDemand1();
+		}
+		if (_commandLog != null)
+			_commandLog.append(_series.timesNs[idx], cmd, 0);
+		if (_refSeries != null && idx < _refSeries.count) {
+			for (int c = 0; c < cmd.length; ++c) {
+				double expected = _refSeries.values[c][idx];
+				boolean match = (c % 3 == 0) ? expected == cmd[c] : Math.abs(expected - cmd[c]) <= _tolerance;
+				if (match)
+					continue;
+				if (_mismatches == 0) {
+					_firstMismatchIndex = idx;
+					String[] names = { kControlMode, kDemand0, kDemand1 };
+					_firstMismatch = "record " + idx + " device " + _motors.get(c / 3).logDeviceId + " "
+							+ names[c % 3] + ": expected " + expected + ", got " + cmd[c];
+				}
+				++_mismatches;
+			}
+		}
+	}
+
+	// ------ results ----------//
+	/**
+	 * @return Records applied so far.
+	 */
+	public int getRecordIndex() {
+		return _index;
+	}
+	/**
+	 * @return Commands that differed from the reference.
+	 */
+	public long getCommandMismatchCount() {
+		return _mismatches;
+	}
+	/**
+	 * @return Record after which the first mismatch was captured, -1 if none.
+	 */
+	public int getFirstMismatchIndex() {
+		return _firstMismatchIndex;
+	}
+	/**
+	 * @return Description of the first mismatch, null if none.
+	 */
+	public String getFirstMismatch() {
+		return _firstMismatch;
+	}
+}
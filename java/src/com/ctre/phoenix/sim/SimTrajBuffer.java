@@ -0,0 +1,92 @@
+package com.ctre.phoenix.sim;
+
+/**
+ * Fixed capacity FIFO of trajectory points, stored in parallel arrays so
+ * pushing and draining do not allocate.
+ */
+final class SimTrajBuffer {
+	final double[] position;
+	final double[] velocity;
+	final double[] heading;
+	final int[] slot0;
+	final int[] slot1;
+	final boolean[] isLast;
+	final boolean[] zeroPos;
+	final int[] durationMs;
+
+	private int _head = 0;
+	private int _count = 0;
+
+	SimTrajBuffer(int capacity) {
+		position = new double[capacity];
+		velocity = new double[capacity];
+		heading = new double[capacity];
+		slot0 = new int[capacity];
+		slot1 = new int[capacity];
+		isLast = new boolean[capacity];
+		zeroPos = new boolean[capacity];
+		durationMs = new int[capacity];
+	}
+
+	int capacity() {
+		return position.length;
+	}
+	int count() {
+		return _count;
+	}
+	int remaining() {
+		return position.length - _count;
+	}
+	void clear() {
+		_head = 0;
+		_count = 0;
+	}
+
+	/**
+	 * @return false if the buffer is full.
+	 */
+	boolean push(double pos, double vel, double hdg, int s0, int s1, boolean last, boolean zero, int durMs) {
+		if (_count == position.length)
+			return false;
+		int i = (_head + _count) % position.length;
+		position[i] = pos;
+		velocity[i] = vel;
+		heading[i] = hdg;
+		slot0[i] = s0;
+		slot1[i] = s1;
+		isLast[i] = last;
+		zeroPos[i] = zero;
+		durationMs[i] = durMs;
+		++_count;
+		return true;
+	}
+
+	/**
+	 * Moves the oldest point of this buffer to the back of another.
+	 *
+	 * @return false if this buffer is empty or the other is full.
+	 */
+	boolean moveTo(SimTrajBuffer other) {
+		if (_count == 0)
+			return false;
+		int i = _head;
+		if (!other.push(position[i], velocity[i], heading[i], slot0[i], slot1[i], isLast[i], zeroPos[i], durationMs[i]))
+			return false;
+		pop();
+		return true;
+	}
+
+	/**
+	 * @return index of the oldest point, only valid if count() is nonzero.
+	 */
+	int peek() {
+		return _head;
+	}
+
+	void pop() {
+		if (_count == 0)
+			return;
+		_head = (_head + 1) % position.length;
+		--_count;
+	}
+}
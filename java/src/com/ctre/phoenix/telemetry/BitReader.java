@@ -0,0 +1,55 @@
+package com.ctre.phoenix.telemetry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bit fields written by BitWriter out of a column of big-endian longs
+ * in a buffer. One instance per decoding thread.
+ */
+final class BitReader {
+
+	private ByteBuffer _buf;
+	private int _base;
+	private int _pos;
+
+	/**
+	 * @param base
+	 *            Byte offset of the column's first word.
+	 */
+	void reset(ByteBuffer buf, int base) {
+		_buf = buf;
+		_base = base;
+		_pos = 0;
+	}
+
+	/**
+	 * @param count
+	 *            Number of bits, [1,64].
+	 * @return The bits, zero extended.
+	 */
+	long read(int count) {
+		int idx = _pos >>> 6;
+		int used = _pos & 63;
+		int avail = 64 - used;
+		long word = _buf.getLong(_base + (idx << 3));
+		long value;
+		if (count <= avail) {
+			value = (word << used) >>> (64 - count);
+		} else {
+			int rest = count - avail;
+			value = ((word << used) >>> used) << rest;
+			value |= _buf.getLong(_base + ((idx + 1) << 3)) >>> (64 - rest);
+		}
+		_pos += count;
+		return value;
+	}
+	/**
+	 * @return The bits, sign extended.
+	 */
+	long readSigned(int count) {
+		return (read(count) << (64 - count)) >> (64 - count);
+	}
+	boolean readBit() {
+		return read(1) != 0;
+	}
+}
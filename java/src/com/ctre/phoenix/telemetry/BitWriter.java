@@ -0,0 +1,56 @@
+package com.ctre.phoenix.telemetry;
+
+import java.util.Arrays;
+
+/**
+ * Appends bit fields, most significant bit first, to a growable array of
+ * longs. Reused for every column of every block.
+ */
+final class BitWriter {
+
+	private long[] _words = new long[256];
+	private int _bits = 0;
+
+	void reset() {
+		Arrays.fill(_words, 0, getWordCount(), 0);
+		_bits = 0;
+	}
+
+	/**
+	 * Appends the low count bits of value.
+	 *
+	 * @param count
+	 *            Number of bits, [0,64].
+	 */
+	void write(long value, int count) {
+		if (count == 0)
+			return;
+		if (count < 64)
+			value &= (1L << count) - 1;
+		int idx = _bits >>> 6;
+		int free = 64 - (_bits & 63);
+		if (idx + 1 >= _words.length)
+			_words = Arrays.copyOf(_words, _words.length * 2);
+		if (count <= free) {
+			_words[idx] |= value << (free - count);
+		} else {
+			_words[idx] |= value >>> (count - free);
+			_words[idx + 1] = value << (64 - (count - free));
+		}
+		_bits += count;
+	}
+	void writeBit(boolean bit) {
+		write(bit ? 1 : 0, 1);
+	}
+	/** Skips to the start of the next word. */
+	void padToWord() {
+		_bits = (_bits + 63) & ~63;
+	}
+
+	int getWordCount() {
+		return (_bits + 63) >>> 6;
+	}
+	long getWord(int idx) {
+		return _words[idx];
+	}
+}
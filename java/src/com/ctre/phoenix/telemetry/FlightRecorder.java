@@ -0,0 +1,647 @@
+package com.ctre.phoenix.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.ctre.phoenix.CANifier;
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.FaultMonitor;
+import com.ctre.phoenix.ILoopable;
+import com.ctre.phoenix.Logger;
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
+import com.ctre.phoenix.motorcontrol.SensorCollection;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix.schedulers.PeriodicExecutor;
+import com.ctre.phoenix.sensors.PigeonIMU;
+
+/**
+ * Records device signals every control loop and keeps the last few minutes
+ * in a memory-mapped file.
+ *
+ * sample() reads every added signal into a preallocated ring buffer, it
+ * never blocks, allocates or touches the file. Each ring slot carries a
+ * sequence stamp, odd while sample() writes it, so the drain thread can tell
+ * a torn record from an intact one. The drain thread copies the ring into
+ * the file, which is itself a ring holding the last retainMinutes of
+ * records. The file stays readable after a crash, exportCsv() converts it,
+ * and exportTelemetryLog() turns it into a log SimReplay can replay.
+ *
+ * sample() must only be called from one thread. When the drain thread falls
+ * more than a ring behind, the oldest records are dropped rather than
+ * slowing the control loop, see getDroppedCount().
+ *
+ * Typical use:
+ *	FlightRecorder rec = new FlightRecorder("/home/lvuser/flight.bin", 100, 5);
+ *	rec.add(talon);
+ *	rec.add(pigeon);
+ *	rec.dumpOnFault(faultMonitor, ~0);
+ *	rec.start();
+ *	... in the control loop ...
+ *	rec.sample();
+ */
+public class FlightRecorder implements ILoopable {
+	/** "CTFR", first int of a recording file. */
+	public static final int kMagic = 0x43544652;
+	public static final int kVersion = 1;
+
+	// ------ file header offsets ----------//
+	private static final int kHdrMagic = 0;
+	private static final int kHdrVersion = 4;
+	private static final int kHdrChannels = 8;
+	private static final int kHdrCapacity = 12;
+	private static final int kHdrBytes = 16;
+	private static final int kHdrWriteCount = 24;
+	private static final int kHdrStartEpochMs = 32;
+	private static final int kHdrStartNs = 40;
+	private static final int kHdrNames = 48;
+
+	/** Signals read together into consecutive channels of a record. */
+	private static abstract class Source {
+		int offset;
+
+		/** Reads the signals into record[offset...]. */
+		abstract void sample(double[] record, int offset);
+	}
+
+	/**
+	 * A signal not covered by the device helpers.
+	 */
+	public interface IChannel {
+		double get();
+	}
+
+	private final String _path;
+	private final int _samplesPerSec;
+	private final int _retainMinutes;
+	private int _drainPeriodMs = 20;
+
+	private final ArrayList<Source> _sources = new ArrayList<Source>();
+	private final ArrayList<String> _names = new ArrayList<String>();
+	private int _channels = 0;
+	private volatile boolean _started = false;
+
+	// ------ ring buffer, written by sample() only ----------//
+	private long[] _times;
+	private double[] _ring;
+	/* 2 * seq + 1 while record seq is written, 2 * seq + 2 once complete */
+	private AtomicLongArray _stamps;
+	private int _ringMask;
+	private long _seq = 0;
+	private final AtomicLong _published = new AtomicLong();
+	/* records consumed by the drain thread, also orders its reads */
+	private final AtomicLong _consumed = new AtomicLong();
+
+	// ------ file, drain thread and dumps only ----------//
+	private final Object _fileLock = new Object();
+	private RandomAccessFile _file;
+	private MappedByteBuffer _map;
+	private int _fileCapacity;
+	private int _headerBytes;
+	private long _fileCount = 0;
+	private double[] _scratch;
+	private PeriodicExecutor _drainer;
+	private volatile boolean _dumpRequested = false;
+	private Thread _dumpThread = null;
+
+	// ------ statistics ----------//
+	private final AtomicLong _dropped = new AtomicLong();
+	private final AtomicLong _dumps = new AtomicLong();
+
+	/**
+	 * @param path
+	 *            Recording file, created or overwritten by start().
+	 * @param samplesPerSec
+	 *            Rate sample() is called at, sizes the buffers.
+	 * @param retainMinutes
+	 *            Minutes of records kept in the file.
+	 */
+	public FlightRecorder(String path, int samplesPerSec, int retainMinutes) {
+		_path = path;
+		_samplesPerSec = Math.max(1, samplesPerSec);
+		_retainMinutes = Math.max(1, retainMinutes);
+	}
+
+	// ------ channels, add before start() ----------//
+	/**
+	 * Records the status snapshot of a motor controller, one channel per
+	 * MotorStatusSignal.
+	 */
+	public synchronized void add(final BaseMotorController mc) {
+		String prefix = mc.getClass().getSimpleName() + " " + mc.getDeviceID() + " ";
+		String[] names = new String[MotorStatusSignal.kStride];
+		for (MotorStatusSignal sig : MotorStatusSignal.values())
+			names[sig.value] = prefix + sig.name();
+		add(names, new Source() {
+			void sample(double[] record, int offset) {
+				mc.getStatusSnapshot(record, offset, 0);
+			}
+		});
+	}
+	/**
+	 * Records the sensor inputs of a motor controller.
+	 *
+	 * @param name
+	 *            Prefix of the channel names, typically the device's.
+	 */
+	public synchronized void add(String name, final SensorCollection sensors) {
+		String prefix = name + " ";
+		add(new String[] {
+				prefix + "QuadraturePosition",
+				prefix + "QuadratureVelocity",
+				prefix + "PulseWidthPosition",
+				prefix + "PulseWidthVelocity",
+				prefix + "AnalogInRaw",
+				prefix + "AnalogInVel",
+				prefix + "FwdLimitSwitchClosed",
+				prefix + "RevLimitSwitchClosed",
+			}, new Source() {
+			void sample(double[] record, int offset) {
+				record[offset] = sensors.getQuadraturePosition();
+				record[offset + 1] = sensors.getQuadratureVelocity();
+				record[offset + 2] = sensors.getPulseWidthPosition();
+				record[offset + 3] = sensors.getPulseWidthVelocity();
+				record[offset + 4] = sensors.getAnalogInRaw();
+				record[offset + 5] = sensors.getAnalogInVel();
+				record[offset + 6] = sensors.isFwdLimitSwitchClosed() ? 1 : 0;
+				record[offset + 7] = sensors.isRevLimitSwitchClosed() ? 1 : 0;
+			}
+		});
+	}
+	/**
+	 * Records yaw, pitch, roll and the faults of a Pigeon.
+	 */
+	public synchronized void add(final PigeonIMU pigeon) {
+		String prefix = "PigeonIMU " + pigeon.getDeviceID() + " ";
+		final double[] ypr = new double[3];
+		add(new String[] {
+				prefix + "Yaw",
+				prefix + "Pitch",
+				prefix + "Roll",
+				prefix + "Faults",
+				prefix + "LastError",
+			}, new Source() {
+			void sample(double[] record, int offset) {
+				pigeon.getYawPitchRoll(ypr);
+				record[offset] = ypr[0];
+				record[offset + 1] = ypr[1];
+				record[offset + 2] = ypr[2];
+				record[offset + 3] = pigeon.getFaultBits();
+				record[offset + 4] = pigeon.getLastError().value;
+			}
+		});
+	}
+	/**
+	 * Records bus voltage, quadrature, general inputs and faults of a
+	 * CANifier. The inputs are a bitfield in the order of
+	 * CANifier.GeneralPin.
+	 */
+	public synchronized void add(final CANifier canifier) {
+		String prefix = "CANifier " + canifier.getDeviceID() + " ";
+		add(new String[] {
+				prefix + "BusVoltage",
+				prefix + "QuadraturePosition",
+				prefix + "QuadratureVelocity",
+				prefix + "GeneralInputs",
+				prefix + "Faults",
+			}, new Source() {
+			void sample(double[] record, int offset) {
+				int bits = canifier.getGeneralInputBits();
+				record[offset] = canifier.getBusVoltage();
+				record[offset + 1] = canifier.getQuadraturePosition();
+				record[offset + 2] = canifier.getQuadratureVelocity();
+				record[offset + 3] = bits;
+				record[offset + 4] = canifier.getFaultBits();
+			}
+		});
+	}
+	/**
+	 * Records any other signal. channel.get() is called by sample() and must
+	 * not allocate.
+	 */
+	public synchronized void add(String name, final IChannel channel) {
+		add(new String[] { name }, new Source() {
+			void sample(double[] record, int offset) {
+				record[offset] = channel.get();
+			}
+		});
+	}
+
+	private void add(String[] names, Source source) {
+		if (_started) {
+			Logger.log(ErrorCode.GeneralWarning, "FlightRecorder channels must be added before start()");
+			return;
+		}
+		source.offset = _channels;
+		_sources.add(source);
+		for (String name : names)
+			_names.add(name);
+		_channels += names.length;
+	}
+
+	/**
+	 * @param drainPeriodMs
+	 *            Time between drains of the ring into the file. Takes effect
+	 *            at start().
+	 */
+	public synchronized void setDrainPeriodMs(int drainPeriodMs) {
+		_drainPeriodMs = Math.max(1, drainPeriodMs);
+	}
+
+	public int getChannelCount() {
+		return _channels;
+	}
+	public String getChannelName(int idx) {
+		return _names.get(idx);
+	}
+
+	// ------ recording ----------//
+	/**
+	 * Creates the file, allocates the buffers and starts the drain thread.
+	 *
+	 * @return GeneralError if the file could not be created, InvalidParamValue
+	 *         if it would exceed 2GB.
+	 */
+	public synchronized ErrorCode start() {
+		if (_started)
+			return ErrorCode.OK;
+
+		/* a second of records, so the drain thread can stall for a while */
+		int ringCapacity = Integer.highestOneBit(Math.max(64, _samplesPerSec) * 2 - 1);
+		_times = new long[ringCapacity];
+		_ring = new double[ringCapacity * _channels];
+		_stamps = new AtomicLongArray(ringCapacity);
+		_ringMask = ringCapacity - 1;
+		_scratch = new double[_channels];
+
+		byte[] names = String.join("\n", _names).getBytes(StandardCharsets.UTF_8);
+		_headerBytes = (kHdrNames + 4 + names.length + 7) & ~7;
+		_fileCapacity = _samplesPerSec * 60 * _retainMinutes;
+		int recordBytes = 8 + 8 * _channels;
+		long length = _headerBytes + (long) _fileCapacity * recordBytes;
+		if (length > Integer.MAX_VALUE) {
+			Logger.log(ErrorCode.InvalidParamValue, "FlightRecorder file would exceed 2GB");
+			return ErrorCode.InvalidParamValue;
+		}
+		try {
+			synchronized (_fileLock) {
+				_file = new RandomAccessFile(_path, "rw");
+				_file.setLength(0);
+				_file.setLength(length);
+				_map = _file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+				_map.putInt(kHdrMagic, kMagic);
+				_map.putInt(kHdrVersion, kVersion);
+				_map.putInt(kHdrChannels, _channels);
+				_map.putInt(kHdrCapacity, _fileCapacity);
+				_map.putInt(kHdrBytes, _headerBytes);
+				_map.putLong(kHdrWriteCount, 0);
+				_map.putLong(kHdrStartEpochMs, System.currentTimeMillis());
+				_map.putLong(kHdrStartNs, System.nanoTime());
+				_map.putInt(kHdrNames, names.length);
+				for (int i = 0; i < names.length; ++i)
+					_map.put(kHdrNames + 4 + i, names[i]);
+				_fileCount = 0;
+			}
+		} catch (IOException e) {
+			Logger.log(ErrorCode.GeneralError, "FlightRecorder could not create " + _path + ": " + e.getMessage());
+			return ErrorCode.GeneralError;
+		}
+
+		_seq = 0;
+		_published.set(0);
+		_consumed.set(0);
+		_started = true;
+		_drainer = new PeriodicExecutor(new ILoopable() {
+			public void onStart() {
+			}
+			public void onLoop() {
+				drain();
+			}
+			public boolean isDone() {
+				return false;
+			}
+			public void onStop() {
+				drain();
+			}
+		}, _drainPeriodMs * 1000000L, "CTRE flight recorder");
+		_drainer.start();
+		return ErrorCode.OK;
+	}
+	/**
+	 * Drains the remaining records, stops the drain thread and closes the
+	 * file.
+	 */
+	public void stop() {
+		PeriodicExecutor drainer;
+		synchronized (this) {
+			if (!_started)
+				return;
+			_started = false;
+			drainer = _drainer;
+			_drainer = null;
+		}
+		drainer.stop();
+		synchronized (_fileLock) {
+			_map.force();
+			try {
+				_file.close();
+			} catch (IOException e) {
+				Logger.log(ErrorCode.GeneralError, "FlightRecorder could not close " + _path);
+			}
+			_file = null;
+			_map = null;
+		}
+	}
+
+	/**
+	 * Reads every channel into the next record. Call once per control loop,
+	 * from one thread only. Does nothing before start().
+	 */
+	public void sample() {
+		if (!_started)
+			return;
+		long seq = _seq;
+		int idx = (int) (seq & _ringMask);
+		int base = idx * _channels;
+		/*
+		 * the volatile write then read keeps the record writes below after the
+		 * odd stamp, a lazySet alone could let them move ahead of it
+		 */
+		_stamps.set(idx, 2 * seq + 1);
+		_stamps.get(idx);
+		_times[idx] = System.nanoTime();
+		for (int i = 0; i < _sources.size(); ++i) {
+			Source src = _sources.get(i);
+			src.sample(_ring, base + src.offset);
+		}
+		_stamps.lazySet(idx, 2 * seq + 2);
+		_seq = seq + 1;
+		_published.lazySet(seq + 1);
+	}
+
+	/** Copies the published records into the file, drain thread only. */
+	private void drain() {
+		int capacity = _ringMask + 1;
+		long published = _published.get();
+		long next = _consumed.get();
+		if (published - next > capacity) {
+			_dropped.addAndGet(published - capacity - next);
+			next = published - capacity;
+		}
+		synchronized (_fileLock) {
+			if (_map == null)
+				return;
+			int recordBytes = 8 + 8 * _channels;
+			for (; next < published; ++next) {
+				int idx = (int) (next & _ringMask);
+				long stamp = 2 * next + 2;
+				boolean intact = _stamps.get(idx) == stamp;
+				long time = _times[idx];
+				System.arraycopy(_ring, idx * _channels, _scratch, 0, _channels);
+				/*
+				 * the volatile write keeps the copy above before the second
+				 * stamp read, the record is intact if the stamp did not change
+				 */
+				_consumed.set(next + 1);
+				if (!intact || _stamps.get(idx) != stamp) {
+					_dropped.incrementAndGet();
+					continue;
+				}
+				int pos = _headerBytes + (int) (_fileCount % _fileCapacity) * recordBytes;
+				_map.putLong(pos, time);
+				for (int c = 0; c < _channels; ++c)
+					_map.putDouble(pos + 8 + 8 * c, _scratch[c]);
+				++_fileCount;
+			}
+			_map.putLong(kHdrWriteCount, _fileCount);
+			/* requests made while a dump is still written wait for it */
+			if (_dumpRequested && (_dumpThread == null || !_dumpThread.isAlive())) {
+				_dumpRequested = false;
+				final ByteBuffer snapshot = snapshot();
+				final String csvPath = _path + "." + System.currentTimeMillis() + ".csv";
+				_dumpThread = new Thread(new Runnable() {
+					public void run() {
+						writeDump(snapshot, csvPath);
+					}
+				}, "CTRE flight recorder dump");
+				_dumpThread.setDaemon(true);
+				_dumpThread.start();
+			}
+		}
+	}
+
+	// ------ dumps ----------//
+	/**
+	 * Writes the retained records to a CSV file next to the recording. The
+	 * drain thread copies the recording and a separate thread writes the CSV,
+	 * so draining continues meanwhile. Requests made before the copy are
+	 * combined.
+	 */
+	public void requestDump() {
+		_dumpRequested = true;
+	}
+	/**
+	 * Writes the retained records to a CSV file, from the calling thread. The
+	 * drain thread only waits for the recording to be copied.
+	 *
+	 * @return GeneralError if the recorder is not started or the file could
+	 *         not be written.
+	 */
+	public ErrorCode dump(String csvPath) {
+		ByteBuffer snapshot;
+		synchronized (_fileLock) {
+			if (_map == null)
+				return ErrorCode.GeneralError;
+			snapshot = snapshot();
+		}
+		return writeDump(snapshot, csvPath);
+	}
+	/**
+	 * Copies the whole recording, header included, _fileLock held. A dump
+	 * therefore briefly needs as much heap as the recording file.
+	 */
+	private ByteBuffer snapshot() {
+		ByteBuffer src = _map.duplicate();
+		src.clear();
+		byte[] copy = new byte[src.remaining()];
+		src.get(copy);
+		return ByteBuffer.wrap(copy);
+	}
+	private ErrorCode writeDump(ByteBuffer snapshot, String csvPath) {
+		try {
+			writeCsv(snapshot, csvPath);
+		} catch (IOException e) {
+			Logger.log(ErrorCode.GeneralError, "FlightRecorder could not write " + csvPath + ": " + e.getMessage());
+			return ErrorCode.GeneralError;
+		}
+		_dumps.incrementAndGet();
+		return ErrorCode.OK;
+	}
+	/**
+	 * Requests a dump whenever one of the given non-sticky faults is set on
+	 * a device of the monitor.
+	 *
+	 * @param faultMask
+	 *            Fault bits that trigger a dump. Bits are per device type,
+	 *            ~0 dumps on any fault.
+	 */
+	public void dumpOnFault(FaultMonitor monitor, final int faultMask) {
+		monitor.addListener(new FaultMonitor.IFaultListener() {
+			public void onFaultChange(Object device, boolean sticky, int rising, int falling, int bits) {
+				if (!sticky && (rising & faultMask) != 0)
+					requestDump();
+			}
+		});
+	}
+
+	/**
+	 * Converts a recording file, for instance one left behind by a crash, to
+	 * CSV.
+	 *
+	 * @return GeneralError if the recording could not be read or the CSV
+	 *         written.
+	 */
+	public static ErrorCode exportCsv(String recordingPath, String csvPath) {
+		try (RandomAccessFile file = new RandomAccessFile(recordingPath, "r")) {
+			ByteBuffer buf = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+			if (buf.getInt(kHdrMagic) != kMagic || buf.getInt(kHdrVersion) != kVersion)
+				return ErrorCode.GeneralError;
+			writeCsv(buf, csvPath);
+			return ErrorCode.OK;
+		} catch (IOException e) {
+			return ErrorCode.GeneralError;
+		}
+	}
+
+	/**
+	 * Converts a recording to a telemetry log, for TelemetryLogReader and
+	 * SimReplay. A channel named "type ID signal", as added by the device
+	 * helpers, becomes that signal of that device ID, so the log can be
+	 * replayed as is. Other channels keep their whole name under device ID
+	 * -1. Times stay on the System.nanoTime() clock of the recording.
+	 *
+	 * @return GeneralError if the recording could not be read or the log
+	 *         written.
+	 */
+	public static ErrorCode exportTelemetryLog(String recordingPath, String logPath) {
+		try (RandomAccessFile file = new RandomAccessFile(recordingPath, "r")) {
+			ByteBuffer buf = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+			if (buf.getInt(kHdrMagic) != kMagic || buf.getInt(kHdrVersion) != kVersion)
+				return ErrorCode.GeneralError;
+			int channels = buf.getInt(kHdrChannels);
+			int capacity = buf.getInt(kHdrCapacity);
+			int headerBytes = buf.getInt(kHdrBytes);
+			long count = buf.getLong(kHdrWriteCount);
+			int recordBytes = 8 + 8 * channels;
+
+			TelemetryLogWriter log = new TelemetryLogWriter(logPath);
+			String[] names = channels > 0 ? readNames(buf).split("\n", -1) : new String[0];
+			for (String name : names) {
+				int signalStart = name.lastIndexOf(' ');
+				int idStart = signalStart > 0 ? name.lastIndexOf(' ', signalStart - 1) : -1;
+				int deviceId = -1;
+				String signal = name;
+				if (signalStart > 0) {
+					try {
+						deviceId = Integer.parseInt(name.substring(idStart + 1, signalStart));
+						signal = name.substring(signalStart + 1);
+					} catch (NumberFormatException e) {
+						deviceId = -1;
+					}
+				}
+				log.addChannel(deviceId, signal);
+			}
+			ErrorCode err = log.open();
+			if (err != ErrorCode.OK)
+				return err;
+			double[] values = new double[channels];
+			for (long n = Math.max(0, count - capacity); n < count && err == ErrorCode.OK; ++n) {
+				int pos = headerBytes + (int) (n % capacity) * recordBytes;
+				for (int c = 0; c < channels; ++c)
+					values[c] = buf.getDouble(pos + 8 + 8 * c);
+				err = log.append(buf.getLong(pos), values, 0);
+			}
+			ErrorCode closeErr = log.close();
+			return err != ErrorCode.OK ? err : closeErr;
+		} catch (IOException e) {
+			return ErrorCode.GeneralError;
+		}
+	}
+
+	/** @return Channel names of a mapped recording, separated by '\n'. */
+	private static String readNames(ByteBuffer buf) {
+		byte[] names = new byte[buf.getInt(kHdrNames)];
+		for (int i = 0; i < names.length; ++i)
+			names[i] = buf.get(kHdrNames + 4 + i);
+		return new String(names, StandardCharsets.UTF_8);
+	}
+
+	/** Writes the records of a mapped recording, oldest first. */
+	private static void writeCsv(ByteBuffer buf, String csvPath) throws IOException {
+		int channels = buf.getInt(kHdrChannels);
+		int capacity = buf.getInt(kHdrCapacity);
+		int headerBytes = buf.getInt(kHdrBytes);
+		long count = buf.getLong(kHdrWriteCount);
+		long startNs = buf.getLong(kHdrStartNs);
+		int recordBytes = 8 + 8 * channels;
+
+		try (BufferedWriter out = new BufferedWriter(new FileWriter(csvPath))) {
+			out.write("time_s");
+			if (channels > 0) {
+				out.write(',');
+				out.write(readNames(buf).replace('\n', ','));
+			}
+			out.newLine();
+			StringBuilder line = new StringBuilder();
+			for (long n = Math.max(0, count - capacity); n < count; ++n) {
+				int pos = headerBytes + (int) (n % capacity) * recordBytes;
+				line.setLength(0);
+				line.append((buf.getLong(pos) - startNs) / 1e9);
+				for (int c = 0; c < channels; ++c)
+					line.append(',').append(buf.getDouble(pos + 8 + 8 * c));
+				out.write(line.toString());
+				out.newLine();
+			}
+		}
+	}
+
+	// ------ statistics ----------//
+	/**
+	 * @return Records sampled since start().
+	 */
+	public long getSampleCount() {
+		return _published.get();
+	}
+	/**
+	 * @return Records lost because the drain thread fell behind.
+	 */
+	public long getDroppedCount() {
+		return _dropped.get();
+	}
+	public long getDumpCount() {
+		return _dumps.get();
+	}
+
+	// ------ ILoopable ----------//
+	public void onStart() {
+	}
+
+	public void onLoop() {
+		sample();
+	}
+
+	public boolean isDone() {
+		return false;
+	}
+
+	public void onStop() {
+	}
+}
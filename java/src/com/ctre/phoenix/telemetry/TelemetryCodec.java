@@ -0,0 +1,178 @@
+package com.ctre.phoenix.telemetry;
+
+/**
+ * Column encodings of the telemetry log, shared by TelemetryLogWriter and
+ * TelemetryLogReader.
+ *
+ * Times are stored as the first time, then the change of the delta between
+ * consecutive times in a variable width field, so a steady loop costs one
+ * bit per record. Doubles are XOR'ed with the previous value of the column
+ * and only the bits that differ are stored, so a signal that holds still
+ * costs one bit and one that drifts a dozen or so. Bit fields, fault words
+ * for instance, cost one bit unless they changed.
+ */
+final class TelemetryCodec {
+	/** "CTLG", first and last int of a log file. */
+	static final int kMagic = 0x43544C47;
+	static final int kVersion = 1;
+
+	// ------ column kinds ----------//
+	static final int kDouble = 0;
+	static final int kBits = 1;
+
+	private TelemetryCodec() {
+	}
+
+	// ------ times ----------//
+	static void encodeTimes(long[] times, int count, BitWriter out) {
+		if (count == 0)
+			return;
+		out.write(times[0], 64);
+		long prevDelta = 0;
+		for (int i = 1; i < count; ++i) {
+			long delta = times[i] - times[i - 1];
+			long dod = delta - prevDelta;
+			prevDelta = delta;
+			if (dod == 0) {
+				out.write(0, 1);
+			} else if (fits(dod, 14)) {
+				out.write(0x2, 2);
+				out.write(dod, 14);
+			} else if (fits(dod, 20)) {
+				out.write(0x6, 3);
+				out.write(dod, 20);
+			} else if (fits(dod, 32)) {
+				out.write(0xE, 4);
+				out.write(dod, 32);
+			} else {
+				out.write(0xF, 4);
+				out.write(dod, 64);
+			}
+		}
+	}
+	static void decodeTimes(BitReader in, int count, long[] out, int offset) {
+		if (count == 0)
+			return;
+		long time = in.read(64);
+		out[offset] = time;
+		long delta = 0;
+		for (int i = 1; i < count; ++i) {
+			long dod;
+			if (!in.readBit())
+				dod = 0;
+			else if (!in.readBit())
+				dod = in.readSigned(14);
+			else if (!in.readBit())
+				dod = in.readSigned(20);
+			else if (!in.readBit())
+				dod = in.readSigned(32);
+			else
+				dod = in.read(64);
+			delta += dod;
+			time += delta;
+			out[offset + i] = time;
+		}
+	}
+
+	// ------ doubles ----------//
+	static void encodeDoubles(double[] values, int count, BitWriter out) {
+		if (count == 0)
+			return;
+		long prev = Double.doubleToRawLongBits(values[0]);
+		out.write(prev, 64);
+		int prevLeading = -1;
+		int prevTrailing = 0;
+		for (int i = 1; i < count; ++i) {
+			long bits = Double.doubleToRawLongBits(values[i]);
+			long xor = bits ^ prev;
+			prev = bits;
+			if (xor == 0) {
+				out.write(0, 1);
+				continue;
+			}
+			int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+			int trailing = Long.numberOfTrailingZeros(xor);
+			if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+				/* fits in the previous window */
+				out.write(0x2, 2);
+				out.write(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+			} else {
+				int significant = 64 - leading - trailing;
+				out.write(0x3, 2);
+				out.write(leading, 5);
+				out.write(significant - 1, 6);
+				out.write(xor >>> trailing, significant);
+				prevLeading = leading;
+				prevTrailing = trailing;
+			}
+		}
+	}
+	static void decodeDoubles(BitReader in, int count, double[] out, int offset) {
+		if (count == 0)
+			return;
+		long prev = in.read(64);
+		out[offset] = Double.longBitsToDouble(prev);
+		int leading = 0;
+		int trailing = 0;
+		for (int i = 1; i < count; ++i) {
+			if (in.readBit()) {
+				if (in.readBit()) {
+					leading = (int) in.read(5);
+					int significant = (int) in.read(6) + 1;
+					trailing = 64 - leading - significant;
+				}
+				prev ^= in.read(64 - leading - trailing) << trailing;
+			}
+			out[offset + i] = Double.longBitsToDouble(prev);
+		}
+	}
+
+	// ------ bit fields ----------//
+	/**
+	 * @param width
+	 *            Number of low bits of each value stored, [1,32]. Values are
+	 *            integers held in doubles.
+	 */
+	static void encodeBits(double[] values, int count, int width, BitWriter out) {
+		if (count == 0)
+			return;
+		long prev = (long) values[0];
+		out.write(prev, width);
+		for (int i = 1; i < count; ++i) {
+			long bits = (long) values[i];
+			if (((bits ^ prev) & mask(width)) == 0) {
+				out.write(0, 1);
+			} else {
+				out.write(1, 1);
+				out.write(bits, width);
+			}
+			prev = bits;
+		}
+	}
+	/**
+	 * Values of 32 bit columns come back sign extended, so error codes keep
+	 * their sign.
+	 */
+	static void decodeBits(BitReader in, int count, int width, double[] out, int offset) {
+		if (count == 0)
+			return;
+		long bits = read(in, width);
+		out[offset] = bits;
+		for (int i = 1; i < count; ++i) {
+			if (in.readBit())
+				bits = read(in, width);
+			out[offset + i] = bits;
+		}
+	}
+
+	private static long read(BitReader in, int width) {
+		return width == 32 ? in.readSigned(32) : in.read(width);
+	}
+	private static long mask(int width) {
+		return (1L << width) - 1;
+	}
+	private static boolean fits(long value, int bits) {
+		long half = 1L << (bits - 1);
+		return value >= -half && value < half;
+	}
+}
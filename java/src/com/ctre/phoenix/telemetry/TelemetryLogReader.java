@@ -0,0 +1,257 @@
+package com.ctre.phoenix.telemetry;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.Logger;
+
+/**
+ * Reads a log written by TelemetryLogWriter.
+ *
+ * The file is memory-mapped and only the block index is read by open().
+ * read() picks the blocks overlapping a time range from the index and
+ * decodes them in parallel, skipping the columns of channels not asked for.
+ *
+ * Typical use:
+ *	TelemetryLogReader log = new TelemetryLogReader();
+ *	log.open("match.ctlg");
+ *	int pos = log.findChannel(3, MotorStatusSignal.SelectedSensorPosition);
+ *	TelemetryLogReader.Series s = log.read(fromNs, toNs, new int[] { pos });
+ */
+public class TelemetryLogReader {
+
+	/**
+	 * Decoded records of a time range.
+	 */
+	public static class Series {
+		/** Number of records. */
+		public int count;
+		public long[] timesNs;
+		/** Values of each channel asked for, in the order asked. */
+		public double[][] values;
+	}
+
+	private ByteBuffer _buf;
+	private int[] _deviceIds;
+	private int[] _kinds;
+	private int[] _widths;
+	private String[] _signals;
+
+	// ------ block index ----------//
+	private int[] _blockOffsets;
+	private long[] _blockFirstNs;
+	private long[] _blockLastNs;
+	private int[] _blockCounts;
+
+	/**
+	 * Maps the file and reads the header and block index.
+	 *
+	 * @return GeneralError if the file could not be read or is not a
+	 *         complete log.
+	 */
+	public ErrorCode open(String path) {
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			_buf = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		} catch (IOException e) {
+			Logger.log(ErrorCode.GeneralError, "TelemetryLogReader could not read " + path + ": " + e.getMessage());
+			return ErrorCode.GeneralError;
+		}
+		int length = _buf.limit();
+		if (length < 28 || _buf.getInt(0) != TelemetryCodec.kMagic || _buf.getInt(4) != TelemetryCodec.kVersion
+				|| _buf.getInt(length - 4) != TelemetryCodec.kMagic) {
+			Logger.log(ErrorCode.GeneralError, "TelemetryLogReader " + path + " is not a complete log");
+			return ErrorCode.GeneralError;
+		}
+
+		int channels = _buf.getInt(8);
+		_deviceIds = new int[channels];
+		_kinds = new int[channels];
+		_widths = new int[channels];
+		_signals = new String[channels];
+		int pos = 12;
+		for (int c = 0; c < channels; ++c) {
+			_deviceIds[c] = _buf.getInt(pos);
+			_kinds[c] = _buf.get(pos + 4);
+			_widths[c] = _buf.get(pos + 5);
+			byte[] name = new byte[_buf.getInt(pos + 6)];
+			for (int i = 0; i < name.length; ++i)
+				name[i] = _buf.get(pos + 10 + i);
+			_signals[c] = new String(name, StandardCharsets.UTF_8);
+			pos += 10 + name.length;
+		}
+
+		int blocks = _buf.getInt(length - 16);
+		pos = (int) _buf.getLong(length - 12);
+		_blockOffsets = new int[blocks];
+		_blockFirstNs = new long[blocks];
+		_blockLastNs = new long[blocks];
+		_blockCounts = new int[blocks];
+		for (int b = 0; b < blocks; ++b) {
+			_blockOffsets[b] = (int) _buf.getLong(pos);
+			_blockFirstNs[b] = _buf.getLong(pos + 8);
+			_blockLastNs[b] = _buf.getLong(pos + 16);
+			_blockCounts[b] = _buf.getInt(pos + 24);
+			pos += 28;
+		}
+		return ErrorCode.OK;
+	}
+
+	// ------ channels ----------//
+	public int getChannelCount() {
+		return _signals.length;
+	}
+	public int getChannelDeviceId(int idx) {
+		return _deviceIds[idx];
+	}
+	public String getChannelSignal(int idx) {
+		return _signals[idx];
+	}
+	/**
+	 * @return Index of the channel, -1 if the log has no such channel.
+	 */
+	public int findChannel(int deviceId, String signal) {
+		for (int c = 0; c < _signals.length; ++c) {
+			if (_deviceIds[c] == deviceId && _signals[c].equals(signal))
+				return c;
+		}
+		return -1;
+	}
+	public int findChannel(int deviceId, Enum<?> signal) {
+		return findChannel(deviceId, signal.name());
+	}
+
+	// ------ blocks ----------//
+	public int getBlockCount() {
+		return _blockCounts.length;
+	}
+	/**
+	 * @return Time of the first record, Long.MAX_VALUE if the log is empty.
+	 */
+	public long getStartNs() {
+		return _blockFirstNs.length == 0 ? Long.MAX_VALUE : _blockFirstNs[0];
+	}
+	/**
+	 * @return Time of the last record, Long.MIN_VALUE if the log is empty.
+	 */
+	public long getEndNs() {
+		return _blockLastNs.length == 0 ? Long.MIN_VALUE : _blockLastNs[_blockLastNs.length - 1];
+	}
+	public long getRecordCount() {
+		long total = 0;
+		for (int count : _blockCounts)
+			total += count;
+		return total;
+	}
+
+	// ------ decoding ----------//
+	/**
+	 * Decodes the records within a time range, the blocks in parallel.
+	 *
+	 * @param fromNs
+	 *            Time of the first record wanted, inclusive.
+	 * @param toNs
+	 *            Time of the last record wanted, inclusive.
+	 * @param channels
+	 *            Indexes of the channels to decode.
+	 * @return Records in the range, null if a block could not be decoded.
+	 */
+	public Series read(long fromNs, long toNs, final int[] channels) {
+		/* blocks are in time order, take the ones overlapping the range */
+		ArrayList<Integer> blocks = new ArrayList<Integer>();
+		int total = 0;
+		for (int b = 0; b < _blockCounts.length; ++b) {
+			if (_blockLastNs[b] >= fromNs && _blockFirstNs[b] <= toNs) {
+				blocks.add(b);
+				total += _blockCounts[b];
+			}
+		}
+		final Series all = new Series();
+		all.timesNs = new long[total];
+		all.values = new double[channels.length][total];
+
+		ArrayList<Future<?>> tasks = new ArrayList<Future<?>>();
+		int offset = 0;
+		for (final int b : blocks) {
+			final int at = offset;
+			tasks.add(ForkJoinPool.commonPool().submit(new Callable<Void>() {
+				public Void call() {
+					decodeBlock(b, channels, all, at);
+					return null;
+				}
+			}));
+			offset += _blockCounts[b];
+		}
+		try {
+			for (Future<?> task : tasks)
+				task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			Logger.log(ErrorCode.GeneralError, "TelemetryLogReader could not decode a block: " + e.getCause());
+			return null;
+		}
+
+		/* trim the partial first and last blocks */
+		int first = 0;
+		while (first < total && all.timesNs[first] < fromNs)
+			++first;
+		int last = total;
+		while (last > first && all.timesNs[last - 1] > toNs)
+			--last;
+		if (first == 0 && last == total) {
+			all.count = total;
+			return all;
+		}
+		Series trimmed = new Series();
+		trimmed.count = last - first;
+		trimmed.timesNs = Arrays.copyOfRange(all.timesNs, first, last);
+		trimmed.values = new double[channels.length][];
+		for (int c = 0; c < channels.length; ++c)
+			trimmed.values[c] = Arrays.copyOfRange(all.values[c], first, last);
+		return trimmed;
+	}
+	/**
+	 * Decodes every record of the given channels.
+	 */
+	public Series readAll(int[] channels) {
+		return read(Long.MIN_VALUE, Long.MAX_VALUE, channels);
+	}
+
+	private void decodeBlock(int block, int[] channels, Series out, int offset) {
+		int pos = _blockOffsets[block];
+		int count = _buf.getInt(pos);
+		pos += 20;
+		int columns = _signals.length + 1;
+		/* byte offset of each column, the time column first */
+		int[] starts = new int[columns];
+		int start = pos + 4 * columns;
+		for (int c = 0; c < columns; ++c) {
+			starts[c] = start;
+			start += 8 * _buf.getInt(pos + 4 * c);
+		}
+
+		/* only absolute reads, so the blocks can share the buffer */
+		BitReader in = new BitReader();
+		in.reset(_buf, starts[0]);
+		TelemetryCodec.decodeTimes(in, count, out.timesNs, offset);
+		for (int i = 0; i < channels.length; ++i) {
+			int c = channels[i];
+			in.reset(_buf, starts[c + 1]);
+			if (_kinds[c] == TelemetryCodec.kDouble)
+				TelemetryCodec.decodeDoubles(in, count, out.values[i], offset);
+			else
+				TelemetryCodec.decodeBits(in, count, _widths[c], out.values[i], offset);
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package com.ctre.phoenix.telemetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.Logger;
+import com.ctre.phoenix.motorcontrol.MotorStatusSignal;
+
+/**
+ * Writes telemetry to a compressed columnar log.
+ *
+ * Each channel is a signal of a device, keyed by device ID and signal name
+ * (typically the name of a signal enum such as MotorStatusSignal). Records
+ * are buffered into blocks of a fixed number of records. A full block is
+ * written column by column, each column compressed on its own, see
+ * TelemetryCodec. The file ends with an index of the time span of each
+ * block, so TelemetryLogReader can seek to a time range and decode blocks in
+ * parallel.
+ *
+ * append() is meant for a background thread rather than the control loop,
+ * as it writes to the file whenever a block fills up. A FlightRecorder
+ * recording is converted to this format by
+ * FlightRecorder.exportTelemetryLog().
+ *
+ * File layout, big-endian:
+ *	header	magic, version, channel count, then per channel the device ID,
+ *			kind, width, and the name as a length and UTF-8 bytes
+ *	blocks	record count, first and last time, word count of the time column
+ *			and of each channel column, then the columns as longs
+ *	index	per block its file offset, first and last time and record count
+ *	trailer	block count, index offset, magic
+ */
+public class TelemetryLogWriter {
+
+	private final String _path;
+	private final int _recordsPerBlock;
+
+	// ------ channels ----------//
+	private final ArrayList<String> _signals = new ArrayList<String>();
+	private final ArrayList<Integer> _deviceIds = new ArrayList<Integer>();
+	private final ArrayList<Integer> _kinds = new ArrayList<Integer>();
+	private final ArrayList<Integer> _widths = new ArrayList<Integer>();
+
+	// ------ current block ----------//
+	private long[] _times;
+	private double[][] _columns;
+	private int[] _kindOf;
+	private int[] _widthOf;
+	private int _count = 0;
+	private final BitWriter _bits = new BitWriter();
+
+	// ------ file ----------//
+	private DataOutputStream _out = null;
+	private long _offset = 0;
+	private final ArrayList<long[]> _index = new ArrayList<long[]>();
+	private long _bytesWritten = 0;
+	private long _records = 0;
+
+	/**
+	 * @param path
+	 *            Log file, created or overwritten by open().
+	 * @param recordsPerBlock
+	 *            Records per block, the granularity of seeks. A few thousand
+	 *            compresses well.
+	 */
+	public TelemetryLogWriter(String path, int recordsPerBlock) {
+		_path = path;
+		_recordsPerBlock = Math.max(2, recordsPerBlock);
+	}
+	public TelemetryLogWriter(String path) {
+		this(path, 4096);
+	}
+
+	// ------ channels, add before open() ----------//
+	/**
+	 * Adds a channel holding any double.
+	 *
+	 * @return Index of the channel within the values passed to append().
+	 */
+	public int addChannel(int deviceId, String signal) {
+		return add(deviceId, signal, TelemetryCodec.kDouble, 64);
+	}
+	public int addChannel(int deviceId, Enum<?> signal) {
+		return addChannel(deviceId, signal.name());
+	}
+	/**
+	 * Adds a channel holding an integer bit field, a fault word for instance.
+	 * Only the low width bits of each value are kept.
+	 *
+	 * @param width
+	 *            Bits kept, [1,32]. 32 bit fields are read back signed.
+	 * @return Index of the channel within the values passed to append().
+	 */
+	public int addBitsChannel(int deviceId, String signal, int width) {
+		return add(deviceId, signal, TelemetryCodec.kBits, Math.max(1, Math.min(32, width)));
+	}
+	public int addBitsChannel(int deviceId, Enum<?> signal, int width) {
+		return addBitsChannel(deviceId, signal.name(), width);
+	}
+	/**
+	 * Adds a channel per MotorStatusSignal, in the order of the signals, so a
+	 * stride of a status block can be passed to append() as is.
+	 *
+	 * @return Index of the first channel.
+	 */
+	public int addMotorController(int deviceId) {
+		int first = _signals.size();
+		for (MotorStatusSignal sig : MotorStatusSignal.values()) {
+			if (sig == MotorStatusSignal.Faults || sig == MotorStatusSignal.StickyFaults)
+				addBitsChannel(deviceId, sig, 16);
+			else if (sig == MotorStatusSignal.LastError)
+				addBitsChannel(deviceId, sig, 32);
+			else
+				addChannel(deviceId, sig);
+		}
+		return first;
+	}
+
+	private int add(int deviceId, String signal, int kind, int width) {
+		if (_out != null) {
+			Logger.log(ErrorCode.GeneralWarning, "TelemetryLogWriter channels must be added before open()");
+			return -1;
+		}
+		_signals.add(signal);
+		_deviceIds.add(deviceId);
+		_kinds.add(kind);
+		_widths.add(width);
+		return _signals.size() - 1;
+	}
+
+	public int getChannelCount() {
+		return _signals.size();
+	}
+
+	// ------ writing ----------//
+	/**
+	 * Creates the file and writes the header.
+	 *
+	 * @return GeneralError if the file could not be written.
+	 */
+	public ErrorCode open() {
+		if (_out != null)
+			return ErrorCode.OK;
+		int channels = _signals.size();
+		_times = new long[_recordsPerBlock];
+		_columns = new double[channels][_recordsPerBlock];
+		_kindOf = new int[channels];
+		_widthOf = new int[channels];
+		try {
+			_out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_path), 1 << 16));
+			_offset = 0;
+			writeInt(TelemetryCodec.kMagic);
+			writeInt(TelemetryCodec.kVersion);
+			writeInt(channels);
+			for (int c = 0; c < channels; ++c) {
+				_kindOf[c] = _kinds.get(c);
+				_widthOf[c] = _widths.get(c);
+				byte[] name = _signals.get(c).getBytes(StandardCharsets.UTF_8);
+				writeInt(_deviceIds.get(c));
+				_out.writeByte(_kindOf[c]);
+				_out.writeByte(_widthOf[c]);
+				_offset += 2;
+				writeInt(name.length);
+				_out.write(name);
+				_offset += name.length;
+			}
+		} catch (IOException e) {
+			return fail(e);
+		}
+		_count = 0;
+		_index.clear();
+		return ErrorCode.OK;
+	}
+
+	/**
+	 * Appends one record.
+	 *
+	 * @param timeNs
+	 *            Time of the record, System.nanoTime() for instance. Times
+	 *            should not decrease.
+	 * @param values
+	 *            Value of each channel, in the order they were added.
+	 * @param offset
+	 *            Index of the first channel's value within values.
+	 * @return GeneralError if a full block could not be written.
+	 */
+	public ErrorCode append(long timeNs, double[] values, int offset) {
+		if (_out == null)
+			return ErrorCode.GeneralError;
+		_times[_count] = timeNs;
+		for (int c = 0; c < _columns.length; ++c)
+			_columns[c][_count] = values[offset + c];
+		++_count;
+		++_records;
+		if (_count == _recordsPerBlock)
+			return flushBlock();
+		return ErrorCode.OK;
+	}
+
+	/**
+	 * Writes the partial block, the index and the trailer, and closes the
+	 * file.
+	 */
+	public ErrorCode close() {
+		if (_out == null)
+			return ErrorCode.OK;
+		ErrorCode err = flushBlock();
+		try {
+			long indexOffset = _offset;
+			for (long[] entry : _index) {
+				_out.writeLong(entry[0]);
+				_out.writeLong(entry[1]);
+				_out.writeLong(entry[2]);
+				_out.writeInt((int) entry[3]);
+				_offset += 28;
+			}
+			writeInt(_index.size());
+			_out.writeLong(indexOffset);
+			_offset += 8;
+			writeInt(TelemetryCodec.kMagic);
+			_out.close();
+		} catch (IOException e) {
+			err = fail(e);
+		}
+		_bytesWritten = _offset;
+		_out = null;
+		return err;
+	}
+
+	private ErrorCode flushBlock() {
+		if (_count == 0)
+			return ErrorCode.OK;
+		int channels = _columns.length;
+		try {
+			_index.add(new long[] { _offset, _times[0], _times[_count - 1], _count });
+			writeInt(_count);
+			_out.writeLong(_times[0]);
+			_out.writeLong(_times[_count - 1]);
+			_offset += 16;
+
+			/*
+			 * word counts come first, so encode all columns into one writer,
+			 * each padded to a word so it can be decoded on its own
+			 */
+			int[] words = new int[channels + 1];
+			_bits.reset();
+			TelemetryCodec.encodeTimes(_times, _count, _bits);
+			_bits.padToWord();
+			int start = _bits.getWordCount();
+			words[0] = start;
+			for (int c = 0; c < channels; ++c) {
+				if (_kindOf[c] == TelemetryCodec.kDouble)
+					TelemetryCodec.encodeDoubles(_columns[c], _count, _bits);
+				else
+					TelemetryCodec.encodeBits(_columns[c], _count, _widthOf[c], _bits);
+				_bits.padToWord();
+				int end = _bits.getWordCount();
+				words[c + 1] = end - start;
+				start = end;
+			}
+			for (int w : words)
+				writeInt(w);
+			int total = _bits.getWordCount();
+			for (int i = 0; i < total; ++i)
+				_out.writeLong(_bits.getWord(i));
+			_offset += 8L * total;
+		} catch (IOException e) {
+			return fail(e);
+		} finally {
+			_count = 0;
+		}
+		return ErrorCode.OK;
+	}
+
+	private void writeInt(int value) throws IOException {
+		_out.writeInt(value);
+		_offset += 4;
+	}
+
+	private ErrorCode fail(IOException e) {
+		Logger.log(ErrorCode.GeneralError, "TelemetryLogWriter could not write " + _path + ": " + e.getMessage());
+		return ErrorCode.GeneralError;
+	}
+
+	// ------ statistics ----------//
+	/**
+	 * @return Records appended since open().
+	 */
+	public long getRecordCount() {
+		return _records;
+	}
+	/**
+	 * @return Size of the file, once closed.
+	 */
+	public long getBytesWritten() {
+		return _bytesWritten;
+	}
+}
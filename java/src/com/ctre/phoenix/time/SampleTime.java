@@ -0,0 +1,112 @@
+package com.ctre.phoenix.time;
+
+import com.ctre.phoenix.ErrorCode;
+
+/**
+ * Receive time and error of the status signals returned by a getter.
+ * Meant to be allocated once and refilled every loop.
+ *
+ * Times are on the System.nanoTime() clock, so the age of a sample can be
+ * compared against the time an output is set to measure sensor to
+ * actuation latency. The native layer does not report receive times, so on
+ * a robot the time is kUnknown and only the error (CAN_MSG_STALE) tells
+ * whether the signals are fresh. The simulation reports real receive times.
+ *
+ * Each SampleTime also holds its own window for the devices'
+ * getSampleTime(), so several loops or threads reading the same device each
+ * see the signals they read since their own previous call.
+ */
+public class SampleTime {
+	/**
+	 * Receive time of a signal that has never been received.
+	 */
+	public static final long kNever = Long.MIN_VALUE;
+	/**
+	 * Receive time reported by a backend that does not know when signals
+	 * were received.
+	 */
+	public static final long kUnknown = Long.MIN_VALUE + 1;
+
+	/**
+	 * System.nanoTime() at which the oldest signal read was received, kNever
+	 * or kUnknown.
+	 */
+	public long receiveTimeNs = kNever;
+	/**
+	 * Error reported by the device for the read, CAN_MSG_STALE if the
+	 * signals were not refreshed within their expected period.
+	 */
+	public ErrorCode error = ErrorCode.OK;
+
+	/* start of the window of getSampleTime() calls made with this object */
+	private long _windowStartNs = System.nanoTime();
+
+	public void update(long receiveTimeNs, ErrorCode error) {
+		this.receiveTimeNs = receiveTimeNs;
+		this.error = error;
+	}
+	/**
+	 * Ends the window of reads covered by this object and starts the next
+	 * one. Called by the devices' getSampleTime().
+	 *
+	 * @return System.nanoTime() at the start of the window that ends, the
+	 *         previous call or the construction of this object.
+	 */
+	public long nextWindow() {
+		long now = System.nanoTime();
+		long start = _windowStartNs;
+		_windowStartNs = now;
+		return start;
+	}
+
+	/**
+	 * @return True if the receive time is known, false if the backend does
+	 *         not report receive times.
+	 */
+	public boolean isReceiveTimeKnown() {
+		return receiveTimeNs != kUnknown;
+	}
+	/**
+	 * @return Nanoseconds since the signals were received, Long.MAX_VALUE if
+	 *         never received or unknown. Use isFresh() rather than the age
+	 *         when the receive time may be unknown.
+	 */
+	public long getAgeNs() {
+		if (receiveTimeNs == kNever || receiveTimeNs == kUnknown)
+			return Long.MAX_VALUE;
+		return System.nanoTime() - receiveTimeNs;
+	}
+	public double getAgeMs() {
+		return getAgeNs() / 1e6;
+	}
+	/**
+	 * @param maxAgeMs
+	 *            Oldest sample still considered fresh.
+	 * @return True if the read succeeded without a stale warning and the
+	 *         signals were received at most maxAgeMs ago. When the receive
+	 *         time is unknown, as on a robot, only the error is checked.
+	 */
+	public boolean isFresh(double maxAgeMs) {
+		return isFresh(receiveTimeNs, error, maxAgeMs);
+	}
+	/**
+	 * isFresh() for a receive time and error kept elsewhere.
+	 */
+	public static boolean isFresh(long receiveTimeNs, ErrorCode error, double maxAgeMs) {
+		if (error.value < 0 || error.value == ErrorCode.CAN_MSG_STALE.value)
+			return false;
+		if (receiveTimeNs == kUnknown)
+			return true;
+		if (receiveTimeNs == kNever)
+			return false;
+		return System.nanoTime() - receiveTimeNs <= (long) (maxAgeMs * 1e6);
+	}
+
+	public String toString() {
+		if (receiveTimeNs == kNever)
+			return "never received (" + error + ")";
+		if (receiveTimeNs == kUnknown)
+			return "receive time unknown (" + error + ")";
+		return String.format("%.3fms old (%s)", getAgeMs(), error);
+	}
+}
@@ -0,0 +1,115 @@
+package com.ctre.phoenix.time;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds.
+ *
+ * Each power of two is split into 8 buckets, so percentiles are within
+ * 12.5% of the true value. Recording is lock-free and allocation free, so it
+ * can be called from several threads inside a control loop.
+ */
+public class TimingHistogram
+{
+	private static final int kSubBits = 3;
+	private static final int kSubCount = 1 << kSubBits;
+	private static final int kBucketCount = (64 - kSubBits) * kSubCount;
+
+	private final AtomicLongArray _buckets = new AtomicLongArray(kBucketCount);
+	private final AtomicLong _totalNs = new AtomicLong();
+	private final AtomicLong _maxNs = new AtomicLong();
+
+	private static int bucketOf(long ns)
+	{
+		if (ns < kSubCount)
+			return (int) ns;
+		int exp = 63 - Long.numberOfLeadingZeros(ns);
+		int sub = (int) (ns >>> (exp - kSubBits)) & (kSubCount - 1);
+		return (exp - kSubBits + 1) * kSubCount + sub;
+	}
+	/** @return Largest duration that lands in the bucket. */
+	private static long upperBoundOf(int bucket)
+	{
+		if (bucket < kSubCount)
+			return bucket;
+		int exp = bucket / kSubCount + kSubBits - 1;
+		long sub = bucket % kSubCount;
+		long bound = ((kSubCount + sub + 1) << (exp - kSubBits)) - 1;
+		return bound < 0 ? Long.MAX_VALUE : bound;
+	}
+
+	/**
+	 * Records one duration.
+	 *
+	 * @param ns
+	 *            Duration in nanoseconds, negative values count as zero.
+	 */
+	public void record(long ns)
+	{
+		if (ns < 0)
+			ns = 0;
+		_buckets.incrementAndGet(bucketOf(ns));
+		_totalNs.addAndGet(ns);
+		long max = _maxNs.get();
+		while (ns > max && !_maxNs.compareAndSet(max, ns))
+			max = _maxNs.get();
+	}
+
+	public long getCount()
+	{
+		long count = 0;
+		for (int i = 0; i < kBucketCount; ++i)
+			count += _buckets.get(i);
+		return count;
+	}
+	public long getMaxNs()
+	{
+		return _maxNs.get();
+	}
+	public double getMeanNs()
+	{
+		long count = getCount();
+		return count == 0 ? 0 : (double) _totalNs.get() / count;
+	}
+	/**
+	 * @param fraction
+	 *            Fraction of recorded durations, 0.5 for the median.
+	 * @return Duration in nanoseconds that the fraction of recordings were
+	 *         at or below, rounded up to the bucket boundary. 0 if empty.
+	 */
+	public long getPercentileNs(double fraction)
+	{
+		long count = getCount();
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(fraction * count);
+		if (rank < 1)
+			rank = 1;
+		long seen = 0;
+		for (int i = 0; i < kBucketCount; ++i) {
+			seen += _buckets.get(i);
+			if (seen >= rank)
+				return Math.min(upperBoundOf(i), _maxNs.get());
+		}
+		return _maxNs.get();
+	}
+	/**
+	 * Clears all recordings. Recordings made during the reset may be partly
+	 * kept.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < kBucketCount; ++i)
+			_buckets.set(i, 0);
+		_totalNs.set(0);
+		_maxNs.set(0);
+	}
+
+	public String toString()
+	{
+		return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus", getCount(),
+				getMeanNs() / 1e3, getPercentileNs(0.5) / 1e3, getPercentileNs(0.99) / 1e3,
+				getMaxNs() / 1e3);
+	}
+}